@@ -14,6 +14,7 @@ import os
 import httpx
 import logging
 from contextlib import asynccontextmanager
+from concurrent.futures import ThreadPoolExecutor, wait
 
 # Configure logging
 logging.basicConfig(level=logging.INFO)
@@ -155,6 +156,12 @@ class StockQuote(BaseModel):
     marketState: str
     timestamp: str
 
+class BatchQuoteResponse(BaseModel):
+    quotes: List[StockQuote]
+    missing: List[str]
+    pending: List[str] = []  # Still being fetched when the batch deadline passed; retry later
+    timestamp: str
+
 class MarketIndex(BaseModel):
     symbol: str
     name: str
@@ -399,6 +406,64 @@ def get_stock(symbol: str):
     cache_set(cache_key, data.model_dump(), "stock_quote")
     return data
 
+MAX_BATCH_SYMBOLS = 200
+# Cache misses of a batch are fetched in parallel, and the batch answers with whatever is
+# ready at the deadline, safely inside the backend's 15s timeout. Fetches still running
+# finish in the background and land in the cache for the next request.
+BATCH_QUOTE_WORKERS = int(os.getenv("BATCH_QUOTE_WORKERS", 16))
+BATCH_QUOTE_DEADLINE_SECONDS = float(os.getenv("BATCH_QUOTE_DEADLINE_SECONDS", 10))
+batch_quote_executor = ThreadPoolExecutor(max_workers=BATCH_QUOTE_WORKERS, thread_name_prefix="batch-quote")
+
+def fetch_and_cache_quote(symbol: str) -> Optional[StockQuote]:
+    data = get_stock_data(symbol)
+    if data:
+        cache_set(f"stock_quote:{symbol}", data.model_dump(), "stock_quote")
+    return data
+
+@app.get("/stocks/quotes", response_model=BatchQuoteResponse)
+def get_stock_quotes(symbols: str):
+    """Get quotes for a comma-separated list of symbols in a single round-trip"""
+    requested = []
+    for raw in symbols.split(","):
+        symbol = raw.strip().upper()
+        if symbol and symbol not in requested:
+            requested.append(symbol)
+    if len(requested) > MAX_BATCH_SYMBOLS:
+        raise HTTPException(status_code=400, detail=f"At most {MAX_BATCH_SYMBOLS} symbols per request")
+
+    # Resolve cache hits with a single MGET, fetch the rest in parallel
+    cached_values = [None] * len(requested)
+    if REDIS_AVAILABLE and redis_client is not None and requested:
+        try:
+            cached_values = redis_client.mget([f"stock_quote:{s}" for s in requested])
+        except Exception as e:
+            print(f"Cache mget error for batch quotes: {e}")
+
+    quotes = []
+    misses = {}
+    for symbol, cached in zip(requested, cached_values):
+        if cached:
+            quotes.append(StockQuote(**json.loads(cached)))
+        else:
+            misses[batch_quote_executor.submit(fetch_and_cache_quote, symbol)] = symbol
+
+    missing = []
+    pending = []
+    if misses:
+        done, not_done = wait(misses, timeout=BATCH_QUOTE_DEADLINE_SECONDS)
+        for future in done:
+            data = future.result() if future.exception() is None else None
+            if data:
+                quotes.append(data)
+            else:
+                missing.append(misses[future])
+        pending = sorted(misses[future] for future in not_done)
+        if pending:
+            print(f"⏱️ Batch quote deadline passed, {len(pending)} of {len(requested)} symbols left out")
+
+    return BatchQuoteResponse(quotes=quotes, missing=sorted(missing), pending=pending,
+                              timestamp=datetime.now().isoformat())
+
 @app.get("/market-summary", response_model=MarketSummary)
 def get_market_summary():
     """Get market summary for BIST100, NASDAQ, and S&P500"""
@@ -0,0 +1,41 @@
+-- One EXPLAIN per hot repository method, in the SQL shape Hibernate generates.
+-- The probe is bench-1, the most active user after the skew in seed.sql.
+
+\set probe_email 'bench-1@sentix.test'
+SELECT id AS probe_user FROM users WHERE email = :'probe_email' \gset
+
+\echo '== TransactionRepository.findByUserOrderByExecutedAtDesc (page 0, size 20)'
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT * FROM transactions WHERE user_id = :'probe_user' ORDER BY executed_at DESC LIMIT 20;
+
+\echo '== TransactionRepository.findByUserAndIsPaperOrderByExecutedAtDesc (page 0, size 20)'
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT * FROM transactions WHERE user_id = :'probe_user' AND is_paper = false ORDER BY executed_at DESC LIMIT 20;
+
+\echo '== TransactionRepository.findByUserAndSymbolOrderByExecutedAtDesc'
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT * FROM transactions WHERE user_id = :'probe_user' AND symbol = 'SYM42' ORDER BY executed_at DESC;
+
+\echo '== PortfolioHoldingRepository.findByUserAndIsPaper'
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT * FROM portfolio_holdings WHERE user_id = :'probe_user' AND is_paper = false;
+
+\echo '== PortfolioHoldingRepository.findByUserAndSymbolAndIsPaper'
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT * FROM portfolio_holdings WHERE user_id = :'probe_user' AND symbol = 'SYM8' AND is_paper = true;
+
+\echo '== PriceAlertRepository.findByIsActiveTrue (with user fetch join)'
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT a.*, u.* FROM price_alerts a JOIN users u ON u.id = a.user_id WHERE a.is_active = true;
+
+\echo '== PriceAlertRepository.findByUserAndIsActiveTrue'
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT * FROM price_alerts WHERE user_id = :'probe_user' AND is_active = true;
+
+\echo '== PaymentRepository.findByIyzicoToken'
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT * FROM payments WHERE iyzico_token = 'tok-250000';
+
+\echo '== PaymentRepository.findByUserIdOrderByCreatedAtDesc'
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT * FROM payments WHERE user_id = :'probe_user' ORDER BY created_at DESC;
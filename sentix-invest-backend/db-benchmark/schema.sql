@@ -0,0 +1,75 @@
+-- Tables as Hibernate creates them (ddl-auto=update), for running the benchmark on an empty database.
+-- Skipped for tables that already exist, e.g. when pointing at a database the backend has started on.
+
+CREATE TABLE IF NOT EXISTS users (
+    id uuid PRIMARY KEY,
+    email varchar(255) NOT NULL UNIQUE,
+    password_hash varchar(255) NOT NULL,
+    full_name varchar(255),
+    role varchar(255),
+    balance numeric(38,2),
+    paper_balance numeric(38,2) DEFAULT 100000,
+    is_paper_trading boolean DEFAULT false,
+    preferred_currency varchar(255) DEFAULT 'USD',
+    fcm_token varchar(255),
+    created_at timestamp(6),
+    updated_at timestamp(6)
+);
+
+CREATE TABLE IF NOT EXISTS transactions (
+    id uuid PRIMARY KEY,
+    user_id uuid NOT NULL REFERENCES users(id),
+    symbol varchar(255) NOT NULL,
+    stock_name varchar(255) NOT NULL,
+    type varchar(255) NOT NULL,
+    quantity integer NOT NULL,
+    price_per_share numeric(19,4) NOT NULL,
+    total_amount numeric(19,4) NOT NULL,
+    currency varchar(255) NOT NULL,
+    executed_at timestamp(6) NOT NULL,
+    is_paper boolean NOT NULL DEFAULT false
+);
+
+CREATE TABLE IF NOT EXISTS portfolio_holdings (
+    id uuid PRIMARY KEY,
+    user_id uuid NOT NULL REFERENCES users(id),
+    symbol varchar(255) NOT NULL,
+    stock_name varchar(255) NOT NULL,
+    quantity integer NOT NULL,
+    average_purchase_price numeric(19,4) NOT NULL,
+    currency varchar(255) NOT NULL,
+    is_paper boolean NOT NULL DEFAULT false,
+    created_at timestamp(6),
+    updated_at timestamp(6)
+);
+
+CREATE TABLE IF NOT EXISTS price_alerts (
+    id uuid PRIMARY KEY,
+    user_id uuid NOT NULL REFERENCES users(id),
+    symbol varchar(255) NOT NULL,
+    stock_name varchar(255) NOT NULL,
+    target_price numeric(19,4) NOT NULL,
+    alert_type varchar(255) NOT NULL,
+    is_active boolean NOT NULL,
+    reference_price numeric(19,4),
+    days_notice integer,
+    rearm boolean,
+    hysteresis_percent numeric(9,4),
+    cooldown_minutes integer,
+    armed boolean,
+    trigger_count integer,
+    created_at timestamp(6),
+    triggered_at timestamp(6)
+);
+
+CREATE TABLE IF NOT EXISTS payments (
+    id uuid PRIMARY KEY,
+    user_id uuid NOT NULL,
+    amount numeric(38,2) NOT NULL,
+    status varchar(255) NOT NULL,
+    iyzico_token varchar(255),
+    iyzico_payment_id varchar(255),
+    conversation_id varchar(255),
+    created_at timestamp(6),
+    updated_at timestamp(6)
+);
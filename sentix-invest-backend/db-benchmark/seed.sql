@@ -0,0 +1,64 @@
+-- Deterministic seed: 100k users, 10M transactions, 2M holdings, 1M alerts (5% active), 500k payments.
+-- Only random() is seeded. The UUIDs differ between runs, but row counts and value
+-- distributions are identical, and those are what drive the plans.
+-- Takes several minutes and about 3 GB of disk.
+
+SELECT setseed(0.42);
+
+INSERT INTO users (id, email, password_hash, full_name, role, balance, paper_balance,
+                   is_paper_trading, preferred_currency, created_at, updated_at)
+SELECT gen_random_uuid(), 'bench-' || g || '@sentix.test', 'x', 'Bench User ' || g, 'USER',
+       10000, 100000, g % 3 = 0, 'USD', now(), now()
+FROM generate_series(1, 100000) g;
+
+CREATE TEMP TABLE bench_users AS
+SELECT row_number() OVER (ORDER BY email) AS n, id FROM users WHERE email LIKE 'bench-%@sentix.test';
+CREATE INDEX ON bench_users (n);
+
+CREATE TEMP TABLE bench_symbols (n int, symbol text);
+INSERT INTO bench_symbols
+SELECT n, 'SYM' || n FROM generate_series(1, 500) n;
+
+-- Skewed activity: the lowest user numbers trade far more than the rest
+INSERT INTO transactions (id, user_id, symbol, stock_name, type, quantity, price_per_share,
+                          total_amount, currency, executed_at, is_paper)
+SELECT gen_random_uuid(), u.id, s.symbol, s.symbol || ' Inc', CASE WHEN random() < 0.6 THEN 'BUY' ELSE 'SELL' END,
+       q, p, q * p, 'USD', now() - (random() * interval '3 years'), random() < 0.4
+FROM (
+    SELECT 1 + floor(100000 * power(random(), 2))::int AS un,
+           1 + floor(500 * random())::int AS sn,
+           1 + floor(random() * 100)::int AS q,
+           round((5 + random() * 995)::numeric, 4) AS p
+    FROM generate_series(1, 10000000)
+) r
+JOIN bench_users u ON u.n = r.un
+JOIN bench_symbols s ON s.n = r.sn;
+
+INSERT INTO portfolio_holdings (id, user_id, symbol, stock_name, quantity, average_purchase_price,
+                                currency, is_paper, created_at, updated_at)
+SELECT gen_random_uuid(), u.id, s.symbol, s.symbol || ' Inc', 1 + floor(random() * 500)::int,
+       round((5 + random() * 995)::numeric, 4), 'USD', k % 2 = 0, now(), now()
+FROM bench_users u
+CROSS JOIN generate_series(1, 20) k
+JOIN bench_symbols s ON s.n = 1 + ((u.n * 7 + k * 31) % 500);
+
+INSERT INTO price_alerts (id, user_id, symbol, stock_name, target_price, alert_type, is_active,
+                          rearm, armed, trigger_count, created_at, triggered_at)
+SELECT gen_random_uuid(), u.id, s.symbol, s.symbol || ' Inc', round((5 + random() * 995)::numeric, 4),
+       CASE WHEN random() < 0.5 THEN 'ABOVE' ELSE 'BELOW' END, active, false, true, 0,
+       now() - interval '1 year', CASE WHEN active THEN NULL ELSE now() END
+FROM (
+    SELECT 1 + (g % 100000) AS un, 1 + floor(500 * random())::int AS sn, random() < 0.05 AS active
+    FROM generate_series(1, 1000000) g
+) r
+JOIN bench_users u ON u.n = r.un
+JOIN bench_symbols s ON s.n = r.sn;
+
+INSERT INTO payments (id, user_id, amount, status, iyzico_token, conversation_id, created_at, updated_at)
+SELECT gen_random_uuid(), u.id, round((10 + random() * 990)::numeric, 2),
+       (ARRAY['PENDING', 'SUCCESS', 'FAILED', 'CANCELLED'])[1 + floor(random() * 4)::int],
+       'tok-' || g, 'conv-' || g, now() - (random() * interval '2 years'), now()
+FROM generate_series(1, 500000) g
+JOIN bench_users u ON u.n = 1 + (g % 100000);
+
+ANALYZE;
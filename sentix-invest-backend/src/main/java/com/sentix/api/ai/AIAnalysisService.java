@@ -2,14 +2,13 @@ package com.sentix.api.ai;
 
 import com.sentix.domain.PortfolioHolding;
 import com.sentix.domain.User;
-import com.sentix.domain.Watchlist;
+import com.sentix.infrastructure.mcp.McpClient;
 import com.sentix.infrastructure.persistence.PortfolioHoldingRepository;
 import com.sentix.infrastructure.persistence.WatchlistRepository;
+import com.sentix.infrastructure.persistence.WatchlistView;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
 
 import java.time.Duration;
 import java.util.*;
@@ -19,26 +18,15 @@ import java.util.*;
 @RequiredArgsConstructor
 public class AIAnalysisService {
 
-    private final WebClient.Builder webClientBuilder;
+    private final McpClient mcpClient;
     private final PortfolioHoldingRepository portfolioHoldingRepository;
     private final WatchlistRepository watchlistRepository;
 
-    @Value("${mcp.server.url:http://localhost:8000}")
-    private String mcpServerUrl;
-
-    private WebClient getMcpClient() {
-        return webClientBuilder.baseUrl(mcpServerUrl).build();
-    }
-
     public Map<String, Object> getAIAnalysis(String symbol) {
         try {
-            return getMcpClient()
-                    .get()
-                    .uri("/ai/analyze/{symbol}", symbol)
-                    .retrieve()
-                    .bodyToMono(Map.class)
-                    .timeout(Duration.ofSeconds(30))
-                    .block();
+            return mcpClient.getCached(McpClient.AI_BULKHEAD, "ai-analyze",
+                    "analysis:" + symbol, Duration.ofSeconds(30),
+                    client -> client.get().uri("/ai/analyze/{symbol}", symbol));
         } catch (Exception e) {
             log.error("Error fetching AI analysis for {}: {}", symbol, e.getMessage());
             return null;
@@ -64,14 +52,12 @@ public class AIAnalysisService {
                 mcpRequest.put("symbol", request.getSymbol());
             }
 
-            return getMcpClient()
-                    .post()
-                    .uri("/ai/chat")
-                    .bodyValue(mcpRequest)
-                    .retrieve()
-                    .bodyToMono(ChatResponse.class)
-                    .timeout(Duration.ofSeconds(30))
-                    .block();
+            return mcpClient.call(McpClient.AI_BULKHEAD, "ai-chat", Duration.ofSeconds(30),
+                    client -> client.post()
+                            .uri("/ai/chat")
+                            .bodyValue(mcpRequest)
+                            .retrieve()
+                            .bodyToMono(ChatResponse.class));
         } catch (Exception e) {
             log.error("Error in AI chat: {}", e.getMessage());
             return null;
@@ -83,13 +69,9 @@ public class AIAnalysisService {
      */
     public Map<String, Object> getRAGStatus() {
         try {
-            return getMcpClient()
-                    .get()
-                    .uri("/ai/rag/status")
-                    .retrieve()
-                    .bodyToMono(Map.class)
-                    .timeout(Duration.ofSeconds(10))
-                    .block();
+            return mcpClient.getCached(McpClient.AI_BULKHEAD, "ai-rag-status",
+                    "rag-status", Duration.ofSeconds(10),
+                    client -> client.get().uri("/ai/rag/status"));
         } catch (Exception e) {
             log.error("Error fetching RAG status: {}", e.getMessage());
             return Map.of("enabled", false, "error", e.getMessage());
@@ -117,12 +99,12 @@ public class AIAnalysisService {
             context.put("portfolio", portfolioList);
 
             // Watchlist
-            List<Watchlist> watchlistItems = watchlistRepository.findByUser(user);
+            List<WatchlistView> watchlistItems = watchlistRepository.findViewsByUser(user);
             List<Map<String, Object>> watchlistList = new ArrayList<>();
-            for (Watchlist w : watchlistItems) {
+            for (WatchlistView w : watchlistItems) {
                 Map<String, Object> wMap = new HashMap<>();
-                wMap.put("symbol", w.getSymbol());
-                wMap.put("stockName", w.getStockName());
+                wMap.put("symbol", w.symbol());
+                wMap.put("stockName", w.stockName());
                 watchlistList.add(wMap);
             }
             context.put("watchlist", watchlistList);
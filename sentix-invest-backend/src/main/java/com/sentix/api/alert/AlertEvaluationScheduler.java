@@ -0,0 +1,164 @@
+package com.sentix.api.alert;
+
+import com.sentix.domain.PriceAlert;
+import com.sentix.infrastructure.cluster.ShardLeaseManager;
+import com.sentix.infrastructure.metrics.SentixMetrics;
+import com.sentix.infrastructure.persistence.PriceAlertRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Scheduled, horizontally sharded alert evaluation.
+ * Alerts are partitioned by symbol hash into a fixed number of shards. Each
+ * replica leases its share of the shards through {@link ShardLeaseManager},
+ * loads only the alerts in those shards through their persisted
+ * {@link PriceAlert#getShardBucket() shard bucket}, and evaluates them one shard
+ * per worker thread. Duplicate notifications
+ * are prevented by the conditional claim in {@link PriceAlertRepository#markTriggered}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "alert.check.enabled", havingValue = "true", matchIfMissing = true)
+public class AlertEvaluationScheduler {
+
+    static final String SHARD_GROUP = "alert-check";
+
+    private final PriceAlertRepository priceAlertRepository;
+    private final PriceAlertService priceAlertService;
+    private final ShardLeaseManager shardLeaseManager;
+    private final SentixMetrics metrics;
+
+    @Value("${alert.shard.count:16}")
+    private int shardCount;
+
+    @Value("${alert.shard.lease-ttl:600000}")
+    private long leaseTtlMs;
+
+    @Value("${alert.worker.threads:4}")
+    private int workerThreads;
+
+    private ExecutorService workers;
+
+    private volatile boolean shardBucketsBackfilled;
+
+    @PostConstruct
+    void startWorkers() {
+        if (shardCount <= 0 || PriceAlert.SHARD_BUCKETS % shardCount != 0) {
+            throw new IllegalStateException("alert.shard.count must divide " + PriceAlert.SHARD_BUCKETS
+                    + ", got " + shardCount);
+        }
+        AtomicInteger counter = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(workerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "alert-worker-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stopWorkers() throws InterruptedException {
+        workers.shutdown();
+        workers.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Runs every alert.check.interval ms (5 minutes by default) on every replica.
+     */
+    @Scheduled(fixedRateString = "${alert.check.interval:300000}")
+    public void runScheduledCheck() {
+        long cycleStart = System.nanoTime();
+        Set<Integer> ownedShards = shardLeaseManager.acquireShards(
+                SHARD_GROUP, shardCount, Duration.ofMillis(leaseTtlMs));
+        metrics.recordJobPhase(PriceAlertService.ALERT_JOB, "lease", System.nanoTime() - cycleStart);
+        metrics.recordShardsOwned(SHARD_GROUP, ownedShards.size());
+        if (ownedShards.isEmpty()) {
+            log.info("No alert shards owned by node {}, skipping cycle", shardLeaseManager.getNodeId());
+            return;
+        }
+
+        long loadStart = System.nanoTime();
+        if (!shardBucketsBackfilled) {
+            backfillShardBuckets();
+        }
+        List<PriceAlert> ownedAlerts = priceAlertRepository.findByIsActiveTrueAndShardBucketIn(
+                shardBuckets(ownedShards));
+        Map<Integer, List<PriceAlert>> alertsByShard = partition(ownedAlerts, ownedShards);
+        metrics.recordJobPhase(PriceAlertService.ALERT_JOB, "load", System.nanoTime() - loadStart);
+        log.info("Running scheduled alert check on node {} for shards {} ({} alerts)",
+                shardLeaseManager.getNodeId(), ownedShards,
+                alertsByShard.values().stream().mapToInt(List::size).sum());
+
+        List<CompletableFuture<Integer>> shardRuns = new ArrayList<>();
+        alertsByShard.forEach((shard, alerts) -> shardRuns.add(CompletableFuture.supplyAsync(
+                () -> priceAlertService.evaluateAlerts(alerts).size(), workers)));
+
+        int triggered = 0;
+        for (CompletableFuture<Integer> run : shardRuns) {
+            try {
+                triggered += run.join();
+            } catch (Exception e) {
+                log.warn("Alert shard evaluation failed: {}", e.getMessage());
+            }
+        }
+        metrics.recordJobPhase(PriceAlertService.ALERT_JOB, "cycle", System.nanoTime() - cycleStart);
+        log.info("Scheduled alert check completed, {} alerts triggered", triggered);
+    }
+
+    /**
+     * Every shard bucket belonging to the given shards.
+     */
+    List<Integer> shardBuckets(Set<Integer> shards) {
+        List<Integer> buckets = new ArrayList<>();
+        for (int bucket = 0; bucket < PriceAlert.SHARD_BUCKETS; bucket++) {
+            if (shards.contains(bucket % shardCount)) {
+                buckets.add(bucket);
+            }
+        }
+        return buckets;
+    }
+
+    /**
+     * Assigns shard buckets to alerts created before the column existed. Runs on
+     * each node's first cycle; once every row has a bucket it is a single query.
+     */
+    void backfillShardBuckets() {
+        int updated = 0;
+        for (String symbol : priceAlertRepository.findSymbolsWithoutShardBucket()) {
+            updated += priceAlertRepository.assignShardBucket(symbol, PriceAlert.shardBucketOf(symbol));
+        }
+        if (updated > 0) {
+            log.info("Assigned shard buckets to {} existing alerts", updated);
+        }
+        shardBucketsBackfilled = true;
+    }
+
+    Map<Integer, List<PriceAlert>> partition(List<PriceAlert> alerts, Set<Integer> ownedShards) {
+        Map<Integer, List<PriceAlert>> alertsByShard = new HashMap<>();
+        for (PriceAlert alert : alerts) {
+            int shard = ShardLeaseManager.shardOf(alert.getSymbol(), shardCount);
+            if (ownedShards.contains(shard)) {
+                alertsByShard.computeIfAbsent(shard, k -> new ArrayList<>()).add(alert);
+            }
+        }
+        return alertsByShard;
+    }
+}
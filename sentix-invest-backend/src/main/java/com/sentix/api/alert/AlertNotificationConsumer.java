@@ -0,0 +1,91 @@
+package com.sentix.api.alert;
+
+import com.sentix.domain.OutboxEventType;
+import com.sentix.domain.User;
+import com.sentix.infrastructure.outbox.OutboxConsumer;
+import com.sentix.infrastructure.outbox.OutboxDeliveryDedup;
+import com.sentix.infrastructure.persistence.UserRepository;
+import com.sentix.service.PushNotificationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Sends the push notification for a fired alert. The device token is read when
+ * the event is delivered, so a token refreshed after the trigger is used. A
+ * transient FCM failure propagates out of {@link #handle} so the relay retries
+ * the event; a rejected token counts as delivered.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AlertNotificationConsumer implements OutboxConsumer<AlertTriggeredEvent> {
+
+    private static final String DEDUP_NAME = "alert-push";
+
+    private final UserRepository userRepository;
+    private final PushNotificationService pushNotificationService;
+    private final OutboxDeliveryDedup deliveryDedup;
+
+    @Override
+    public OutboxEventType type() {
+        return OutboxEventType.ALERT_TRIGGERED;
+    }
+
+    @Override
+    public Class<AlertTriggeredEvent> payloadType() {
+        return AlertTriggeredEvent.class;
+    }
+
+    /**
+     * Push once per outbox event: a redelivery after the relay lost its claim is dropped.
+     */
+    @Override
+    public void handle(UUID eventId, AlertTriggeredEvent event) {
+        if (!deliveryDedup.claim(DEDUP_NAME, eventId)) {
+            log.debug("Alert {} notification for event {} already sent", event.alertId(), eventId);
+            return;
+        }
+        try {
+            handle(event);
+        } catch (RuntimeException e) {
+            deliveryDedup.release(DEDUP_NAME, eventId);
+            throw e;
+        }
+    }
+
+    @Override
+    public void handle(AlertTriggeredEvent event) {
+        String fcmToken = userRepository.findById(event.userId())
+                .map(User::getFcmToken)
+                .orElse(null);
+        if (fcmToken == null || fcmToken.isBlank()) {
+            log.debug("No FCM token for user {}, skipping push notification", event.userId());
+            return;
+        }
+
+        switch (event.alertType()) {
+            case ABOVE, BELOW, PERCENT_CHANGE -> pushNotificationService.sendPriceAlertNotification(
+                    fcmToken,
+                    event.symbol(),
+                    event.stockName(),
+                    event.targetPrice().doubleValue(),
+                    event.currentPrice(),
+                    event.alertType().name());
+            case EARNINGS_REMINDER -> pushNotificationService.sendEarningsReminderNotification(
+                    fcmToken,
+                    event.symbol(),
+                    event.stockName(),
+                    event.earningsDate(),
+                    event.daysNotice());
+            case DIVIDEND_PAYMENT -> pushNotificationService.sendDividendNotification(
+                    fcmToken,
+                    event.symbol(),
+                    event.stockName(),
+                    event.dividendAmount(),
+                    event.dividendPaymentDate());
+        }
+    }
+}
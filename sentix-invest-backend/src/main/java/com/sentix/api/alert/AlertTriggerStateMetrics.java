@@ -0,0 +1,44 @@
+package com.sentix.api.alert;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exposes the re-arming alert counters of {@link AlertTriggerStateStore},
+ * including rows written per trigger (write amplification).
+ */
+@Component
+@RequiredArgsConstructor
+public class AlertTriggerStateMetrics implements MeterBinder {
+
+    private final AlertTriggerStateStore store;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("sentix.alert.state.triggers", store, s -> s.stats().triggers())
+                .description("Re-arming alert triggers")
+                .register(registry);
+        FunctionCounter.builder("sentix.alert.state.suppressed", store, s -> s.stats().suppressed())
+                .description("Re-arming alert triggers suppressed by the cooldown")
+                .register(registry);
+        FunctionCounter.builder("sentix.alert.state.rearms", store, s -> s.stats().rearms())
+                .description("Re-arming alerts that left the hysteresis band and re-armed")
+                .register(registry);
+        FunctionCounter.builder("sentix.alert.state.rows.written", store, s -> s.stats().rowsWritten())
+                .description("Trigger state rows written by lazy flushes")
+                .register(registry);
+        Gauge.builder("sentix.alert.state.tracked", store, s -> s.stats().trackedAlerts())
+                .description("Re-arming alerts held in memory")
+                .register(registry);
+        Gauge.builder("sentix.alert.state.pending", store, s -> s.stats().pendingWrites())
+                .description("Dirty trigger states waiting for the next flush")
+                .register(registry);
+        Gauge.builder("sentix.alert.state.write.amplification", store, s -> s.stats().writeAmplification())
+                .description("Rows written per re-arming alert trigger")
+                .register(registry);
+    }
+}
@@ -0,0 +1,219 @@
+package com.sentix.api.alert;
+
+import com.sentix.domain.AlertType;
+import com.sentix.domain.PriceAlert;
+import com.sentix.infrastructure.persistence.PriceAlertRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory trigger state for re-arming alerts.
+ * Each re-arming alert is tracked as one small immutable record (armed flag, last
+ * trigger time, trigger count). Evaluations only touch memory; re-arms mark the
+ * alert dirty and are written back in batches by {@link #flush()}. A trigger
+ * decided here is only a candidate: {@link PriceAlertService} claims it in the
+ * database by trigger count before notifying, and that claim is the trigger's
+ * only write. Prices
+ * flapping inside the hysteresis band produce no state change and therefore no
+ * writes or notifications.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AlertTriggerStateStore {
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    private final PriceAlertRepository priceAlertRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${alert.rearm.default-hysteresis-percent:1.0}")
+    private BigDecimal defaultHysteresisPercent;
+
+    @Value("${alert.rearm.default-cooldown-minutes:60}")
+    private int defaultCooldownMinutes;
+
+    @Value("${alert.state.flush-batch-size:500}")
+    private int flushBatchSize;
+
+    private final ConcurrentHashMap<UUID, TriggerState> states = new ConcurrentHashMap<>();
+    private final Set<UUID> dirty = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong triggers = new AtomicLong();
+    private final AtomicLong suppressed = new AtomicLong();
+    private final AtomicLong rearms = new AtomicLong();
+    private final AtomicLong rowsWritten = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+
+    record TriggerState(boolean armed, LocalDateTime lastTriggeredAt, int triggerCount) {
+    }
+
+    public record Stats(long triggers, long suppressed, long rearms, long rowsWritten, long flushes,
+                        int trackedAlerts, int pendingWrites) {
+
+        /**
+         * Rows written per trigger. A trigger and its re-arm cost one write each, so
+         * this stays at or below 2.0; transitions coalesced between flushes lower it.
+         */
+        public double writeAmplification() {
+            return triggers == 0 ? 0 : (double) rowsWritten / triggers;
+        }
+    }
+
+    /**
+     * Apply one evaluation of a re-arming alert.
+     *
+     * @param conditionMet whether the alert condition holds at this observation
+     * @param observed     the observed value the condition compares against the
+     *                     target (price, or percent change for PERCENT_CHANGE)
+     * @return true if the alert should fire now. The passed entity is updated with
+     *         the new trigger state so it can be returned to the caller as is.
+     */
+    public boolean evaluate(PriceAlert alert, boolean conditionMet, BigDecimal observed, LocalDateTime now) {
+        boolean[] fired = {false};
+        TriggerState updated = states.compute(alert.getId(), (id, current) -> {
+            TriggerState state = reconcile(current, alert);
+            if (!state.armed()) {
+                if (isOutsideRearmBand(alert, observed)) {
+                    rearms.incrementAndGet();
+                    dirty.add(id);
+                    return new TriggerState(true, state.lastTriggeredAt(), state.triggerCount());
+                }
+                return state;
+            }
+            if (!conditionMet) {
+                return state;
+            }
+            if (state.lastTriggeredAt() != null
+                    && now.isBefore(state.lastTriggeredAt().plusMinutes(cooldownMinutes(alert)))) {
+                suppressed.incrementAndGet();
+                return state;
+            }
+            // Not dirty: the caller's claim writes this state, or forgets it on failure
+            fired[0] = true;
+            triggers.incrementAndGet();
+            return new TriggerState(false, now, state.triggerCount() + 1);
+        });
+
+        alert.setArmed(updated.armed());
+        alert.setTriggeredAt(updated.lastTriggeredAt());
+        alert.setTriggerCount(updated.triggerCount());
+        return fired[0];
+    }
+
+    /**
+     * Record that a trigger returned by {@link #evaluate} was claimed in the
+     * database. The claim wrote the alert's current state, so a pending re-arm
+     * for it no longer needs flushing.
+     */
+    public void claimed(UUID alertId) {
+        dirty.remove(alertId);
+        rowsWritten.incrementAndGet();
+    }
+
+    /**
+     * Drop the state of an alert so it is neither kept nor flushed: after the alert
+     * was deleted, or after its trigger could not be claimed in the database. The
+     * next evaluation starts again from the persisted state.
+     */
+    public void forget(UUID alertId) {
+        states.remove(alertId);
+        dirty.remove(alertId);
+    }
+
+    /**
+     * Write dirty trigger states back in chunks of alert.state.flush-batch-size,
+     * one transaction per chunk. Failed chunks stay dirty and are retried on the
+     * next flush.
+     */
+    @Scheduled(fixedDelayString = "${alert.state.flush-interval:30000}")
+    public void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        List<UUID> pending = new ArrayList<>(dirty);
+        for (int from = 0; from < pending.size(); from += flushBatchSize) {
+            List<UUID> chunk = pending.subList(from, Math.min(from + flushBatchSize, pending.size()));
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    for (UUID id : chunk) {
+                        // Clear the flag before reading so a concurrent change re-marks it
+                        dirty.remove(id);
+                        TriggerState state = states.get(id);
+                        if (state != null) {
+                            priceAlertRepository.updateTriggerState(
+                                    id, state.armed(), state.lastTriggeredAt(), state.triggerCount());
+                            rowsWritten.incrementAndGet();
+                        }
+                    }
+                });
+                flushes.incrementAndGet();
+            } catch (Exception e) {
+                dirty.addAll(chunk);
+                log.warn("Failed to flush {} alert trigger states: {}", chunk.size(), e.getMessage());
+            }
+        }
+        Stats stats = stats();
+        log.debug("Flushed alert trigger states: {} triggers, {} rows written ({} per trigger), {} suppressed",
+                stats.triggers(), stats.rowsWritten(), String.format("%.2f", stats.writeAmplification()),
+                stats.suppressed());
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    public Stats stats() {
+        return new Stats(triggers.get(), suppressed.get(), rearms.get(), rowsWritten.get(), flushes.get(),
+                states.size(), dirty.size());
+    }
+
+    /**
+     * Use the persisted state when nothing is cached yet, or when another node has
+     * triggered the alert since (its shard may have moved here and back).
+     */
+    private TriggerState reconcile(TriggerState current, PriceAlert alert) {
+        int persistedCount = alert.getTriggerCount() != null ? alert.getTriggerCount() : 0;
+        if (current != null && current.triggerCount() >= persistedCount) {
+            return current;
+        }
+        return new TriggerState(!Boolean.FALSE.equals(alert.getArmed()), alert.getTriggeredAt(), persistedCount);
+    }
+
+    /**
+     * An alert re-arms once the observed value has retreated past the target by
+     * the hysteresis percentage: below target * (1 - h) for ABOVE and
+     * PERCENT_CHANGE, above target * (1 + h) for BELOW.
+     */
+    private boolean isOutsideRearmBand(PriceAlert alert, BigDecimal observed) {
+        if (observed == null) {
+            return false;
+        }
+        BigDecimal hysteresis = (alert.getHysteresisPercent() != null
+                ? alert.getHysteresisPercent() : defaultHysteresisPercent).divide(HUNDRED);
+        BigDecimal target = alert.getTargetPrice();
+        if (alert.getAlertType() == AlertType.BELOW) {
+            return observed.compareTo(target.multiply(BigDecimal.ONE.add(hysteresis))) > 0;
+        }
+        return observed.compareTo(target.multiply(BigDecimal.ONE.subtract(hysteresis))) < 0;
+    }
+
+    private int cooldownMinutes(PriceAlert alert) {
+        return alert.getCooldownMinutes() != null ? alert.getCooldownMinutes() : defaultCooldownMinutes;
+    }
+}
@@ -0,0 +1,52 @@
+package com.sentix.api.alert;
+
+import com.sentix.api.stock.StockQuoteDto;
+import com.sentix.domain.AlertType;
+import com.sentix.domain.PriceAlert;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Outbox payload for a fired alert, carrying the market data the check cycle saw
+ * so the notification does not have to look it up again.
+ */
+public record AlertTriggeredEvent(
+        UUID alertId,
+        UUID userId,
+        String symbol,
+        String stockName,
+        AlertType alertType,
+        BigDecimal targetPrice,
+        double currentPrice,
+        String earningsDate,
+        int daysNotice,
+        double dividendAmount,
+        String dividendPaymentDate) {
+
+    @SuppressWarnings("unchecked")
+    static AlertTriggeredEvent of(PriceAlert alert, StockQuoteDto quote,
+                                  Map<String, Object> earnings, Map<String, Object> dividends) {
+        String earningsDate = earnings != null ? (String) earnings.get("nextEarningsDate") : null;
+        double dividendAmount = 0;
+        String paymentDate = null;
+        if (dividends != null && dividends.get("nextDividend") instanceof Map<?, ?> next) {
+            Map<String, Object> nextDiv = (Map<String, Object>) next;
+            dividendAmount = ((Number) nextDiv.getOrDefault("amount", 0)).doubleValue();
+            paymentDate = (String) nextDiv.get("paymentDate");
+        }
+        return new AlertTriggeredEvent(
+                alert.getId(),
+                alert.getUser().getId(),
+                alert.getSymbol(),
+                alert.getStockName(),
+                alert.getAlertType(),
+                alert.getTargetPrice(),
+                quote != null ? quote.getPrice() : 0,
+                earningsDate != null ? earningsDate : "soon",
+                alert.getDaysNotice() != null ? alert.getDaysNotice() : 1,
+                dividendAmount,
+                paymentDate != null ? paymentDate : "soon");
+    }
+}
@@ -3,6 +3,7 @@ package com.sentix.api.alert;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.Data;
 
 import java.math.BigDecimal;
@@ -24,4 +25,13 @@ public class CreateAlertRequest {
 
     private BigDecimal referencePrice;
     private Integer daysNotice;
+
+    // Re-arming alerts fire again after the price leaves the hysteresis band
+    private Boolean rearm;
+
+    @PositiveOrZero(message = "Hysteresis percent must not be negative")
+    private BigDecimal hysteresisPercent;
+
+    @PositiveOrZero(message = "Cooldown must not be negative")
+    private Integer cooldownMinutes;
 }
@@ -2,13 +2,11 @@ package com.sentix.api.alert;
 
 import com.sentix.api.common.PageResponse;
 import com.sentix.domain.User;
-import com.sentix.infrastructure.persistence.UserRepository;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -20,60 +18,64 @@ import java.util.UUID;
 public class PriceAlertController {
 
     private final PriceAlertService priceAlertService;
-    private final UserRepository userRepository;
 
     @PostMapping
     public ResponseEntity<PriceAlertResponse> createAlert(
-            @AuthenticationPrincipal UserDetails userDetails,
+            @AuthenticationPrincipal User user,
             @Valid @RequestBody CreateAlertRequest request) {
-        User user = getUser(userDetails);
         PriceAlertResponse response = priceAlertService.createAlert(user, request);
         return ResponseEntity.ok(response);
     }
 
     @GetMapping
     public ResponseEntity<PageResponse<PriceAlertResponse>> getUserAlerts(
-            @AuthenticationPrincipal UserDetails userDetails,
+            @AuthenticationPrincipal User user,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
-        User user = getUser(userDetails);
-        PageResponse<PriceAlertResponse> alerts = priceAlertService.getUserAlertsPaginated(user, PageRequest.of(page, size));
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "true") boolean includePrices,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        // Any cursor parameter, even empty for the first page, selects seek pagination
+        PageResponse<PriceAlertResponse> alerts = cursor != null
+                ? priceAlertService.getUserAlertsAfter(user, cursor, size, includeTotal, includePrices)
+                : priceAlertService.getUserAlertsPaginated(user, PageRequest.of(page, size), includePrices);
         return ResponseEntity.ok(alerts);
     }
 
     @GetMapping("/active")
     public ResponseEntity<PageResponse<PriceAlertResponse>> getActiveAlerts(
-            @AuthenticationPrincipal UserDetails userDetails,
+            @AuthenticationPrincipal User user,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
-        User user = getUser(userDetails);
-        PageResponse<PriceAlertResponse> alerts = priceAlertService.getActiveAlertsPaginated(user, PageRequest.of(page, size));
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "true") boolean includePrices,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        PageResponse<PriceAlertResponse> alerts = cursor != null
+                ? priceAlertService.getActiveAlertsAfter(user, cursor, size, includeTotal, includePrices)
+                : priceAlertService.getActiveAlertsPaginated(user, PageRequest.of(page, size), includePrices);
         return ResponseEntity.ok(alerts);
     }
 
     @GetMapping("/symbol/{symbol}")
     public ResponseEntity<List<PriceAlertResponse>> getAlertsBySymbol(
-            @AuthenticationPrincipal UserDetails userDetails,
+            @AuthenticationPrincipal User user,
             @PathVariable String symbol) {
-        User user = getUser(userDetails);
         List<PriceAlertResponse> alerts = priceAlertService.getAlertsBySymbol(user, symbol);
         return ResponseEntity.ok(alerts);
     }
 
     @DeleteMapping("/{alertId}")
     public ResponseEntity<Void> deleteAlert(
-            @AuthenticationPrincipal UserDetails userDetails,
+            @AuthenticationPrincipal User user,
             @PathVariable UUID alertId) {
-        User user = getUser(userDetails);
         priceAlertService.deleteAlert(user, alertId);
         return ResponseEntity.noContent().build();
     }
 
     @PatchMapping("/{alertId}/toggle")
     public ResponseEntity<PriceAlertResponse> toggleAlert(
-            @AuthenticationPrincipal UserDetails userDetails,
+            @AuthenticationPrincipal User user,
             @PathVariable UUID alertId) {
-        User user = getUser(userDetails);
         PriceAlertResponse response = priceAlertService.toggleAlert(user, alertId);
         return ResponseEntity.ok(response);
     }
@@ -84,9 +86,4 @@ public class PriceAlertController {
         List<PriceAlertResponse> triggered = priceAlertService.checkAndTriggerAlerts();
         return ResponseEntity.ok(triggered);
     }
-
-    private User getUser(UserDetails userDetails) {
-        return userRepository.findByEmail(userDetails.getUsername())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-    }
 }
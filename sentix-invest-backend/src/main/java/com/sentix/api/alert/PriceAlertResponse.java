@@ -1,5 +1,6 @@
 package com.sentix.api.alert;
 
+import com.sentix.domain.PriceAlert;
 import lombok.Builder;
 import lombok.Data;
 
@@ -21,4 +22,30 @@ public class PriceAlertResponse {
     private LocalDateTime triggeredAt;
     private BigDecimal referencePrice;
     private Integer daysNotice;
+    private Boolean rearm;
+    private BigDecimal hysteresisPercent;
+    private Integer cooldownMinutes;
+    private Boolean armed;
+    private Integer triggerCount;
+
+    public static PriceAlertResponse from(PriceAlert alert, BigDecimal currentPrice) {
+        return PriceAlertResponse.builder()
+                .id(alert.getId())
+                .symbol(alert.getSymbol())
+                .stockName(alert.getStockName())
+                .targetPrice(alert.getTargetPrice())
+                .currentPrice(currentPrice)
+                .alertType(alert.getAlertType().name())
+                .isActive(alert.getIsActive())
+                .createdAt(alert.getCreatedAt())
+                .triggeredAt(alert.getTriggeredAt())
+                .referencePrice(alert.getReferencePrice())
+                .daysNotice(alert.getDaysNotice())
+                .rearm(alert.getRearm())
+                .hysteresisPercent(alert.getHysteresisPercent())
+                .cooldownMinutes(alert.getCooldownMinutes())
+                .armed(alert.getArmed())
+                .triggerCount(alert.getTriggerCount())
+                .build();
+    }
 }
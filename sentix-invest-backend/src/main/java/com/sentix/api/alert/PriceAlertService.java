@@ -1,27 +1,35 @@
 package com.sentix.api.alert;
 
 import com.sentix.api.common.PageResponse;
+import com.sentix.api.common.SeekCursor;
+import com.sentix.api.dashboard.DashboardService;
 import com.sentix.api.stock.StockQuoteDto;
 import com.sentix.api.stock.StockService;
 import com.sentix.domain.AlertType;
+import com.sentix.domain.OutboxEventType;
 import com.sentix.domain.PriceAlert;
 import com.sentix.domain.User;
+import com.sentix.infrastructure.metrics.SentixMetrics;
+import com.sentix.infrastructure.outbox.OutboxPublisher;
 import com.sentix.infrastructure.persistence.PriceAlertRepository;
-import com.sentix.service.PushNotificationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 @Slf4j
@@ -29,9 +37,15 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class PriceAlertService {
 
+    static final String ALERT_JOB = "alert-check";
+
     private final PriceAlertRepository priceAlertRepository;
     private final StockService stockService;
-    private final PushNotificationService pushNotificationService;
+    private final AlertTriggerStateStore triggerStateStore;
+    private final OutboxPublisher outboxPublisher;
+    private final DashboardService dashboardService;
+    private final TransactionTemplate transactionTemplate;
+    private final SentixMetrics metrics;
 
     @Transactional
     public PriceAlertResponse createAlert(User user, CreateAlertRequest request) {
@@ -43,6 +57,11 @@ public class PriceAlertService {
                     "Invalid alert type. Must be ABOVE, BELOW, PERCENT_CHANGE, EARNINGS_REMINDER, or DIVIDEND_PAYMENT");
         }
 
+        boolean rearm = Boolean.TRUE.equals(request.getRearm());
+        if (rearm && !isPriceBased(alertType)) {
+            throw new IllegalArgumentException("Only ABOVE, BELOW and PERCENT_CHANGE alerts can re-arm");
+        }
+
         PriceAlert alert = PriceAlert.builder()
                 .user(user)
                 .symbol(request.getSymbol().toUpperCase())
@@ -52,9 +71,15 @@ public class PriceAlertService {
                 .daysNotice(request.getDaysNotice())
                 .alertType(alertType)
                 .isActive(true)
+                .rearm(rearm)
+                .hysteresisPercent(request.getHysteresisPercent())
+                .cooldownMinutes(request.getCooldownMinutes())
+                .armed(true)
+                .triggerCount(0)
                 .build();
 
         PriceAlert savedAlert = priceAlertRepository.save(alert);
+        dashboardService.evict(user.getId());
         log.info("Created price alert {} for user {} on symbol {}",
                 savedAlert.getId(), user.getId(), savedAlert.getSymbol());
 
@@ -62,40 +87,68 @@ public class PriceAlertService {
     }
 
     public List<PriceAlertResponse> getUserAlerts(User user) {
-        List<PriceAlert> alerts = priceAlertRepository.findByUser(user);
-        return alerts.stream()
-                .map(this::mapToResponse)
-                .toList();
+        return getUserAlerts(user, true);
+    }
+
+    public List<PriceAlertResponse> getUserAlerts(User user, boolean includePrices) {
+        return mapToResponses(priceAlertRepository.findByUser(user), includePrices);
     }
 
     public List<PriceAlertResponse> getActiveAlerts(User user) {
-        List<PriceAlert> alerts = priceAlertRepository.findByUserAndIsActiveTrue(user);
-        return alerts.stream()
-                .map(this::mapToResponse)
-                .toList();
+        return getActiveAlerts(user, true);
+    }
+
+    public List<PriceAlertResponse> getActiveAlerts(User user, boolean includePrices) {
+        return mapToResponses(priceAlertRepository.findByUserAndIsActiveTrue(user), includePrices);
     }
 
     public PageResponse<PriceAlertResponse> getUserAlertsPaginated(User user, Pageable pageable) {
+        return getUserAlertsPaginated(user, pageable, true);
+    }
+
+    public PageResponse<PriceAlertResponse> getUserAlertsPaginated(User user, Pageable pageable, boolean includePrices) {
         Page<PriceAlert> page = priceAlertRepository.findByUser(user, pageable);
-        List<PriceAlertResponse> content = page.getContent().stream()
-                .map(this::mapToResponse)
-                .toList();
-        return PageResponse.from(page, content);
+        return PageResponse.from(page, mapToResponses(page.getContent(), includePrices));
     }
 
     public PageResponse<PriceAlertResponse> getActiveAlertsPaginated(User user, Pageable pageable) {
+        return getActiveAlertsPaginated(user, pageable, true);
+    }
+
+    public PageResponse<PriceAlertResponse> getActiveAlertsPaginated(User user, Pageable pageable, boolean includePrices) {
         Page<PriceAlert> page = priceAlertRepository.findByUserAndIsActiveTrue(user, pageable);
-        List<PriceAlertResponse> content = page.getContent().stream()
-                .map(this::mapToResponse)
-                .toList();
-        return PageResponse.from(page, content);
+        return PageResponse.from(page, mapToResponses(page.getContent(), includePrices));
+    }
+
+    /**
+     * Seek page of a user's alerts, newest first, starting after {@code cursor}
+     * (blank for the first page). The total is only counted when asked for.
+     */
+    public PageResponse<PriceAlertResponse> getUserAlertsAfter(User user, String cursor, int size,
+                                                               boolean includeTotal, boolean includePrices) {
+        Window<PriceAlert> window = priceAlertRepository.findByUserOrderByCreatedAtDescIdDesc(
+                user, SeekCursor.position(cursor, "createdAt"), Limit.of(size));
+        return toSeekPage(window, size, includePrices,
+                includeTotal ? priceAlertRepository.countByUser(user) : null);
+    }
+
+    public PageResponse<PriceAlertResponse> getActiveAlertsAfter(User user, String cursor, int size,
+                                                                 boolean includeTotal, boolean includePrices) {
+        Window<PriceAlert> window = priceAlertRepository.findByUserAndIsActiveTrueOrderByCreatedAtDescIdDesc(
+                user, SeekCursor.position(cursor, "createdAt"), Limit.of(size));
+        return toSeekPage(window, size, includePrices,
+                includeTotal ? priceAlertRepository.countByUserAndIsActiveTrue(user) : null);
+    }
+
+    private PageResponse<PriceAlertResponse> toSeekPage(Window<PriceAlert> window, int size, boolean includePrices,
+                                                        Long totalElements) {
+        return PageResponse.from(window, size, mapToResponses(window.getContent(), includePrices),
+                alert -> SeekCursor.encode(alert.getCreatedAt(), alert.getId()), totalElements);
     }
 
     public List<PriceAlertResponse> getAlertsBySymbol(User user, String symbol) {
         List<PriceAlert> alerts = priceAlertRepository.findByUserAndSymbol(user, symbol.toUpperCase());
-        return alerts.stream()
-                .map(this::mapToResponse)
-                .toList();
+        return mapToResponses(alerts, true);
     }
 
     @Transactional
@@ -108,6 +161,8 @@ public class PriceAlertService {
         }
 
         priceAlertRepository.delete(alert);
+        triggerStateStore.forget(alertId);
+        dashboardService.evict(user.getId());
         log.info("Deleted price alert {} for user {}", alertId, user.getId());
     }
 
@@ -122,6 +177,7 @@ public class PriceAlertService {
 
         alert.setIsActive(!alert.getIsActive());
         PriceAlert savedAlert = priceAlertRepository.save(alert);
+        dashboardService.evict(user.getId());
         log.info("Toggled alert {} to active={}", alertId, savedAlert.getIsActive());
 
         return mapToResponse(savedAlert);
@@ -129,21 +185,47 @@ public class PriceAlertService {
 
     /**
      * Check all active alerts and return any that have been triggered.
-     * Runs every 5 minutes automatically when alert.check.enabled=true.
+     * Used by the manual check endpoint; scheduled checks go through
+     * {@link AlertEvaluationScheduler}, which only evaluates this node's shards.
      */
-    @Scheduled(fixedRateString = "${alert.check.interval:300000}")
-    @Transactional
     public List<PriceAlertResponse> checkAndTriggerAlerts() {
-        log.info("Running scheduled alert check...");
-        List<PriceAlert> activeAlerts = priceAlertRepository.findByIsActiveTrue();
+        log.info("Running alert check over all active alerts...");
+        return evaluateAlerts(priceAlertRepository.findByIsActiveTrue());
+    }
+
+    /**
+     * Evaluate a set of active alerts and fire the ones whose condition is met.
+     * Prices for all price-based alerts are resolved with one batch quote call;
+     * earnings and dividend lookups are shared between alerts on the same symbol.
+     * One-shot alerts only fire if this caller wins the database claim. Re-arming
+     * alerts are decided by {@link AlertTriggerStateStore}, then claimed by trigger
+     * count in the database, and stay active.
+     * A fired alert is recorded as an outbox event, and {@link AlertNotificationConsumer}
+     * sends the push notification once the relay delivers it.
+     */
+    public List<PriceAlertResponse> evaluateAlerts(List<PriceAlert> activeAlerts) {
+        long cycleStart = System.nanoTime();
+        long calendarNanos = 0;
+        long claimNanos = 0;
         List<PriceAlertResponse> triggeredAlerts = new ArrayList<>();
 
+        Map<String, StockQuoteDto> quotes = fetchQuotes(activeAlerts.stream()
+                .filter(alert -> isPriceBased(alert.getAlertType()))
+                .toList());
+        metrics.recordJobPhase(ALERT_JOB, "fetch_quotes", System.nanoTime() - cycleStart);
+        Map<String, Map<String, Object>> earningsBySymbol = new HashMap<>();
+        Map<String, Map<String, Object>> dividendsBySymbol = new HashMap<>();
+
         for (PriceAlert alert : activeAlerts) {
             try {
                 boolean triggered = false;
+                BigDecimal observed = null;
 
                 if (alert.getAlertType() == AlertType.EARNINGS_REMINDER) {
-                    Map<String, Object> earnings = stockService.getEarnings(alert.getSymbol());
+                    long lookupStart = System.nanoTime();
+                    Map<String, Object> earnings = earningsBySymbol.computeIfAbsent(
+                            alert.getSymbol(), stockService::getEarnings);
+                    calendarNanos += System.nanoTime() - lookupStart;
                     if (earnings != null && earnings.containsKey("nextEarningsDate")) {
                         String dateStr = (String) earnings.get("nextEarningsDate");
                         if (dateStr != null) {
@@ -155,7 +237,10 @@ public class PriceAlertService {
                         }
                     }
                 } else if (alert.getAlertType() == AlertType.DIVIDEND_PAYMENT) {
-                    Map<String, Object> dividends = stockService.getDividends(alert.getSymbol());
+                    long lookupStart = System.nanoTime();
+                    Map<String, Object> dividends = dividendsBySymbol.computeIfAbsent(
+                            alert.getSymbol(), stockService::getDividends);
+                    calendarNanos += System.nanoTime() - lookupStart;
                     if (dividends != null && dividends.containsKey("nextDividend")) {
                         Map<String, Object> nextDiv = (Map<String, Object>) dividends.get("nextDividend");
                         if (nextDiv != null && nextDiv.containsKey("paymentDate")) {
@@ -171,9 +256,11 @@ public class PriceAlertService {
                     }
                 } else {
                     // Price based alerts
-                    StockQuoteDto quote = stockService.getStockQuote(alert.getSymbol());
-                    if (quote != null) {
+                    StockQuoteDto quote = quotes.get(alert.getSymbol());
+                    // Stale fallback prices must not fire alerts
+                    if (quote != null && !quote.isStale()) {
                         BigDecimal currentPrice = BigDecimal.valueOf(quote.getPrice());
+                        observed = currentPrice;
 
                         if (alert.getAlertType() == AlertType.ABOVE &&
                                 currentPrice.compareTo(alert.getTargetPrice()) >= 0) {
@@ -187,6 +274,7 @@ public class PriceAlertService {
                             BigDecimal percentDiff = diff
                                     .divide(alert.getReferencePrice(), 4, java.math.RoundingMode.HALF_UP)
                                     .multiply(BigDecimal.valueOf(100));
+                            observed = percentDiff;
                             if (percentDiff.compareTo(alert.getTargetPrice()) >= 0) { // targetPrice is used as
                                                                                       // percentage threshold here
                                 triggered = true;
@@ -195,16 +283,75 @@ public class PriceAlertService {
                     }
                 }
 
-                if (triggered) {
+                if (Boolean.TRUE.equals(alert.getRearm())) {
+                    long claimStart = System.nanoTime();
+                    boolean fire = observed != null
+                            && triggerStateStore.evaluate(alert, triggered, observed, LocalDateTime.now());
+                    if (!fire) {
+                        claimNanos += System.nanoTime() - claimStart;
+                        continue;
+                    }
+                    // The store only decided for this node; the trigger count in the database
+                    // decides between replicas, and the claim commits with its notification event
+                    int triggerCount = alert.getTriggerCount();
+                    AlertTriggeredEvent event = AlertTriggeredEvent.of(alert, quotes.get(alert.getSymbol()),
+                            null, null);
+                    Integer claimed;
+                    try {
+                        claimed = transactionTemplate.execute(status -> {
+                            int updated = priceAlertRepository.claimRearmTrigger(
+                                    alert.getId(), triggerCount - 1, triggerCount, alert.getTriggeredAt());
+                            if (updated > 0) {
+                                outboxPublisher.publish(OutboxEventType.ALERT_TRIGGERED, alert.getId(), event);
+                            }
+                            return updated;
+                        });
+                    } catch (RuntimeException e) {
+                        // Nothing was committed; start over from the database state next cycle
+                        triggerStateStore.forget(alert.getId());
+                        throw e;
+                    }
+                    claimNanos += System.nanoTime() - claimStart;
+                    if (claimed == null || claimed == 0) {
+                        // Another node fired this trigger; reload its state from the database next cycle
+                        triggerStateStore.forget(alert.getId());
+                        metrics.recordAlertClaimLost();
+                        log.debug("Re-arming alert {} trigger #{} already claimed by another evaluator",
+                                alert.getId(), triggerCount);
+                        continue;
+                    }
+                    triggerStateStore.claimed(alert.getId());
+                    triggeredAlerts.add(mapToResponse(alert, quotes));
+                    metrics.recordAlertTriggered(alert.getAlertType().name(), true);
+                    log.info("Re-arming alert {} triggered for {} (trigger #{})",
+                            alert.getId(), alert.getSymbol(), triggerCount);
+                } else if (triggered) {
+                    LocalDateTime triggeredAt = LocalDateTime.now();
+                    AlertTriggeredEvent event = AlertTriggeredEvent.of(alert, quotes.get(alert.getSymbol()),
+                            earningsBySymbol.get(alert.getSymbol()), dividendsBySymbol.get(alert.getSymbol()));
+                    long claimStart = System.nanoTime();
+                    // The claim and its notification event commit together
+                    Integer claimed = transactionTemplate.execute(status -> {
+                        int updated = priceAlertRepository.markTriggered(alert.getId(), triggeredAt);
+                        if (updated > 0) {
+                            outboxPublisher.publish(OutboxEventType.ALERT_TRIGGERED, alert.getId(), event);
+                        }
+                        return updated;
+                    });
+                    claimNanos += System.nanoTime() - claimStart;
+                    if (claimed == null || claimed == 0) {
+                        metrics.recordAlertClaimLost();
+                        log.debug("Alert {} already claimed by another evaluator", alert.getId());
+                        continue;
+                    }
                     alert.setIsActive(false);
-                    alert.setTriggeredAt(LocalDateTime.now());
-                    priceAlertRepository.save(alert);
-                    triggeredAlerts.add(mapToResponse(alert));
+                    alert.setTriggeredAt(triggeredAt);
+                    // The dashboard counts active alerts, and this one no longer is
+                    dashboardService.evict(alert.getUser().getId());
+                    triggeredAlerts.add(mapToResponse(alert, quotes));
+                    metrics.recordAlertTriggered(alert.getAlertType().name(), false);
                     log.info("Alert {} triggered for {} type {}",
                             alert.getId(), alert.getSymbol(), alert.getAlertType());
-                    
-                    // Send push notification
-                    sendPushNotificationForAlert(alert);
                 }
             } catch (Exception e) {
                 log.warn("Error checking alert {} for {}: {}",
@@ -212,71 +359,42 @@ public class PriceAlertService {
             }
         }
 
+        metrics.recordJobPhase(ALERT_JOB, "calendar_lookup", calendarNanos);
+        metrics.recordJobPhase(ALERT_JOB, "claim", claimNanos);
+        metrics.recordJobPhase(ALERT_JOB, "evaluate", System.nanoTime() - cycleStart);
+        metrics.recordAlertBatch(activeAlerts.size());
         return triggeredAlerts;
     }
 
+    private boolean isPriceBased(AlertType alertType) {
+        return alertType == AlertType.ABOVE
+                || alertType == AlertType.BELOW
+                || alertType == AlertType.PERCENT_CHANGE;
+    }
+
     /**
-     * Send push notification when an alert is triggered
+     * Resolve current prices for a set of alerts with a single batch quote call.
      */
-    private void sendPushNotificationForAlert(PriceAlert alert) {
-        User user = alert.getUser();
-        String fcmToken = user.getFcmToken();
-        
-        if (fcmToken == null || fcmToken.isBlank()) {
-            log.debug("No FCM token for user {}, skipping push notification", user.getId());
-            return;
+    private Map<String, StockQuoteDto> fetchQuotes(List<PriceAlert> alerts) {
+        if (alerts.isEmpty()) {
+            return Map.of();
         }
-
-        try {
-            switch (alert.getAlertType()) {
-                case ABOVE, BELOW, PERCENT_CHANGE -> {
-                    StockQuoteDto quote = stockService.getStockQuote(alert.getSymbol());
-                    double currentPrice = quote != null ? quote.getPrice() : 0;
-                    pushNotificationService.sendPriceAlertNotification(
-                            fcmToken,
-                            alert.getSymbol(),
-                            alert.getStockName(),
-                            alert.getTargetPrice().doubleValue(),
-                            currentPrice,
-                            alert.getAlertType().name()
-                    );
-                }
-                case EARNINGS_REMINDER -> {
-                    Map<String, Object> earnings = stockService.getEarnings(alert.getSymbol());
-                    String earningsDate = earnings != null ? (String) earnings.get("nextEarningsDate") : "soon";
-                    int daysUntil = alert.getDaysNotice() != null ? alert.getDaysNotice() : 1;
-                    pushNotificationService.sendEarningsReminderNotification(
-                            fcmToken,
-                            alert.getSymbol(),
-                            alert.getStockName(),
-                            earningsDate,
-                            daysUntil
-                    );
-                }
-                case DIVIDEND_PAYMENT -> {
-                    Map<String, Object> dividends = stockService.getDividends(alert.getSymbol());
-                    double amount = 0;
-                    String paymentDate = "soon";
-                    if (dividends != null && dividends.containsKey("nextDividend")) {
-                        @SuppressWarnings("unchecked")
-                        Map<String, Object> nextDiv = (Map<String, Object>) dividends.get("nextDividend");
-                        if (nextDiv != null) {
-                            amount = ((Number) nextDiv.getOrDefault("amount", 0)).doubleValue();
-                            paymentDate = (String) nextDiv.getOrDefault("paymentDate", "soon");
-                        }
-                    }
-                    pushNotificationService.sendDividendNotification(
-                            fcmToken,
-                            alert.getSymbol(),
-                            alert.getStockName(),
-                            amount,
-                            paymentDate
-                    );
-                }
-            }
-        } catch (Exception e) {
-            log.warn("Failed to send push notification for alert {}: {}", alert.getId(), e.getMessage());
+        Set<String> symbols = new HashSet<>();
+        for (PriceAlert alert : alerts) {
+            symbols.add(alert.getSymbol());
         }
+        return stockService.getStockQuotes(symbols);
+    }
+
+    /**
+     * Map a page of alerts to responses. When includePrices is false no upstream
+     * call is made and currentPrice is left null.
+     */
+    private List<PriceAlertResponse> mapToResponses(List<PriceAlert> alerts, boolean includePrices) {
+        Map<String, StockQuoteDto> quotes = includePrices ? fetchQuotes(alerts) : null;
+        return alerts.stream()
+                .map(alert -> mapToResponse(alert, quotes))
+                .toList();
     }
 
     private PriceAlertResponse mapToResponse(PriceAlert alert) {
@@ -289,19 +407,15 @@ public class PriceAlertService {
         } catch (Exception e) {
             log.warn("Could not fetch current price for {}: {}", alert.getSymbol(), e.getMessage());
         }
+        return PriceAlertResponse.from(alert, currentPrice);
+    }
 
-        return PriceAlertResponse.builder()
-                .id(alert.getId())
-                .symbol(alert.getSymbol())
-                .stockName(alert.getStockName())
-                .targetPrice(alert.getTargetPrice())
-                .currentPrice(currentPrice)
-                .alertType(alert.getAlertType().name())
-                .isActive(alert.getIsActive())
-                .createdAt(alert.getCreatedAt())
-                .triggeredAt(alert.getTriggeredAt())
-                .referencePrice(alert.getReferencePrice())
-                .daysNotice(alert.getDaysNotice())
-                .build();
+    private PriceAlertResponse mapToResponse(PriceAlert alert, Map<String, StockQuoteDto> quotes) {
+        BigDecimal currentPrice = null;
+        if (quotes != null) {
+            StockQuoteDto quote = quotes.get(alert.getSymbol());
+            currentPrice = quote != null ? BigDecimal.valueOf(quote.getPrice()) : BigDecimal.ZERO;
+        }
+        return PriceAlertResponse.from(alert, currentPrice);
     }
 }
@@ -0,0 +1,29 @@
+package com.sentix.api.backtest;
+
+import com.sentix.domain.User;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/backtest")
+@RequiredArgsConstructor
+public class BacktestController {
+
+    private final BacktestService backtestService;
+
+    /**
+     * Replay paper strategies against price history. Nothing is traded or written.
+     */
+    @PostMapping
+    public ResponseEntity<BacktestResponse> run(
+            @AuthenticationPrincipal User user,
+            @Valid @RequestBody BacktestRequest request) {
+        return ResponseEntity.ok(backtestService.run(user, request));
+    }
+}
@@ -0,0 +1,69 @@
+package com.sentix.api.backtest;
+
+import com.sentix.domain.OrderType;
+import com.sentix.domain.TransactionType;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Paper strategies to replay against daily price history. Each strategy runs as
+ * its own simulation from {@code initialCash}, which defaults to the user's paper
+ * balance. {@code period} is an MCP history period and defaults to 1y.
+ */
+public record BacktestRequest(
+        @Pattern(regexp = "1mo|3mo|6mo|1y|2y|5y|10y|ytd|max", message = "Unsupported history period")
+        String period,
+
+        @Positive(message = "Initial cash must be positive")
+        BigDecimal initialCash,
+
+        @NotEmpty(message = "At least one strategy is required")
+        @Size(max = 20, message = "A backtest can run at most 20 strategies")
+        List<@Valid @NotNull Strategy> strategies) {
+
+    public record Strategy(
+            String name,
+
+            @NotEmpty(message = "A strategy needs at least one order")
+            @Size(max = 200, message = "A strategy can have at most 200 orders")
+            List<@Valid @NotNull Order> orders) {
+    }
+
+    /**
+     * An order placed on {@code placeOn} (the first bar if null). Order types follow
+     * resting orders: MARKET fills at the next open, the others when a bar reaches
+     * their prices. With {@code repeatEveryDays} the order is placed again that
+     * many days after each fill, as in regular investing.
+     */
+    public record Order(
+            @NotNull(message = "Side is required") TransactionType side,
+
+            @NotBlank(message = "Symbol is required") String symbol,
+
+            @NotNull(message = "Quantity is required") @Min(value = 1, message = "Quantity must be at least 1") Integer quantity,
+
+            OrderType orderType,
+
+            @Positive(message = "Limit price must be positive") BigDecimal limitPrice,
+
+            @Positive(message = "Stop price must be positive") BigDecimal stopPrice,
+
+            LocalDate placeOn,
+
+            @Min(value = 1, message = "Repeat interval must be at least 1 day") Integer repeatEveryDays) {
+
+        public OrderType type() {
+            return orderType != null ? orderType : OrderType.MARKET;
+        }
+    }
+}
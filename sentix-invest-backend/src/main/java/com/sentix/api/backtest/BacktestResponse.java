@@ -0,0 +1,13 @@
+package com.sentix.api.backtest;
+
+import java.util.List;
+
+/**
+ * Results in request order. {@code simulatedTrades} counts fills across all strategies.
+ */
+public record BacktestResponse(
+        String period,
+        List<BacktestResult> results,
+        int simulatedTrades,
+        long elapsedMs) {
+}
@@ -0,0 +1,33 @@
+package com.sentix.api.backtest;
+
+import com.sentix.domain.TransactionType;
+import lombok.Builder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Outcome of one simulated strategy. Holdings are valued at the last close.
+ * {@code openOrders} were still waiting for their prices when history ran out.
+ */
+@Builder
+public record BacktestResult(
+        String name,
+        LocalDate from,
+        LocalDate to,
+        int simulatedDays,
+        BigDecimal initialCash,
+        BigDecimal finalCash,
+        BigDecimal holdingsValue,
+        BigDecimal totalValue,
+        BigDecimal returnPercent,
+        BigDecimal maxDrawdownPercent,
+        List<Fill> fills,
+        int rejectedOrders,
+        int openOrders,
+        List<String> warnings) {
+
+    public record Fill(LocalDate date, TransactionType side, String symbol, int quantity, BigDecimal price) {
+    }
+}
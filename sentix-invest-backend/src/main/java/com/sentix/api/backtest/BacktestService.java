@@ -0,0 +1,143 @@
+package com.sentix.api.backtest;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sentix.api.ledger.CashLedgerService;
+import com.sentix.api.stock.StockService;
+import com.sentix.domain.User;
+import com.sentix.infrastructure.metrics.SentixMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Backtests of paper strategies. Daily bars come from the MCP history endpoint and
+ * are kept in process, parsed into {@link PriceBars}, so repeated backtests over
+ * the same symbols make no upstream calls. Each strategy is replayed by its own
+ * {@link BacktestSimulator} on a shared fork-join pool; simulations are CPU-bound
+ * and independent, so they run on every core, and concurrent requests share the
+ * pool instead of adding threads.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BacktestService {
+
+    static final String BACKTEST_JOB = "backtest";
+    static final String DEFAULT_PERIOD = "1y";
+    private static final String CACHE_NAME = "backtest-bars";
+
+    private final StockService stockService;
+    private final CashLedgerService cashLedgerService;
+    private final SentixMetrics metrics;
+
+    // 0 uses one thread per core
+    @Value("${backtest.parallelism:0}")
+    private int parallelism;
+
+    @Value("${backtest.bars-cache.size:2000}")
+    private long maximumSize;
+
+    @Value("${backtest.bars-cache.ttl:3600000}")
+    private long ttlMs;
+
+    private ForkJoinPool pool;
+    private Cache<BarsKey, PriceBars> barsCache;
+
+    private record BarsKey(String symbol, String period) {
+    }
+
+    @PostConstruct
+    void init() {
+        pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        barsCache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .build();
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        pool.shutdown();
+        pool.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Replay every strategy of the request. Cash starts at {@code initialCash}, or at
+     * the user's paper balance if it is not set.
+     */
+    public BacktestResponse run(User user, BacktestRequest request) {
+        long start = System.nanoTime();
+        String period = request.period() != null ? request.period() : DEFAULT_PERIOD;
+        BigDecimal initialCash = request.initialCash() != null
+                ? request.initialCash()
+                : cashLedgerService.balance(user, true);
+
+        Set<String> symbols = new LinkedHashSet<>();
+        request.strategies().forEach(strategy -> strategy.orders()
+                .forEach(order -> symbols.add(order.symbol().toUpperCase())));
+        Map<String, PriceBars> history = new HashMap<>();
+        for (String symbol : symbols) {
+            PriceBars bars = bars(symbol, period);
+            if (bars != null) {
+                history.put(symbol, bars);
+            }
+        }
+        long simulateStart = System.nanoTime();
+        metrics.recordJobPhase(BACKTEST_JOB, "load", simulateStart - start);
+
+        List<BacktestRequest.Strategy> strategies = request.strategies();
+        List<ForkJoinTask<BacktestResult>> runs = IntStream.range(0, strategies.size())
+                .mapToObj(i -> {
+                    BacktestRequest.Strategy strategy = strategies.get(i);
+                    String name = strategy.name() != null ? strategy.name() : "Strategy " + (i + 1);
+                    return pool.submit(() ->
+                            new BacktestSimulator(name, strategy.orders(), history, initialCash).run());
+                })
+                .toList();
+        List<BacktestResult> results = runs.stream().map(ForkJoinTask::join).toList();
+        metrics.recordJobPhase(BACKTEST_JOB, "simulate", System.nanoTime() - simulateStart);
+
+        int trades = results.stream().mapToInt(result -> result.fills().size()).sum();
+        metrics.recordJobItems(BACKTEST_JOB, "fills", trades);
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        log.info("User {} backtested {} strategies over {} ({} symbols, {} simulated trades) in {} ms",
+                user.getEmail(), strategies.size(), period, history.size(), trades, elapsedMs);
+        return new BacktestResponse(period, results, trades, elapsedMs);
+    }
+
+    /**
+     * Bars of a symbol, or null if the MCP server has no history for it. Misses
+     * and stale fallback responses are not cached, so bars from an outage are not
+     * replayed for the whole cache TTL after the upstream recovers.
+     */
+    PriceBars bars(String symbol, String period) {
+        BarsKey key = new BarsKey(symbol, period);
+        PriceBars cached = barsCache.getIfPresent(key);
+        metrics.recordCacheAccess(CACHE_NAME, cached != null);
+        if (cached != null) {
+            return cached;
+        }
+        Map<String, Object> history = stockService.getStockHistory(symbol, period);
+        PriceBars bars = PriceBars.parse(history);
+        if (bars != null && !Boolean.TRUE.equals(history.get("stale"))) {
+            barsCache.put(key, bars);
+        }
+        return bars;
+    }
+}
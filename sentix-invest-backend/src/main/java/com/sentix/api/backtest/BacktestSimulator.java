@@ -0,0 +1,278 @@
+package com.sentix.api.backtest;
+
+import com.sentix.domain.OrderType;
+import com.sentix.domain.TransactionType;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replays one strategy against daily bars. Simulated time advances one trading
+ * day per step across all of the strategy's symbols, so a year of history takes
+ * about 250 steps and no waiting. Orders fill from each bar's OHLC:
+ * <ul>
+ *   <li>MARKET at the open of the first bar on or after its placement;</li>
+ *   <li>LIMIT when the bar trades through the limit, at the limit or at a better
+ *       open;</li>
+ *   <li>STOP when the bar reaches the stop, at the stop or at a worse open;</li>
+ *   <li>STOP_LIMIT becomes a limit order once the stop is reached, filling on the
+ *       same bar only if the trigger price is within the limit.</li>
+ * </ul>
+ * Buys need the cash and sells the shares at the time they fill, otherwise they are
+ * rejected. Cash and prices are kept in ticks, so pricing a bar is integer
+ * arithmetic on primitive arrays and only fills allocate.
+ * Instances are single-use and not thread-safe; parallel simulations each get
+ * their own.
+ */
+final class BacktestSimulator {
+
+    private static final long NO_FILL = -1;
+
+    private final String name;
+    private final long initialCash;
+    private final List<String> symbols = new ArrayList<>();
+    private final List<PriceBars> bars = new ArrayList<>();
+    private final List<List<SimOrder>> ordersBySymbol = new ArrayList<>();
+    private final List<BacktestResult.Fill> fills = new ArrayList<>();
+    private final List<String> warnings = new ArrayList<>();
+    private int rejected;
+
+    /**
+     * @param history bars by upper-case symbol; symbols without bars are reported
+     *                in the warnings and their orders rejected
+     */
+    BacktestSimulator(String name, List<BacktestRequest.Order> orders, Map<String, PriceBars> history,
+                      BigDecimal initialCash) {
+        this.name = name;
+        this.initialCash = PriceBars.toTicks(initialCash);
+        Map<String, Integer> index = new HashMap<>();
+        for (BacktestRequest.Order order : orders) {
+            String symbol = order.symbol().toUpperCase();
+            PriceBars series = history.get(symbol);
+            String invalid = series == null ? "No price history for " + symbol : validatePrices(order);
+            if (invalid != null) {
+                warnings.add(invalid);
+                rejected++;
+                continue;
+            }
+            int s = index.computeIfAbsent(symbol, k -> {
+                symbols.add(k);
+                bars.add(series);
+                ordersBySymbol.add(new ArrayList<>());
+                return symbols.size() - 1;
+            });
+            ordersBySymbol.get(s).add(new SimOrder(order));
+        }
+    }
+
+    private static String validatePrices(BacktestRequest.Order order) {
+        OrderType type = order.type();
+        if ((type == OrderType.LIMIT || type == OrderType.STOP_LIMIT) && order.limitPrice() == null) {
+            return type + " order on " + order.symbol() + " has no limit price";
+        }
+        if ((type == OrderType.STOP || type == OrderType.STOP_LIMIT) && order.stopPrice() == null) {
+            return type + " order on " + order.symbol() + " has no stop price";
+        }
+        return null;
+    }
+
+    BacktestResult run() {
+        int count = symbols.size();
+        int[] cursor = new int[count];
+        long[] shares = new long[count];
+        long[] lastClose = new long[count];
+        long cash = initialCash;
+        long peak = initialCash;
+        double maxDrawdown = 0;
+        int firstDay = Integer.MAX_VALUE;
+        int lastDay = Integer.MAX_VALUE;
+        int steps = 0;
+
+        while (true) {
+            // The next trading day is the earliest bar not yet replayed on any symbol
+            int day = Integer.MAX_VALUE;
+            for (int s = 0; s < count; s++) {
+                if (cursor[s] < bars.get(s).size()) {
+                    day = Math.min(day, bars.get(s).days[cursor[s]]);
+                }
+            }
+            if (day == Integer.MAX_VALUE) {
+                break;
+            }
+            if (firstDay == Integer.MAX_VALUE) {
+                firstDay = day;
+            }
+            lastDay = day;
+            steps++;
+
+            for (int s = 0; s < count; s++) {
+                PriceBars series = bars.get(s);
+                int b = cursor[s];
+                if (b >= series.size() || series.days[b] != day) {
+                    continue;
+                }
+                for (SimOrder order : ordersBySymbol.get(s)) {
+                    if (order.done || day < order.activeFrom) {
+                        continue;
+                    }
+                    long price = fillPrice(order, series.open[b], series.high[b], series.low[b]);
+                    if (price == NO_FILL) {
+                        continue;
+                    }
+                    long amount = price * (long) order.quantity;
+                    boolean filled;
+                    if (order.buy) {
+                        filled = amount <= cash;
+                        if (filled) {
+                            cash -= amount;
+                            shares[s] += order.quantity;
+                        }
+                    } else {
+                        filled = shares[s] >= order.quantity;
+                        if (filled) {
+                            cash += amount;
+                            shares[s] -= order.quantity;
+                        }
+                    }
+                    if (filled) {
+                        fills.add(new BacktestResult.Fill(LocalDate.ofEpochDay(day),
+                                order.buy ? TransactionType.BUY : TransactionType.SELL, symbols.get(s),
+                                order.quantity, PriceBars.fromTicks(price)));
+                    } else {
+                        rejected++;
+                    }
+                    order.settle(day);
+                }
+                lastClose[s] = series.close[b];
+                cursor[s] = b + 1;
+            }
+
+            long equity = cash;
+            for (int s = 0; s < count; s++) {
+                equity += shares[s] * lastClose[s];
+            }
+            peak = Math.max(peak, equity);
+            if (peak > 0) {
+                maxDrawdown = Math.max(maxDrawdown, (double) (peak - equity) / peak);
+            }
+        }
+
+        long holdings = 0;
+        for (int s = 0; s < count; s++) {
+            holdings += shares[s] * lastClose[s];
+        }
+        int open = 0;
+        for (List<SimOrder> orders : ordersBySymbol) {
+            for (SimOrder order : orders) {
+                if (!order.done && order.repeatEveryDays == 0) {
+                    open++;
+                }
+            }
+        }
+        return BacktestResult.builder()
+                .name(name)
+                .from(firstDay == Integer.MAX_VALUE ? null : LocalDate.ofEpochDay(firstDay))
+                .to(lastDay == Integer.MAX_VALUE ? null : LocalDate.ofEpochDay(lastDay))
+                .simulatedDays(steps)
+                .initialCash(money(initialCash))
+                .finalCash(money(cash))
+                .holdingsValue(money(holdings))
+                .totalValue(money(cash + holdings))
+                .returnPercent(percent(initialCash > 0 ? (double) (cash + holdings - initialCash) / initialCash : 0))
+                .maxDrawdownPercent(percent(maxDrawdown))
+                .fills(fills)
+                .rejectedOrders(rejected)
+                .openOrders(open)
+                .warnings(warnings)
+                .build();
+    }
+
+    /**
+     * Price at which the order fills on this bar, or {@link #NO_FILL}. Marks a
+     * stop-limit order triggered when its stop is reached.
+     */
+    static long fillPrice(SimOrder order, long open, long high, long low) {
+        boolean buy = order.buy;
+        return switch (order.type) {
+            case MARKET -> open;
+            case LIMIT -> limitFill(buy, order.limit, open, high, low);
+            case STOP -> stopFill(buy, order.stop, open, high, low);
+            case STOP_LIMIT -> {
+                if (order.triggered) {
+                    yield limitFill(buy, order.limit, open, high, low);
+                }
+                long trigger = stopFill(buy, order.stop, open, high, low);
+                if (trigger == NO_FILL) {
+                    yield NO_FILL;
+                }
+                order.triggered = true;
+                yield (buy ? trigger <= order.limit : trigger >= order.limit) ? trigger : NO_FILL;
+            }
+        };
+    }
+
+    private static long limitFill(boolean buy, long limit, long open, long high, long low) {
+        if (buy) {
+            return low <= limit ? Math.min(open, limit) : NO_FILL;
+        }
+        return high >= limit ? Math.max(open, limit) : NO_FILL;
+    }
+
+    private static long stopFill(boolean buy, long stop, long open, long high, long low) {
+        if (buy) {
+            return high >= stop ? Math.max(open, stop) : NO_FILL;
+        }
+        return low <= stop ? Math.min(open, stop) : NO_FILL;
+    }
+
+    private static BigDecimal money(long ticks) {
+        return PriceBars.fromTicks(ticks).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static BigDecimal percent(double fraction) {
+        return BigDecimal.valueOf(fraction * 100).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Mutable state of one order during a replay.
+     */
+    static final class SimOrder {
+
+        final boolean buy;
+        final OrderType type;
+        final int quantity;
+        final long limit;
+        final long stop;
+        final int repeatEveryDays;
+        int activeFrom;
+        boolean triggered;
+        boolean done;
+
+        SimOrder(BacktestRequest.Order order) {
+            this.buy = order.side() == TransactionType.BUY;
+            this.type = order.type();
+            this.quantity = order.quantity();
+            this.limit = order.limitPrice() != null ? PriceBars.toTicks(order.limitPrice()) : 0;
+            this.stop = order.stopPrice() != null ? PriceBars.toTicks(order.stopPrice()) : 0;
+            this.repeatEveryDays = order.repeatEveryDays() != null ? order.repeatEveryDays() : 0;
+            this.activeFrom = order.placeOn() != null ? (int) order.placeOn().toEpochDay() : Integer.MIN_VALUE;
+        }
+
+        /**
+         * After a fill or a rejection: done, or placed again after the repeat interval.
+         */
+        void settle(int day) {
+            triggered = false;
+            if (repeatEveryDays > 0) {
+                activeFrom = day + repeatEveryDays;
+            } else {
+                done = true;
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.sentix.api.backtest;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Daily OHLC bars of one symbol, oldest first, in parallel primitive arrays.
+ * Prices are fixed-point ticks of 1/10,000 so that a simulation does integer
+ * arithmetic only. Instances are immutable and shared between simulations.
+ */
+final class PriceBars {
+
+    static final int PRICE_SCALE = 4;
+
+    final int[] days;
+    final long[] open;
+    final long[] high;
+    final long[] low;
+    final long[] close;
+
+    private PriceBars(int size) {
+        days = new int[size];
+        open = new long[size];
+        high = new long[size];
+        low = new long[size];
+        close = new long[size];
+    }
+
+    int size() {
+        return days.length;
+    }
+
+    /**
+     * Bars from an MCP history response ({@code data}: date, open, high, low, close).
+     * Rows that cannot be read are skipped.
+     *
+     * @return the bars, or null if the response has none
+     */
+    static PriceBars parse(Map<String, Object> history) {
+        if (history == null || !(history.get("data") instanceof List<?> rows)) {
+            return null;
+        }
+        record Row(int day, long open, long high, long low, long close) {
+        }
+        List<Row> parsed = new ArrayList<>(rows.size());
+        for (Object item : rows) {
+            if (!(item instanceof Map<?, ?> row)) {
+                continue;
+            }
+            try {
+                parsed.add(new Row((int) LocalDate.parse(String.valueOf(row.get("date"))).toEpochDay(),
+                        toTicks(row.get("open")), toTicks(row.get("high")),
+                        toTicks(row.get("low")), toTicks(row.get("close"))));
+            } catch (RuntimeException e) {
+                // Malformed row; the rest of the series is still usable
+            }
+        }
+        if (parsed.isEmpty()) {
+            return null;
+        }
+        parsed.sort(Comparator.comparingInt(Row::day));
+        PriceBars bars = new PriceBars(parsed.size());
+        for (int i = 0; i < parsed.size(); i++) {
+            Row row = parsed.get(i);
+            bars.days[i] = row.day();
+            bars.open[i] = row.open();
+            bars.high[i] = row.high();
+            bars.low[i] = row.low();
+            bars.close[i] = row.close();
+        }
+        return bars;
+    }
+
+    static PriceBars of(int[] days, long[] open, long[] high, long[] low, long[] close) {
+        PriceBars bars = new PriceBars(days.length);
+        System.arraycopy(days, 0, bars.days, 0, days.length);
+        System.arraycopy(open, 0, bars.open, 0, days.length);
+        System.arraycopy(high, 0, bars.high, 0, days.length);
+        System.arraycopy(low, 0, bars.low, 0, days.length);
+        System.arraycopy(close, 0, bars.close, 0, days.length);
+        return bars;
+    }
+
+    static long toTicks(Object price) {
+        BigDecimal value = price instanceof Number number
+                ? new BigDecimal(number.toString())
+                : new BigDecimal(String.valueOf(price));
+        return toTicks(value);
+    }
+
+    static long toTicks(BigDecimal price) {
+        return price.movePointRight(PRICE_SCALE).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    static BigDecimal fromTicks(long ticks) {
+        return BigDecimal.valueOf(ticks, PRICE_SCALE);
+    }
+}
@@ -1,10 +1,9 @@
 package com.sentix.api.calendar;
 
+import com.sentix.infrastructure.mcp.McpClient;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
 
 import java.time.Duration;
 import java.util.Map;
@@ -14,27 +13,15 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class EconomicCalendarService {
 
-    private final WebClient.Builder webClientBuilder;
-
-    @Value("${mcp.server.url:http://localhost:8000}")
-    private String mcpServerUrl;
-
-    private WebClient getMcpClient() {
-        return webClientBuilder.baseUrl(mcpServerUrl).build();
-    }
+    private final McpClient mcpClient;
 
     public Map<String, Object> getEconomicCalendar(int days) {
         try {
-            return getMcpClient()
-                    .get()
-                    .uri(uriBuilder -> uriBuilder
-                            .path("/calendar/economic")
+            return mcpClient.getCached(McpClient.MARKET_BULKHEAD, "economic-calendar",
+                    "calendar:" + days, Duration.ofSeconds(15),
+                    client -> client.get().uri("/calendar/economic", uriBuilder -> uriBuilder
                             .queryParam("days", days)
-                            .build())
-                    .retrieve()
-                    .bodyToMono(Map.class)
-                    .timeout(Duration.ofSeconds(15))
-                    .block();
+                            .build()));
         } catch (Exception e) {
             log.error("Error fetching economic calendar: {}", e.getMessage());
             return null;
@@ -2,17 +2,26 @@ package com.sentix.api.common;
 
 import lombok.Builder;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Window;
 
 import java.util.List;
+import java.util.function.Function;
 
+/**
+ * One page of a listing. Offset pages come from {@link #from(Page, List)} and always
+ * carry totals. Seek pages come from {@link #from(Window, int, List, Function, Long)} and
+ * carry {@code nextCursor}. They only have totals when the caller asked for them,
+ * because the count is the expensive part.
+ */
 @Builder
 public record PageResponse<T>(
         List<T> content,
         int page,
         int size,
-        long totalElements,
-        int totalPages,
-        boolean last) {
+        Long totalElements,
+        Integer totalPages,
+        boolean last,
+        String nextCursor) {
 
     public static <T> PageResponse<T> from(Page<?> page, List<T> mappedContent) {
         return PageResponse.<T>builder()
@@ -24,4 +33,23 @@ public record PageResponse<T>(
                 .last(page.isLast())
                 .build();
     }
+
+    /**
+     * @param size          requested page size
+     * @param cursorOf      cursor pointing at a row of the window, used for the last one
+     * @param totalElements total row count, or null when it was not requested
+     */
+    public static <E, T> PageResponse<T> from(Window<E> window, int size, List<T> mappedContent,
+                                              Function<E, String> cursorOf, Long totalElements) {
+        boolean last = !window.hasNext() || window.isEmpty();
+        return PageResponse.<T>builder()
+                .content(mappedContent)
+                .page(0)
+                .size(size)
+                .totalElements(totalElements)
+                .totalPages(totalElements == null || size == 0 ? null : (int) Math.ceil((double) totalElements / size))
+                .last(last)
+                .nextCursor(last ? null : cursorOf.apply(window.getContent().get(window.size() - 1)))
+                .build();
+    }
 }
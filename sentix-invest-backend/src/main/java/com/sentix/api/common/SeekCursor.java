@@ -0,0 +1,55 @@
+package com.sentix.api.common;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Opaque cursor for seek pagination over a (timestamp, id) sort key, both descending.
+ * A page fetched from a cursor uses the index range that follows the cursor's key,
+ * so it costs the same at any depth. Offset pages have to skip and count every
+ * earlier row.
+ * The encoded form is URL-safe Base64. Clients pass it back unchanged and should not
+ * parse it.
+ */
+public final class SeekCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private SeekCursor() {
+    }
+
+    public static String encode(LocalDateTime sortKey, UUID id) {
+        String raw = sortKey + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Scroll position after the row the cursor points at. A blank cursor means the
+     * first page.
+     *
+     * @param sortProperty entity property holding the timestamp part of the key
+     * @throws ResponseStatusException 400 if the cursor was not produced by {@link #encode}
+     */
+    public static KeysetScrollPosition position(String cursor, String sortProperty) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int split = raw.indexOf(SEPARATOR);
+            LocalDateTime sortKey = LocalDateTime.parse(raw.substring(0, split));
+            UUID id = UUID.fromString(raw.substring(split + 1));
+            return ScrollPosition.forward(Map.of(sortProperty, sortKey, "id", id));
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+}
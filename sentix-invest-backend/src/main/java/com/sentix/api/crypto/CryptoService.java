@@ -1,10 +1,9 @@
 package com.sentix.api.crypto;
 
+import com.sentix.infrastructure.mcp.McpClient;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
 
 import java.time.Duration;
 import java.util.Map;
@@ -14,27 +13,15 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class CryptoService {
 
-    private final WebClient.Builder webClientBuilder;
-
-    @Value("${mcp.server.url:http://localhost:8000}")
-    private String mcpServerUrl;
-
-    private WebClient getMcpClient() {
-        return webClientBuilder.baseUrl(mcpServerUrl).build();
-    }
+    private final McpClient mcpClient;
 
     public Map<String, Object> getCryptoMarkets(int limit) {
         try {
-            return getMcpClient()
-                    .get()
-                    .uri(uriBuilder -> uriBuilder
-                            .path("/crypto/markets")
+            return mcpClient.getCached(McpClient.MARKET_BULKHEAD, "crypto-markets",
+                    "crypto-markets:" + limit, Duration.ofSeconds(15),
+                    client -> client.get().uri("/crypto/markets", uriBuilder -> uriBuilder
                             .queryParam("limit", limit)
-                            .build())
-                    .retrieve()
-                    .bodyToMono(Map.class)
-                    .timeout(Duration.ofSeconds(15))
-                    .block();
+                            .build()));
         } catch (Exception e) {
             log.error("Error fetching crypto markets: {}", e.getMessage());
             return null;
@@ -43,13 +30,9 @@ public class CryptoService {
 
     public Map<String, Object> getCryptoQuote(String symbol) {
         try {
-            return getMcpClient()
-                    .get()
-                    .uri("/crypto/quote/{symbol}", symbol)
-                    .retrieve()
-                    .bodyToMono(Map.class)
-                    .timeout(Duration.ofSeconds(10))
-                    .block();
+            return mcpClient.getCached(McpClient.MARKET_BULKHEAD, "crypto-quote",
+                    "crypto:" + symbol, Duration.ofSeconds(10),
+                    client -> client.get().uri("/crypto/quote/{symbol}", symbol));
         } catch (Exception e) {
             log.error("Error fetching crypto quote for {}: {}", symbol, e.getMessage());
             return null;
@@ -0,0 +1,25 @@
+package com.sentix.api.dashboard;
+
+import com.sentix.domain.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/dashboard")
+@RequiredArgsConstructor
+public class DashboardController {
+
+    private final DashboardService dashboardService;
+
+    /**
+     * Everything the home screen shows, in one response. Usually served from cache.
+     */
+    @GetMapping
+    public ResponseEntity<DashboardResponse> getDashboard(@AuthenticationPrincipal User user) {
+        return ResponseEntity.ok(dashboardService.getDashboard(user));
+    }
+}
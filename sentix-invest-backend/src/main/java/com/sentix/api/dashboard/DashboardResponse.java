@@ -0,0 +1,29 @@
+package com.sentix.api.dashboard;
+
+import com.sentix.api.alert.PriceAlertResponse;
+import com.sentix.api.portfolio.PortfolioHoldingResponse;
+import com.sentix.api.portfolio.PortfolioPerformanceResponse;
+import com.sentix.api.portfolio.PortfolioSummaryResponse;
+import com.sentix.api.stock.MarketSummaryDto;
+import com.sentix.api.watchlist.WatchlistItemResponse;
+import lombok.Builder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Builder
+public record DashboardResponse(
+        boolean isPaper,
+        PortfolioSummaryResponse summary,
+        BigDecimal dayChange,
+        BigDecimal dayChangePercent,
+        List<PortfolioHoldingResponse> holdings,
+        List<PortfolioPerformanceResponse.PerformanceDataPoint> performanceHistory,
+        List<WatchlistItemResponse> watchlist,
+        List<PriceAlertResponse> activeAlerts,
+        MarketSummaryDto marketSummary,
+        // Some prices were served from the last good response while the MCP server was down
+        boolean stale,
+        LocalDateTime generatedAt) {
+}
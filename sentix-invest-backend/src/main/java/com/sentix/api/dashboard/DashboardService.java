@@ -0,0 +1,217 @@
+package com.sentix.api.dashboard;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.sentix.api.alert.PriceAlertResponse;
+import com.sentix.api.portfolio.PortfolioPerformanceResponse;
+import com.sentix.api.portfolio.PortfolioService;
+import com.sentix.api.portfolio.PortfolioSnapshotService;
+import com.sentix.api.portfolio.PortfolioSummaryResponse;
+import com.sentix.api.stock.MarketSummaryDto;
+import com.sentix.api.stock.StockQuoteDto;
+import com.sentix.api.stock.StockService;
+import com.sentix.api.watchlist.WatchlistItemResponse;
+import com.sentix.domain.PriceAlert;
+import com.sentix.domain.User;
+import com.sentix.infrastructure.metrics.SentixMetrics;
+import com.sentix.infrastructure.persistence.PortfolioHoldingRepository;
+import com.sentix.infrastructure.persistence.PortfolioHoldingView;
+import com.sentix.infrastructure.persistence.PriceAlertRepository;
+import com.sentix.infrastructure.persistence.UserRepository;
+import com.sentix.infrastructure.persistence.WatchlistRepository;
+import com.sentix.infrastructure.persistence.WatchlistView;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-user home screen aggregate: portfolio summary and holdings, day change,
+ * performance history, watchlist, active alerts and the market summary. Every
+ * section is priced from one batch quote call, and the result is cached per user.
+ * An entry older than dashboard.cache.refresh-after is still served while it is
+ * rebuilt in the background. Trades, deposits, snapshot refreshes and watchlist
+ * and alert edits must call {@link #evict(UUID)}. Eviction only reaches this replica, so an edit made
+ * through another one shows here after at most one refresh.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DashboardService {
+
+    static final String DASHBOARD_JOB = "dashboard";
+    private static final String CACHE_NAME = "dashboard";
+    private static final int HISTORY_DAYS = 30;
+
+    private final PortfolioService portfolioService;
+    private final PortfolioSnapshotService portfolioSnapshotService;
+    private final PortfolioHoldingRepository portfolioHoldingRepository;
+    private final WatchlistRepository watchlistRepository;
+    private final PriceAlertRepository priceAlertRepository;
+    private final UserRepository userRepository;
+    private final StockService stockService;
+    private final SentixMetrics metrics;
+
+    @Value("${dashboard.cache.size:10000}")
+    private long maximumSize;
+
+    @Value("${dashboard.cache.ttl:300000}")
+    private long ttlMs;
+
+    @Value("${dashboard.cache.refresh-after:30000}")
+    private long refreshAfterMs;
+
+    @Value("${dashboard.refresh.threads:2}")
+    private int refreshThreads;
+
+    private ExecutorService refreshers;
+    private LoadingCache<UUID, DashboardResponse> dashboards;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger counter = new AtomicInteger();
+        refreshers = Executors.newFixedThreadPool(refreshThreads, runnable -> {
+            Thread thread = new Thread(runnable, "dashboard-refresh-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Background refreshes reload the user; one deleted meanwhile drops the entry
+        dashboards = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .refreshAfterWrite(Duration.ofMillis(refreshAfterMs))
+                .executor(refreshers)
+                .build(userId -> userRepository.findById(userId).map(this::build).orElse(null));
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        refreshers.shutdown();
+        refreshers.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    /**
+     * The cached dashboard, or a freshly built one when there is none or the cached
+     * one was built for the other book (paper or real) or another display currency.
+     */
+    public DashboardResponse getDashboard(User user) {
+        DashboardResponse cached = dashboards.getIfPresent(user.getId());
+        boolean hit = cached != null && matches(cached, user);
+        metrics.recordCacheAccess(CACHE_NAME, hit);
+        if (hit) {
+            return cached;
+        }
+        if (cached != null) {
+            dashboards.invalidate(user.getId());
+        }
+        return dashboards.get(user.getId(), id -> build(user));
+    }
+
+    /**
+     * Drop a user's cached dashboard. Inside a transaction the entry is dropped
+     * again after completion, so a dashboard rebuilt before the commit cannot
+     * stay cached.
+     */
+    public void evict(UUID userId) {
+        dashboards.invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    dashboards.invalidate(userId);
+                }
+            });
+        }
+    }
+
+    DashboardResponse build(User user) {
+        long start = System.nanoTime();
+        boolean isPaper = Boolean.TRUE.equals(user.getIsPaperTrading());
+        List<PortfolioHoldingView> holdings = portfolioHoldingRepository.findViewsByUserAndIsPaper(user, isPaper);
+        List<WatchlistView> watchlist = watchlistRepository.findViewsByUser(user);
+        List<PriceAlert> alerts = priceAlertRepository.findByUserAndIsActiveTrue(user);
+        List<PortfolioPerformanceResponse.PerformanceDataPoint> history =
+                portfolioSnapshotService.getPerformanceHistory(user, HISTORY_DAYS, isPaper);
+        metrics.recordJobPhase(DASHBOARD_JOB, "load", System.nanoTime() - start);
+
+        // One batch quote call for every symbol on the screen
+        long quotesStart = System.nanoTime();
+        Set<String> symbols = new LinkedHashSet<>();
+        holdings.forEach(holding -> symbols.add(holding.symbol()));
+        watchlist.forEach(item -> symbols.add(item.symbol()));
+        alerts.forEach(alert -> symbols.add(alert.getSymbol()));
+        Map<String, StockQuoteDto> quotes = stockService.getStockQuotes(symbols);
+        MarketSummaryDto marketSummary = stockService.getMarketSummary();
+        metrics.recordJobPhase(DASHBOARD_JOB, "quotes", System.nanoTime() - quotesStart);
+
+        PortfolioSummaryResponse summary = portfolioService.getPortfolioSummary(user, holdings, quotes);
+        BigDecimal dayChange = BigDecimal.ZERO;
+        for (PortfolioHoldingView holding : holdings) {
+            StockQuoteDto quote = quotes.get(holding.symbol().toUpperCase());
+            if (quote != null) {
+                dayChange = dayChange.add(BigDecimal.valueOf(quote.getChange())
+                        .multiply(BigDecimal.valueOf(holding.quantity())));
+            }
+        }
+        BigDecimal previousValue = summary.totalValue().subtract(dayChange);
+        BigDecimal dayChangePercent = BigDecimal.ZERO;
+        if (previousValue.compareTo(BigDecimal.ZERO) > 0) {
+            dayChangePercent = dayChange
+                    .divide(previousValue, 4, RoundingMode.HALF_UP)
+                    .multiply(BigDecimal.valueOf(100));
+        }
+
+        boolean stale = (marketSummary != null && marketSummary.isStale())
+                || quotes.values().stream().anyMatch(StockQuoteDto::isStale);
+
+        DashboardResponse dashboard = DashboardResponse.builder()
+                .isPaper(isPaper)
+                .summary(summary)
+                .dayChange(dayChange.setScale(2, RoundingMode.HALF_UP))
+                .dayChangePercent(dayChangePercent.setScale(2, RoundingMode.HALF_UP))
+                .holdings(portfolioService.getPortfolio(user, holdings, quotes))
+                .performanceHistory(history)
+                .watchlist(watchlist.stream()
+                        .map(item -> WatchlistItemResponse.from(item, quotes.get(item.symbol().toUpperCase())))
+                        .toList())
+                .activeAlerts(alerts.stream()
+                        .map(alert -> PriceAlertResponse.from(alert, priceOf(quotes.get(alert.getSymbol()))))
+                        .toList())
+                .marketSummary(marketSummary)
+                .stale(stale)
+                .generatedAt(LocalDateTime.now())
+                .build();
+        metrics.recordJobPhase(DASHBOARD_JOB, "build", System.nanoTime() - start);
+        log.debug("Built dashboard for user {} ({} symbols)", user.getId(), symbols.size());
+        return dashboard;
+    }
+
+    private static boolean matches(DashboardResponse dashboard, User user) {
+        String displayCurrency = user.getPreferredCurrency() != null ? user.getPreferredCurrency() : "USD";
+        return dashboard.isPaper() == Boolean.TRUE.equals(user.getIsPaperTrading())
+                && Objects.equals(dashboard.summary().displayCurrency(), displayCurrency);
+    }
+
+    private static BigDecimal priceOf(StockQuoteDto quote) {
+        return quote != null ? BigDecimal.valueOf(quote.getPrice()) : BigDecimal.ZERO;
+    }
+}
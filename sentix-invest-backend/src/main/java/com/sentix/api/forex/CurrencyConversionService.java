@@ -1,5 +1,6 @@
 package com.sentix.api.forex;
 
+import com.sentix.infrastructure.metrics.SentixMetrics;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -19,10 +20,12 @@ import java.util.concurrent.ConcurrentHashMap;
 public class CurrencyConversionService {
 
     private final ForexService forexService;
+    private final SentixMetrics metrics;
 
     // Cache: key = "FROM:TO", value = CachedRate
     private final Map<String, CachedRate> rateCache = new ConcurrentHashMap<>();
     private static final long CACHE_TTL_MS = 5 * 60 * 1000; // 5 minutes
+    private static final String RATE_CACHE = "exchange-rate";
 
     /**
      * Convert an amount from one currency to another.
@@ -53,8 +56,10 @@ public class CurrencyConversionService {
         CachedRate cached = rateCache.get(cacheKey);
 
         if (cached != null && !cached.isExpired()) {
+            metrics.recordCacheAccess(RATE_CACHE, true);
             return cached.rate;
         }
+        metrics.recordCacheAccess(RATE_CACHE, false);
 
         try {
             Map<String, Object> result = forexService.convertCurrency(
@@ -1,10 +1,9 @@
 package com.sentix.api.forex;
 
+import com.sentix.infrastructure.mcp.McpClient;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
 
 import java.time.Duration;
 import java.util.Map;
@@ -14,27 +13,15 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class ForexService {
 
-    private final WebClient.Builder webClientBuilder;
-
-    @Value("${mcp.server.url:http://localhost:8000}")
-    private String mcpServerUrl;
-
-    private WebClient getMcpClient() {
-        return webClientBuilder.baseUrl(mcpServerUrl).build();
-    }
+    private final McpClient mcpClient;
 
     public Map<String, Object> getForexRates(String base) {
         try {
-            return getMcpClient()
-                    .get()
-                    .uri(uriBuilder -> uriBuilder
-                            .path("/forex/rates")
+            return mcpClient.getCached(McpClient.MARKET_BULKHEAD, "forex-rates",
+                    "rates:" + base, Duration.ofSeconds(15),
+                    client -> client.get().uri("/forex/rates", uriBuilder -> uriBuilder
                             .queryParam("base", base)
-                            .build())
-                    .retrieve()
-                    .bodyToMono(Map.class)
-                    .timeout(Duration.ofSeconds(15))
-                    .block();
+                            .build()));
         } catch (Exception e) {
             log.error("Error fetching forex rates for base {}: {}", base, e.getMessage());
             return null;
@@ -43,18 +30,13 @@ public class ForexService {
 
     public Map<String, Object> convertCurrency(String fromCurrency, String toCurrency, double amount) {
         try {
-            return getMcpClient()
-                    .get()
-                    .uri(uriBuilder -> uriBuilder
-                            .path("/forex/convert")
+            return mcpClient.getCached(McpClient.MARKET_BULKHEAD, "forex-convert",
+                    "convert:" + fromCurrency + ":" + toCurrency + ":" + amount, Duration.ofSeconds(15),
+                    client -> client.get().uri("/forex/convert", uriBuilder -> uriBuilder
                             .queryParam("from_currency", fromCurrency)
                             .queryParam("to_currency", toCurrency)
                             .queryParam("amount", amount)
-                            .build())
-                    .retrieve()
-                    .bodyToMono(Map.class)
-                    .timeout(Duration.ofSeconds(15))
-                    .block();
+                            .build()));
         } catch (Exception e) {
             log.error("Error converting {} to {}: {}", fromCurrency, toCurrency, e.getMessage());
             return null;
@@ -0,0 +1,82 @@
+package com.sentix.api.ledger;
+
+import com.sentix.domain.CashLedgerEntry;
+import com.sentix.domain.LedgerEntryType;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Working copy of one account's position in the cash ledger, used while a trade
+ * or deposit is being booked. Posts move the balance forward in memory;
+ * {@link CashLedgerService#append} writes them. Not thread-safe: callers hold the
+ * account's lock.
+ */
+public final class CashAccount {
+
+    static final int SCALE = 4;
+
+    private final UUID userId;
+    private final boolean isPaper;
+    private long sequence;
+    private BigDecimal balance;
+    private final List<CashLedgerEntry> pending = new ArrayList<>();
+
+    CashAccount(UUID userId, boolean isPaper, long sequence, BigDecimal balance) {
+        this.userId = userId;
+        this.isPaper = isPaper;
+        this.sequence = sequence;
+        this.balance = balance;
+    }
+
+    public BigDecimal balance() {
+        return balance;
+    }
+
+    public boolean covers(BigDecimal amount) {
+        return balance.compareTo(amount) >= 0;
+    }
+
+    /**
+     * Book a signed amount: positive for money in, negative for money out.
+     */
+    public CashLedgerEntry post(LedgerEntryType type, BigDecimal amount, UUID referenceId) {
+        BigDecimal scaled = amount.setScale(SCALE, RoundingMode.HALF_UP);
+        balance = balance.add(scaled);
+        sequence++;
+        CashLedgerEntry entry = CashLedgerEntry.builder()
+                .userId(userId)
+                .isPaper(isPaper)
+                .sequence(sequence)
+                .type(type)
+                .amount(scaled)
+                .balanceAfter(balance)
+                .referenceId(referenceId)
+                .createdAt(LocalDateTime.now())
+                .build();
+        pending.add(entry);
+        return entry;
+    }
+
+    UUID userId() {
+        return userId;
+    }
+
+    boolean isPaper() {
+        return isPaper;
+    }
+
+    long sequence() {
+        return sequence;
+    }
+
+    List<CashLedgerEntry> drainPending() {
+        List<CashLedgerEntry> entries = List.copyOf(pending);
+        pending.clear();
+        return entries;
+    }
+}
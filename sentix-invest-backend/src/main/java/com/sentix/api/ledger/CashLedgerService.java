@@ -0,0 +1,198 @@
+package com.sentix.api.ledger;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sentix.api.common.PageResponse;
+import com.sentix.api.common.SeekCursor;
+import com.sentix.domain.CashLedgerEntry;
+import com.sentix.domain.User;
+import com.sentix.infrastructure.metrics.SentixMetrics;
+import com.sentix.infrastructure.persistence.CashLedgerRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Window;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Balances of the append-only cash ledger. The balance of an account is the
+ * {@code balanceAfter} of its latest entry, or the opening balance on the users
+ * row if it has none, so reading it never sums history. Latest positions are
+ * cached for balance reads and only move forward once an append has committed.
+ * A cached position can be behind appends made by other replicas, so accounts
+ * opened to post entries read the ledger table instead: a balance check made
+ * under the account's lock sees every committed deposit and sell. An append
+ * that still races another replica collides with the sequence constraint and
+ * is retried by the caller.
+ */
+@Service
+@RequiredArgsConstructor
+public class CashLedgerService {
+
+    static final String SEQUENCE_CONSTRAINT = "uk_cash_ledger_account_sequence";
+    static final String DEPOSIT_REFERENCE_CONSTRAINT = "uk_cash_ledger_deposit_reference";
+    private static final String CACHE_NAME = "ledger-balance";
+
+    private final CashLedgerRepository cashLedgerRepository;
+    private final SentixMetrics metrics;
+
+    @Value("${ledger.balance-cache.size:100000}")
+    private long maximumSize;
+
+    @Value("${ledger.balance-cache.ttl:60000}")
+    private long ttlMs;
+
+    private Cache<AccountKey, Position> positions;
+
+    private record AccountKey(UUID userId, boolean isPaper) {
+    }
+
+    private record Position(long sequence, BigDecimal balance) {
+    }
+
+    @PostConstruct
+    void init() {
+        positions = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .build();
+    }
+
+    /**
+     * Balance from the cache, for display and for checks that are repeated under
+     * the account's lock.
+     */
+    public BigDecimal balance(User user, boolean isPaper) {
+        return position(user, isPaper).balance();
+    }
+
+    /**
+     * Open an account to post entries against, at its latest position in the
+     * ledger table rather than the cached one. The cache is brought forward with it.
+     */
+    public CashAccount account(User user, boolean isPaper) {
+        Position position = latest(user, isPaper);
+        advance(new AccountKey(user.getId(), isPaper), position);
+        return new CashAccount(user.getId(), isPaper, position.sequence(), position.balance());
+    }
+
+    /**
+     * Insert the entries posted to an account. Inside a transaction the cached
+     * position is advanced after commit and dropped on rollback.
+     */
+    public void append(CashAccount account) {
+        List<CashLedgerEntry> entries = account.drainPending();
+        if (entries.isEmpty()) {
+            return;
+        }
+        cashLedgerRepository.saveAll(entries);
+
+        AccountKey key = new AccountKey(account.userId(), account.isPaper());
+        Position position = new Position(account.sequence(), account.balance());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            advance(key, position);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    advance(key, position);
+                } else {
+                    positions.invalidate(key);
+                }
+            }
+        });
+    }
+
+    /**
+     * Drop the cached positions of a user's accounts, e.g. after losing an append race.
+     */
+    public void evict(UUID userId) {
+        positions.invalidate(new AccountKey(userId, false));
+        positions.invalidate(new AccountKey(userId, true));
+    }
+
+    /**
+     * Whether a failed write lost a race to append at the same ledger position.
+     */
+    public static boolean isSequenceConflict(DataIntegrityViolationException e) {
+        return violates(e, SEQUENCE_CONSTRAINT);
+    }
+
+    /**
+     * Whether a failed write tried to credit a deposit whose reference is already in the ledger.
+     */
+    public static boolean isDuplicateDeposit(DataIntegrityViolationException e) {
+        return violates(e, DEPOSIT_REFERENCE_CONSTRAINT);
+    }
+
+    private static boolean violates(DataIntegrityViolationException e, String constraint) {
+        String message = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+        return message != null && message.contains(constraint);
+    }
+
+    /**
+     * Balance as it was at {@code asOf}: one index lookup of the last entry before it.
+     */
+    public BigDecimal balanceAt(User user, boolean isPaper, LocalDateTime asOf) {
+        return cashLedgerRepository
+                .findTopByUserIdAndIsPaperAndCreatedAtLessThanEqualOrderByCreatedAtDescSequenceDesc(
+                        user.getId(), isPaper, asOf)
+                .map(CashLedgerEntry::getBalanceAfter)
+                .orElseGet(() -> opening(user, isPaper));
+    }
+
+    /**
+     * Seek page of an account's ledger entries, newest first.
+     */
+    public PageResponse<LedgerEntryResponse> getEntriesAfter(User user, boolean isPaper, String cursor, int size) {
+        Window<CashLedgerEntry> window = cashLedgerRepository.findByUserIdAndIsPaperOrderByCreatedAtDescIdDesc(
+                user.getId(), isPaper, SeekCursor.position(cursor, "createdAt"), Limit.of(size));
+        List<LedgerEntryResponse> content = window.getContent().stream()
+                .map(LedgerEntryResponse::from)
+                .toList();
+        return PageResponse.from(window, size, content,
+                entry -> SeekCursor.encode(entry.getCreatedAt(), entry.getId()), null);
+    }
+
+    private Position position(User user, boolean isPaper) {
+        AccountKey key = new AccountKey(user.getId(), isPaper);
+        Position cached = positions.getIfPresent(key);
+        metrics.recordCacheAccess(CACHE_NAME, cached != null);
+        if (cached != null) {
+            return cached;
+        }
+        Position position = latest(user, isPaper);
+        advance(key, position);
+        return position;
+    }
+
+    private Position latest(User user, boolean isPaper) {
+        return cashLedgerRepository.findTopByUserIdAndIsPaperOrderBySequenceDesc(user.getId(), isPaper)
+                .map(entry -> new Position(entry.getSequence(), entry.getBalanceAfter()))
+                .orElseGet(() -> new Position(0, opening(user, isPaper)));
+    }
+
+    // A read that started before a concurrent commit must not move the cache back
+    private void advance(AccountKey key, Position position) {
+        positions.asMap().merge(key, position,
+                (current, next) -> next.sequence() >= current.sequence() ? next : current);
+    }
+
+    private static BigDecimal opening(User user, boolean isPaper) {
+        BigDecimal opening = isPaper ? user.getPaperBalance() : user.getBalance();
+        return opening != null ? opening : BigDecimal.ZERO;
+    }
+}
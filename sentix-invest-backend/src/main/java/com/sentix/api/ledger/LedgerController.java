@@ -0,0 +1,49 @@
+package com.sentix.api.ledger;
+
+import com.sentix.api.common.PageResponse;
+import com.sentix.domain.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("/api/v1/ledger")
+@RequiredArgsConstructor
+public class LedgerController {
+
+    private final CashLedgerService cashLedgerService;
+
+    public record BalanceResponse(boolean paper, BigDecimal balance, LocalDateTime asOf) {
+    }
+
+    @GetMapping
+    public ResponseEntity<PageResponse<LedgerEntryResponse>> getEntries(
+            @AuthenticationPrincipal User user,
+            @RequestParam(defaultValue = "false") boolean paper,
+            @RequestParam(defaultValue = "") String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(cashLedgerService.getEntriesAfter(user, paper, cursor, size));
+    }
+
+    /**
+     * Current balance, or the balance at {@code asOf} for audits.
+     */
+    @GetMapping("/balance")
+    public ResponseEntity<BalanceResponse> getBalance(
+            @AuthenticationPrincipal User user,
+            @RequestParam(defaultValue = "false") boolean paper,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf) {
+        BigDecimal balance = asOf != null
+                ? cashLedgerService.balanceAt(user, paper, asOf)
+                : cashLedgerService.balance(user, paper);
+        return ResponseEntity.ok(new BalanceResponse(paper, balance, asOf));
+    }
+}
@@ -0,0 +1,22 @@
+package com.sentix.api.ledger;
+
+import com.sentix.domain.CashLedgerEntry;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record LedgerEntryResponse(
+        UUID id,
+        long sequence,
+        String type,
+        BigDecimal amount,
+        BigDecimal balanceAfter,
+        UUID referenceId,
+        LocalDateTime createdAt) {
+
+    public static LedgerEntryResponse from(CashLedgerEntry entry) {
+        return new LedgerEntryResponse(entry.getId(), entry.getSequence(), entry.getType().name(),
+                entry.getAmount(), entry.getBalanceAfter(), entry.getReferenceId(), entry.getCreatedAt());
+    }
+}
@@ -0,0 +1,143 @@
+package com.sentix.api.lots;
+
+import com.sentix.domain.LotDisposal;
+import com.sentix.domain.LotMethod;
+import com.sentix.domain.TaxLot;
+import com.sentix.domain.Transaction;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The open lots of one holding, oldest first, for the trades of one transaction.
+ * Buys append a lot; sells take from the head (FIFO) or the tail (LIFO), so each
+ * trade touches only the lots it opens or closes. Nothing is written until
+ * {@link TaxLotService#save} is called, after the trade's transactions are saved.
+ */
+public final class LotBook {
+
+    private final UUID userId;
+    private final boolean isPaper;
+    private final String symbol;
+    private final LotMethod method;
+    private final Deque<TaxLot> open;
+    private final List<TaxLot> closed = new ArrayList<>();
+    private final List<LotDisposal> disposals = new ArrayList<>();
+
+    LotBook(UUID userId, boolean isPaper, String symbol, LotMethod method, List<TaxLot> lots) {
+        this.userId = userId;
+        this.isPaper = isPaper;
+        this.symbol = symbol;
+        this.method = method;
+        this.open = new ArrayDeque<>(lots);
+    }
+
+    /**
+     * Carry over shares that have no lot, such as holdings bought before lots were
+     * kept, as one lot older than every other.
+     */
+    void carryOver(int quantity, BigDecimal costPerShare, LocalDateTime acquiredAt) {
+        open.addFirst(TaxLot.builder()
+                .userId(userId)
+                .isPaper(isPaper)
+                .symbol(symbol)
+                .acquiredAt(acquiredAt)
+                .quantity(quantity)
+                .remainingQuantity(quantity)
+                .costPerShare(costPerShare)
+                .build());
+    }
+
+    public void open(Transaction buy) {
+        open.addLast(TaxLot.builder()
+                .userId(userId)
+                .isPaper(isPaper)
+                .symbol(symbol)
+                .openTransaction(buy)
+                .acquiredAt(buy.getExecutedAt())
+                .quantity(buy.getQuantity())
+                .remainingQuantity(buy.getQuantity())
+                .costPerShare(buy.getPricePerShare())
+                .build());
+    }
+
+    /**
+     * Close lots for a sell, one disposal per lot it reaches.
+     *
+     * @return the gain realized by the sell
+     * @throws IllegalStateException if the open lots hold fewer shares than the sell
+     */
+    public BigDecimal close(Transaction sell) {
+        BigDecimal realized = BigDecimal.ZERO;
+        int remaining = sell.getQuantity();
+        while (remaining > 0) {
+            TaxLot lot = method == LotMethod.FIFO ? open.peekFirst() : open.peekLast();
+            if (lot == null) {
+                throw new IllegalStateException("Open lots of " + symbol + " are short of the sell by " + remaining);
+            }
+            int taken = Math.min(remaining, lot.getRemainingQuantity());
+            BigDecimal gain = sell.getPricePerShare().subtract(lot.getCostPerShare())
+                    .multiply(BigDecimal.valueOf(taken));
+            disposals.add(LotDisposal.builder()
+                    .userId(userId)
+                    .isPaper(isPaper)
+                    .symbol(symbol)
+                    .openTransaction(lot.getOpenTransaction())
+                    .sellTransaction(sell)
+                    .acquiredAt(lot.getAcquiredAt())
+                    .disposedAt(sell.getExecutedAt())
+                    .quantity(taken)
+                    .costPerShare(lot.getCostPerShare())
+                    .proceedsPerShare(sell.getPricePerShare())
+                    .realizedProfitLoss(gain)
+                    .build());
+            lot.setRemainingQuantity(lot.getRemainingQuantity() - taken);
+            lot.setRealizedProfitLoss(lot.getRealizedProfitLoss().add(gain));
+            if (lot.getRemainingQuantity() == 0) {
+                if (method == LotMethod.FIFO) {
+                    open.pollFirst();
+                } else {
+                    open.pollLast();
+                }
+                closed.add(lot);
+            }
+            realized = realized.add(gain);
+            remaining -= taken;
+        }
+        return realized;
+    }
+
+    public int quantity() {
+        return open.stream().mapToInt(TaxLot::getRemainingQuantity).sum();
+    }
+
+    public BigDecimal costBasis() {
+        return open.stream().map(TaxLot::getCostBasis).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    /**
+     * Cost per share of the shares still held, or null if none are.
+     */
+    public BigDecimal averageCost() {
+        int quantity = quantity();
+        return quantity > 0 ? costBasis().divide(BigDecimal.valueOf(quantity), 4, RoundingMode.HALF_UP) : null;
+    }
+
+    List<TaxLot> openLots() {
+        return List.copyOf(open);
+    }
+
+    List<TaxLot> closedLots() {
+        return closed;
+    }
+
+    List<LotDisposal> disposals() {
+        return disposals;
+    }
+}
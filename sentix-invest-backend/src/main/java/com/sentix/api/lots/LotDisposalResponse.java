@@ -0,0 +1,32 @@
+package com.sentix.api.lots;
+
+import com.sentix.domain.LotDisposal;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One realized gain. {@code longTerm} is true when the shares were held for more
+ * than a year.
+ */
+public record LotDisposalResponse(
+        UUID id,
+        String symbol,
+        int quantity,
+        LocalDateTime acquiredAt,
+        LocalDateTime disposedAt,
+        BigDecimal costPerShare,
+        BigDecimal proceedsPerShare,
+        BigDecimal realizedProfitLoss,
+        boolean longTerm,
+        UUID sellTransactionId) {
+
+    public static LotDisposalResponse from(LotDisposal disposal) {
+        return new LotDisposalResponse(disposal.getId(), disposal.getSymbol(), disposal.getQuantity(),
+                disposal.getAcquiredAt(), disposal.getDisposedAt(), disposal.getCostPerShare(),
+                disposal.getProceedsPerShare(), disposal.getRealizedProfitLoss(),
+                disposal.getDisposedAt().isAfter(disposal.getAcquiredAt().plusYears(1)),
+                disposal.getSellTransaction().getId());
+    }
+}
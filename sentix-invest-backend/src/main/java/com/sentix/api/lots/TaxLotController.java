@@ -0,0 +1,37 @@
+package com.sentix.api.lots;
+
+import com.sentix.api.common.PageResponse;
+import com.sentix.domain.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/portfolio")
+@RequiredArgsConstructor
+public class TaxLotController {
+
+    private final TaxLotService taxLotService;
+
+    @GetMapping("/lots/{symbol}")
+    public ResponseEntity<List<TaxLotResponse>> getLots(
+            @AuthenticationPrincipal User user,
+            @PathVariable String symbol) {
+        return ResponseEntity.ok(taxLotService.getLots(user, symbol));
+    }
+
+    @GetMapping("/realized")
+    public ResponseEntity<PageResponse<LotDisposalResponse>> getRealized(
+            @AuthenticationPrincipal User user,
+            @RequestParam(defaultValue = "") String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(taxLotService.getDisposalsAfter(user, cursor, size));
+    }
+}
@@ -0,0 +1,43 @@
+package com.sentix.api.lots;
+
+import com.sentix.domain.TaxLot;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * An open lot. Price-dependent fields are null when no quote is available.
+ */
+public record TaxLotResponse(
+        UUID id,
+        UUID openTransactionId,
+        LocalDateTime acquiredAt,
+        int quantity,
+        int remainingQuantity,
+        BigDecimal costPerShare,
+        BigDecimal costBasis,
+        BigDecimal currentPrice,
+        BigDecimal currentValue,
+        BigDecimal unrealizedProfitLoss,
+        BigDecimal realizedProfitLoss) {
+
+    public static TaxLotResponse from(TaxLot lot, BigDecimal currentPrice) {
+        BigDecimal currentValue = currentPrice != null
+                ? currentPrice.multiply(BigDecimal.valueOf(lot.getRemainingQuantity()))
+                : null;
+        return new TaxLotResponse(
+                lot.getId(),
+                lot.getOpenTransaction() != null ? lot.getOpenTransaction().getId() : null,
+                lot.getAcquiredAt(),
+                lot.getQuantity(),
+                lot.getRemainingQuantity(),
+                lot.getCostPerShare().setScale(2, RoundingMode.HALF_UP),
+                lot.getCostBasis().setScale(2, RoundingMode.HALF_UP),
+                currentPrice != null ? currentPrice.setScale(2, RoundingMode.HALF_UP) : null,
+                currentValue != null ? currentValue.setScale(2, RoundingMode.HALF_UP) : null,
+                currentValue != null ? currentValue.subtract(lot.getCostBasis()).setScale(2, RoundingMode.HALF_UP) : null,
+                lot.getRealizedProfitLoss().setScale(2, RoundingMode.HALF_UP));
+    }
+}
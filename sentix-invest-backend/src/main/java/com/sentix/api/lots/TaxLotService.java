@@ -0,0 +1,116 @@
+package com.sentix.api.lots;
+
+import com.sentix.api.common.PageResponse;
+import com.sentix.api.common.SeekCursor;
+import com.sentix.api.stock.StockQuoteDto;
+import com.sentix.api.stock.StockService;
+import com.sentix.domain.LotDisposal;
+import com.sentix.domain.LotMethod;
+import com.sentix.domain.PortfolioHolding;
+import com.sentix.domain.User;
+import com.sentix.infrastructure.persistence.LotDisposalRepository;
+import com.sentix.infrastructure.persistence.PortfolioHoldingRepository;
+import com.sentix.infrastructure.persistence.TaxLotRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Window;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Lot-level accounting for holdings. Open lots are rows in {@code tax_lots}, loaded
+ * into a {@link LotBook} by the trade that changes them; sells write one
+ * {@link LotDisposal} per lot they close and add the realized gain to the holding.
+ * Realized P&amp;L per holding and per lot is therefore a stored column, and
+ * unrealized P&amp;L needs only the open lots and a quote. Neither replays the
+ * transactions table.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TaxLotService {
+
+    private final TaxLotRepository taxLotRepository;
+    private final LotDisposalRepository lotDisposalRepository;
+    private final PortfolioHoldingRepository portfolioHoldingRepository;
+    private final StockService stockService;
+
+    @Value("${portfolio.lots.method:FIFO}")
+    private LotMethod method;
+
+    /**
+     * Open lots of a holding. Shares of {@code holding} not covered by a lot are
+     * carried over as one lot at the holding's average price, so holdings bought
+     * before lots were kept can be sold lot by lot.
+     *
+     * @param holding the holding as it is before the trade, or null if there is none
+     */
+    public LotBook book(User user, boolean isPaper, String symbol, PortfolioHolding holding) {
+        String upper = symbol.toUpperCase();
+        LotBook book = new LotBook(user.getId(), isPaper, upper, method,
+                taxLotRepository.findByUserIdAndIsPaperAndSymbolOrderByAcquiredAtAscIdAsc(user.getId(), isPaper, upper));
+        if (holding != null) {
+            int uncovered = holding.getQuantity() - book.quantity();
+            if (uncovered > 0) {
+                book.carryOver(uncovered, holding.getAveragePurchasePrice(),
+                        holding.getCreatedAt() != null ? holding.getCreatedAt() : LocalDateTime.now());
+            }
+        }
+        return book;
+    }
+
+    /**
+     * Write the lots and disposals of a book. Runs in the trade's transaction, after
+     * the transactions the lots refer to have been saved.
+     */
+    public void save(LotBook book) {
+        taxLotRepository.saveAll(book.openLots());
+        taxLotRepository.deleteAll(book.closedLots().stream().filter(lot -> lot.getId() != null).toList());
+        lotDisposalRepository.saveAll(book.disposals());
+    }
+
+    public List<TaxLotResponse> getLots(User user, String symbol) {
+        boolean isPaper = Boolean.TRUE.equals(user.getIsPaperTrading());
+        PortfolioHolding holding = portfolioHoldingRepository
+                .findByUserAndSymbolAndIsPaper(user, symbol.toUpperCase(), isPaper)
+                .orElse(null);
+        if (holding == null) {
+            return List.of();
+        }
+        BigDecimal currentPrice = getCurrentPrice(holding.getSymbol());
+        return book(user, isPaper, symbol, holding).openLots().stream()
+                .map(lot -> TaxLotResponse.from(lot, currentPrice))
+                .toList();
+    }
+
+    /**
+     * Realized gains, newest first, for tax reports.
+     */
+    public PageResponse<LotDisposalResponse> getDisposalsAfter(User user, String cursor, int size) {
+        boolean isPaper = Boolean.TRUE.equals(user.getIsPaperTrading());
+        Window<LotDisposal> window = lotDisposalRepository.findByUserIdAndIsPaperOrderByDisposedAtDescIdDesc(
+                user.getId(), isPaper, SeekCursor.position(cursor, "disposedAt"), Limit.of(size));
+        List<LotDisposalResponse> content = window.getContent().stream()
+                .map(LotDisposalResponse::from)
+                .toList();
+        return PageResponse.from(window, size, content,
+                disposal -> SeekCursor.encode(disposal.getDisposedAt(), disposal.getId()), null);
+    }
+
+    private BigDecimal getCurrentPrice(String symbol) {
+        try {
+            StockQuoteDto quote = stockService.getStockQuote(symbol);
+            if (quote != null) {
+                return BigDecimal.valueOf(quote.getPrice());
+            }
+        } catch (Exception e) {
+            log.warn("Could not fetch current price for {}: {}", symbol, e.getMessage());
+        }
+        return null;
+    }
+}
@@ -0,0 +1,10 @@
+package com.sentix.api.payment;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Outbox payload for a payment whose amount has been credited to the user's balance.
+ */
+public record PaymentCompletedEvent(UUID paymentId, UUID userId, BigDecimal amount, BigDecimal newBalance) {
+}
@@ -0,0 +1,60 @@
+package com.sentix.api.payment;
+
+import com.sentix.domain.OutboxEventType;
+import com.sentix.domain.User;
+import com.sentix.infrastructure.outbox.OutboxConsumer;
+import com.sentix.infrastructure.outbox.OutboxDeliveryDedup;
+import com.sentix.infrastructure.persistence.UserRepository;
+import com.sentix.service.PushNotificationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Sends the user a push receipt for a completed deposit. A transient FCM failure
+ * propagates so the relay retries the event; a rejected token counts as delivered.
+ */
+@Component
+@RequiredArgsConstructor
+public class PaymentReceiptConsumer implements OutboxConsumer<PaymentCompletedEvent> {
+
+    private static final String DEDUP_NAME = "payment-receipt";
+
+    private final UserRepository userRepository;
+    private final PushNotificationService pushNotificationService;
+    private final OutboxDeliveryDedup deliveryDedup;
+
+    @Override
+    public OutboxEventType type() {
+        return OutboxEventType.PAYMENT_COMPLETED;
+    }
+
+    @Override
+    public Class<PaymentCompletedEvent> payloadType() {
+        return PaymentCompletedEvent.class;
+    }
+
+    // One receipt per outbox event, even if the relay delivers it again
+    @Override
+    public void handle(UUID eventId, PaymentCompletedEvent event) {
+        if (!deliveryDedup.claim(DEDUP_NAME, eventId)) {
+            return;
+        }
+        try {
+            handle(event);
+        } catch (RuntimeException e) {
+            deliveryDedup.release(DEDUP_NAME, eventId);
+            throw e;
+        }
+    }
+
+    @Override
+    public void handle(PaymentCompletedEvent event) {
+        userRepository.findById(event.userId())
+                .map(User::getFcmToken)
+                .filter(token -> !token.isBlank())
+                .ifPresent(token -> pushNotificationService.sendDepositNotification(
+                        token, event.amount(), event.newBalance()));
+    }
+}
@@ -4,15 +4,24 @@ import com.iyzipay.Options;
 import com.iyzipay.model.*;
 import com.iyzipay.request.CreateCheckoutFormInitializeRequest;
 import com.iyzipay.request.RetrieveCheckoutFormRequest;
+import com.sentix.api.dashboard.DashboardService;
+import com.sentix.api.ledger.CashAccount;
+import com.sentix.api.ledger.CashLedgerService;
+import com.sentix.api.trading.AccountLocks;
+import com.sentix.domain.LedgerEntryType;
+import com.sentix.domain.OutboxEventType;
 import com.sentix.domain.Payment;
 import com.sentix.domain.PaymentStatus;
 import com.sentix.domain.User;
+import com.sentix.infrastructure.outbox.OutboxPublisher;
 import com.sentix.infrastructure.persistence.PaymentRepository;
 import com.sentix.infrastructure.persistence.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
@@ -27,6 +36,14 @@ public class PaymentService {
     private final Options iyzipayOptions;
     private final PaymentRepository paymentRepository;
     private final UserRepository userRepository;
+    private final CashLedgerService cashLedgerService;
+    private final OutboxPublisher outboxPublisher;
+    private final AccountLocks accountLocks;
+    private final TransactionTemplate transactionTemplate;
+    private final DashboardService dashboardService;
+
+    @Value("${trading.optimistic-lock.max-attempts:3}")
+    private int maxAttempts;
 
     /**
      * Initialize iyzico Checkout Form for a payment
@@ -125,9 +142,10 @@ public class PaymentService {
     }
 
     /**
-     * Handle callback from iyzico after payment completion
+     * Handle callback from iyzico after payment completion. The checkout form is
+     * retrieved first, outside any lock; a successful payment is then credited
+     * like a trade, see {@link #bookDeposit}.
      */
-    @Transactional
     public PaymentCallbackResult handleCallback(String token) {
         try {
             RetrieveCheckoutFormRequest request = new RetrieveCheckoutFormRequest();
@@ -162,36 +180,7 @@ public class PaymentService {
             log.info("Payment status for token {}: {}", token, paymentStatus);
 
             if ("success".equals(paymentStatus) || "SUCCESS".equals(paymentStatus)) {
-                // Payment already processed?
-                if (PaymentStatus.SUCCESS.equals(payment.getStatus())) {
-                    User user = userRepository.findById(payment.getUserId())
-                            .orElseThrow(() -> new RuntimeException("User not found"));
-                    return PaymentCallbackResult.builder()
-                            .success(true)
-                            .message("Payment already processed successfully!")
-                            .newBalance(user.getBalance())
-                            .build();
-                }
-
-                payment.setStatus(PaymentStatus.SUCCESS);
-                payment.setIyzicoPaymentId(checkoutForm.getPaymentId());
-                paymentRepository.save(payment);
-
-                // Update user balance
-                User user = userRepository.findById(payment.getUserId())
-                        .orElseThrow(() -> new RuntimeException("User not found"));
-
-                BigDecimal newBalance = user.getBalance().add(payment.getAmount());
-                user.setBalance(newBalance);
-                userRepository.save(user);
-
-                log.info("Payment successful for user {}: {} TL", user.getId(), payment.getAmount());
-
-                return PaymentCallbackResult.builder()
-                        .success(true)
-                        .message("Payment successful! Your balance has been updated.")
-                        .newBalance(newBalance)
-                        .build();
+                return bookDeposit(payment.getId(), payment.getUserId(), checkoutForm.getPaymentId());
             } else if (paymentStatus == null || paymentStatus.isEmpty()) {
                 // Payment not yet completed
                 return PaymentCallbackResult.builder()
@@ -222,6 +211,78 @@ public class PaymentService {
         }
     }
 
+    /**
+     * Credit a successful payment to the real cash ledger in one transaction that
+     * holds the account's trade lock, so it cannot race a trade on this instance.
+     * An append that lost its ledger position to another replica is retried from
+     * a fresh read. The payment row is re-read under the lock, so a repeated
+     * callback credits nothing. Callbacks for the same payment arriving on two
+     * replicas at once both pass that check; the loser hits the deposit's unique
+     * reference and reports the credit the winner made.
+     */
+    private PaymentCallbackResult bookDeposit(UUID paymentId, UUID userId, String iyzicoPaymentId) {
+        for (int i = 1; ; i++) {
+            try {
+                return accountLocks.withLock(userId, () ->
+                        transactionTemplate.execute(status -> deposit(paymentId, iyzicoPaymentId)));
+            } catch (DataIntegrityViolationException e) {
+                if (CashLedgerService.isDuplicateDeposit(e)) {
+                    log.info("Payment {} was credited by a concurrent callback", paymentId);
+                    cashLedgerService.evict(userId);
+                    User user = userRepository.findById(userId)
+                            .orElseThrow(() -> new RuntimeException("User not found"));
+                    return alreadyProcessed(user);
+                }
+                if (!CashLedgerService.isSequenceConflict(e) || i >= maxAttempts) {
+                    throw e;
+                }
+                cashLedgerService.evict(userId);
+                log.info("Concurrent ledger append on account {}, retrying deposit (attempt {})", userId, i + 1);
+            }
+        }
+    }
+
+    private PaymentCallbackResult deposit(UUID paymentId, String iyzicoPaymentId) {
+        Payment payment = paymentRepository.findById(paymentId)
+                .orElseThrow(() -> new RuntimeException("Payment not found: " + paymentId));
+        User user = userRepository.findById(payment.getUserId())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        // Payment already processed?
+        if (PaymentStatus.SUCCESS.equals(payment.getStatus())) {
+            return alreadyProcessed(user);
+        }
+
+        payment.setStatus(PaymentStatus.SUCCESS);
+        payment.setIyzicoPaymentId(iyzicoPaymentId);
+        paymentRepository.save(payment);
+
+        // Credit the cash ledger; the deposit's unique reference stops a second credit
+        CashAccount cash = cashLedgerService.account(user, false);
+        cash.post(LedgerEntryType.DEPOSIT, payment.getAmount(), payment.getId());
+        cashLedgerService.append(cash);
+        BigDecimal newBalance = cash.balance();
+        outboxPublisher.publish(OutboxEventType.PAYMENT_COMPLETED, payment.getId(),
+                new PaymentCompletedEvent(payment.getId(), user.getId(), payment.getAmount(), newBalance));
+        dashboardService.evict(user.getId());
+
+        log.info("Payment successful for user {}: {} TL", user.getId(), payment.getAmount());
+
+        return PaymentCallbackResult.builder()
+                .success(true)
+                .message("Payment successful! Your balance has been updated.")
+                .newBalance(newBalance)
+                .build();
+    }
+
+    private PaymentCallbackResult alreadyProcessed(User user) {
+        return PaymentCallbackResult.builder()
+                .success(true)
+                .message("Payment already processed successfully!")
+                .newBalance(cashLedgerService.balance(user, false))
+                .build();
+    }
+
     private String getFirstName(String fullName) {
         if (fullName == null || fullName.isBlank())
             return "User";
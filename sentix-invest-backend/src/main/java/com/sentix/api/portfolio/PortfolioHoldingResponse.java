@@ -17,6 +17,7 @@ public record PortfolioHoldingResponse(
         BigDecimal totalCostBasis,
         BigDecimal profitLoss,
         BigDecimal profitLossPercent,
+        BigDecimal realizedProfitLoss,
         String currency,
         BigDecimal valueInPreferredCurrency) {
 }
@@ -1,11 +1,12 @@
 package com.sentix.api.portfolio;
 
 import com.sentix.api.forex.CurrencyConversionService;
+import com.sentix.api.ledger.CashLedgerService;
 import com.sentix.api.stock.StockQuoteDto;
 import com.sentix.api.stock.StockService;
-import com.sentix.domain.PortfolioHolding;
 import com.sentix.domain.User;
 import com.sentix.infrastructure.persistence.PortfolioHoldingRepository;
+import com.sentix.infrastructure.persistence.PortfolioHoldingView;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -14,6 +15,8 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 @Slf4j
 @Service
@@ -24,14 +27,29 @@ public class PortfolioService {
     private final StockService stockService;
     private final PortfolioSnapshotService portfolioSnapshotService;
     private final CurrencyConversionService currencyConversionService;
+    private final CashLedgerService cashLedgerService;
 
     public List<PortfolioHoldingResponse> getPortfolio(User user) {
         boolean isPaper = Boolean.TRUE.equals(user.getIsPaperTrading());
-        List<PortfolioHolding> holdings = portfolioHoldingRepository.findByUserAndIsPaper(user, isPaper);
+        List<PortfolioHoldingView> holdings = portfolioHoldingRepository.findViewsByUserAndIsPaper(user, isPaper);
+        return buildHoldingResponses(user, holdings, this::getCurrentPrice);
+    }
+
+    /**
+     * Responses for holdings already loaded, priced from a batch quote snapshot
+     * keyed by upper-case symbol. No upstream call is made.
+     */
+    public List<PortfolioHoldingResponse> getPortfolio(User user, List<PortfolioHoldingView> holdings,
+                                                       Map<String, StockQuoteDto> quotes) {
+        return buildHoldingResponses(user, holdings, symbol -> priceOf(quotes.get(symbol.toUpperCase())));
+    }
+
+    private List<PortfolioHoldingResponse> buildHoldingResponses(User user, List<PortfolioHoldingView> holdings,
+                                                                 Function<String, BigDecimal> prices) {
         List<PortfolioHoldingResponse> responses = new ArrayList<>();
 
-        for (PortfolioHolding holding : holdings) {
-            responses.add(buildHoldingResponse(holding));
+        for (PortfolioHoldingView holding : holdings) {
+            responses.add(buildHoldingResponse(holding, user.getPreferredCurrency(), prices.apply(holding.symbol())));
         }
 
         return responses;
@@ -39,23 +57,37 @@ public class PortfolioService {
 
     public PortfolioSummaryResponse getPortfolioSummary(User user) {
         boolean isPaper = Boolean.TRUE.equals(user.getIsPaperTrading());
-        List<PortfolioHolding> holdings = portfolioHoldingRepository.findByUserAndIsPaper(user, isPaper);
+        List<PortfolioHoldingView> holdings = portfolioHoldingRepository.findViewsByUserAndIsPaper(user, isPaper);
+        return buildSummary(user, isPaper, holdings, this::getCurrentPrice);
+    }
 
+    /**
+     * Summary of holdings already loaded, priced from a batch quote snapshot keyed
+     * by upper-case symbol. No upstream call is made.
+     */
+    public PortfolioSummaryResponse getPortfolioSummary(User user, List<PortfolioHoldingView> holdings,
+                                                        Map<String, StockQuoteDto> quotes) {
+        boolean isPaper = Boolean.TRUE.equals(user.getIsPaperTrading());
+        return buildSummary(user, isPaper, holdings, symbol -> priceOf(quotes.get(symbol.toUpperCase())));
+    }
+
+    private PortfolioSummaryResponse buildSummary(User user, boolean isPaper, List<PortfolioHoldingView> holdings,
+                                                  Function<String, BigDecimal> prices) {
         BigDecimal totalValue = BigDecimal.ZERO;
         BigDecimal totalCostBasis = BigDecimal.ZERO;
         List<PortfolioSummaryResponse.AllocationItem> allocations = new ArrayList<>();
 
-        for (PortfolioHolding holding : holdings) {
-            BigDecimal currentPrice = getCurrentPrice(holding.getSymbol());
-            BigDecimal currentValue = currentPrice.multiply(BigDecimal.valueOf(holding.getQuantity()));
-            BigDecimal costBasis = holding.getTotalCostBasis();
+        for (PortfolioHoldingView holding : holdings) {
+            BigDecimal currentPrice = prices.apply(holding.symbol());
+            BigDecimal currentValue = currentPrice.multiply(BigDecimal.valueOf(holding.quantity()));
+            BigDecimal costBasis = holding.totalCostBasis();
 
             totalValue = totalValue.add(currentValue);
             totalCostBasis = totalCostBasis.add(costBasis);
 
             allocations.add(PortfolioSummaryResponse.AllocationItem.builder()
-                    .symbol(holding.getSymbol())
-                    .stockName(holding.getStockName())
+                    .symbol(holding.symbol())
+                    .stockName(holding.stockName())
                     .value(currentValue)
                     .percentage(BigDecimal.ZERO) // Will be calculated after totals
                     .build());
@@ -89,7 +121,7 @@ public class PortfolioService {
                 .totalCostBasis(totalCostBasis.setScale(2, RoundingMode.HALF_UP))
                 .totalProfitLoss(totalProfitLoss.setScale(2, RoundingMode.HALF_UP))
                 .totalProfitLossPercent(totalProfitLossPercent.setScale(2, RoundingMode.HALF_UP))
-                .cashBalance(isPaper ? user.getPaperBalance() : user.getBalance())
+                .cashBalance(cashLedgerService.balance(user, isPaper))
                 .holdingsCount(holdings.size())
                 .displayCurrency(user.getPreferredCurrency() != null ? user.getPreferredCurrency() : "USD")
                 .allocations(allocations)
@@ -98,15 +130,16 @@ public class PortfolioService {
 
     public PortfolioHoldingResponse getHoldingBySymbol(User user, String symbol) {
         boolean isPaperMode = Boolean.TRUE.equals(user.getIsPaperTrading());
-        return portfolioHoldingRepository.findByUserAndSymbolAndIsPaper(user, symbol.toUpperCase(), isPaperMode)
-                .map(this::buildHoldingResponse)
+        return portfolioHoldingRepository.findViewByUserAndSymbolAndIsPaper(user, symbol.toUpperCase(), isPaperMode)
+                .map(holding -> buildHoldingResponse(holding, user.getPreferredCurrency(),
+                        getCurrentPrice(holding.symbol())))
                 .orElse(null);
     }
 
-    private PortfolioHoldingResponse buildHoldingResponse(PortfolioHolding holding) {
-        BigDecimal currentPrice = getCurrentPrice(holding.getSymbol());
-        BigDecimal currentValue = currentPrice.multiply(BigDecimal.valueOf(holding.getQuantity()));
-        BigDecimal totalCostBasis = holding.getTotalCostBasis();
+    private PortfolioHoldingResponse buildHoldingResponse(PortfolioHoldingView holding, String preferredCurrency,
+                                                          BigDecimal currentPrice) {
+        BigDecimal currentValue = currentPrice.multiply(BigDecimal.valueOf(holding.quantity()));
+        BigDecimal totalCostBasis = holding.totalCostBasis();
         BigDecimal profitLoss = currentValue.subtract(totalCostBasis);
         BigDecimal profitLossPercent = BigDecimal.ZERO;
 
@@ -116,48 +149,49 @@ public class PortfolioService {
                     .multiply(BigDecimal.valueOf(100));
         }
 
-        // Convert to preferred currency if different
-        String preferredCurrency = holding.getUser().getPreferredCurrency();
+        // Convert to preferred currency if different (from the caller's user, not the lazy holding.user)
         BigDecimal valueInPreferred = currentValue;
-        if (preferredCurrency != null && !preferredCurrency.equalsIgnoreCase(holding.getCurrency())) {
-            valueInPreferred = currencyConversionService.convert(currentValue, holding.getCurrency(), preferredCurrency);
+        if (preferredCurrency != null && !preferredCurrency.equalsIgnoreCase(holding.currency())) {
+            valueInPreferred = currencyConversionService.convert(currentValue, holding.currency(), preferredCurrency);
         }
 
         return PortfolioHoldingResponse.builder()
-                .id(holding.getId())
-                .symbol(holding.getSymbol())
-                .stockName(holding.getStockName())
-                .quantity(holding.getQuantity())
-                .averagePurchasePrice(holding.getAveragePurchasePrice().setScale(2, RoundingMode.HALF_UP))
+                .id(holding.id())
+                .symbol(holding.symbol())
+                .stockName(holding.stockName())
+                .quantity(holding.quantity())
+                .averagePurchasePrice(holding.averagePurchasePrice().setScale(2, RoundingMode.HALF_UP))
                 .currentPrice(currentPrice.setScale(2, RoundingMode.HALF_UP))
                 .currentValue(currentValue.setScale(2, RoundingMode.HALF_UP))
                 .totalCostBasis(totalCostBasis.setScale(2, RoundingMode.HALF_UP))
                 .profitLoss(profitLoss.setScale(2, RoundingMode.HALF_UP))
                 .profitLossPercent(profitLossPercent.setScale(2, RoundingMode.HALF_UP))
-                .currency(holding.getCurrency())
+                .realizedProfitLoss(holding.realizedProfitLoss().setScale(2, RoundingMode.HALF_UP))
+                .currency(holding.currency())
                 .valueInPreferredCurrency(valueInPreferred.setScale(2, RoundingMode.HALF_UP))
                 .build();
     }
 
     private BigDecimal getCurrentPrice(String symbol) {
         try {
-            StockQuoteDto quote = stockService.getStockQuote(symbol);
-            if (quote != null) {
-                return BigDecimal.valueOf(quote.getPrice());
-            }
+            return priceOf(stockService.getStockQuote(symbol));
         } catch (Exception e) {
             log.warn("Could not fetch current price for {}: {}", symbol, e.getMessage());
         }
         return BigDecimal.ZERO;
     }
 
+    private static BigDecimal priceOf(StockQuoteDto quote) {
+        return quote != null ? BigDecimal.valueOf(quote.getPrice()) : BigDecimal.ZERO;
+    }
+
     /**
      * Get portfolio performance analytics including allocations and simulated
      * performance history
      */
     public PortfolioPerformanceResponse getPerformanceAnalytics(User user) {
         boolean isPaper = Boolean.TRUE.equals(user.getIsPaperTrading());
-        List<PortfolioHolding> holdings = portfolioHoldingRepository.findByUserAndIsPaper(user, isPaper);
+        List<PortfolioHoldingView> holdings = portfolioHoldingRepository.findViewsByUserAndIsPaper(user, isPaper);
 
         BigDecimal totalValue = BigDecimal.ZERO;
         BigDecimal totalInvested = BigDecimal.ZERO;
@@ -166,10 +200,10 @@ public class PortfolioService {
         List<PortfolioPerformanceResponse.AllocationByStock> stockAllocations = new ArrayList<>();
 
         // Calculate current values and allocations
-        for (PortfolioHolding holding : holdings) {
-            BigDecimal currentPrice = getCurrentPrice(holding.getSymbol());
-            BigDecimal currentValue = currentPrice.multiply(BigDecimal.valueOf(holding.getQuantity()));
-            BigDecimal costBasis = holding.getTotalCostBasis();
+        for (PortfolioHoldingView holding : holdings) {
+            BigDecimal currentPrice = getCurrentPrice(holding.symbol());
+            BigDecimal currentValue = currentPrice.multiply(BigDecimal.valueOf(holding.quantity()));
+            BigDecimal costBasis = holding.totalCostBasis();
             BigDecimal profitLoss = currentValue.subtract(costBasis);
             BigDecimal profitLossPercent = BigDecimal.ZERO;
 
@@ -184,19 +218,19 @@ public class PortfolioService {
 
             // Get day change from stock quote
             try {
-                StockQuoteDto quote = stockService.getStockQuote(holding.getSymbol());
+                StockQuoteDto quote = stockService.getStockQuote(holding.symbol());
                 if (quote != null) {
                     dayChange = dayChange.add(
                             BigDecimal.valueOf(quote.getChange())
-                                    .multiply(BigDecimal.valueOf(holding.getQuantity())));
+                                    .multiply(BigDecimal.valueOf(holding.quantity())));
                 }
             } catch (Exception e) {
-                log.debug("Could not get day change for {}", holding.getSymbol());
+                log.debug("Could not get day change for {}", holding.symbol());
             }
 
             stockAllocations.add(PortfolioPerformanceResponse.AllocationByStock.builder()
-                    .symbol(holding.getSymbol())
-                    .stockName(holding.getStockName())
+                    .symbol(holding.symbol())
+                    .stockName(holding.stockName())
                     .value(currentValue.setScale(2, RoundingMode.HALF_UP))
                     .percentage(BigDecimal.ZERO) // Will be calculated after totals
                     .profitLoss(profitLoss.setScale(2, RoundingMode.HALF_UP))
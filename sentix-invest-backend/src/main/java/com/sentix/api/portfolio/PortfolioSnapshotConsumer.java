@@ -0,0 +1,46 @@
+package com.sentix.api.portfolio;
+
+import com.sentix.api.dashboard.DashboardService;
+import com.sentix.api.trading.TradeExecutedEvent;
+import com.sentix.domain.OutboxEventType;
+import com.sentix.infrastructure.outbox.OutboxConsumer;
+import com.sentix.infrastructure.persistence.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Refreshes today's portfolio snapshot after a trade, then drops the cached
+ * dashboard so its performance history includes the new snapshot. Snapshots are
+ * upserted per day, so a redelivered event only recomputes the same row.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PortfolioSnapshotConsumer implements OutboxConsumer<TradeExecutedEvent> {
+
+    private final PortfolioSnapshotService portfolioSnapshotService;
+    private final UserRepository userRepository;
+    private final DashboardService dashboardService;
+
+    @Override
+    public OutboxEventType type() {
+        return OutboxEventType.TRADE_EXECUTED;
+    }
+
+    @Override
+    public Class<TradeExecutedEvent> payloadType() {
+        return TradeExecutedEvent.class;
+    }
+
+    @Override
+    public void handle(TradeExecutedEvent event) {
+        userRepository.findById(event.userId()).ifPresentOrElse(
+                user -> {
+                    portfolioSnapshotService.takeSnapshotForUser(user, event.isPaper());
+                    // The trade evicted the dashboard before this snapshot existed
+                    dashboardService.evict(user.getId());
+                },
+                () -> log.debug("User {} no longer exists, skipping snapshot", event.userId()));
+    }
+}
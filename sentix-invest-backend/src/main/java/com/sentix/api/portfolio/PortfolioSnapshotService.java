@@ -1,15 +1,19 @@
 package com.sentix.api.portfolio;
 
+import com.sentix.api.ledger.CashLedgerService;
 import com.sentix.api.stock.StockQuoteDto;
 import com.sentix.api.stock.StockService;
 import com.sentix.domain.PortfolioHolding;
 import com.sentix.domain.PortfolioSnapshot;
 import com.sentix.domain.User;
+import com.sentix.infrastructure.metrics.SentixMetrics;
 import com.sentix.infrastructure.persistence.PortfolioHoldingRepository;
 import com.sentix.infrastructure.persistence.PortfolioSnapshotRepository;
+import com.sentix.infrastructure.persistence.SnapshotValueView;
 import com.sentix.infrastructure.persistence.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -19,67 +23,88 @@ import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class PortfolioSnapshotService {
 
+    private static final String SNAPSHOT_JOB = "portfolio-snapshot";
+
     private final PortfolioSnapshotRepository snapshotRepository;
     private final PortfolioHoldingRepository holdingRepository;
     private final UserRepository userRepository;
     private final StockService stockService;
+    private final CashLedgerService cashLedgerService;
+    private final SentixMetrics metrics;
+
+    @Value("${portfolio.snapshot.batch-size:500}")
+    private int batchSize;
 
     /**
      * Nightly job at 1 AM to take portfolio snapshots for all users with holdings.
+     * Holdings are read once per user and snapshots are written in batched upserts of
+     * {@code portfolio.snapshot.batch-size} rows.
      */
     @Scheduled(cron = "${portfolio.snapshot.cron:0 0 1 * * *}")
     @Transactional
     public void takeNightlySnapshots() {
         log.info("Starting nightly portfolio snapshot job...");
+        long jobStart = System.nanoTime();
         List<User> allUsers = userRepository.findAll();
+        metrics.recordJobPhase(SNAPSHOT_JOB, "load_users", System.nanoTime() - jobStart);
         int snapshotCount = 0;
+        int failures = 0;
+        long snapshotStart = System.nanoTime();
+        List<PortfolioSnapshot> pending = new ArrayList<>(batchSize);
 
         for (User user : allUsers) {
             try {
-                // Take snapshot for real portfolio
-                List<PortfolioHolding> realHoldings = holdingRepository.findByUserAndIsPaper(user, false);
-                if (!realHoldings.isEmpty()) {
-                    takeSnapshot(user, realHoldings, false);
-                    snapshotCount++;
-                }
-
-                // Take snapshot for paper portfolio
-                List<PortfolioHolding> paperHoldings = holdingRepository.findByUserAndIsPaper(user, true);
-                if (!paperHoldings.isEmpty()) {
-                    takeSnapshot(user, paperHoldings, true);
-                    snapshotCount++;
+                // One query covers both the real and the paper portfolio
+                Map<Boolean, List<PortfolioHolding>> holdingsByMode = holdingRepository.findByUser(user).stream()
+                        .collect(Collectors.partitioningBy(holding -> Boolean.TRUE.equals(holding.getIsPaper())));
+                for (boolean isPaper : new boolean[]{false, true}) {
+                    List<PortfolioHolding> holdings = holdingsByMode.get(isPaper);
+                    if (!holdings.isEmpty()) {
+                        pending.add(buildSnapshot(user, holdings, isPaper));
+                        snapshotCount++;
+                    }
                 }
             } catch (Exception e) {
+                failures++;
                 log.warn("Error taking snapshot for user {}: {}", user.getId(), e.getMessage());
             }
+
+            if (pending.size() >= batchSize) {
+                snapshotRepository.upsertAll(pending);
+                pending = new ArrayList<>(batchSize);
+            }
+        }
+        if (!pending.isEmpty()) {
+            snapshotRepository.upsertAll(pending);
         }
 
+        metrics.recordJobPhase(SNAPSHOT_JOB, "snapshot", System.nanoTime() - snapshotStart);
+        metrics.recordJobPhase(SNAPSHOT_JOB, "cycle", System.nanoTime() - jobStart);
+        metrics.recordJobItems(SNAPSHOT_JOB, "created", snapshotCount);
+        metrics.recordJobItems(SNAPSHOT_JOB, "failed", failures);
         log.info("Nightly snapshot job completed. Created {} snapshots.", snapshotCount);
     }
 
     /**
-     * Take a snapshot for a specific user after a trade.
+     * Take a snapshot for a specific user, after a trade via {@link PortfolioSnapshotConsumer}.
      */
     @Transactional
     public void takeSnapshotForUser(User user, boolean isPaper) {
         List<PortfolioHolding> holdings = holdingRepository.findByUserAndIsPaper(user, isPaper);
-        if (!holdings.isEmpty()) {
-            takeSnapshot(user, holdings, isPaper);
-        } else {
-            // Record zero-value snapshot when all holdings are sold
-            saveOrUpdateSnapshot(user, BigDecimal.ZERO, BigDecimal.ZERO,
-                    isPaper ? user.getPaperBalance() : user.getBalance(), 0, isPaper);
-        }
+        // Records a zero-value snapshot when all holdings are sold
+        snapshotRepository.upsertAll(List.of(buildSnapshot(user, holdings, isPaper)));
+        log.debug("Saved portfolio snapshot for user {} (paper={})", user.getId(), isPaper);
     }
 
-    private void takeSnapshot(User user, List<PortfolioHolding> holdings, boolean isPaper) {
+    private PortfolioSnapshot buildSnapshot(User user, List<PortfolioHolding> holdings, boolean isPaper) {
         BigDecimal totalValue = BigDecimal.ZERO;
         BigDecimal totalCostBasis = BigDecimal.ZERO;
 
@@ -90,82 +115,56 @@ public class PortfolioSnapshotService {
             totalCostBasis = totalCostBasis.add(holding.getTotalCostBasis());
         }
 
-        BigDecimal cashBalance = isPaper ? user.getPaperBalance() : user.getBalance();
-
-        saveOrUpdateSnapshot(user, totalValue, totalCostBasis, cashBalance, holdings.size(), isPaper);
-    }
-
-    private void saveOrUpdateSnapshot(User user, BigDecimal totalValue, BigDecimal totalCostBasis,
-                                       BigDecimal cashBalance, int holdingsCount, boolean isPaper) {
-        LocalDate today = LocalDate.now();
-
-        // Update existing snapshot for today if present, otherwise create new
-        Optional<PortfolioSnapshot> existing = snapshotRepository.findByUserAndSnapshotDateAndIsPaper(user, today, isPaper);
-        PortfolioSnapshot snapshot;
-
-        if (existing.isPresent()) {
-            snapshot = existing.get();
-            snapshot.setTotalValue(totalValue.setScale(4, RoundingMode.HALF_UP));
-            snapshot.setTotalCostBasis(totalCostBasis.setScale(4, RoundingMode.HALF_UP));
-            snapshot.setCashBalance(cashBalance);
-            snapshot.setHoldingsCount(holdingsCount);
-        } else {
-            snapshot = PortfolioSnapshot.builder()
-                    .user(user)
-                    .snapshotDate(today)
-                    .totalValue(totalValue.setScale(4, RoundingMode.HALF_UP))
-                    .totalCostBasis(totalCostBasis.setScale(4, RoundingMode.HALF_UP))
-                    .cashBalance(cashBalance)
-                    .holdingsCount(holdingsCount)
-                    .isPaper(isPaper)
-                    .build();
-        }
-
-        snapshotRepository.save(snapshot);
-        log.debug("Saved portfolio snapshot for user {} on {} (paper={})", user.getId(), today, isPaper);
+        return PortfolioSnapshot.builder()
+                .user(user)
+                .snapshotDate(LocalDate.now())
+                .totalValue(totalValue.setScale(4, RoundingMode.HALF_UP))
+                .totalCostBasis(totalCostBasis.setScale(4, RoundingMode.HALF_UP))
+                .cashBalance(cashLedgerService.balance(user, isPaper))
+                .holdingsCount(holdings.size())
+                .isPaper(isPaper)
+                .build();
     }
 
     /**
-     * Get real performance history from snapshots.
+     * Get real performance history from snapshots. Only the date and value columns are read.
      */
     public List<PortfolioPerformanceResponse.PerformanceDataPoint> getPerformanceHistory(User user, int days, boolean isPaper) {
         LocalDate endDate = LocalDate.now();
         LocalDate startDate = endDate.minusDays(days);
 
-        List<PortfolioSnapshot> snapshots = snapshotRepository
-                .findByUserAndIsPaperAndSnapshotDateBetweenOrderBySnapshotDateAsc(user, isPaper, startDate, endDate);
+        List<SnapshotValueView> snapshots = snapshotRepository
+                .findValuesByUserAndIsPaperBetween(user, isPaper, startDate, endDate);
 
         if (snapshots.isEmpty()) {
             return new ArrayList<>();
         }
 
         List<PortfolioPerformanceResponse.PerformanceDataPoint> history = new ArrayList<>();
-        BigDecimal firstValue = snapshots.get(0).getTotalValue();
+        BigDecimal firstValue = snapshots.get(0).totalValue();
+        BigDecimal prevValue = null;
 
-        for (PortfolioSnapshot snapshot : snapshots) {
+        for (SnapshotValueView snapshot : snapshots) {
             BigDecimal dailyReturn = BigDecimal.ZERO;
             BigDecimal cumulativeReturn = BigDecimal.ZERO;
 
             if (firstValue.compareTo(BigDecimal.ZERO) > 0) {
-                cumulativeReturn = snapshot.getTotalValue().subtract(firstValue)
+                cumulativeReturn = snapshot.totalValue().subtract(firstValue)
                         .divide(firstValue, 4, RoundingMode.HALF_UP)
                         .multiply(BigDecimal.valueOf(100));
             }
 
             // Calculate daily return from previous day
-            int idx = snapshots.indexOf(snapshot);
-            if (idx > 0) {
-                BigDecimal prevValue = snapshots.get(idx - 1).getTotalValue();
-                if (prevValue.compareTo(BigDecimal.ZERO) > 0) {
-                    dailyReturn = snapshot.getTotalValue().subtract(prevValue)
-                            .divide(prevValue, 4, RoundingMode.HALF_UP)
-                            .multiply(BigDecimal.valueOf(100));
-                }
+            if (prevValue != null && prevValue.compareTo(BigDecimal.ZERO) > 0) {
+                dailyReturn = snapshot.totalValue().subtract(prevValue)
+                        .divide(prevValue, 4, RoundingMode.HALF_UP)
+                        .multiply(BigDecimal.valueOf(100));
             }
+            prevValue = snapshot.totalValue();
 
             history.add(PortfolioPerformanceResponse.PerformanceDataPoint.builder()
-                    .date(snapshot.getSnapshotDate())
-                    .portfolioValue(snapshot.getTotalValue().setScale(2, RoundingMode.HALF_UP))
+                    .date(snapshot.snapshotDate())
+                    .portfolioValue(snapshot.totalValue().setScale(2, RoundingMode.HALF_UP))
                     .dailyReturn(dailyReturn.setScale(2, RoundingMode.HALF_UP))
                     .cumulativeReturn(cumulativeReturn.setScale(2, RoundingMode.HALF_UP))
                     .build());
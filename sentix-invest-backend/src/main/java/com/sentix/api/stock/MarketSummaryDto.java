@@ -10,4 +10,6 @@ public class MarketSummaryDto {
     private MarketIndexDto nasdaq;
     private MarketIndexDto sp500;
     private String timestamp;
+    // Served from the last good response because the MCP server is unavailable
+    private boolean stale;
 }
@@ -4,7 +4,7 @@ import lombok.Builder;
 import lombok.Data;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 public class StockQuoteDto {
     private String symbol;
     private String name;
@@ -14,4 +14,6 @@ public class StockQuoteDto {
     private String currency;
     private String marketState;
     private String timestamp;
+    // Served from the last good response because the MCP server is unavailable
+    private boolean stale;
 }
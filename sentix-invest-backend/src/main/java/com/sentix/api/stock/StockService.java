@@ -1,67 +1,197 @@
 package com.sentix.api.stock;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sentix.infrastructure.mcp.McpClient;
+import com.sentix.infrastructure.metrics.SentixMetrics;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
 
 import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class StockService {
 
-    private final WebClient.Builder webClientBuilder;
+    /** Largest symbol list the MCP /stocks/quotes endpoint accepts; longer lists get a 400. */
+    static final int MAX_BATCH_SYMBOLS = 200;
+    private static final String RECENT_QUOTES_CACHE = "recent-quote";
+    private static final ParameterizedTypeReference<Map<String, Object>> MAP_TYPE =
+            new ParameterizedTypeReference<>() {
+            };
 
-    @Value("${mcp.server.url:http://localhost:8000}")
-    private String mcpServerUrl;
+    private final McpClient mcpClient;
+    private final SentixMetrics metrics;
 
-    private WebClient getMcpClient() {
-        return webClientBuilder.baseUrl(mcpServerUrl).build();
+    @Value("${stock.recent-quotes.size:10000}")
+    private long recentQuotesSize;
+
+    @Value("${stock.recent-quotes.ttl:60000}")
+    private long recentQuotesTtlMs;
+
+    @Value("${mcp.fallback.cache-size:10000}")
+    private long lastGoodQuotesSize;
+
+    @Value("${mcp.fallback.max-staleness:86400000}")
+    private long maxStalenessMs;
+
+    // Live quotes by upper-case symbol with the time they were fetched, fed by every quote call
+    private Cache<String, RecentQuote> recentQuotes;
+
+    // Same quotes kept up to mcp.fallback.max-staleness, to serve any batch stale while the MCP server is down
+    private Cache<String, StockQuoteDto> lastGoodQuotes;
+
+    private record RecentQuote(StockQuoteDto quote, long fetchedAtNanos) {
+    }
+
+    @PostConstruct
+    void init() {
+        recentQuotes = Caffeine.newBuilder()
+                .maximumSize(recentQuotesSize)
+                .expireAfterWrite(Duration.ofMillis(recentQuotesTtlMs))
+                .build();
+        lastGoodQuotes = Caffeine.newBuilder()
+                .maximumSize(lastGoodQuotesSize)
+                .expireAfterWrite(Duration.ofMillis(maxStalenessMs))
+                .build();
+    }
+
+    /**
+     * The last live quote fetched for a symbol, if it is no older than maxAge.
+     * Never calls the MCP server, and never returns a quote served stale from the
+     * last good response.
+     */
+    public StockQuoteDto getRecentQuote(String symbol, Duration maxAge) {
+        RecentQuote recent = recentQuotes.getIfPresent(symbol.toUpperCase());
+        boolean hit = recent != null && System.nanoTime() - recent.fetchedAtNanos() <= maxAge.toNanos();
+        metrics.recordCacheAccess(RECENT_QUOTES_CACHE, hit);
+        return hit ? recent.quote() : null;
     }
 
     public StockQuoteDto getStockQuote(String symbol) {
         try {
-            Map<String, Object> response = getMcpClient()
-                    .get()
-                    .uri("/stock/{symbol}", symbol)
-                    .retrieve()
-                    .bodyToMono(Map.class)
-                    .timeout(Duration.ofSeconds(10))
-                    .block();
+            Map<String, Object> response = mcpClient.getCached(McpClient.MARKET_BULKHEAD, "stock-quote",
+                    "stock:" + symbol, Duration.ofSeconds(10),
+                    client -> client.get().uri("/stock/{symbol}", symbol));
 
             if (response == null) {
                 return null;
             }
 
-            return StockQuoteDto.builder()
-                    .symbol((String) response.get("symbol"))
-                    .name((String) response.get("name"))
-                    .price(toDouble(response.get("price")))
-                    .change(toDouble(response.get("change")))
-                    .changePercent(toDouble(response.get("changePercent")))
-                    .currency((String) response.get("currency"))
-                    .marketState((String) response.get("marketState"))
-                    .timestamp((String) response.get("timestamp"))
-                    .build();
+            StockQuoteDto quote = mapToStockQuote(response);
+            remember(symbol, quote);
+            return quote;
         } catch (Exception e) {
             log.error("Error fetching stock quote for {}: {}", symbol, e.getMessage());
             return null;
         }
     }
 
+    /**
+     * Fetch quotes for several symbols, one upstream round-trip per
+     * {@value #MAX_BATCH_SYMBOLS} symbols (the most /stocks/quotes accepts).
+     * Returns a map keyed by upper-case symbol. When a batch fails, its symbols
+     * are served stale from the last good quote per symbol, so the fallback works
+     * for any symbol set rather than only a batch seen before. Symbols the MCP
+     * server could not price, and failed symbols never quoted, are absent.
+     */
+    public Map<String, StockQuoteDto> getStockQuotes(Collection<String> symbols) {
+        // Sorted so the same symbol set always splits into the same batches
+        Set<String> distinct = new TreeSet<>();
+        for (String symbol : symbols) {
+            if (symbol != null && !symbol.isBlank()) {
+                distinct.add(symbol.toUpperCase());
+            }
+        }
+        if (distinct.isEmpty()) {
+            return Map.of();
+        }
+
+        List<String> sorted = List.copyOf(distinct);
+        Map<String, StockQuoteDto> result = new HashMap<>();
+        for (int from = 0; from < sorted.size(); from += MAX_BATCH_SYMBOLS) {
+            fetchQuotes(sorted.subList(from, Math.min(from + MAX_BATCH_SYMBOLS, sorted.size())), result);
+        }
+        return result;
+    }
+
+    private void fetchQuotes(List<String> batch, Map<String, StockQuoteDto> result) {
+        Map<String, Object> response;
+        try {
+            response = requestQuotes(String.join(",", batch));
+        } catch (Exception e) {
+            int served = serveLastGood(batch, result);
+            log.error("Error fetching batch stock quotes for {} symbols ({}..{}), {} served stale: {}", batch.size(),
+                    batch.get(0), batch.get(batch.size() - 1), served, e.getMessage());
+            return;
+        }
+        try {
+            if (response == null || !(response.get("quotes") instanceof List<?> quotes)) {
+                return;
+            }
+
+            boolean stale = Boolean.TRUE.equals(response.get("stale"));
+            for (Object item : quotes) {
+                if (item instanceof Map<?, ?> quote) {
+                    StockQuoteDto dto = mapToStockQuote((Map<String, Object>) quote);
+                    dto.setStale(stale || dto.isStale());
+                    if (dto.getSymbol() != null) {
+                        result.put(dto.getSymbol().toUpperCase(), dto);
+                        remember(dto.getSymbol(), dto);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.error("Error reading batch stock quotes for {} symbols ({}..{}): {}", batch.size(), batch.get(0),
+                    batch.get(batch.size() - 1), e.getMessage());
+        }
+    }
+
+    /**
+     * One /stocks/quotes round-trip. Not cached per batch: the fallback is kept per
+     * symbol in {@link #lastGoodQuotes}.
+     */
+    Map<String, Object> requestQuotes(String joinedSymbols) {
+        return mcpClient.call(McpClient.MARKET_BULKHEAD, "stock-quotes", Duration.ofSeconds(15),
+                client -> client.get().uri("/stocks/quotes", uriBuilder -> uriBuilder
+                                .queryParam("symbols", joinedSymbols)
+                                .build())
+                        .retrieve()
+                        .bodyToMono(MAP_TYPE));
+    }
+
+    private int serveLastGood(List<String> batch, Map<String, StockQuoteDto> result) {
+        int served = 0;
+        for (String symbol : batch) {
+            StockQuoteDto quote = lastGoodQuotes.getIfPresent(symbol);
+            if (quote != null) {
+                result.put(symbol, quote.toBuilder().stale(true).build());
+                served++;
+            }
+        }
+        if (served > 0) {
+            metrics.recordStaleFallback("stock-quotes");
+        }
+        return served;
+    }
+
     public MarketSummaryDto getMarketSummary() {
         try {
-            Map<String, Object> response = getMcpClient()
-                    .get()
-                    .uri("/market-summary")
-                    .retrieve()
-                    .bodyToMono(Map.class)
-                    .timeout(Duration.ofSeconds(15))
-                    .block();
+            Map<String, Object> response = mcpClient.getCached(McpClient.MARKET_BULKHEAD, "market-summary",
+                    "market-summary", Duration.ofSeconds(15),
+                    client -> client.get().uri("/market-summary"));
 
             if (response == null) {
                 return null;
@@ -72,6 +202,7 @@ public class StockService {
                     .nasdaq(mapToMarketIndex((Map<String, Object>) response.get("nasdaq")))
                     .sp500(mapToMarketIndex((Map<String, Object>) response.get("sp500")))
                     .timestamp((String) response.get("timestamp"))
+                    .stale(Boolean.TRUE.equals(response.get("stale")))
                     .build();
         } catch (Exception e) {
             log.error("Error fetching market summary: {}", e.getMessage());
@@ -81,16 +212,11 @@ public class StockService {
 
     public Map<String, Object> getStockHistory(String symbol, String period) {
         try {
-            return getMcpClient()
-                    .get()
-                    .uri(uriBuilder -> uriBuilder
-                            .path("/stock/{symbol}/history")
+            return mcpClient.getCached(McpClient.MARKET_BULKHEAD, "stock-history",
+                    "history:" + symbol + ":" + period, Duration.ofSeconds(15),
+                    client -> client.get().uri("/stock/{symbol}/history", uriBuilder -> uriBuilder
                             .queryParam("period", period)
-                            .build(symbol))
-                    .retrieve()
-                    .bodyToMono(Map.class)
-                    .timeout(Duration.ofSeconds(15))
-                    .block();
+                            .build(symbol)));
         } catch (Exception e) {
             log.error("Error fetching stock history for {}: {}", symbol, e.getMessage());
             return null;
@@ -99,13 +225,9 @@ public class StockService {
 
     public Map<String, Object> searchStocks(String query) {
         try {
-            return getMcpClient()
-                    .get()
-                    .uri("/search/{query}", query)
-                    .retrieve()
-                    .bodyToMono(Map.class)
-                    .timeout(Duration.ofSeconds(10))
-                    .block();
+            return mcpClient.getCached(McpClient.MARKET_BULKHEAD, "stock-search",
+                    "search:" + query, Duration.ofSeconds(10),
+                    client -> client.get().uri("/search/{query}", query));
         } catch (Exception e) {
             log.error("Error searching stocks for {}: {}", query, e.getMessage());
             return Map.of("results", java.util.List.of(), "query", query);
@@ -114,16 +236,11 @@ public class StockService {
 
     public Map<String, Object> getStockNews(String symbol, int count) {
         try {
-            return getMcpClient()
-                    .get()
-                    .uri(uriBuilder -> uriBuilder
-                            .path("/news/{symbol}")
+            return mcpClient.getCached(McpClient.MARKET_BULKHEAD, "stock-news",
+                    "news:" + symbol + ":" + count, Duration.ofSeconds(10),
+                    client -> client.get().uri("/news/{symbol}", uriBuilder -> uriBuilder
                             .queryParam("count", count)
-                            .build(symbol))
-                    .retrieve()
-                    .bodyToMono(Map.class)
-                    .timeout(Duration.ofSeconds(10))
-                    .block();
+                            .build(symbol)));
         } catch (Exception e) {
             log.error("Error fetching news for {}: {}", symbol, e.getMessage());
             return Map.of("symbol", symbol, "stockName", symbol, "news", java.util.List.of());
@@ -132,16 +249,11 @@ public class StockService {
 
     public Map<String, Object> getPortfolioRisk(String symbols) {
         try {
-            return getMcpClient()
-                    .get()
-                    .uri(uriBuilder -> uriBuilder
-                            .path("/analytics/risk")
+            return mcpClient.getCached(McpClient.MARKET_BULKHEAD, "portfolio-risk",
+                    "risk:" + symbols, Duration.ofSeconds(30),
+                    client -> client.get().uri("/analytics/risk", uriBuilder -> uriBuilder
                             .queryParam("symbols", symbols)
-                            .build())
-                    .retrieve()
-                    .bodyToMono(Map.class)
-                    .timeout(Duration.ofSeconds(30))
-                    .block();
+                            .build()));
         } catch (Exception e) {
             log.error("Error fetching portfolio risk for {}: {}", symbols, e.getMessage());
             return null;
@@ -150,13 +262,9 @@ public class StockService {
 
     public Map<String, Object> getDividends(String symbol) {
         try {
-            return getMcpClient()
-                    .get()
-                    .uri("/dividends/{symbol}", symbol)
-                    .retrieve()
-                    .bodyToMono(Map.class)
-                    .timeout(Duration.ofSeconds(15))
-                    .block();
+            return mcpClient.getCached(McpClient.MARKET_BULKHEAD, "dividends",
+                    "dividends:" + symbol, Duration.ofSeconds(15),
+                    client -> client.get().uri("/dividends/{symbol}", symbol));
         } catch (Exception e) {
             log.error("Error fetching dividends for {}: {}", symbol, e.getMessage());
             return null;
@@ -165,19 +273,36 @@ public class StockService {
 
     public Map<String, Object> getEarnings(String symbol) {
         try {
-            return getMcpClient()
-                    .get()
-                    .uri("/earnings/{symbol}", symbol)
-                    .retrieve()
-                    .bodyToMono(Map.class)
-                    .timeout(Duration.ofSeconds(15))
-                    .block();
+            return mcpClient.getCached(McpClient.MARKET_BULKHEAD, "earnings",
+                    "earnings:" + symbol, Duration.ofSeconds(15),
+                    client -> client.get().uri("/earnings/{symbol}", symbol));
         } catch (Exception e) {
             log.error("Error fetching earnings for {}: {}", symbol, e.getMessage());
             return null;
         }
     }
 
+    private void remember(String symbol, StockQuoteDto quote) {
+        if (!quote.isStale()) {
+            recentQuotes.put(symbol.toUpperCase(), new RecentQuote(quote, System.nanoTime()));
+            lastGoodQuotes.put(symbol.toUpperCase(), quote.toBuilder().build());
+        }
+    }
+
+    private StockQuoteDto mapToStockQuote(Map<String, Object> data) {
+        return StockQuoteDto.builder()
+                .symbol((String) data.get("symbol"))
+                .name((String) data.get("name"))
+                .price(toDouble(data.get("price")))
+                .change(toDouble(data.get("change")))
+                .changePercent(toDouble(data.get("changePercent")))
+                .currency((String) data.get("currency"))
+                .marketState((String) data.get("marketState"))
+                .timestamp((String) data.get("timestamp"))
+                .stale(Boolean.TRUE.equals(data.get("stale")))
+                .build();
+    }
+
     private MarketIndexDto mapToMarketIndex(Map<String, Object> data) {
         if (data == null) {
             return null;
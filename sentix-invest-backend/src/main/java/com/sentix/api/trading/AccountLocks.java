@@ -0,0 +1,70 @@
+package com.sentix.api.trading;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Runs trades for one account one at a time without serializing the whole service.
+ * Each account id maps onto one of a fixed set of lock stripes. Trades for
+ * different accounts proceed in parallel unless their ids share a stripe. Callers
+ * hold the lock across the whole transaction, commit included, so the next trade
+ * for the account reads the committed balance.
+ * <p>
+ * This orders trades within one instance only. Writers on other instances are
+ * caught by the {@code @Version} checks on User and PortfolioHolding.
+ */
+@Component
+public class AccountLocks {
+
+    @Value("${trading.lock.stripes:256}")
+    private int stripes;
+
+    @Value("${trading.lock.timeout:5000}")
+    private long timeoutMs;
+
+    private ReentrantLock[] locks;
+
+    @PostConstruct
+    void init() {
+        locks = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Run {@code action} while holding the account's stripe lock.
+     *
+     * @throws CannotAcquireLockException if the lock is not free within the timeout
+     */
+    public <T> T withLock(UUID accountId, Supplier<T> action) {
+        ReentrantLock lock = locks[stripeOf(accountId)];
+        try {
+            if (!lock.tryLock(timeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new CannotAcquireLockException("Timed out waiting for trade lock on account " + accountId);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CannotAcquireLockException("Interrupted waiting for trade lock on account " + accountId, e);
+        }
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int stripeOf(UUID accountId) {
+        int hash = accountId.hashCode();
+        // Spread the high bits so ids that differ only there do not share a stripe
+        hash ^= hash >>> 16;
+        return Math.floorMod(hash, locks.length);
+    }
+}
@@ -0,0 +1,40 @@
+package com.sentix.api.trading;
+
+import com.sentix.domain.TransactionType;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * A basket of market orders executed together, such as a rebalance. {@code mode}
+ * defaults to trading.batch.default-mode.
+ */
+public record BatchTradeRequest(
+        @NotEmpty(message = "At least one leg is required")
+        @Size(max = 50, message = "A batch can have at most 50 legs")
+        List<@Valid @NotNull Leg> legs,
+
+        FailureMode mode) {
+
+    public record Leg(
+            @NotNull(message = "Side is required") TransactionType side,
+
+            @NotBlank(message = "Symbol is required") String symbol,
+
+            @NotNull(message = "Quantity is required") @Min(value = 1, message = "Quantity must be at least 1") Integer quantity) {
+    }
+
+    /**
+     * What to do when some legs cannot be priced or covered: reject the whole batch,
+     * or execute the legs that can be.
+     */
+    public enum FailureMode {
+        ALL_OR_NOTHING,
+        BEST_EFFORT
+    }
+}
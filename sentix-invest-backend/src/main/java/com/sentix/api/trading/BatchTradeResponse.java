@@ -0,0 +1,64 @@
+package com.sentix.api.trading;
+
+import com.sentix.domain.Transaction;
+import com.sentix.domain.TransactionType;
+import lombok.Builder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a batch trade. {@code legs} are in request order, each with its
+ * transaction if it executed or the reason it did not.
+ */
+@Builder(toBuilder = true)
+public record BatchTradeResponse(
+        boolean success,
+        String message,
+        BatchTradeRequest.FailureMode mode,
+        int executedLegs,
+        List<Leg> legs,
+        BigDecimal newBalance) {
+
+    public record Leg(
+            String symbol,
+            TransactionType side,
+            int quantity,
+            boolean executed,
+            String message,
+            TransactionResponse transaction) {
+    }
+
+    static BatchTradeResponse rejected(List<BatchTradeRequest.Leg> legs, String[] failures,
+                                       BatchTradeRequest.FailureMode mode, String message, BigDecimal balance) {
+        return executed(legs, failures, new Transaction[legs.size()], mode, balance).toBuilder()
+                .success(false)
+                .message(message)
+                .build();
+    }
+
+    static BatchTradeResponse executed(List<BatchTradeRequest.Leg> legs, String[] failures, Transaction[] executed,
+                                       BatchTradeRequest.FailureMode mode, BigDecimal balance) {
+        List<Leg> results = new ArrayList<>(legs.size());
+        int executedLegs = 0;
+        for (int i = 0; i < legs.size(); i++) {
+            BatchTradeRequest.Leg leg = legs.get(i);
+            Transaction transaction = executed[i];
+            if (transaction != null) {
+                executedLegs++;
+            }
+            results.add(new Leg(leg.symbol().toUpperCase(), leg.side(), leg.quantity(), transaction != null,
+                    transaction != null ? "Executed" : failures[i] != null ? failures[i] : "Not executed",
+                    transaction != null ? TransactionResponse.from(transaction) : null));
+        }
+        return BatchTradeResponse.builder()
+                .success(executedLegs > 0)
+                .message("Executed " + executedLegs + " of " + legs.size() + " legs")
+                .mode(mode)
+                .executedLegs(executedLegs)
+                .legs(results)
+                .newBalance(balance)
+                .build();
+    }
+}
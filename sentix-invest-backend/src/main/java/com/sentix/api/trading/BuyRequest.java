@@ -1,11 +1,34 @@
 package com.sentix.api.trading;
 
+import com.sentix.domain.OrderType;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
 
+import java.math.BigDecimal;
+
+/**
+ * {@code orderType} defaults to MARKET, which executes immediately at the current
+ * quote. LIMIT needs {@code limitPrice}, STOP needs {@code stopPrice} and
+ * STOP_LIMIT needs both; those orders rest until the price reaches them.
+ */
 public record BuyRequest(
         @NotBlank(message = "Symbol is required") String symbol,
 
-        @NotNull(message = "Quantity is required") @Min(value = 1, message = "Quantity must be at least 1") Integer quantity) {
+        @NotNull(message = "Quantity is required") @Min(value = 1, message = "Quantity must be at least 1") Integer quantity,
+
+        OrderType orderType,
+
+        @Positive(message = "Limit price must be positive") BigDecimal limitPrice,
+
+        @Positive(message = "Stop price must be positive") BigDecimal stopPrice) {
+
+    public BuyRequest(String symbol, Integer quantity) {
+        this(symbol, quantity, OrderType.MARKET, null, null);
+    }
+
+    public boolean isMarket() {
+        return orderType == null || orderType == OrderType.MARKET;
+    }
 }
@@ -0,0 +1,178 @@
+package com.sentix.api.trading;
+
+import com.sentix.domain.OrderType;
+import com.sentix.domain.TransactionType;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Open orders for one symbol, kept in sorted price levels so a price tick only
+ * touches the levels it crosses. Prices are held as integer ticks of 1/10000,
+ * the scale of the price columns, which keeps level lookups to long comparisons.
+ * Within a level orders keep arrival order.
+ * <p>
+ * A tick removes every order it fills from the book and returns it. The caller
+ * puts an order back with {@link #add} if its fill could not be completed.
+ */
+class OrderBook {
+
+    static final int PRICE_SCALE = 4;
+    private static final double TICKS_PER_UNIT = 10_000;
+
+    record RestingOrder(UUID id, TransactionType side, OrderType type, long limitTicks, long stopTicks,
+                        boolean triggered) {
+
+        /** Rests on the stop side until its stop price is hit. */
+        boolean waitingForStop() {
+            return type == OrderType.STOP || (type == OrderType.STOP_LIMIT && !triggered);
+        }
+
+        RestingOrder withTriggered() {
+            return new RestingOrder(id, side, type, limitTicks, stopTicks, true);
+        }
+    }
+
+    /**
+     * Result of one price tick: orders to execute now, and stop-limit orders whose
+     * stop was hit and that now rest as limit orders. A stop-limit that triggers
+     * and crosses its limit on the same tick appears in both.
+     */
+    record Crossing(List<RestingOrder> fills, List<RestingOrder> triggered) {
+
+        static final Crossing NONE = new Crossing(List.of(), List.of());
+
+        boolean isEmpty() {
+            return fills.isEmpty() && triggered.isEmpty();
+        }
+    }
+
+    private final NavigableMap<Long, Map<UUID, RestingOrder>> buyLimits = new TreeMap<>();
+    private final NavigableMap<Long, Map<UUID, RestingOrder>> sellLimits = new TreeMap<>();
+    private final NavigableMap<Long, Map<UUID, RestingOrder>> buyStops = new TreeMap<>();
+    private final NavigableMap<Long, Map<UUID, RestingOrder>> sellStops = new TreeMap<>();
+    private final Map<UUID, RestingOrder> orders = new HashMap<>();
+
+    /**
+     * Add an order, replacing any earlier state held for the same id.
+     */
+    synchronized void add(RestingOrder order) {
+        remove(order.id());
+        orders.put(order.id(), order);
+        levelsFor(order).computeIfAbsent(keyFor(order), k -> new LinkedHashMap<>()).put(order.id(), order);
+    }
+
+    synchronized boolean remove(UUID orderId) {
+        RestingOrder order = orders.remove(orderId);
+        if (order == null) {
+            return false;
+        }
+        NavigableMap<Long, Map<UUID, RestingOrder>> levels = levelsFor(order);
+        long key = keyFor(order);
+        Map<UUID, RestingOrder> level = levels.get(key);
+        level.remove(orderId);
+        if (level.isEmpty()) {
+            levels.remove(key);
+        }
+        return true;
+    }
+
+    synchronized boolean contains(UUID orderId) {
+        return orders.containsKey(orderId);
+    }
+
+    synchronized int size() {
+        return orders.size();
+    }
+
+    /**
+     * Apply a trade price. Stops are checked first: a buy stop triggers at or above
+     * its stop price, a sell stop at or below. Stop orders then fill at market and
+     * stop-limit orders move to the limit side. Limits fill when the price reaches
+     * them: buys at or below the limit, sells at or above.
+     */
+    synchronized Crossing onPrice(long priceTicks) {
+        if (!crossesAny(priceTicks)) {
+            return Crossing.NONE;
+        }
+        List<RestingOrder> fills = new ArrayList<>();
+        List<RestingOrder> triggered = new ArrayList<>();
+
+        for (RestingOrder order : drain(buyStops.headMap(priceTicks, true))) {
+            trigger(order, fills, triggered);
+        }
+        for (RestingOrder order : drain(sellStops.tailMap(priceTicks, true))) {
+            trigger(order, fills, triggered);
+        }
+        fills.addAll(drain(buyLimits.tailMap(priceTicks, true)));
+        fills.addAll(drain(sellLimits.headMap(priceTicks, true)));
+        return new Crossing(fills, triggered);
+    }
+
+    /**
+     * Cheap pre-check against the best level on each side, so ticks that cross
+     * nothing, the common case, cost four map lookups and no allocation.
+     */
+    private boolean crossesAny(long priceTicks) {
+        return (!buyStops.isEmpty() && buyStops.firstKey() <= priceTicks)
+                || (!sellStops.isEmpty() && sellStops.lastKey() >= priceTicks)
+                || (!buyLimits.isEmpty() && buyLimits.lastKey() >= priceTicks)
+                || (!sellLimits.isEmpty() && sellLimits.firstKey() <= priceTicks);
+    }
+
+    private void trigger(RestingOrder order, List<RestingOrder> fills, List<RestingOrder> triggered) {
+        if (order.type() == OrderType.STOP) {
+            fills.add(order);
+            return;
+        }
+        RestingOrder limit = order.withTriggered();
+        triggered.add(limit);
+        orders.put(limit.id(), limit);
+        levelsFor(limit).computeIfAbsent(keyFor(limit), k -> new LinkedHashMap<>()).put(limit.id(), limit);
+    }
+
+    private List<RestingOrder> drain(NavigableMap<Long, Map<UUID, RestingOrder>> crossed) {
+        if (crossed.isEmpty()) {
+            return List.of();
+        }
+        List<RestingOrder> drained = new ArrayList<>();
+        Iterator<Map<UUID, RestingOrder>> levels = crossed.values().iterator();
+        while (levels.hasNext()) {
+            for (RestingOrder order : levels.next().values()) {
+                orders.remove(order.id());
+                drained.add(order);
+            }
+            levels.remove();
+        }
+        return drained;
+    }
+
+    private NavigableMap<Long, Map<UUID, RestingOrder>> levelsFor(RestingOrder order) {
+        boolean buy = order.side() == TransactionType.BUY;
+        if (order.waitingForStop()) {
+            return buy ? buyStops : sellStops;
+        }
+        return buy ? buyLimits : sellLimits;
+    }
+
+    private static long keyFor(RestingOrder order) {
+        return order.waitingForStop() ? order.stopTicks() : order.limitTicks();
+    }
+
+    static long toTicks(BigDecimal price) {
+        return price == null ? 0 : price.setScale(PRICE_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    static long toTicks(double price) {
+        return Math.round(price * TICKS_PER_UNIT);
+    }
+}
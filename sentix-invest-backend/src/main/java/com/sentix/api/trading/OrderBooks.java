@@ -0,0 +1,110 @@
+package com.sentix.api.trading;
+
+import com.sentix.domain.OrderStatus;
+import com.sentix.domain.TradeOrder;
+import com.sentix.infrastructure.persistence.OrderBookView;
+import com.sentix.infrastructure.persistence.TradeOrderRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * The per-symbol order books of this instance. Rebuilt from the orders table at
+ * startup, updated directly by placements and cancellations made here, and synced
+ * with changes made on other replicas by {@link #sync()} before each matching
+ * cycle. The orders table stays the source of truth: a book entry only decides
+ * when a fill is attempted, and the fill re-checks the order's status.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderBooks {
+
+    private final TradeOrderRepository tradeOrderRepository;
+
+    @Value("${orders.sync.overlap:10000}")
+    private long syncOverlapMs;
+
+    private final Map<String, OrderBook> books = new ConcurrentHashMap<>();
+    private volatile LocalDateTime syncedThrough;
+
+    @PostConstruct
+    void rebuild() {
+        LocalDateTime started = LocalDateTime.now();
+        books.clear();
+        List<OrderBookView> open = tradeOrderRepository.findViewsByStatus(OrderStatus.OPEN);
+        open.forEach(this::apply);
+        syncedThrough = started;
+        log.info("Rebuilt order books: {} open orders across {} symbols", open.size(), books.size());
+    }
+
+    /**
+     * Apply orders changed since the last sync. The window reaches back by
+     * orders.sync.overlap to allow for clock skew between replicas; re-applying a
+     * change is harmless.
+     */
+    public int sync() {
+        LocalDateTime started = LocalDateTime.now();
+        List<OrderBookView> changed = tradeOrderRepository.findViewsUpdatedSince(
+                syncedThrough.minusNanos(syncOverlapMs * 1_000_000));
+        changed.forEach(this::apply);
+        syncedThrough = started;
+        return changed.size();
+    }
+
+    public void add(TradeOrder order) {
+        book(order.getSymbol()).add(new OrderBook.RestingOrder(order.getId(), order.getSide(), order.getOrderType(),
+                OrderBook.toTicks(order.getLimitPrice()), OrderBook.toTicks(order.getStopPrice()),
+                Boolean.TRUE.equals(order.getTriggered())));
+    }
+
+    public void remove(String symbol, UUID orderId) {
+        OrderBook book = books.get(symbol);
+        if (book != null) {
+            book.remove(orderId);
+        }
+    }
+
+    /**
+     * Symbols with at least one resting order.
+     */
+    public Set<String> symbols() {
+        return books.entrySet().stream()
+                .filter(entry -> entry.getValue().size() > 0)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+    }
+
+    OrderBook.Crossing onPrice(String symbol, double price) {
+        OrderBook book = books.get(symbol);
+        return book == null ? OrderBook.Crossing.NONE : book.onPrice(OrderBook.toTicks(price));
+    }
+
+    void restore(String symbol, OrderBook.RestingOrder order) {
+        book(symbol).add(order);
+    }
+
+    private void apply(OrderBookView view) {
+        if (view.status() != OrderStatus.OPEN) {
+            remove(view.symbol(), view.id());
+            return;
+        }
+        book(view.symbol()).add(new OrderBook.RestingOrder(view.id(), view.side(), view.orderType(),
+                OrderBook.toTicks(view.limitPrice()), OrderBook.toTicks(view.stopPrice()),
+                Boolean.TRUE.equals(view.triggered())));
+    }
+
+    private OrderBook book(String symbol) {
+        return books.computeIfAbsent(symbol, s -> new OrderBook());
+    }
+}
@@ -0,0 +1,135 @@
+package com.sentix.api.trading;
+
+import com.sentix.api.stock.StockQuoteDto;
+import com.sentix.api.stock.StockService;
+import com.sentix.domain.OrderStatus;
+import com.sentix.domain.TradeOrder;
+import com.sentix.infrastructure.cluster.ShardLeaseManager;
+import com.sentix.infrastructure.metrics.SentixMetrics;
+import com.sentix.infrastructure.persistence.TradeOrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Feeds quotes into the order books and fills the orders they cross.
+ * Symbols are sharded with the same leases as alert evaluation, so each symbol's
+ * book is matched by one replica per cycle. A fill that could not complete (the
+ * account was busy, or the transaction failed) goes back into the book for the
+ * next cycle.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "orders.match.enabled", havingValue = "true", matchIfMissing = true)
+public class OrderMatchingScheduler {
+
+    static final String SHARD_GROUP = "order-match";
+    static final String MATCH_JOB = "order-match";
+
+    private final OrderBooks orderBooks;
+    private final TradeOrderRepository tradeOrderRepository;
+    private final StockService stockService;
+    private final TradingService tradingService;
+    private final ShardLeaseManager shardLeaseManager;
+    private final SentixMetrics metrics;
+
+    @Value("${orders.shard.count:16}")
+    private int shardCount;
+
+    @Value("${orders.shard.lease-ttl:60000}")
+    private long leaseTtlMs;
+
+    @Scheduled(fixedRateString = "${orders.match.interval:5000}")
+    public void runMatchingCycle() {
+        long cycleStart = System.nanoTime();
+        int synced = orderBooks.sync();
+        metrics.recordJobPhase(MATCH_JOB, "sync", System.nanoTime() - cycleStart);
+
+        Set<Integer> ownedShards = shardLeaseManager.acquireShards(
+                SHARD_GROUP, shardCount, Duration.ofMillis(leaseTtlMs));
+        metrics.recordShardsOwned(SHARD_GROUP, ownedShards.size());
+        Set<String> symbols = orderBooks.symbols().stream()
+                .filter(symbol -> ownedShards.contains(ShardLeaseManager.shardOf(symbol, shardCount)))
+                .collect(Collectors.toSet());
+        if (symbols.isEmpty()) {
+            return;
+        }
+
+        long quoteStart = System.nanoTime();
+        Map<String, StockQuoteDto> quotes = stockService.getStockQuotes(symbols);
+        metrics.recordJobPhase(MATCH_JOB, "fetch_quotes", System.nanoTime() - quoteStart);
+
+        int filled = 0;
+        for (Map.Entry<String, StockQuoteDto> entry : quotes.entrySet()) {
+            StockQuoteDto quote = entry.getValue();
+            // Resting orders never fill against a last-known price
+            if (quote == null || quote.isStale() || quote.getPrice() <= 0) {
+                continue;
+            }
+            filled += match(entry.getKey(), quote);
+        }
+        metrics.recordJobItems(MATCH_JOB, "filled", filled);
+        metrics.recordJobPhase(MATCH_JOB, "cycle", System.nanoTime() - cycleStart);
+        log.debug("Order matching cycle: {} synced changes, {} symbols quoted, {} orders filled",
+                synced, quotes.size(), filled);
+    }
+
+    /**
+     * Apply one quote to a symbol's book and execute what it crosses.
+     *
+     * @return number of orders filled
+     */
+    int match(String symbol, StockQuoteDto quote) {
+        OrderBook.Crossing crossing = orderBooks.onPrice(symbol, quote.getPrice());
+        if (crossing.isEmpty()) {
+            return 0;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (OrderBook.RestingOrder order : crossing.triggered()) {
+            tradeOrderRepository.markTriggered(order.id(), now);
+        }
+        if (crossing.fills().isEmpty()) {
+            return 0;
+        }
+
+        Map<UUID, TradeOrder> orders = tradeOrderRepository.findByIdIn(
+                        crossing.fills().stream().map(OrderBook.RestingOrder::id).toList())
+                .stream()
+                .collect(Collectors.toMap(TradeOrder::getId, Function.identity()));
+
+        int filled = 0;
+        for (OrderBook.RestingOrder resting : crossing.fills()) {
+            TradeOrder order = orders.get(resting.id());
+            if (order == null) {
+                continue;
+            }
+            try {
+                TradeResponse response = tradingService.fillOrder(order, quote);
+                if (response.success()) {
+                    filled++;
+                } else if (response.order() == null
+                        || OrderStatus.OPEN.name().equals(response.order().status())) {
+                    orderBooks.restore(symbol, resting);
+                }
+            } catch (Exception e) {
+                log.warn("Fill of order {} on {} failed, keeping it in the book: {}",
+                        resting.id(), symbol, e.getMessage());
+                orderBooks.restore(symbol, resting);
+            }
+        }
+        return filled;
+    }
+}
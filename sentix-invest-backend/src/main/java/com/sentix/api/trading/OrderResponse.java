@@ -0,0 +1,45 @@
+package com.sentix.api.trading;
+
+import com.sentix.domain.TradeOrder;
+import lombok.Builder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Builder
+public record OrderResponse(
+        UUID id,
+        String symbol,
+        String side,
+        String orderType,
+        Integer quantity,
+        BigDecimal limitPrice,
+        BigDecimal stopPrice,
+        String status,
+        boolean triggered,
+        boolean isPaper,
+        BigDecimal filledPrice,
+        String statusMessage,
+        LocalDateTime createdAt,
+        LocalDateTime filledAt) {
+
+    public static OrderResponse from(TradeOrder order) {
+        return OrderResponse.builder()
+                .id(order.getId())
+                .symbol(order.getSymbol())
+                .side(order.getSide().name())
+                .orderType(order.getOrderType().name())
+                .quantity(order.getQuantity())
+                .limitPrice(order.getLimitPrice())
+                .stopPrice(order.getStopPrice())
+                .status(order.getStatus().name())
+                .triggered(Boolean.TRUE.equals(order.getTriggered()))
+                .isPaper(Boolean.TRUE.equals(order.getIsPaper()))
+                .filledPrice(order.getFilledPrice())
+                .statusMessage(order.getStatusMessage())
+                .createdAt(order.getCreatedAt())
+                .filledAt(order.getFilledAt())
+                .build();
+    }
+}
@@ -0,0 +1,156 @@
+package com.sentix.api.trading;
+
+import com.sentix.api.common.PageResponse;
+import com.sentix.api.common.SeekCursor;
+import com.sentix.domain.OrderStatus;
+import com.sentix.domain.OrderType;
+import com.sentix.domain.TradeOrder;
+import com.sentix.domain.TransactionType;
+import com.sentix.domain.User;
+import com.sentix.infrastructure.persistence.TradeOrderRepository;
+import com.sentix.infrastructure.persistence.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Window;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Placement, listing and cancellation of resting orders. Fills happen in
+ * {@link OrderMatchingScheduler} as prices move. Funds and shares are not reserved
+ * while an order rests; they are checked when it fills, and an order that can no
+ * longer be covered is rejected then.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderService {
+
+    private final TradeOrderRepository tradeOrderRepository;
+    private final OrderBooks orderBooks;
+    private final UserRepository userRepository;
+
+    public TradeResponse placeBuyOrder(User user, BuyRequest request) {
+        return placeOrder(user, TransactionType.BUY, request.symbol(), request.quantity(),
+                request.orderType(), request.limitPrice(), request.stopPrice());
+    }
+
+    public TradeResponse placeSellOrder(User user, SellRequest request) {
+        return placeOrder(user, TransactionType.SELL, request.symbol(), request.quantity(),
+                request.orderType(), request.limitPrice(), request.stopPrice());
+    }
+
+    private TradeResponse placeOrder(User user, TransactionType side, String symbol, int quantity,
+                                     OrderType orderType, BigDecimal limitPrice, BigDecimal stopPrice) {
+        String error = validatePrices(orderType, limitPrice, stopPrice);
+        if (error != null) {
+            return TradeResponse.builder()
+                    .success(false)
+                    .message(error)
+                    .build();
+        }
+
+        // The principal may come from the cache; the paper flag decides which account
+        // the order fills against, so take it from the row.
+        boolean paper = userRepository.findById(user.getId())
+                .map(u -> Boolean.TRUE.equals(u.getIsPaperTrading()))
+                .orElse(Boolean.TRUE.equals(user.getIsPaperTrading()));
+        TradeOrder order = tradeOrderRepository.save(TradeOrder.builder()
+                .user(user)
+                .symbol(symbol.toUpperCase())
+                .side(side)
+                .orderType(orderType)
+                .quantity(quantity)
+                .limitPrice(orderType == OrderType.STOP ? null : limitPrice)
+                .stopPrice(orderType == OrderType.LIMIT ? null : stopPrice)
+                .status(OrderStatus.OPEN)
+                .isPaper(paper)
+                .build());
+        orderBooks.add(order);
+        log.info("User {} placed {} {} order {} for {} shares of {}",
+                user.getEmail(), orderType, side, order.getId(), quantity, order.getSymbol());
+
+        return TradeResponse.builder()
+                .success(true)
+                .message(describe(order) + " placed" + (order.getIsPaper() ? " (Paper Trade)" : ""))
+                .order(OrderResponse.from(order))
+                .build();
+    }
+
+    private static String validatePrices(OrderType orderType, BigDecimal limitPrice, BigDecimal stopPrice) {
+        boolean needsLimit = orderType == OrderType.LIMIT || orderType == OrderType.STOP_LIMIT;
+        boolean needsStop = orderType == OrderType.STOP || orderType == OrderType.STOP_LIMIT;
+        if (needsLimit && limitPrice == null) {
+            return orderType + " orders require a limit price";
+        }
+        if (needsStop && stopPrice == null) {
+            return orderType + " orders require a stop price";
+        }
+        for (BigDecimal price : new BigDecimal[]{limitPrice, stopPrice}) {
+            if (price != null && price.stripTrailingZeros().scale() > OrderBook.PRICE_SCALE) {
+                return "Prices are limited to " + OrderBook.PRICE_SCALE + " decimal places";
+            }
+        }
+        return null;
+    }
+
+    private static String describe(TradeOrder order) {
+        String type = order.getOrderType().name().toLowerCase().replace('_', '-');
+        StringBuilder description = new StringBuilder()
+                .append(Character.toUpperCase(type.charAt(0))).append(type.substring(1))
+                .append(' ').append(order.getSide().name().toLowerCase())
+                .append(" order for ").append(order.getQuantity()).append(' ').append(order.getSymbol());
+        if (order.getStopPrice() != null) {
+            description.append(", stop ").append(order.getStopPrice().toPlainString());
+        }
+        if (order.getLimitPrice() != null) {
+            description.append(", limit ").append(order.getLimitPrice().toPlainString());
+        }
+        return description.toString();
+    }
+
+    /**
+     * Seek page of a user's orders in one status, newest first.
+     */
+    public PageResponse<OrderResponse> getOrdersAfter(User user, OrderStatus status, String cursor, int size) {
+        Window<TradeOrder> window = tradeOrderRepository.findByUserAndStatusOrderByCreatedAtDescIdDesc(
+                user, status, SeekCursor.position(cursor, "createdAt"), Limit.of(size));
+        List<OrderResponse> content = window.getContent().stream()
+                .map(OrderResponse::from)
+                .toList();
+        return PageResponse.from(window, size, content,
+                order -> SeekCursor.encode(order.getCreatedAt(), order.getId()), null);
+    }
+
+    /**
+     * Cancel an open order. The version check on the order makes a cancel that
+     * races a fill lose cleanly: whichever commits first wins. The book entry is
+     * only dropped once the cancel has committed.
+     */
+    public OrderResponse cancelOrder(User user, UUID orderId) {
+        TradeOrder order = tradeOrderRepository.findById(orderId)
+                .filter(o -> o.getUser().getId().equals(user.getId()))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Order not found"));
+        if (order.getStatus() != OrderStatus.OPEN) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Order is already " + order.getStatus());
+        }
+
+        order.setStatus(OrderStatus.CANCELLED);
+        TradeOrder saved;
+        try {
+            saved = tradeOrderRepository.save(order);
+        } catch (OptimisticLockingFailureException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Order changed while cancelling, please retry");
+        }
+        orderBooks.remove(saved.getSymbol(), saved.getId());
+        log.info("User {} cancelled order {}", user.getEmail(), orderId);
+        return OrderResponse.from(saved);
+    }
+}
@@ -1,11 +1,32 @@
 package com.sentix.api.trading;
 
+import com.sentix.domain.OrderType;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
 
+import java.math.BigDecimal;
+
+/**
+ * Order type and prices work as in {@link BuyRequest}.
+ */
 public record SellRequest(
         @NotBlank(message = "Symbol is required") String symbol,
 
-        @NotNull(message = "Quantity is required") @Min(value = 1, message = "Quantity must be at least 1") Integer quantity) {
+        @NotNull(message = "Quantity is required") @Min(value = 1, message = "Quantity must be at least 1") Integer quantity,
+
+        OrderType orderType,
+
+        @Positive(message = "Limit price must be positive") BigDecimal limitPrice,
+
+        @Positive(message = "Stop price must be positive") BigDecimal stopPrice) {
+
+    public SellRequest(String symbol, Integer quantity) {
+        this(symbol, quantity, OrderType.MARKET, null, null);
+    }
+
+    public boolean isMarket() {
+        return orderType == null || orderType == OrderType.MARKET;
+    }
 }
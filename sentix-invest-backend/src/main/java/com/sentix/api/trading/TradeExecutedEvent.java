@@ -0,0 +1,10 @@
+package com.sentix.api.trading;
+
+import java.util.UUID;
+
+/**
+ * Outbox payload for a committed trade (a market order, a batch or an order fill)
+ * that changed one of the user's books.
+ */
+public record TradeExecutedEvent(UUID userId, boolean isPaper) {
+}
@@ -4,10 +4,15 @@ import lombok.Builder;
 
 import java.math.BigDecimal;
 
-@Builder
+/**
+ * Outcome of a market trade, or of placing or filling a resting order. {@code order}
+ * is set for resting orders only.
+ */
+@Builder(toBuilder = true)
 public record TradeResponse(
         boolean success,
         String message,
         TransactionResponse transaction,
-        BigDecimal newBalance) {
+        BigDecimal newBalance,
+        OrderResponse order) {
 }
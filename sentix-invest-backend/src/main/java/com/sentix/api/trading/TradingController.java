@@ -1,15 +1,20 @@
 package com.sentix.api.trading;
 
 import com.sentix.api.common.PageResponse;
+import com.sentix.domain.OrderStatus;
 import com.sentix.domain.User;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.time.LocalDate;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/v1/trading")
@@ -17,12 +22,20 @@ import java.util.List;
 public class TradingController {
 
     private final TradingService tradingService;
+    private final TransactionExportService transactionExportService;
+    private final OrderService orderService;
 
+    /**
+     * Market orders execute immediately; limit, stop and stop-limit orders are placed
+     * in the order book and fill later.
+     */
     @PostMapping("/buy")
     public ResponseEntity<TradeResponse> buyStock(
             @AuthenticationPrincipal User user,
             @Valid @RequestBody BuyRequest request) {
-        TradeResponse response = tradingService.buyStock(user, request);
+        TradeResponse response = request.isMarket()
+                ? tradingService.buyStock(user, request)
+                : orderService.placeBuyOrder(user, request);
         if (response.success()) {
             return ResponseEntity.ok(response);
         }
@@ -33,25 +46,91 @@ public class TradingController {
     public ResponseEntity<TradeResponse> sellStock(
             @AuthenticationPrincipal User user,
             @Valid @RequestBody SellRequest request) {
-        TradeResponse response = tradingService.sellStock(user, request);
+        TradeResponse response = request.isMarket()
+                ? tradingService.sellStock(user, request)
+                : orderService.placeSellOrder(user, request);
         if (response.success()) {
             return ResponseEntity.ok(response);
         }
         return ResponseEntity.badRequest().body(response);
     }
 
+    /**
+     * Several market orders priced, checked and booked together, with one snapshot
+     * afterwards. Succeeds if at least one leg executed.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<BatchTradeResponse> executeBatch(
+            @AuthenticationPrincipal User user,
+            @Valid @RequestBody BatchTradeRequest request) {
+        BatchTradeResponse response = tradingService.executeBatch(user, request);
+        if (response.success()) {
+            return ResponseEntity.ok(response);
+        }
+        return ResponseEntity.badRequest().body(response);
+    }
+
+    @GetMapping("/orders")
+    public ResponseEntity<PageResponse<OrderResponse>> getOrders(
+            @AuthenticationPrincipal User user,
+            @RequestParam(defaultValue = "OPEN") OrderStatus status,
+            @RequestParam(defaultValue = "") String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(orderService.getOrdersAfter(user, status, cursor, size));
+    }
+
+    @DeleteMapping("/orders/{orderId}")
+    public ResponseEntity<OrderResponse> cancelOrder(
+            @AuthenticationPrincipal User user,
+            @PathVariable UUID orderId) {
+        return ResponseEntity.ok(orderService.cancelOrder(user, orderId));
+    }
+
     @GetMapping("/transactions")
     public ResponseEntity<PageResponse<TransactionResponse>> getTransactions(
             @AuthenticationPrincipal User user,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        // Any cursor parameter, even empty for the first page, selects seek pagination
+        if (cursor != null) {
+            return ResponseEntity.ok(tradingService.getTransactionsAfter(user, cursor, size, includeTotal));
+        }
         return ResponseEntity.ok(tradingService.getTransactionsPaginated(user, PageRequest.of(page, size)));
     }
 
+    /**
+     * Full history as a download, streamed from a database cursor instead of built in memory.
+     */
+    @GetMapping("/transactions/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            @AuthenticationPrincipal User user,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) String symbol) {
+        TransactionExportService.Format exportFormat = switch (format.toLowerCase()) {
+            case "csv" -> TransactionExportService.Format.CSV;
+            case "ndjson" -> TransactionExportService.Format.NDJSON;
+            default -> null;
+        };
+        if (exportFormat == null) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        String filename = "transactions-" + LocalDate.now() + "." + exportFormat.extension();
+        StreamingResponseBody body = out -> transactionExportService.export(user, symbol, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.contentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
+
     @GetMapping("/transactions/{symbol}")
-    public ResponseEntity<List<TransactionResponse>> getTransactionsBySymbol(
+    public ResponseEntity<PageResponse<TransactionResponse>> getTransactionsBySymbol(
             @AuthenticationPrincipal User user,
-            @PathVariable String symbol) {
-        return ResponseEntity.ok(tradingService.getTransactionsBySymbol(user, symbol));
+            @PathVariable String symbol,
+            @RequestParam(defaultValue = "") String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(tradingService.getTransactionsBySymbolAfter(user, symbol, cursor, size));
     }
 }
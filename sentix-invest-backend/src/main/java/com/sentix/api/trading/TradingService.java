@@ -1,24 +1,51 @@
 package com.sentix.api.trading;
 
 import com.sentix.api.common.PageResponse;
-import com.sentix.api.portfolio.PortfolioSnapshotService;
+import com.sentix.api.dashboard.DashboardService;
+import com.sentix.api.ledger.CashAccount;
+import com.sentix.api.ledger.CashLedgerService;
+import com.sentix.api.lots.LotBook;
+import com.sentix.api.lots.TaxLotService;
+import com.sentix.api.common.SeekCursor;
 import com.sentix.api.stock.StockQuoteDto;
 import com.sentix.api.stock.StockService;
 import com.sentix.domain.*;
+import com.sentix.infrastructure.outbox.OutboxPublisher;
 import com.sentix.infrastructure.persistence.PortfolioHoldingRepository;
+import com.sentix.infrastructure.persistence.PortfolioHoldingView;
+import com.sentix.infrastructure.persistence.TradeOrderRepository;
 import com.sentix.infrastructure.persistence.TransactionRepository;
 import com.sentix.infrastructure.persistence.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @Slf4j
 @Service
@@ -28,229 +55,538 @@ public class TradingService {
     private final StockService stockService;
     private final PortfolioHoldingRepository portfolioHoldingRepository;
     private final TransactionRepository transactionRepository;
+    private final TradeOrderRepository tradeOrderRepository;
     private final UserRepository userRepository;
-    private final PortfolioSnapshotService portfolioSnapshotService;
-
-    @Transactional
+    private final OutboxPublisher outboxPublisher;
+    private final CashLedgerService cashLedgerService;
+    private final TaxLotService taxLotService;
+    private final DashboardService dashboardService;
+    private final AccountLocks accountLocks;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${trading.optimistic-lock.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${trading.batch.default-mode:ALL_OR_NOTHING}")
+    private BatchTradeRequest.FailureMode defaultBatchMode;
+
+    @Value("${trading.quote.max-age:2000}")
+    private long quoteMaxAgeMs;
+
+    /**
+     * Buy at the current quote. An account without cash is rejected before any
+     * quote lookup, whatever the quote's age. A quote fetched within
+     * trading.quote.max-age is reused, and a buy it cannot pay for is rejected from
+     * the cached balance without calling the market data upstream. Otherwise the quote is fetched,
+     * outside any lock. The balance check and the writes then run in one
+     * transaction that holds the account's lock, against a freshly loaded account.
+     */
     public TradeResponse buyStock(User user, BuyRequest request) {
+        log.info("User {} attempting to buy {} shares of {}", user.getEmail(), request.quantity(), request.symbol());
+
+        // 1. Reject from local state: no price makes a buy affordable from an empty account.
+        // The cached balance can miss a deposit made on another replica, so confirm from the ledger.
         boolean isPaper = Boolean.TRUE.equals(user.getIsPaperTrading());
-        log.info("User {} attempting to buy {} shares of {} (paper={})", user.getEmail(), request.quantity(), request.symbol(), isPaper);
-
-        // 1. Fetch current stock price
-        StockQuoteDto stockQuote = stockService.getStockQuote(request.symbol());
-        if (stockQuote == null) {
-            return TradeResponse.builder()
-                    .success(false)
-                    .message("Could not fetch stock price for " + request.symbol())
-                    .build();
+        BigDecimal available = cashLedgerService.balance(user, isPaper);
+        if (available.signum() <= 0) {
+            available = cashLedgerService.account(user, isPaper).balance();
+            if (available.signum() <= 0) {
+                return failedTrade("Insufficient " + (isPaper ? "paper " : "") + "balance. Available: " + available);
+            }
+        }
+
+        // A recent quote that already prices the buy out of reach rejects it without a fetch
+        StockQuoteDto recentQuote = stockService.getRecentQuote(request.symbol(), Duration.ofMillis(quoteMaxAgeMs));
+        if (recentQuote != null) {
+            BigDecimal totalCost = BigDecimal.valueOf(recentQuote.getPrice())
+                    .multiply(BigDecimal.valueOf(request.quantity()));
+            if (available.compareTo(totalCost) < 0) {
+                return failedTrade(insufficientBalance(totalCost, recentQuote, available, isPaper));
+            }
+        }
+
+        // Trade at the recent quote, or fetch the current stock price
+        StockQuoteDto stockQuote = recentQuote != null ? recentQuote : stockService.getStockQuote(request.symbol());
+        // Never trade at a last-known price served while the market data upstream is down
+        if (stockQuote == null || stockQuote.isStale()) {
+            return failedTrade("Could not fetch stock price for " + request.symbol());
         }
 
+        return executeForAccount(user.getId(), account -> {
+            boolean isPaper = Boolean.TRUE.equals(account.getIsPaperTrading());
+            return Executed.of(buy(account, request.symbol(), request.quantity(), stockQuote, isPaper), isPaper);
+        });
+    }
+
+    private TradeResponse buy(User user, String symbol, int quantity, StockQuoteDto stockQuote, boolean isPaper) {
         // 2. Calculate total cost
         BigDecimal pricePerShare = BigDecimal.valueOf(stockQuote.getPrice());
-        BigDecimal totalCost = pricePerShare.multiply(BigDecimal.valueOf(request.quantity()));
+        BigDecimal totalCost = pricePerShare.multiply(BigDecimal.valueOf(quantity));
 
         // 3. Check if user has sufficient balance (paper or real)
-        BigDecimal availableBalance = isPaper ? user.getPaperBalance() : user.getBalance();
-        if (availableBalance.compareTo(totalCost) < 0) {
-            return TradeResponse.builder()
-                    .success(false)
-                    .message("Insufficient " + (isPaper ? "paper " : "") + "balance. Required: " + totalCost + " " + stockQuote.getCurrency() +
-                            ", Available: " + availableBalance)
-                    .build();
-        }
-
-        // 4. Deduct from user balance
-        if (isPaper) {
-            user.setPaperBalance(user.getPaperBalance().subtract(totalCost));
-        } else {
-            user.setBalance(user.getBalance().subtract(totalCost));
+        CashAccount cash = cashLedgerService.account(user, isPaper);
+        if (!cash.covers(totalCost)) {
+            return failedTrade(insufficientBalance(totalCost, stockQuote, cash.balance(), isPaper));
         }
-        userRepository.save(user);
 
-        // 5. Create or update portfolio holding (scoped by paper flag)
+        // 4. Create or update portfolio holding (scoped by paper flag)
         PortfolioHolding holding = portfolioHoldingRepository
-                .findByUserAndSymbolAndIsPaper(user, request.symbol().toUpperCase(), isPaper)
+                .findByUserAndSymbolAndIsPaper(user, symbol.toUpperCase(), isPaper)
                 .orElse(null);
+        LotBook lots = taxLotService.book(user, isPaper, symbol, holding);
+        portfolioHoldingRepository.save(addToHolding(user, holding, symbol, quantity, stockQuote, isPaper));
 
-        if (holding == null) {
-            // Create new holding
-            holding = PortfolioHolding.builder()
-                    .user(user)
-                    .symbol(request.symbol().toUpperCase())
-                    .stockName(stockQuote.getName())
-                    .quantity(request.quantity())
-                    .averagePurchasePrice(pricePerShare)
-                    .currency(stockQuote.getCurrency())
-                    .isPaper(isPaper)
-                    .build();
-        } else {
-            // Update existing holding with new average price
-            BigDecimal existingTotal = holding.getAveragePurchasePrice()
-                    .multiply(BigDecimal.valueOf(holding.getQuantity()));
-            int newTotalQuantity = holding.getQuantity() + request.quantity();
-            BigDecimal newAveragePrice = existingTotal.add(totalCost)
-                    .divide(BigDecimal.valueOf(newTotalQuantity), 4, RoundingMode.HALF_UP);
-
-            holding.setQuantity(newTotalQuantity);
-            holding.setAveragePurchasePrice(newAveragePrice);
-        }
-        portfolioHoldingRepository.save(holding);
+        // 5. Create transaction record and open a lot for it
+        Transaction transaction = transactionRepository.save(
+                buildTransaction(user, symbol, TransactionType.BUY, quantity, stockQuote, isPaper));
+        lots.open(transaction);
+        taxLotService.save(lots);
 
-        // 6. Create transaction record
-        Transaction transaction = Transaction.builder()
-                .user(user)
-                .symbol(request.symbol().toUpperCase())
-                .stockName(stockQuote.getName())
-                .type(TransactionType.BUY)
-                .quantity(request.quantity())
-                .pricePerShare(pricePerShare)
-                .totalAmount(totalCost)
-                .currency(stockQuote.getCurrency())
-                .executedAt(LocalDateTime.now())
-                .isPaper(isPaper)
-                .build();
-        transactionRepository.save(transaction);
+        // 6. Debit the cash ledger
+        cash.post(LedgerEntryType.BUY, totalCost.negate(), transaction.getId());
+        cashLedgerService.append(cash);
 
         log.info("User {} successfully bought {} shares of {} for {} (paper={})",
-                user.getEmail(), request.quantity(), request.symbol(), totalCost, isPaper);
-
-        // Take portfolio snapshot after trade
-        try {
-            portfolioSnapshotService.takeSnapshotForUser(user, isPaper);
-        } catch (Exception e) {
-            log.warn("Failed to take post-trade snapshot: {}", e.getMessage());
-        }
+                user.getEmail(), quantity, symbol, totalCost, isPaper);
 
         return TradeResponse.builder()
                 .success(true)
-                .message("Successfully purchased " + request.quantity() + " shares of " + stockQuote.getName() + (isPaper ? " (Paper Trade)" : ""))
-                .transaction(mapToTransactionResponse(transaction))
-                .newBalance(isPaper ? user.getPaperBalance() : user.getBalance())
+                .message("Successfully purchased " + quantity + " shares of " + stockQuote.getName() + (isPaper ? " (Paper Trade)" : ""))
+                .transaction(TransactionResponse.from(transaction))
+                .newBalance(cash.balance())
                 .build();
     }
 
-    @Transactional
+    /**
+     * Sell at the current quote. A sell of more shares than are held is rejected
+     * before any market data call. Like {@link #buyStock}, a recent quote is reused
+     * or the quote is fetched before the account lock is taken, and the share count
+     * is checked again under it.
+     */
     public TradeResponse sellStock(User user, SellRequest request) {
-        boolean isPaper = Boolean.TRUE.equals(user.getIsPaperTrading());
-        log.info("User {} attempting to sell {} shares of {} (paper={})", user.getEmail(), request.quantity(), request.symbol(), isPaper);
-
-        // 1. Check if user owns the stock (scoped by paper flag)
-        PortfolioHolding holding = portfolioHoldingRepository
-                .findByUserAndSymbolAndIsPaper(user, request.symbol().toUpperCase(), isPaper)
-                .orElse(null);
-
-        if (holding == null) {
-            return TradeResponse.builder()
-                    .success(false)
-                    .message("You don't own any " + (isPaper ? "paper " : "") + "shares of " + request.symbol())
-                    .build();
+        log.info("User {} attempting to sell {} shares of {}", user.getEmail(), request.quantity(), request.symbol());
+
+        // 1. Reject from local state when the holding cannot cover the sell
+        boolean isPaperMode = Boolean.TRUE.equals(user.getIsPaperTrading());
+        int owned = portfolioHoldingRepository
+                .findViewByUserAndSymbolAndIsPaper(user, request.symbol().toUpperCase(), isPaperMode)
+                .map(PortfolioHoldingView::quantity)
+                .orElse(0);
+        String shortfall = shareShortfall(request.symbol(), owned, request.quantity(), isPaperMode);
+        if (shortfall != null) {
+            return failedTrade(shortfall);
         }
 
-        // 2. Check if user has enough shares
-        if (holding.getQuantity() < request.quantity()) {
-            return TradeResponse.builder()
-                    .success(false)
-                    .message("Insufficient shares. You own " + holding.getQuantity() +
-                            " shares but trying to sell " + request.quantity())
-                    .build();
+        // Trade at a recent quote, or fetch the current stock price
+        StockQuoteDto recentQuote = stockService.getRecentQuote(request.symbol(), Duration.ofMillis(quoteMaxAgeMs));
+        StockQuoteDto stockQuote = recentQuote != null ? recentQuote : stockService.getStockQuote(request.symbol());
+        // Never trade at a last-known price served while the market data upstream is down
+        if (stockQuote == null || stockQuote.isStale()) {
+            return failedTrade("Could not fetch stock price for " + request.symbol());
         }
 
-        // 3. Fetch current stock price
-        StockQuoteDto stockQuote = stockService.getStockQuote(request.symbol());
-        if (stockQuote == null) {
-            return TradeResponse.builder()
-                    .success(false)
-                    .message("Could not fetch stock price for " + request.symbol())
-                    .build();
+        return executeForAccount(user.getId(), account -> {
+            boolean isPaper = Boolean.TRUE.equals(account.getIsPaperTrading());
+            return Executed.of(sell(account, request.symbol(), request.quantity(), stockQuote, isPaper), isPaper);
+        });
+    }
+
+    private TradeResponse sell(User user, String symbol, int quantity, StockQuoteDto stockQuote, boolean isPaper) {
+        // 2. Check if user owns the stock (scoped by paper flag)
+        PortfolioHolding holding = portfolioHoldingRepository
+                .findByUserAndSymbolAndIsPaper(user, symbol.toUpperCase(), isPaper)
+                .orElse(null);
+
+        // 3. Check if user has enough shares
+        String shortfall = shareShortfall(symbol, holding != null ? holding.getQuantity() : 0, quantity, isPaper);
+        if (shortfall != null) {
+            return failedTrade(shortfall);
         }
 
         // 4. Calculate proceeds
         BigDecimal pricePerShare = BigDecimal.valueOf(stockQuote.getPrice());
-        BigDecimal totalProceeds = pricePerShare.multiply(BigDecimal.valueOf(request.quantity()));
+        BigDecimal totalProceeds = pricePerShare.multiply(BigDecimal.valueOf(quantity));
 
-        // 5. Add to user balance (paper or real)
-        if (isPaper) {
-            user.setPaperBalance(user.getPaperBalance().add(totalProceeds));
-        } else {
-            user.setBalance(user.getBalance().add(totalProceeds));
-        }
-        userRepository.save(user);
+        // 5. Create transaction record and close lots against it
+        Transaction transaction = transactionRepository.save(
+                buildTransaction(user, symbol, TransactionType.SELL, quantity, stockQuote, isPaper));
+        LotBook lots = taxLotService.book(user, isPaper, symbol, holding);
+        holding.setRealizedProfitLoss(holding.getRealizedProfitLoss().add(lots.close(transaction)));
+        taxLotService.save(lots);
 
-        // 6. Update or remove portfolio holding
-        int remainingQuantity = holding.getQuantity() - request.quantity();
+        // 6. Update or remove portfolio holding; the shares left are the lots left
+        int remainingQuantity = holding.getQuantity() - quantity;
         if (remainingQuantity == 0) {
             portfolioHoldingRepository.delete(holding);
         } else {
             holding.setQuantity(remainingQuantity);
+            holding.setAveragePurchasePrice(lots.averageCost());
             portfolioHoldingRepository.save(holding);
         }
 
-        // 7. Create transaction record
-        Transaction transaction = Transaction.builder()
+        // 7. Credit the cash ledger (paper or real)
+        CashAccount cash = cashLedgerService.account(user, isPaper);
+        cash.post(LedgerEntryType.SELL, totalProceeds, transaction.getId());
+        cashLedgerService.append(cash);
+
+        log.info("User {} successfully sold {} shares of {} for {} (paper={})",
+                user.getEmail(), quantity, symbol, totalProceeds, isPaper);
+
+        return TradeResponse.builder()
+                .success(true)
+                .message("Successfully sold " + quantity + " shares of " + stockQuote.getName() + (isPaper ? " (Paper Trade)" : ""))
+                .transaction(TransactionResponse.from(transaction))
+                .newBalance(cash.balance())
+                .build();
+    }
+
+    /**
+     * Execute a basket of market orders, such as a rebalance, as one unit. All legs
+     * are priced by one batch quote call and run under one account lock and
+     * transaction, which records one trade event. Sells run before buys so that their
+     * proceeds can fund the buys. Under ALL_OR_NOTHING a leg that cannot be priced
+     * or covered fails the whole basket and nothing is written. Under BEST_EFFORT
+     * such legs are skipped and the rest execute.
+     */
+    public BatchTradeResponse executeBatch(User user, BatchTradeRequest request) {
+        BatchTradeRequest.FailureMode mode = request.mode() != null ? request.mode() : defaultBatchMode;
+        List<BatchTradeRequest.Leg> legs = request.legs();
+        log.info("User {} submitting a batch of {} legs ({})", user.getEmail(), legs.size(), mode);
+
+        Map<String, StockQuoteDto> quotes = stockService.getStockQuotes(
+                legs.stream().map(BatchTradeRequest.Leg::symbol).toList());
+        // Sells first; the sort is stable, so each side keeps its request order
+        List<Integer> executionOrder = IntStream.range(0, legs.size()).boxed()
+                .sorted(Comparator.comparing(i -> legs.get(i).side() == TransactionType.BUY))
+                .toList();
+
+        return executeForAccount(user.getId(), account -> {
+            boolean isPaper = Boolean.TRUE.equals(account.getIsPaperTrading());
+            Map<String, PortfolioHolding> holdings = portfolioHoldingRepository.findByUserAndIsPaper(account, isPaper)
+                    .stream()
+                    .collect(Collectors.toMap(PortfolioHolding::getSymbol, Function.identity()));
+
+            // Pass 1: check every leg against the running cash and share positions
+            String[] failures = new String[legs.size()];
+            CashAccount cashAccount = cashLedgerService.account(account, isPaper);
+            BigDecimal cash = cashAccount.balance();
+            Map<String, Integer> shares = new HashMap<>();
+            holdings.forEach((symbol, holding) -> shares.put(symbol, holding.getQuantity()));
+            for (int i : executionOrder) {
+                BatchTradeRequest.Leg leg = legs.get(i);
+                String symbol = leg.symbol().toUpperCase();
+                StockQuoteDto quote = quotes.get(symbol);
+                if (quote == null || quote.isStale()) {
+                    failures[i] = "Could not fetch stock price for " + leg.symbol();
+                    continue;
+                }
+                BigDecimal amount = BigDecimal.valueOf(quote.getPrice()).multiply(BigDecimal.valueOf(leg.quantity()));
+                if (leg.side() == TransactionType.BUY) {
+                    if (cash.compareTo(amount) < 0) {
+                        failures[i] = insufficientBalance(amount, quote, cash, isPaper);
+                        continue;
+                    }
+                    cash = cash.subtract(amount);
+                    shares.merge(symbol, leg.quantity(), Integer::sum);
+                } else {
+                    failures[i] = shareShortfall(leg.symbol(), shares.getOrDefault(symbol, 0), leg.quantity(), isPaper);
+                    if (failures[i] != null) {
+                        continue;
+                    }
+                    cash = cash.add(amount);
+                    shares.merge(symbol, -leg.quantity(), Integer::sum);
+                }
+            }
+
+            long failed = Arrays.stream(failures).filter(Objects::nonNull).count();
+            if (mode == BatchTradeRequest.FailureMode.ALL_OR_NOTHING && failed > 0) {
+                return new Executed<>(BatchTradeResponse.rejected(legs, failures, mode,
+                        failed + " of " + legs.size() + " legs cannot be executed; no legs were executed",
+                        cashAccount.balance()), isPaper, false);
+            }
+
+            // Pass 2: apply the legs that passed, then write everything once
+            Transaction[] executed = new Transaction[legs.size()];
+            Map<String, LotBook> lots = new HashMap<>();
+            for (int i : executionOrder) {
+                if (failures[i] != null) {
+                    continue;
+                }
+                BatchTradeRequest.Leg leg = legs.get(i);
+                String symbol = leg.symbol().toUpperCase();
+                StockQuoteDto quote = quotes.get(symbol);
+                Transaction transaction = buildTransaction(account, symbol, leg.side(), leg.quantity(), quote, isPaper);
+                // Loaded before the first leg on the symbol changes its holding
+                LotBook book = lots.computeIfAbsent(symbol,
+                        s -> taxLotService.book(account, isPaper, s, holdings.get(s)));
+                if (leg.side() == TransactionType.BUY) {
+                    holdings.put(symbol, addToHolding(account, holdings.get(symbol), symbol, leg.quantity(), quote, isPaper));
+                    book.open(transaction);
+                } else {
+                    PortfolioHolding holding = holdings.get(symbol);
+                    holding.setQuantity(holding.getQuantity() - leg.quantity());
+                    holding.setRealizedProfitLoss(holding.getRealizedProfitLoss().add(book.close(transaction)));
+                    if (holding.getQuantity() > 0) {
+                        holding.setAveragePurchasePrice(book.averageCost());
+                    }
+                }
+                executed[i] = transaction;
+            }
+
+            int executedLegs = legs.size() - (int) failed;
+            if (executedLegs > 0) {
+                List<Transaction> transactions = executionOrder.stream()
+                        .map(i -> executed[i])
+                        .filter(Objects::nonNull)
+                        .toList();
+                Set<String> touched = transactions.stream().map(Transaction::getSymbol).collect(Collectors.toSet());
+                List<PortfolioHolding> changed = new ArrayList<>();
+                List<PortfolioHolding> emptied = new ArrayList<>();
+                for (String symbol : touched) {
+                    PortfolioHolding holding = holdings.get(symbol);
+                    if (holding.getQuantity() > 0) {
+                        changed.add(holding);
+                    } else {
+                        emptied.add(holding);
+                    }
+                }
+                portfolioHoldingRepository.saveAll(changed);
+                portfolioHoldingRepository.deleteAll(emptied);
+                transactionRepository.saveAll(transactions);
+                lots.values().forEach(taxLotService::save);
+                // One ledger entry per leg, in execution order, so balances never dip below zero
+                for (Transaction transaction : transactions) {
+                    boolean isBuy = transaction.getType() == TransactionType.BUY;
+                    cashAccount.post(isBuy ? LedgerEntryType.BUY : LedgerEntryType.SELL,
+                            isBuy ? transaction.getTotalAmount().negate() : transaction.getTotalAmount(),
+                            transaction.getId());
+                }
+                cashLedgerService.append(cashAccount);
+            }
+
+            log.info("User {} executed {} of {} batch legs (paper={})",
+                    account.getEmail(), executedLegs, legs.size(), isPaper);
+            return new Executed<>(BatchTradeResponse.executed(legs, failures, executed, mode,
+                    cashAccount.balance()), isPaper, executedLegs > 0);
+        }, message -> BatchTradeResponse.builder()
+                .success(false)
+                .message(message)
+                .mode(mode)
+                .legs(List.of())
+                .build());
+    }
+
+    private static String insufficientBalance(BigDecimal required, StockQuoteDto quote, BigDecimal available,
+                                              boolean isPaper) {
+        return "Insufficient " + (isPaper ? "paper " : "") + "balance. Required: " + required + " "
+                + quote.getCurrency() + ", Available: " + available;
+    }
+
+    private static String shareShortfall(String symbol, int owned, int quantity, boolean isPaper) {
+        if (owned == 0) {
+            return "You don't own any " + (isPaper ? "paper " : "") + "shares of " + symbol;
+        }
+        if (owned < quantity) {
+            return "Insufficient shares. You own " + owned + " shares but trying to sell " + quantity;
+        }
+        return null;
+    }
+
+    /**
+     * Create a holding, or add to an existing one at the new average price.
+     */
+    private static PortfolioHolding addToHolding(User user, PortfolioHolding holding, String symbol, int quantity,
+                                                 StockQuoteDto stockQuote, boolean isPaper) {
+        BigDecimal pricePerShare = BigDecimal.valueOf(stockQuote.getPrice());
+        BigDecimal totalCost = pricePerShare.multiply(BigDecimal.valueOf(quantity));
+        if (holding == null) {
+            return PortfolioHolding.builder()
+                    .user(user)
+                    .symbol(symbol.toUpperCase())
+                    .stockName(stockQuote.getName())
+                    .quantity(quantity)
+                    .averagePurchasePrice(pricePerShare)
+                    .currency(stockQuote.getCurrency())
+                    .isPaper(isPaper)
+                    .build();
+        }
+        BigDecimal existingTotal = holding.getAveragePurchasePrice()
+                .multiply(BigDecimal.valueOf(holding.getQuantity()));
+        int newTotalQuantity = holding.getQuantity() + quantity;
+        BigDecimal newAveragePrice = existingTotal.add(totalCost)
+                .divide(BigDecimal.valueOf(newTotalQuantity), 4, RoundingMode.HALF_UP);
+
+        holding.setQuantity(newTotalQuantity);
+        holding.setAveragePurchasePrice(newAveragePrice);
+        return holding;
+    }
+
+    private static Transaction buildTransaction(User user, String symbol, TransactionType type, int quantity,
+                                                StockQuoteDto stockQuote, boolean isPaper) {
+        BigDecimal pricePerShare = BigDecimal.valueOf(stockQuote.getPrice());
+        return Transaction.builder()
                 .user(user)
-                .symbol(request.symbol().toUpperCase())
+                .symbol(symbol.toUpperCase())
                 .stockName(stockQuote.getName())
-                .type(TransactionType.SELL)
-                .quantity(request.quantity())
+                .type(type)
+                .quantity(quantity)
                 .pricePerShare(pricePerShare)
-                .totalAmount(totalProceeds)
+                .totalAmount(pricePerShare.multiply(BigDecimal.valueOf(quantity)))
                 .currency(stockQuote.getCurrency())
                 .executedAt(LocalDateTime.now())
                 .isPaper(isPaper)
                 .build();
-        transactionRepository.save(transaction);
+    }
 
-        log.info("User {} successfully sold {} shares of {} for {} (paper={})",
-                user.getEmail(), request.quantity(), request.symbol(), totalProceeds, isPaper);
+    private static TradeResponse failedTrade(String message) {
+        return TradeResponse.builder()
+                .success(false)
+                .message(message)
+                .build();
+    }
 
-        // Take portfolio snapshot after trade
-        try {
-            portfolioSnapshotService.takeSnapshotForUser(user, isPaper);
-        } catch (Exception e) {
-            log.warn("Failed to take post-trade snapshot: {}", e.getMessage());
+    /**
+     * Fill a resting order at {@code quote}, which the order book has already
+     * checked against the order's limit or stop. Runs under the same account lock
+     * as market trades. The order is re-read in the transaction, so an order that
+     * was cancelled, or filled by another replica, is left alone. A fill that fails
+     * its balance or share check marks the order REJECTED.
+     */
+    public TradeResponse fillOrder(TradeOrder order, StockQuoteDto quote) {
+        return executeForAccount(order.getUser().getId(), account -> {
+            TradeOrder current = tradeOrderRepository.findById(order.getId()).orElse(null);
+            if (current == null || current.getStatus() != OrderStatus.OPEN) {
+                return Executed.of(TradeResponse.builder()
+                        .success(false)
+                        .message("Order is no longer open")
+                        .order(current != null ? OrderResponse.from(current) : null)
+                        .build(), false);
+            }
+
+            boolean isPaper = Boolean.TRUE.equals(current.getIsPaper());
+            TradeResponse trade = current.getSide() == TransactionType.BUY
+                    ? buy(account, current.getSymbol(), current.getQuantity(), quote, isPaper)
+                    : sell(account, current.getSymbol(), current.getQuantity(), quote, isPaper);
+            if (trade.success()) {
+                current.setStatus(OrderStatus.FILLED);
+                current.setFilledPrice(trade.transaction().pricePerShare());
+                current.setFilledAt(trade.transaction().executedAt());
+            } else {
+                current.setStatus(OrderStatus.REJECTED);
+                current.setStatusMessage(trade.message());
+            }
+            tradeOrderRepository.save(current);
+            log.info("Order {} for {} {} {} at {}: {}", current.getId(), current.getSide(), current.getQuantity(),
+                    current.getSymbol(), quote.getPrice(), current.getStatus());
+            return Executed.of(trade.toBuilder().order(OrderResponse.from(current)).build(), isPaper);
+        });
+    }
+
+    /**
+     * Result of a trade run under the account lock, with the book (paper or real)
+     * it was booked against and whether anything was booked, for the trade event.
+     */
+    private record Executed<T>(T result, boolean isPaper, boolean traded) {
+
+        static Executed<TradeResponse> of(TradeResponse response, boolean isPaper) {
+            return new Executed<>(response, isPaper, response.success());
         }
+    }
 
-        return TradeResponse.builder()
-                .success(true)
-                .message("Successfully sold " + request.quantity() + " shares of " + stockQuote.getName() + (isPaper ? " (Paper Trade)" : ""))
-                .transaction(mapToTransactionResponse(transaction))
-                .newBalance(isPaper ? user.getPaperBalance() : user.getBalance())
-                .build();
+    private TradeResponse executeForAccount(UUID accountId, Function<User, Executed<TradeResponse>> trade) {
+        return executeForAccount(accountId, trade, TradingService::failedTrade);
     }
 
-    public List<TransactionResponse> getTransactions(User user) {
-        return transactionRepository.findByUserOrderByExecutedAtDesc(user)
-                .stream()
-                .map(this::mapToTransactionResponse)
-                .toList();
+    /**
+     * Run a trade against a freshly loaded account, in its own transaction, while
+     * holding the account's lock. A version conflict on a holding, or a ledger
+     * append that lost its position, means another instance traded on the account
+     * concurrently, so the trade is retried from a fresh read. If the lock cannot
+     * be had, or retries run out, {@code busy} builds the response.
+     * A trade that went through records a {@link TradeExecutedEvent} in the same
+     * transaction; the portfolio snapshot is taken from the outbox, off the request path.
+     * The account's cached dashboard is dropped with it.
+     */
+    private <T> T executeForAccount(UUID accountId, Function<User, Executed<T>> trade, Function<String, T> busy) {
+        Executed<T> executed;
+        try {
+            executed = withOptimisticRetry(accountId, () -> accountLocks.withLock(accountId, () ->
+                    transactionTemplate.execute(status -> {
+                        User fresh = userRepository.findById(accountId)
+                                .orElseThrow(() -> new RuntimeException("User not found"));
+                        Executed<T> result = trade.apply(fresh);
+                        if (result.traded()) {
+                            outboxPublisher.publish(OutboxEventType.TRADE_EXECUTED, accountId,
+                                    new TradeExecutedEvent(accountId, result.isPaper()));
+                            dashboardService.evict(accountId);
+                        }
+                        return result;
+                    })));
+        } catch (ConcurrencyFailureException e) {
+            log.warn("Trade for account {} not executed: {}", accountId, e.getMessage());
+            return busy.apply("Another trade on your account is in progress. Please try again.");
+        }
+        return executed.result();
     }
 
-    public List<TransactionResponse> getTransactionsBySymbol(User user, String symbol) {
-        return transactionRepository.findByUserAndSymbolOrderByExecutedAtDesc(user, symbol.toUpperCase())
-                .stream()
-                .map(this::mapToTransactionResponse)
-                .toList();
+    private <T> T withOptimisticRetry(UUID accountId, Supplier<T> attempt) {
+        for (int i = 1; ; i++) {
+            try {
+                return attempt.get();
+            } catch (OptimisticLockingFailureException e) {
+                if (i >= maxAttempts) {
+                    throw e;
+                }
+            } catch (DataIntegrityViolationException e) {
+                if (!CashLedgerService.isSequenceConflict(e)) {
+                    throw e;
+                }
+                // The cached ledger position was behind; the next attempt reads it fresh
+                cashLedgerService.evict(accountId);
+                if (i >= maxAttempts) {
+                    throw new OptimisticLockingFailureException("Cash ledger of account " + accountId
+                            + " changed concurrently", e);
+                }
+            }
+            log.info("Concurrent update of account {}, retrying trade (attempt {})", accountId, i + 1);
+        }
     }
 
     public PageResponse<TransactionResponse> getTransactionsPaginated(User user, Pageable pageable) {
         Page<Transaction> page = transactionRepository.findByUserOrderByExecutedAtDesc(user, pageable);
         List<TransactionResponse> content = page.getContent().stream()
-                .map(this::mapToTransactionResponse)
+                .map(TransactionResponse::from)
                 .toList();
         return PageResponse.from(page, content);
     }
 
-    private TransactionResponse mapToTransactionResponse(Transaction transaction) {
-        return TransactionResponse.builder()
-                .id(transaction.getId())
-                .symbol(transaction.getSymbol())
-                .stockName(transaction.getStockName())
-                .type(transaction.getType().name())
-                .quantity(transaction.getQuantity())
-                .pricePerShare(transaction.getPricePerShare())
-                .totalAmount(transaction.getTotalAmount())
-                .currency(transaction.getCurrency())
-                .executedAt(transaction.getExecutedAt())
-                .build();
+    /**
+     * Seek page of a user's transactions, newest first, starting after {@code cursor}
+     * (blank for the first page). The total is only counted when asked for.
+     */
+    public PageResponse<TransactionResponse> getTransactionsAfter(User user, String cursor, int size,
+                                                                  boolean includeTotal) {
+        Window<Transaction> window = transactionRepository.findByUserOrderByExecutedAtDescIdDesc(
+                user, SeekCursor.position(cursor, "executedAt"), Limit.of(size));
+        List<TransactionResponse> content = window.getContent().stream()
+                .map(TransactionResponse::from)
+                .toList();
+        return PageResponse.from(window, size, content,
+                transaction -> SeekCursor.encode(transaction.getExecutedAt(), transaction.getId()),
+                includeTotal ? transactionRepository.countByUser(user) : null);
+    }
+
+    /**
+     * Seek page of a user's transactions in one symbol, newest first.
+     */
+    public PageResponse<TransactionResponse> getTransactionsBySymbolAfter(User user, String symbol, String cursor,
+                                                                          int size) {
+        Window<Transaction> window = transactionRepository.findByUserAndSymbolOrderByExecutedAtDescIdDesc(
+                user, symbol.toUpperCase(), SeekCursor.position(cursor, "executedAt"), Limit.of(size));
+        List<TransactionResponse> content = window.getContent().stream()
+                .map(TransactionResponse::from)
+                .toList();
+        return PageResponse.from(window, size, content,
+                transaction -> SeekCursor.encode(transaction.getExecutedAt(), transaction.getId()), null);
     }
 }
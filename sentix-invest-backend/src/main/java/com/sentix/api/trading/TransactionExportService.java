@@ -0,0 +1,143 @@
+package com.sentix.api.trading;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.sentix.domain.Transaction;
+import com.sentix.domain.User;
+import com.sentix.infrastructure.persistence.TransactionRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Streams a user's full transaction history as CSV or NDJSON. Rows come from a
+ * forward-only database cursor and are written to the response one by one. Each
+ * entity is detached as soon as it is read, so memory stays flat however long the
+ * history is.
+ * This replaces the endpoints that loaded the whole history into a list.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TransactionExportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String CSV_HEADER =
+            "id,executedAt,symbol,stockName,type,quantity,pricePerShare,totalAmount,currency";
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+    }
+
+    private final TransactionRepository transactionRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Write the user's transactions, newest first, optionally limited to one symbol.
+     * The transaction keeps the cursor open while rows are written; {@code out} is
+     * flushed but left open for the caller.
+     *
+     * @return number of rows written
+     */
+    @Transactional(readOnly = true)
+    public long export(User user, String symbol, Format format, OutputStream out) throws IOException {
+        try (Stream<Transaction> rows = symbol == null || symbol.isBlank()
+                ? transactionRepository.streamByUser(user)
+                : transactionRepository.streamByUserAndSymbol(user, symbol.toUpperCase())) {
+            long written = writeRows(rows.peek(entityManager::detach), format, out);
+            log.info("Exported {} transactions for user {} as {}", written, user.getEmail(), format);
+            return written;
+        }
+    }
+
+    long writeRows(Stream<Transaction> rows, Format format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        ObjectWriter json = objectMapper.writerFor(TransactionResponse.class);
+        if (format == Format.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        long written = 0;
+        Iterator<Transaction> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            TransactionResponse row = TransactionResponse.from(iterator.next());
+            if (format == Format.CSV) {
+                writeCsvRow(writer, row);
+            } else {
+                writer.write(json.writeValueAsString(row));
+                writer.write('\n');
+            }
+            written++;
+        }
+        writer.flush();
+        return written;
+    }
+
+    private static void writeCsvRow(Writer writer, TransactionResponse row) throws IOException {
+        writer.write(String.valueOf(row.id()));
+        writer.write(',');
+        writer.write(String.valueOf(row.executedAt()));
+        writer.write(',');
+        writer.write(csvField(row.symbol()));
+        writer.write(',');
+        writer.write(csvField(row.stockName()));
+        writer.write(',');
+        writer.write(row.type());
+        writer.write(',');
+        writer.write(String.valueOf(row.quantity()));
+        writer.write(',');
+        writer.write(row.pricePerShare().toPlainString());
+        writer.write(',');
+        writer.write(row.totalAmount().toPlainString());
+        writer.write(',');
+        writer.write(csvField(row.currency()));
+        writer.write('\n');
+    }
+
+    /**
+     * Quote a free-text field per RFC 4180 when it contains a delimiter, quote or
+     * line break. A leading formula character is prefixed with a quote so the file
+     * is safe to open in a spreadsheet.
+     */
+    static String csvField(String value) {
+        if (value == null || value.isEmpty()) {
+            return "";
+        }
+        String field = "=+-@".indexOf(value.charAt(0)) >= 0 ? "'" + value : value;
+        if (field.indexOf(',') < 0 && field.indexOf('"') < 0 && field.indexOf('\n') < 0 && field.indexOf('\r') < 0) {
+            return field;
+        }
+        return '"' + field.replace("\"", "\"\"") + '"';
+    }
+}
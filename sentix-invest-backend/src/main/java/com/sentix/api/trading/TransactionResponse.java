@@ -1,5 +1,6 @@
 package com.sentix.api.trading;
 
+import com.sentix.domain.Transaction;
 import lombok.Builder;
 
 import java.math.BigDecimal;
@@ -17,4 +18,18 @@ public record TransactionResponse(
         BigDecimal totalAmount,
         String currency,
         LocalDateTime executedAt) {
+
+    public static TransactionResponse from(Transaction transaction) {
+        return TransactionResponse.builder()
+                .id(transaction.getId())
+                .symbol(transaction.getSymbol())
+                .stockName(transaction.getStockName())
+                .type(transaction.getType().name())
+                .quantity(transaction.getQuantity())
+                .pricePerShare(transaction.getPricePerShare())
+                .totalAmount(transaction.getTotalAmount())
+                .currency(transaction.getCurrency())
+                .executedAt(transaction.getExecutedAt())
+                .build();
+    }
 }
@@ -1,13 +1,19 @@
 package com.sentix.api.user;
 
+import com.sentix.api.ledger.CashLedgerService;
 import com.sentix.domain.User;
 import com.sentix.infrastructure.persistence.UserRepository;
+import com.sentix.infrastructure.security.UserPrincipalCache;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.Map;
+import java.util.function.Consumer;
 
 @RestController
 @RequestMapping("/api/v1/users")
@@ -15,40 +21,27 @@ import java.util.Map;
 public class UserController {
 
     private final UserRepository userRepository;
+    private final UserPrincipalCache userPrincipalCache;
+    private final CashLedgerService cashLedgerService;
 
     @GetMapping("/me")
     public ResponseEntity<UserResponse> getCurrentUser(@AuthenticationPrincipal User user) {
-        return ResponseEntity.ok(UserResponse.builder()
-                .fullName(user.getFullName())
-                .email(user.getEmail())
-                .balance(user.getBalance())
-                .paperBalance(user.getPaperBalance())
-                .isPaperTrading(user.getIsPaperTrading())
-                .preferredCurrency(user.getPreferredCurrency())
-                .build());
+        return ResponseEntity.ok(toResponse(user));
     }
 
     @PostMapping("/fcm-token")
     public ResponseEntity<Void> updateFcmToken(
             @AuthenticationPrincipal User user,
             @RequestBody FcmTokenRequest request) {
-        user.setFcmToken(request.getFcmToken());
-        userRepository.save(user);
+        update(user, current -> current.setFcmToken(request.getFcmToken()));
         return ResponseEntity.ok().build();
     }
 
     @PatchMapping("/paper-trading")
     public ResponseEntity<UserResponse> togglePaperTrading(@AuthenticationPrincipal User user) {
-        user.setIsPaperTrading(!Boolean.TRUE.equals(user.getIsPaperTrading()));
-        userRepository.save(user);
-        return ResponseEntity.ok(UserResponse.builder()
-                .fullName(user.getFullName())
-                .email(user.getEmail())
-                .balance(user.getBalance())
-                .paperBalance(user.getPaperBalance())
-                .isPaperTrading(user.getIsPaperTrading())
-                .preferredCurrency(user.getPreferredCurrency())
-                .build());
+        User updated = update(user, current ->
+                current.setIsPaperTrading(!Boolean.TRUE.equals(current.getIsPaperTrading())));
+        return ResponseEntity.ok(toResponse(updated));
     }
 
     @PatchMapping("/preferred-currency")
@@ -59,8 +52,36 @@ public class UserController {
         if (currency == null || currency.isBlank()) {
             return ResponseEntity.badRequest().body(Map.of("error", "Currency is required"));
         }
-        user.setPreferredCurrency(currency.toUpperCase());
-        userRepository.save(user);
-        return ResponseEntity.ok(Map.of("preferredCurrency", user.getPreferredCurrency()));
+        User updated = update(user, current -> current.setPreferredCurrency(currency.toUpperCase()));
+        return ResponseEntity.ok(Map.of("preferredCurrency", updated.getPreferredCurrency()));
+    }
+
+    /**
+     * Apply a change to the stored user rather than the principal, which may be a
+     * stale cached copy whose version would fail the optimistic lock.
+     */
+    private User update(User principal, Consumer<User> change) {
+        User current = userRepository.findById(principal.getId())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+        change.accept(current);
+        User saved;
+        try {
+            saved = userRepository.save(current);
+        } catch (OptimisticLockingFailureException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Profile changed while updating, please retry");
+        }
+        userPrincipalCache.evict(principal.getEmail());
+        return saved;
+    }
+
+    private UserResponse toResponse(User user) {
+        return UserResponse.builder()
+                .fullName(user.getFullName())
+                .email(user.getEmail())
+                .balance(cashLedgerService.balance(user, false))
+                .paperBalance(cashLedgerService.balance(user, true))
+                .isPaperTrading(user.getIsPaperTrading())
+                .preferredCurrency(user.getPreferredCurrency())
+                .build();
     }
 }
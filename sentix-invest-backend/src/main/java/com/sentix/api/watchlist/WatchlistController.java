@@ -23,7 +23,13 @@ public class WatchlistController {
     public ResponseEntity<PageResponse<WatchlistItemResponse>> getWatchlist(
             @AuthenticationPrincipal User user,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        // Any cursor parameter, even empty for the first page, selects seek pagination
+        if (cursor != null) {
+            return ResponseEntity.ok(watchlistService.getWatchlistAfter(user, cursor, size, includeTotal));
+        }
         return ResponseEntity.ok(watchlistService.getWatchlistPaginated(user, PageRequest.of(page, size)));
     }
 
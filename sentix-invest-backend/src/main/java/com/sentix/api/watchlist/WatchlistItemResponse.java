@@ -1,5 +1,7 @@
 package com.sentix.api.watchlist;
 
+import com.sentix.api.stock.StockQuoteDto;
+import com.sentix.infrastructure.persistence.WatchlistView;
 import lombok.Builder;
 
 import java.time.LocalDateTime;
@@ -16,4 +18,21 @@ public record WatchlistItemResponse(
         Double change,
         Double changePercent,
         String currency) {
+
+    /**
+     * Build an item priced from {@code quote}; the price fields stay null when
+     * there is no quote.
+     */
+    public static WatchlistItemResponse from(WatchlistView item, StockQuoteDto quote) {
+        return WatchlistItemResponse.builder()
+                .id(item.id())
+                .symbol(item.symbol())
+                .stockName(item.stockName())
+                .addedAt(item.addedAt())
+                .currentPrice(quote != null ? quote.getPrice() : null)
+                .change(quote != null ? quote.getChange() : null)
+                .changePercent(quote != null ? quote.getChangePercent() : null)
+                .currency(quote != null ? quote.getCurrency() : null)
+                .build();
+    }
 }
@@ -1,15 +1,20 @@
 package com.sentix.api.watchlist;
 
 import com.sentix.api.common.PageResponse;
+import com.sentix.api.common.SeekCursor;
+import com.sentix.api.dashboard.DashboardService;
 import com.sentix.api.stock.StockQuoteDto;
 import com.sentix.api.stock.StockService;
 import com.sentix.domain.User;
 import com.sentix.domain.Watchlist;
 import com.sentix.infrastructure.persistence.WatchlistRepository;
+import com.sentix.infrastructure.persistence.WatchlistView;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -23,12 +28,13 @@ public class WatchlistService {
 
     private final WatchlistRepository watchlistRepository;
     private final StockService stockService;
+    private final DashboardService dashboardService;
 
     public List<WatchlistItemResponse> getWatchlist(User user) {
-        List<Watchlist> items = watchlistRepository.findByUser(user);
+        List<WatchlistView> items = watchlistRepository.findViewsByUser(user);
         List<WatchlistItemResponse> responses = new ArrayList<>();
 
-        for (Watchlist item : items) {
+        for (WatchlistView item : items) {
             responses.add(buildWatchlistItemResponse(item));
         }
 
@@ -41,7 +47,7 @@ public class WatchlistService {
         if (watchlistRepository.existsByUserAndSymbol(user, request.symbol().toUpperCase())) {
             log.info("Stock {} already in watchlist for user {}", request.symbol(), user.getEmail());
             return watchlistRepository.findByUserAndSymbol(user, request.symbol().toUpperCase())
-                    .map(this::buildWatchlistItemResponse)
+                    .map(item -> buildWatchlistItemResponse(toView(item)))
                     .orElse(null);
         }
 
@@ -52,9 +58,10 @@ public class WatchlistService {
                 .build();
 
         watchlistItem = watchlistRepository.save(watchlistItem);
+        dashboardService.evict(user.getId());
         log.info("Added {} to watchlist for user {}", request.symbol(), user.getEmail());
 
-        return buildWatchlistItemResponse(watchlistItem);
+        return buildWatchlistItemResponse(toView(watchlistItem));
     }
 
     @Transactional
@@ -63,6 +70,7 @@ public class WatchlistService {
             return false;
         }
         watchlistRepository.deleteByUserAndSymbol(user, symbol.toUpperCase());
+        dashboardService.evict(user.getId());
         log.info("Removed {} from watchlist for user {}", symbol, user.getEmail());
         return true;
     }
@@ -72,40 +80,40 @@ public class WatchlistService {
     }
 
     public PageResponse<WatchlistItemResponse> getWatchlistPaginated(User user, Pageable pageable) {
-        Page<Watchlist> page = watchlistRepository.findByUser(user, pageable);
+        Page<WatchlistView> page = watchlistRepository.findViewsByUser(user, pageable);
         List<WatchlistItemResponse> content = page.getContent().stream()
                 .map(this::buildWatchlistItemResponse)
                 .toList();
         return PageResponse.from(page, content);
     }
 
-    private WatchlistItemResponse buildWatchlistItemResponse(Watchlist item) {
-        Double currentPrice = null;
-        Double change = null;
-        Double changePercent = null;
-        String currency = null;
+    /**
+     * Seek page of a user's watchlist, most recently added first, starting after
+     * {@code cursor} (blank for the first page). The total is only counted when asked for.
+     */
+    public PageResponse<WatchlistItemResponse> getWatchlistAfter(User user, String cursor, int size,
+                                                                 boolean includeTotal) {
+        Window<Watchlist> window = watchlistRepository.findByUserOrderByAddedAtDescIdDesc(
+                user, SeekCursor.position(cursor, "addedAt"), Limit.of(size));
+        List<WatchlistItemResponse> content = window.getContent().stream()
+                .map(item -> buildWatchlistItemResponse(toView(item)))
+                .toList();
+        return PageResponse.from(window, size, content,
+                item -> SeekCursor.encode(item.getAddedAt(), item.getId()),
+                includeTotal ? watchlistRepository.countByUser(user) : null);
+    }
+
+    private static WatchlistView toView(Watchlist item) {
+        return new WatchlistView(item.getId(), item.getSymbol(), item.getStockName(), item.getAddedAt());
+    }
 
+    private WatchlistItemResponse buildWatchlistItemResponse(WatchlistView item) {
+        StockQuoteDto quote = null;
         try {
-            StockQuoteDto quote = stockService.getStockQuote(item.getSymbol());
-            if (quote != null) {
-                currentPrice = quote.getPrice();
-                change = quote.getChange();
-                changePercent = quote.getChangePercent();
-                currency = quote.getCurrency();
-            }
+            quote = stockService.getStockQuote(item.symbol());
         } catch (Exception e) {
-            log.warn("Could not fetch price for watchlist item {}: {}", item.getSymbol(), e.getMessage());
+            log.warn("Could not fetch price for watchlist item {}: {}", item.symbol(), e.getMessage());
         }
-
-        return WatchlistItemResponse.builder()
-                .id(item.getId())
-                .symbol(item.getSymbol())
-                .stockName(item.getStockName())
-                .addedAt(item.getAddedAt())
-                .currentPrice(currentPrice)
-                .change(change)
-                .changePercent(changePercent)
-                .currency(currency)
-                .build();
+        return WatchlistItemResponse.from(item, quote);
     }
 }
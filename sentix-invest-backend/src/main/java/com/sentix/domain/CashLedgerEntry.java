@@ -0,0 +1,68 @@
+package com.sentix.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One movement of cash in an account (a user's real or paper book). Entries are
+ * only ever inserted. Each carries the balance after it and a sequence number
+ * that is unique per account, so the latest entry is the current balance and two
+ * writers that read the same balance cannot both append after it.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+// uk_cash_ledger_deposit_reference (partial, deposits only) is created by V6__add_cash_ledger.sql
+@Table(name = "cash_ledger", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_cash_ledger_account_sequence", columnNames = {"user_id", "is_paper", "sequence"})
+}, indexes = {
+        @Index(name = "idx_cash_ledger_account_created", columnList = "user_id, is_paper, created_at DESC")
+})
+public class CashLedgerEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(nullable = false)
+    private UUID userId;
+
+    @Column(nullable = false)
+    private Boolean isPaper;
+
+    @Column(nullable = false)
+    private Long sequence;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private LedgerEntryType type;
+
+    // Signed: negative for buys
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal amount;
+
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal balanceAfter;
+
+    // The transaction or payment behind the entry
+    private UUID referenceId;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.sentix.domain;
+
+public enum LedgerEntryType {
+    BUY,
+    SELL,
+    DEPOSIT
+}
@@ -0,0 +1,66 @@
+package com.sentix.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * The part of one lot closed by one sell, with the gain it realized. Disposals are
+ * only ever inserted and carry what a tax report needs (acquired and disposed
+ * dates, cost and proceeds), so the report never replays transactions.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "lot_disposals", indexes = {
+        @Index(name = "idx_lot_disposals_account_disposed", columnList = "user_id, is_paper, disposed_at DESC")
+})
+public class LotDisposal {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(nullable = false)
+    private UUID userId;
+
+    @Column(nullable = false)
+    private Boolean isPaper;
+
+    @Column(nullable = false)
+    private String symbol;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "open_transaction_id")
+    private Transaction openTransaction;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "sell_transaction_id", nullable = false)
+    private Transaction sellTransaction;
+
+    @Column(nullable = false)
+    private LocalDateTime acquiredAt;
+
+    @Column(nullable = false)
+    private LocalDateTime disposedAt;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal costPerShare;
+
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal proceedsPerShare;
+
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal realizedProfitLoss;
+}
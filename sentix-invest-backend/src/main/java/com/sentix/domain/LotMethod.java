@@ -0,0 +1,9 @@
+package com.sentix.domain;
+
+/**
+ * Which open lots a sell closes first.
+ */
+public enum LotMethod {
+    FIFO,
+    LIFO
+}
@@ -0,0 +1,8 @@
+package com.sentix.domain;
+
+public enum OrderStatus {
+    OPEN,
+    FILLED,
+    CANCELLED,
+    REJECTED
+}
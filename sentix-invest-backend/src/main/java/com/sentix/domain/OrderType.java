@@ -0,0 +1,8 @@
+package com.sentix.domain;
+
+public enum OrderType {
+    MARKET,
+    LIMIT,
+    STOP,
+    STOP_LIMIT
+}
@@ -0,0 +1,7 @@
+package com.sentix.domain;
+
+public enum OutboxEventType {
+    TRADE_EXECUTED,
+    PAYMENT_COMPLETED,
+    ALERT_TRIGGERED
+}
@@ -15,6 +15,7 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+// Token, conversation and per-user indexes: V3__add_hot_path_indexes.sql (CONCURRENTLY, not ddl-auto)
 @Table(name = "payments")
 public class Payment {
 
@@ -15,6 +15,7 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+// (user, is_paper, symbol) index: V3__add_hot_path_indexes.sql (CONCURRENTLY, not ddl-auto)
 @Table(name = "portfolio_holdings")
 public class PortfolioHolding {
 
@@ -41,10 +42,19 @@ public class PortfolioHolding {
     @Column(nullable = false)
     private String currency;
 
+    // Running total over the holding's closed lots; see TaxLot
+    @Builder.Default
+    @Column(columnDefinition = "numeric(19,4) not null default 0")
+    private BigDecimal realizedProfitLoss = BigDecimal.ZERO;
+
     @Builder.Default
     @Column(columnDefinition = "boolean not null default false")
     private Boolean isPaper = false;
 
+    @Version
+    @Column(columnDefinition = "bigint not null default 0")
+    private Long version;
+
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
@@ -15,9 +15,18 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+// Active-alert and per-user indexes: V3__add_hot_path_indexes.sql (CONCURRENTLY, not ddl-auto)
+// Active-alert shard bucket index: V9__add_alert_shard_buckets.sql
 @Table(name = "price_alerts")
 public class PriceAlert {
 
+    /**
+     * Number of fixed buckets alerts are spread over by symbol hash. An alert
+     * shard owns every bucket congruent to it modulo the shard count, so the
+     * shard count must divide this.
+     */
+    public static final int SHARD_BUCKETS = 1024;
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
@@ -48,6 +57,33 @@ public class PriceAlert {
     @Column
     private Integer daysNotice;
 
+    /**
+     * Re-arming alerts stay active after firing and fire again once the price has
+     * moved back out of the hysteresis band and the cooldown has elapsed.
+     */
+    @Column
+    private Boolean rearm;
+
+    @Column(precision = 9, scale = 4)
+    private BigDecimal hysteresisPercent;
+
+    @Column
+    private Integer cooldownMinutes;
+
+    @Column
+    private Boolean armed;
+
+    @Column
+    private Integer triggerCount;
+
+    /**
+     * Symbol hash modulo {@link #SHARD_BUCKETS}, so the alert job can load only
+     * the shards it owns. Unlike the shard itself it does not depend on the
+     * configured shard count.
+     */
+    @Column
+    private Integer shardBucket;
+
     private LocalDateTime createdAt;
     private LocalDateTime triggeredAt;
 
@@ -57,5 +93,19 @@ public class PriceAlert {
         if (isActive == null) {
             isActive = true;
         }
+        if (rearm == null) {
+            rearm = false;
+        }
+        if (armed == null) {
+            armed = true;
+        }
+        if (triggerCount == null) {
+            triggerCount = 0;
+        }
+        shardBucket = shardBucketOf(symbol);
+    }
+
+    public static int shardBucketOf(String symbol) {
+        return Math.floorMod(symbol.hashCode(), SHARD_BUCKETS);
     }
 }
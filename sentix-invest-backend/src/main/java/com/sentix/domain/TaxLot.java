@@ -0,0 +1,66 @@
+package com.sentix.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Shares of a holding bought together at one price. Only open lots are kept:
+ * a sell reduces {@code remainingQuantity} and the lot is deleted once it reaches
+ * zero, leaving its disposals as the record of what it realized.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "tax_lots", indexes = {
+        @Index(name = "idx_tax_lots_holding_acquired", columnList = "user_id, is_paper, symbol, acquired_at")
+})
+public class TaxLot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(nullable = false)
+    private UUID userId;
+
+    @Column(nullable = false)
+    private Boolean isPaper;
+
+    @Column(nullable = false)
+    private String symbol;
+
+    // The buy that opened the lot; null for lots carried over from before lots were kept
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "open_transaction_id")
+    private Transaction openTransaction;
+
+    @Column(nullable = false)
+    private LocalDateTime acquiredAt;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Column(nullable = false)
+    private Integer remainingQuantity;
+
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal costPerShare;
+
+    // Gain on the part of the lot already sold
+    @Builder.Default
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal realizedProfitLoss = BigDecimal.ZERO;
+
+    public BigDecimal getCostBasis() {
+        return costPerShare.multiply(BigDecimal.valueOf(remainingQuantity));
+    }
+}
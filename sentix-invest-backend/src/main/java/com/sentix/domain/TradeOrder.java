@@ -0,0 +1,97 @@
+package com.sentix.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A resting limit, stop or stop-limit order. Market orders execute immediately and
+ * are never stored. Open orders are held in the in-memory order books and rebuilt
+ * from this table at startup.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+// idx_orders_open (partial, open orders only) is created by V5__add_orders.sql
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_user_status_created", columnList = "user_id, status, created_at DESC"),
+        @Index(name = "idx_orders_updated", columnList = "updated_at")
+})
+public class TradeOrder {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(nullable = false)
+    private String symbol;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TransactionType side;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OrderType orderType;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Column(precision = 19, scale = 4)
+    private BigDecimal limitPrice;
+
+    @Column(precision = 19, scale = 4)
+    private BigDecimal stopPrice;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OrderStatus status;
+
+    /**
+     * Set once the stop price of a stop-limit order has been hit; the order then
+     * rests as a limit order.
+     */
+    @Builder.Default
+    @Column(columnDefinition = "boolean not null default false")
+    private Boolean triggered = false;
+
+    @Builder.Default
+    @Column(columnDefinition = "boolean not null default false")
+    private Boolean isPaper = false;
+
+    @Column(precision = 19, scale = 4)
+    private BigDecimal filledPrice;
+
+    private String statusMessage;
+
+    @Version
+    @Column(columnDefinition = "bigint not null default 0")
+    private Long version;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime filledAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = createdAt;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -15,6 +15,7 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+// History indexes: V3__add_hot_path_indexes.sql (CONCURRENTLY, not ddl-auto)
 @Table(name = "transactions")
 public class Transaction {
 
@@ -16,7 +16,7 @@ import java.util.List;
 import java.util.UUID;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
@@ -38,10 +38,10 @@ public class User implements UserDetails {
     @Enumerated(EnumType.STRING)
     private Role role;
 
-    private BigDecimal balance; // Simple balance tracking for now
+    private BigDecimal balance; // Opening balance; the current one comes from the cash ledger
 
     @Builder.Default
-    private BigDecimal paperBalance = new BigDecimal("100000"); // Starting paper money
+    private BigDecimal paperBalance = new BigDecimal("100000"); // Starting paper money, before ledger entries
 
     @Builder.Default
     private Boolean isPaperTrading = false;
@@ -50,6 +50,11 @@ public class User implements UserDetails {
 
     private String fcmToken; // Firebase Cloud Messaging token for push notifications
 
+    // Optimistic lock: a write based on a stale copy (another instance, an old cached principal) fails
+    @Version
+    @Column(columnDefinition = "bigint not null default 0")
+    private Long version;
+
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
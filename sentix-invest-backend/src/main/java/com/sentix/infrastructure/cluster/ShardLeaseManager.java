@@ -0,0 +1,134 @@
+package com.sentix.infrastructure.cluster;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Redis-backed shard leases for work that must be split across replicas.
+ * Every node heartbeats into a per-group member set, works out its fair share
+ * (ceil(shards / live nodes)) and holds that many leases, renewing them on each
+ * cycle. Leases expire on their own if a node dies, so its shards are picked up
+ * by the survivors on their next cycle.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ShardLeaseManager {
+
+    private static final RedisScript<Long> RENEW_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then "
+                    + "return redis.call('pexpire', KEYS[1], ARGV[2]) else return 0 end",
+            Long.class);
+
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then "
+                    + "return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    @Value("${cluster.node-id:}")
+    private String configuredNodeId;
+
+    @Value("${cluster.shard.fallback-to-local:true}")
+    private boolean fallbackToLocal;
+
+    private volatile String nodeId;
+
+    /**
+     * Acquire or renew this node's share of the shards in a group.
+     *
+     * @return the shard numbers this node owns for the coming cycle. When Redis is
+     *         unreachable and local fallback is enabled every shard is returned, so a
+     *         single node keeps working; callers must still guard side effects.
+     */
+    public Set<Integer> acquireShards(String group, int shardCount, Duration leaseTtl) {
+        try {
+            String self = getNodeId();
+            long now = System.currentTimeMillis();
+            String membersKey = "cluster:" + group + ":nodes";
+
+            redisTemplate.opsForZSet().add(membersKey, self, now);
+            redisTemplate.opsForZSet().removeRangeByScore(membersKey, 0, now - leaseTtl.toMillis());
+            Long liveNodes = redisTemplate.opsForZSet().zCard(membersKey);
+            int fairShare = (int) Math.ceil((double) shardCount / Math.max(1, liveNodes != null ? liveNodes : 1));
+
+            TreeSet<Integer> owned = new TreeSet<>();
+            for (int shard = 0; shard < shardCount; shard++) {
+                Long renewed = redisTemplate.execute(RENEW_SCRIPT, List.of(leaseKey(group, shard)),
+                        self, String.valueOf(leaseTtl.toMillis()));
+                if (renewed != null && renewed == 1L) {
+                    owned.add(shard);
+                }
+            }
+
+            // Hand back shards above our fair share so newly joined nodes can take them
+            while (owned.size() > fairShare) {
+                int shard = owned.pollLast();
+                redisTemplate.execute(RELEASE_SCRIPT, List.of(leaseKey(group, shard)), self);
+            }
+
+            int start = Math.floorMod(self.hashCode(), shardCount);
+            for (int i = 0; i < shardCount && owned.size() < fairShare; i++) {
+                int shard = (start + i) % shardCount;
+                if (owned.contains(shard)) {
+                    continue;
+                }
+                Boolean acquired = redisTemplate.opsForValue().setIfAbsent(leaseKey(group, shard), self, leaseTtl);
+                if (Boolean.TRUE.equals(acquired)) {
+                    owned.add(shard);
+                }
+            }
+
+            log.debug("Node {} owns shards {} of group {} ({} live nodes)", self, owned, group, liveNodes);
+            return owned;
+        } catch (Exception e) {
+            if (!fallbackToLocal) {
+                log.warn("Could not acquire shard leases for {}: {}. Skipping this cycle.", group, e.getMessage());
+                return Set.of();
+            }
+            log.warn("Could not acquire shard leases for {}: {}. Falling back to local ownership of all shards.",
+                    group, e.getMessage());
+            return IntStream.range(0, shardCount).boxed().collect(Collectors.toSet());
+        }
+    }
+
+    public static int shardOf(String key, int shardCount) {
+        return Math.floorMod(key.hashCode(), shardCount);
+    }
+
+    public String getNodeId() {
+        if (nodeId == null) {
+            nodeId = configuredNodeId != null && !configuredNodeId.isBlank()
+                    ? configuredNodeId
+                    : resolveHostName() + ":" + UUID.randomUUID().toString().substring(0, 8);
+        }
+        return nodeId;
+    }
+
+    private String leaseKey(String group, int shard) {
+        return "cluster:" + group + ":shard:" + shard;
+    }
+
+    private static String resolveHostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "node";
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.sentix.infrastructure.config;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Adaptive concurrency limit using additive increase / multiplicative decrease.
+ * A request that finishes within the latency threshold while the limit is at
+ * least half used raises the limit by one. A slow or failed request multiplies
+ * it by the backoff ratio. The limit shrinks during an upstream brownout, so
+ * excess requests are rejected up front instead of queueing on blocked threads.
+ */
+class AimdLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long latencyThresholdNanos;
+
+    private final AtomicInteger limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    AimdLimiter(int initialLimit, int minLimit, int maxLimit, double backoffRatio, long latencyThresholdNanos) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.limit = new AtomicInteger(Math.max(minLimit, Math.min(maxLimit, initialLimit)));
+    }
+
+    /**
+     * @return true if the request may proceed; it must then call {@link #release}
+     */
+    boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit.get()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    void release(long latencyNanos, boolean failed) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        if (failed || latencyNanos > latencyThresholdNanos) {
+            limit.updateAndGet(current -> Math.max(minLimit, (int) (current * backoffRatio)));
+        } else if (inFlightBefore * 2 >= limit.get()) {
+            // Only grow while the limit is actually being used, otherwise it drifts up to max when idle
+            limit.updateAndGet(current -> Math.min(maxLimit, current + 1));
+        }
+    }
+
+    int getLimit() {
+        return limit.get();
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+}
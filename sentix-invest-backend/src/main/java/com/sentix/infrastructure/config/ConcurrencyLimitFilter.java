@@ -0,0 +1,145 @@
+package com.sentix.infrastructure.config;
+
+import com.sentix.infrastructure.metrics.SentixMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load shedding for endpoint groups that block on upstream calls. Each group has
+ * its own {@link AimdLimiter}. When the MCP server slows down, the group's limit
+ * shrinks and excess requests get an immediate 503 with Retry-After. Without this
+ * they would pile up on request threads until the whole service stalls.
+ * Per-client quotas are a separate concern, handled by {@link RateLimitFilter}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final Map<String, List<String>> GROUP_PREFIXES = Map.of(
+            "ai", List.of("/api/v1/ai"),
+            "market-data", List.of("/api/v1/stocks", "/api/v1/markets", "/api/v1/crypto",
+                    "/api/v1/forex", "/api/v1/calendar"),
+            "portfolio", List.of("/api/v1/portfolio", "/api/v1/watchlist", "/api/v1/alerts", "/api/v1/dashboard"),
+            "trading", List.of("/api/v1/trading"));
+
+    private final SentixMetrics metrics;
+
+    @Value("${concurrency-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${concurrency-limit.min-limit:2}")
+    private int minLimit;
+
+    @Value("${concurrency-limit.max-limit:200}")
+    private int maxLimit;
+
+    @Value("${concurrency-limit.backoff-ratio:0.9}")
+    private double backoffRatio;
+
+    @Value("${concurrency-limit.retry-after-seconds:1}")
+    private int retryAfterSeconds;
+
+    @Value("${concurrency-limit.ai.initial:10}")
+    private int aiInitial;
+
+    @Value("${concurrency-limit.ai.latency-threshold:20000}")
+    private long aiLatencyThresholdMs;
+
+    @Value("${concurrency-limit.market-data.initial:40}")
+    private int marketDataInitial;
+
+    @Value("${concurrency-limit.market-data.latency-threshold:3000}")
+    private long marketDataLatencyThresholdMs;
+
+    @Value("${concurrency-limit.portfolio.initial:40}")
+    private int portfolioInitial;
+
+    @Value("${concurrency-limit.portfolio.latency-threshold:2000}")
+    private long portfolioLatencyThresholdMs;
+
+    @Value("${concurrency-limit.trading.initial:20}")
+    private int tradingInitial;
+
+    @Value("${concurrency-limit.trading.latency-threshold:2000}")
+    private long tradingLatencyThresholdMs;
+
+    private final Map<String, AimdLimiter> limiters = new LinkedHashMap<>();
+
+    @PostConstruct
+    void init() {
+        limiters.put("ai", newLimiter(aiInitial, aiLatencyThresholdMs));
+        limiters.put("market-data", newLimiter(marketDataInitial, marketDataLatencyThresholdMs));
+        limiters.put("portfolio", newLimiter(portfolioInitial, portfolioLatencyThresholdMs));
+        limiters.put("trading", newLimiter(tradingInitial, tradingLatencyThresholdMs));
+        limiters.forEach((group, limiter) ->
+                metrics.registerConcurrencyLimit(group, limiter::getLimit, limiter::getInFlight));
+    }
+
+    private AimdLimiter newLimiter(int initialLimit, long latencyThresholdMs) {
+        return new AimdLimiter(initialLimit, minLimit, maxLimit, backoffRatio,
+                TimeUnit.MILLISECONDS.toNanos(latencyThresholdMs));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        String group = groupOf(request.getRequestURI());
+        AimdLimiter limiter = group != null ? limiters.get(group) : null;
+        if (!enabled || limiter == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        if (!limiter.tryAcquire()) {
+            log.warn("Shedding request to {}: {} concurrency limit {} reached",
+                    request.getRequestURI(), group, limiter.getLimit());
+            metrics.recordLoadShed(group);
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setContentType("application/json");
+            response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+            response.getWriter().write("{\"error\":\"Service overloaded\",\"message\":\"Too many requests in progress. Please try again shortly.\"}");
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = response.getStatus() >= 500;
+        } finally {
+            limiter.release(System.nanoTime() - start, failed);
+        }
+    }
+
+    static String groupOf(String path) {
+        for (Map.Entry<String, List<String>> entry : GROUP_PREFIXES.entrySet()) {
+            for (String prefix : entry.getValue()) {
+                if (path.startsWith(prefix)) {
+                    return entry.getKey();
+                }
+            }
+        }
+        return null;
+    }
+
+    AimdLimiter limiter(String group) {
+        return limiters.get(group);
+    }
+}
@@ -0,0 +1,197 @@
+package com.sentix.infrastructure.config;
+
+import com.sentix.domain.User;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Makes retried POSTs to money-moving endpoints safe. A client sends the same
+ * {@code Idempotency-Key} header with every attempt of one operation; the first
+ * attempt executes, and later ones get its response back, marked with
+ * {@code Idempotent-Replayed: true}, instead of executing again.
+ * Only successful (2xx) responses are kept. A failed trade or payment has no
+ * effect, so its key is released and a retry executes for real. A retry that
+ * arrives while the original is still running gets 409, and a key reused with a
+ * different request body gets 422. Keys are scoped to the authenticated user and
+ * the endpoint. Requests without the header are not affected.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    static final String HEADER = "Idempotency-Key";
+    static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyStore store;
+
+    @Value("${idempotency.enabled:true}")
+    private boolean enabled;
+
+    @Value("${idempotency.paths:/api/v1/trading/buy,/api/v1/trading/sell,/api/v1/trading/batch,/api/v1/payments/checkout}")
+    private List<String> paths;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled
+                || !"POST".equals(request.getMethod())
+                || request.getHeader(HEADER) == null
+                || !paths.contains(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        String idempotencyKey = request.getHeader(HEADER);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof User user)) {
+            // Unauthenticated requests are rejected further down the chain
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpStatus.BAD_REQUEST,
+                    "Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters.");
+            return;
+        }
+
+        CachedBodyRequest cachedRequest = new CachedBodyRequest(request);
+        String fingerprint = fingerprint(cachedRequest.body);
+        String key = user.getId() + ":" + request.getRequestURI() + ":" + idempotencyKey;
+
+        IdempotencyStore.Claim claim = store.claim(key, fingerprint);
+        switch (claim.status()) {
+            case COMPLETED -> {
+                IdempotencyStore.StoredResponse stored = claim.response();
+                if (!stored.fingerprint().equals(fingerprint)) {
+                    writeError(response, HttpStatus.UNPROCESSABLE_ENTITY,
+                            "Idempotency-Key was already used for a different request.");
+                    return;
+                }
+                log.info("Replaying response for idempotency key {} on {}", idempotencyKey, request.getRequestURI());
+                response.setStatus(stored.status());
+                if (stored.contentType() != null) {
+                    response.setContentType(stored.contentType());
+                }
+                response.setHeader(REPLAYED_HEADER, "true");
+                response.getOutputStream().write(stored.body());
+            }
+            case IN_PROGRESS -> {
+                response.setHeader("Retry-After", "1");
+                writeError(response, HttpStatus.CONFLICT,
+                        "A request with this Idempotency-Key is still being processed.");
+            }
+            case ACQUIRED -> execute(cachedRequest, response, filterChain, key, claim.token(), fingerprint);
+        }
+    }
+
+    private void execute(CachedBodyRequest request, HttpServletResponse response, FilterChain filterChain,
+                         String key, String token, String fingerprint) throws ServletException, IOException {
+        ContentCachingResponseWrapper cachingResponse = new ContentCachingResponseWrapper(response);
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, cachingResponse);
+            int status = cachingResponse.getStatus();
+            if (status >= 200 && status < 300) {
+                store.complete(key, token, new IdempotencyStore.StoredResponse(fingerprint, status,
+                        cachingResponse.getContentType(), cachingResponse.getContentAsByteArray()));
+                completed = true;
+            }
+        } finally {
+            if (!completed) {
+                store.release(key, token);
+            }
+            cachingResponse.copyBodyToResponse();
+        }
+    }
+
+    static String fingerprint(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static void writeError(HttpServletResponse response, HttpStatus status, String message)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setContentType("application/json");
+        response.getWriter().write("{\"error\":\"" + status.getReasonPhrase() + "\",\"message\":\"" + message + "\"}");
+    }
+
+    /**
+     * Reads the body up front so it can be fingerprinted and still be read by the controller.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = request.getInputStream().readAllBytes();
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.sentix.infrastructure.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Dedup store for {@link IdempotencyFilter}. Completed responses are kept in a
+ * bounded in-process cache in front of Redis, so a replay served by the node that
+ * handled the original never leaves the JVM. A first use of a key costs one Redis
+ * SET NX, which also stops a retry that lands on another replica from executing
+ * while the original is still running.
+ * If Redis cannot be reached the store works from the local cache alone, and
+ * Redis is not tried again until {@code retry-after} has passed.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IdempotencyStore {
+
+    private static final String PENDING_PREFIX = "pending:";
+
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then "
+                    + "return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${idempotency.key-prefix:idempotency:}")
+    private String keyPrefix;
+
+    @Value("${idempotency.ttl:86400000}")
+    private long ttlMs;
+
+    @Value("${idempotency.in-flight-ttl:60000}")
+    private long inFlightTtlMs;
+
+    @Value("${idempotency.local.max-keys:100000}")
+    private long maxLocalKeys;
+
+    @Value("${idempotency.redis.retry-after:30000}")
+    private long retryAfterMs;
+
+    private Cache<String, Entry> entries;
+
+    private volatile long redisUnavailableUntil;
+
+    /**
+     * A response kept for replay, with the fingerprint of the request that produced it.
+     */
+    public record StoredResponse(String fingerprint, int status, String contentType, byte[] body) {
+    }
+
+    /**
+     * Outcome of {@link #claim}: exactly one of ACQUIRED, IN_PROGRESS or COMPLETED.
+     * {@code token} is set for ACQUIRED and must be passed to complete or release;
+     * {@code response} is set for COMPLETED.
+     */
+    public record Claim(Status status, String token, StoredResponse response) {
+
+        public enum Status { ACQUIRED, IN_PROGRESS, COMPLETED }
+
+        static Claim acquired(String token) {
+            return new Claim(Status.ACQUIRED, token, null);
+        }
+
+        static Claim inProgress() {
+            return new Claim(Status.IN_PROGRESS, null, null);
+        }
+
+        static Claim completed(StoredResponse response) {
+            return new Claim(Status.COMPLETED, null, response);
+        }
+    }
+
+    private sealed interface Entry permits Pending, Completed {
+    }
+
+    private record Pending(String token, long expiresAt) implements Entry {
+    }
+
+    private record Completed(StoredResponse response) implements Entry {
+    }
+
+    @PostConstruct
+    void init() {
+        entries = Caffeine.newBuilder()
+                .maximumSize(maxLocalKeys)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .build();
+    }
+
+    /**
+     * Claim a key before executing its request, or find its earlier outcome.
+     */
+    public Claim claim(String key, String fingerprint) {
+        String token = PENDING_PREFIX + fingerprint + ":" + UUID.randomUUID();
+        long now = System.currentTimeMillis();
+        Entry local = entries.asMap().compute(key, (k, current) ->
+                current == null || current instanceof Pending pending && pending.expiresAt() <= now
+                        ? new Pending(token, now + inFlightTtlMs)
+                        : current);
+        if (local instanceof Completed completed) {
+            return Claim.completed(completed.response());
+        }
+        if (!((Pending) local).token().equals(token)) {
+            return Claim.inProgress();
+        }
+        if (!isRedisAvailable()) {
+            return Claim.acquired(token);
+        }
+
+        try {
+            Boolean acquired = redisTemplate.opsForValue()
+                    .setIfAbsent(keyPrefix + key, token, Duration.ofMillis(inFlightTtlMs));
+            if (Boolean.TRUE.equals(acquired)) {
+                return Claim.acquired(token);
+            }
+            String stored = redisTemplate.opsForValue().get(keyPrefix + key);
+            entries.asMap().remove(key, local);
+            if (stored == null) {
+                // The other claim was released or expired between the two commands
+                return claim(key, fingerprint);
+            }
+            if (stored.startsWith(PENDING_PREFIX)) {
+                return Claim.inProgress();
+            }
+            StoredResponse response = objectMapper.readValue(stored, StoredResponse.class);
+            entries.put(key, new Completed(response));
+            return Claim.completed(response);
+        } catch (JsonProcessingException e) {
+            log.warn("Unreadable idempotency record for {}, executing the request again: {}", key, e.getMessage());
+            entries.put(key, local);
+            return Claim.acquired(token);
+        } catch (RuntimeException e) {
+            markRedisUnavailable(e);
+            entries.put(key, local);
+            return Claim.acquired(token);
+        }
+    }
+
+    /**
+     * Record the response of a claimed key, for replay until the TTL expires.
+     */
+    public void complete(String key, String token, StoredResponse response) {
+        entries.put(key, new Completed(response));
+        if (!isRedisAvailable()) {
+            return;
+        }
+        try {
+            redisTemplate.opsForValue().set(keyPrefix + key, objectMapper.writeValueAsString(response),
+                    Duration.ofMillis(ttlMs));
+        } catch (JsonProcessingException e) {
+            log.warn("Could not store idempotent response for {}: {}", key, e.getMessage());
+            release(key, token);
+        } catch (RuntimeException e) {
+            markRedisUnavailable(e);
+        }
+    }
+
+    /**
+     * Give up a claim without a response, so a retry with the same key executes.
+     */
+    public void release(String key, String token) {
+        entries.asMap().computeIfPresent(key, (k, current) ->
+                current instanceof Pending pending && pending.token().equals(token) ? null : current);
+        if (!isRedisAvailable()) {
+            return;
+        }
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, List.of(keyPrefix + key), token);
+        } catch (RuntimeException e) {
+            markRedisUnavailable(e);
+        }
+    }
+
+    boolean isRedisAvailable() {
+        return System.currentTimeMillis() >= redisUnavailableUntil;
+    }
+
+    private void markRedisUnavailable(RuntimeException e) {
+        redisUnavailableUntil = System.currentTimeMillis() + retryAfterMs;
+        log.warn("Redis idempotency store unavailable: {}. Using the local store for the next {} ms.",
+                e.getMessage(), retryAfterMs);
+    }
+}
@@ -1,28 +1,38 @@
 package com.sentix.infrastructure.config;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import io.github.bucket4j.Bandwidth;
 import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
 import io.github.bucket4j.Refill;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.time.Duration;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 @Slf4j
 @Component
 public class RateLimitFilter extends OncePerRequestFilter {
 
-    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    // Bounded and idle-evicting, so scanning traffic cannot grow it without limit
+    private Cache<String, Bucket> buckets;
+
+    // Present when rate-limit.distributed.enabled=true; the local buckets are then only a fallback
+    private final RedisBucketStore redisBucketStore;
 
     @Value("${rate-limit.ai-analyze.requests:20}")
     private int aiAnalyzeRequests;
@@ -45,6 +55,26 @@ public class RateLimitFilter extends OncePerRequestFilter {
     @Value("${rate-limit.enabled:true}")
     private boolean rateLimitEnabled;
 
+    @Value("${rate-limit.store.max-keys:100000}")
+    private long maxTrackedKeys;
+
+    public RateLimitFilter(ObjectProvider<RedisBucketStore> redisBucketStore) {
+        this.redisBucketStore = redisBucketStore.getIfAvailable();
+    }
+
+    /**
+     * Buckets idle for the longest refill window are evicted: by then they have
+     * refilled completely, so dropping them loses no state.
+     */
+    @PostConstruct
+    void init() {
+        int longestWindowMinutes = Math.max(generalMinutes, Math.max(aiAnalyzeMinutes, aiChatMinutes));
+        buckets = Caffeine.newBuilder()
+                .maximumSize(maxTrackedKeys)
+                .expireAfterAccess(Duration.ofMinutes(longestWindowMinutes))
+                .build();
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
@@ -54,16 +84,15 @@ public class RateLimitFilter extends OncePerRequestFilter {
             return;
         }
 
-        String clientIp = getClientIp(request);
+        String clientKey = getClientKey(request);
         String path = request.getRequestURI();
 
-        String bucketKey = clientIp + ":" + getBucketCategory(path);
-        Bucket bucket = buckets.computeIfAbsent(bucketKey, k -> createBucket(path));
+        String bucketKey = clientKey + ":" + getBucketCategory(path);
 
-        if (bucket.tryConsume(1)) {
+        if (tryConsume(bucketKey, path)) {
             filterChain.doFilter(request, response);
         } else {
-            log.warn("Rate limit exceeded for IP: {} on path: {}", clientIp, path);
+            log.warn("Rate limit exceeded for {} on path: {}", clientKey, path);
             response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
             response.setContentType("application/json");
             response.setHeader("Retry-After", "60");
@@ -71,19 +100,28 @@ public class RateLimitFilter extends OncePerRequestFilter {
         }
     }
 
+    private boolean tryConsume(String bucketKey, String path) {
+        if (redisBucketStore != null) {
+            return redisBucketStore.tryConsume(bucketKey,
+                    () -> BucketConfiguration.builder().addLimit(bandwidthFor(path)).build(),
+                    () -> resolveBucket(bucketKey, path));
+        }
+        return resolveBucket(bucketKey, path).tryConsume(1);
+    }
+
     private Bucket createBucket(String path) {
+        return Bucket.builder()
+                .addLimit(bandwidthFor(path))
+                .build();
+    }
+
+    private Bandwidth bandwidthFor(String path) {
         if (path.startsWith("/api/v1/ai/analyze")) {
-            return Bucket.builder()
-                    .addLimit(Bandwidth.classic(aiAnalyzeRequests, Refill.greedy(aiAnalyzeRequests, Duration.ofMinutes(aiAnalyzeMinutes))))
-                    .build();
+            return Bandwidth.classic(aiAnalyzeRequests, Refill.greedy(aiAnalyzeRequests, Duration.ofMinutes(aiAnalyzeMinutes)));
         } else if (path.startsWith("/api/v1/ai/chat")) {
-            return Bucket.builder()
-                    .addLimit(Bandwidth.classic(aiChatRequests, Refill.greedy(aiChatRequests, Duration.ofMinutes(aiChatMinutes))))
-                    .build();
+            return Bandwidth.classic(aiChatRequests, Refill.greedy(aiChatRequests, Duration.ofMinutes(aiChatMinutes)));
         } else {
-            return Bucket.builder()
-                    .addLimit(Bandwidth.classic(generalRequests, Refill.greedy(generalRequests, Duration.ofMinutes(generalMinutes))))
-                    .build();
+            return Bandwidth.classic(generalRequests, Refill.greedy(generalRequests, Duration.ofMinutes(generalMinutes)));
         }
     }
 
@@ -93,6 +131,27 @@ public class RateLimitFilter extends OncePerRequestFilter {
         return "general";
     }
 
+    /**
+     * Authenticated requests are limited per user, everything else per client IP.
+     */
+    private String getClientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        return "ip:" + getClientIp(request);
+    }
+
+    Bucket resolveBucket(String bucketKey, String path) {
+        return buckets.get(bucketKey, k -> createBucket(path));
+    }
+
+    long trackedBuckets() {
+        buckets.cleanUp();
+        return buckets.estimatedSize();
+    }
+
     private String getClientIp(HttpServletRequest request) {
         String xForwardedFor = request.getHeader("X-Forwarded-For");
         if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
@@ -0,0 +1,144 @@
+package com.sentix.infrastructure.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.distributed.ExpirationAfterWriteStrategy;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+import io.github.bucket4j.distributed.proxy.optimization.DelayParameters;
+import io.github.bucket4j.distributed.proxy.optimization.Optimizations;
+import io.github.bucket4j.redis.lettuce.cas.LettuceBasedProxyManager;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.codec.ByteArrayCodec;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Cluster-wide rate limit buckets stored in Redis through Bucket4j's Lettuce proxy.
+ * The proxy updates each bucket with compare-and-swap, so all replicas draw from
+ * the same tokens. Each proxy uses the delaying optimization: up to
+ * {@code max-unsynchronized-tokens} are consumed locally and then reconciled in one
+ * round trip, or earlier once {@code sync-interval} has passed.
+ * If Redis cannot be reached the caller's local bucket is used instead, and Redis
+ * is not tried again until {@code retry-after} has passed. An outage therefore
+ * costs one command timeout, not one per request.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "rate-limit.distributed.enabled", havingValue = "true")
+public class RedisBucketStore {
+
+    private final RedisProperties redisProperties;
+
+    @Value("${rate-limit.distributed.key-prefix:rate-limit:}")
+    private String keyPrefix;
+
+    @Value("${rate-limit.distributed.max-unsynchronized-tokens:5}")
+    private long maxUnsynchronizedTokens;
+
+    @Value("${rate-limit.distributed.sync-interval:1000}")
+    private long syncIntervalMs;
+
+    @Value("${rate-limit.distributed.command-timeout:200}")
+    private long commandTimeoutMs;
+
+    @Value("${rate-limit.distributed.retry-after:30000}")
+    private long retryAfterMs;
+
+    @Value("${rate-limit.store.max-keys:100000}")
+    private long maxTrackedKeys;
+
+    private RedisClient redisClient;
+    private StatefulRedisConnection<byte[], byte[]> connection;
+    private volatile ProxyManager<byte[]> proxyManager;
+
+    // Proxies carry the locally consumed, not yet synchronized tokens, so they are reused per key
+    private Cache<String, Bucket> proxies;
+
+    private volatile long unavailableUntil;
+
+    @PostConstruct
+    void init() {
+        RedisURI.Builder uri = RedisURI.builder()
+                .withHost(redisProperties.getHost())
+                .withPort(redisProperties.getPort())
+                .withTimeout(Duration.ofMillis(commandTimeoutMs));
+        if (redisProperties.getPassword() != null) {
+            uri.withPassword(redisProperties.getPassword().toCharArray());
+        }
+        redisClient = RedisClient.create(uri.build());
+        proxies = Caffeine.newBuilder()
+                .maximumSize(maxTrackedKeys)
+                .expireAfterAccess(Duration.ofMinutes(1))
+                .build();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (connection != null) {
+            connection.close();
+        }
+        redisClient.shutdown();
+    }
+
+    /**
+     * Consume one token from the shared bucket for a key.
+     *
+     * @param configuration limits for the bucket, only used when it does not exist in Redis yet
+     * @param localBucket   this node's bucket for the key, used while Redis is unavailable
+     */
+    public boolean tryConsume(String key, Supplier<BucketConfiguration> configuration, Supplier<Bucket> localBucket) {
+        if (System.currentTimeMillis() < unavailableUntil) {
+            return localBucket.get().tryConsume(1);
+        }
+        try {
+            return proxies.get(key, k -> proxyManager().builder()
+                            .withOptimization(Optimizations.delaying(
+                                    new DelayParameters(maxUnsynchronizedTokens, Duration.ofMillis(syncIntervalMs))))
+                            .build((keyPrefix + k).getBytes(StandardCharsets.UTF_8), configuration))
+                    .tryConsume(1);
+        } catch (RuntimeException e) {
+            unavailableUntil = System.currentTimeMillis() + retryAfterMs;
+            proxies.invalidateAll();
+            log.warn("Redis rate limiting unavailable: {}. Using local buckets for the next {} ms.",
+                    e.getMessage(), retryAfterMs);
+            return localBucket.get().tryConsume(1);
+        }
+    }
+
+    boolean isRedisAvailable() {
+        return System.currentTimeMillis() >= unavailableUntil;
+    }
+
+    private ProxyManager<byte[]> proxyManager() {
+        ProxyManager<byte[]> manager = proxyManager;
+        if (manager == null) {
+            synchronized (this) {
+                if (proxyManager == null) {
+                    // Connect lazily so the application still starts while Redis is down
+                    connection = redisClient.connect(ByteArrayCodec.INSTANCE);
+                    proxyManager = LettuceBasedProxyManager.builderFor(connection)
+                            .withExpirationStrategy(ExpirationAfterWriteStrategy
+                                    .basedOnTimeForRefillingBucketUpToMax(Duration.ofSeconds(10)))
+                            .build();
+                }
+                manager = proxyManager;
+            }
+        }
+        return manager;
+    }
+}
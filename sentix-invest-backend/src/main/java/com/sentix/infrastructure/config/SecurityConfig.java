@@ -2,6 +2,7 @@ package com.sentix.infrastructure.config;
 
 import com.sentix.infrastructure.security.JwtAuthenticationFilter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationProvider;
@@ -27,14 +28,23 @@ public class SecurityConfig {
         private final JwtAuthenticationFilter jwtAuthFilter;
         private final AuthenticationProvider authenticationProvider;
         private final RateLimitFilter rateLimitFilter;
+        private final IdempotencyFilter idempotencyFilter;
+        private final ConcurrencyLimitFilter concurrencyLimitFilter;
+
+        @Value("${management.server.port:8081}")
+        private int managementPort;
 
         @Bean
         public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
                 http
                                 .csrf(AbstractHttpConfigurer::disable)
                                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
-                                .addFilterBefore(rateLimitFilter, UsernamePasswordAuthenticationFilter.class)
                                 .authorizeHttpRequests(auth -> auth
+                                                // Metrics are scraped without a token, but only on the internal
+                                                // management port; anywhere else they need authentication
+                                                .requestMatchers(request -> request.getLocalPort() == managementPort
+                                                                && "/actuator/prometheus".equals(request.getRequestURI()))
+                                                .permitAll()
                                                 .requestMatchers(
                                                                 "/error",
                                                                 "/api/v1/auth/**",
@@ -56,7 +66,13 @@ public class SecurityConfig {
                                 .sessionManagement(session -> session
                                                 .sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                                 .authenticationProvider(authenticationProvider)
-                                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
+                                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+                                // After JWT authentication so authenticated clients are limited per user
+                                .addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class)
+                                // Replays are answered before load shedding, so they never take a slot
+                                .addFilterAfter(idempotencyFilter, RateLimitFilter.class)
+                                // Shed load only after per-client quotas, so rejected clients do not hold slots
+                                .addFilterAfter(concurrencyLimitFilter, IdempotencyFilter.class);
 
                 return http.build();
         }
@@ -0,0 +1,132 @@
+package com.sentix.infrastructure.mcp;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sentix.infrastructure.metrics.SentixMetrics;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Single entry point for calls to the MCP server.
+ * <ul>
+ *   <li>Every endpoint has its own circuit breaker (mcp-&lt;endpoint&gt;). Once an
+ *       endpoint keeps failing or timing out, callers fail immediately instead of
+ *       waiting out the timeout. Client errors (4xx) are not counted, see
+ *       {@link McpFailurePredicate}.</li>
+ *   <li>Calls run in one of two bulkheads, so slow AI calls cannot use up the
+ *       capacity that quote and market data calls need.</li>
+ *   <li>{@link #getCached} remembers the last good response per key. While the
+ *       upstream is failing it returns that response with {@code stale=true} and
+ *       {@code staleAsOf} added.</li>
+ * </ul>
+ * Breaker states are exposed through /actuator/circuitbreakers and the health endpoint.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class McpClient {
+
+    public static final String MARKET_BULKHEAD = "mcp-market";
+    public static final String AI_BULKHEAD = "mcp-ai";
+
+    private static final ParameterizedTypeReference<Map<String, Object>> MAP_TYPE =
+            new ParameterizedTypeReference<>() {
+            };
+
+    private final WebClient.Builder webClientBuilder;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final BulkheadRegistry bulkheadRegistry;
+    private final SentixMetrics metrics;
+
+    @Value("${mcp.server.url:http://localhost:8000}")
+    private String mcpServerUrl;
+
+    @Value("${mcp.fallback.cache-size:10000}")
+    private long fallbackCacheSize;
+
+    @Value("${mcp.fallback.max-staleness:86400000}")
+    private long maxStalenessMs;
+
+    private WebClient webClient;
+    private Cache<String, LastGood> lastGood;
+
+    private record LastGood(Map<String, Object> body, Instant fetchedAt) {
+    }
+
+    @PostConstruct
+    void init() {
+        webClient = webClientBuilder.clone().baseUrl(mcpServerUrl).build();
+        lastGood = Caffeine.newBuilder()
+                .maximumSize(fallbackCacheSize)
+                .expireAfterWrite(Duration.ofMillis(maxStalenessMs))
+                .build();
+    }
+
+    /**
+     * Run a call through the endpoint's circuit breaker inside the given bulkhead.
+     *
+     * @throws io.github.resilience4j.circuitbreaker.CallNotPermittedException if the breaker is open
+     * @throws io.github.resilience4j.bulkhead.BulkheadFullException if the bulkhead is saturated
+     */
+    public <T> T call(String bulkheadName, String endpoint, Duration timeout,
+                      Function<WebClient, Mono<T>> request) {
+        CircuitBreaker circuitBreaker = circuitBreaker(bulkheadName, endpoint);
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead(bulkheadName);
+        Supplier<T> upstream = () -> request.apply(webClient).timeout(timeout).block();
+        return Bulkhead.decorateSupplier(bulkhead, CircuitBreaker.decorateSupplier(circuitBreaker, upstream)).get();
+    }
+
+    /**
+     * GET a JSON object and remember it as the last good response for {@code cacheKey}.
+     * When the call fails or is rejected, the last good response is returned with
+     * {@code stale} and {@code staleAsOf} added. If there is none, the failure is rethrown.
+     */
+    public Map<String, Object> getCached(String bulkheadName, String endpoint, String cacheKey, Duration timeout,
+                                         Function<WebClient, WebClient.RequestHeadersSpec<?>> request) {
+        try {
+            Map<String, Object> body = call(bulkheadName, endpoint, timeout,
+                    client -> request.apply(client).retrieve().bodyToMono(MAP_TYPE));
+            if (body != null) {
+                lastGood.put(cacheKey, new LastGood(body, Instant.now()));
+            }
+            return body;
+        } catch (RuntimeException e) {
+            LastGood cached = lastGood.getIfPresent(cacheKey);
+            if (cached == null) {
+                throw e;
+            }
+            log.debug("MCP {} unavailable ({}), serving {} from {}", endpoint, e.getMessage(), cacheKey,
+                    cached.fetchedAt());
+            metrics.recordStaleFallback(endpoint);
+            Map<String, Object> stale = new LinkedHashMap<>(cached.body());
+            stale.put("stale", true);
+            stale.put("staleAsOf", cached.fetchedAt().toString());
+            return stale;
+        }
+    }
+
+    private CircuitBreaker circuitBreaker(String bulkheadName, String endpoint) {
+        String name = "mcp-" + endpoint;
+        // AI endpoints are slow by nature and get their own slow-call threshold
+        return AI_BULKHEAD.equals(bulkheadName) && circuitBreakerRegistry.getConfiguration("ai").isPresent()
+                ? circuitBreakerRegistry.circuitBreaker(name, "ai")
+                : circuitBreakerRegistry.circuitBreaker(name);
+    }
+}
@@ -0,0 +1,24 @@
+package com.sentix.infrastructure.mcp;
+
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.util.function.Predicate;
+
+/**
+ * Decides which MCP call failures count against an endpoint's circuit breaker.
+ * A 4xx answer means the request was wrong (unknown symbol, bad parameter), not
+ * that the upstream is unhealthy, so it is not recorded. 408 and 429 are the
+ * exceptions: they signal an overloaded upstream. 5xx responses, timeouts and
+ * I/O errors are recorded.
+ */
+public class McpFailurePredicate implements Predicate<Throwable> {
+
+    @Override
+    public boolean test(Throwable throwable) {
+        if (throwable instanceof WebClientResponseException response) {
+            int status = response.getStatusCode().value();
+            return !response.getStatusCode().is4xxClientError() || status == 408 || status == 429;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,120 @@
+package com.sentix.infrastructure.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Application metrics for scheduled jobs, alerts, in-process caches and load shedding.
+ * Upstream HTTP calls are covered separately by the http.client.requests
+ * observation on the shared WebClient builder.
+ */
+@Component
+@RequiredArgsConstructor
+public class SentixMetrics {
+
+    private final MeterRegistry registry;
+    private final Map<String, AtomicInteger> shardGauges = new ConcurrentHashMap<>();
+
+    /**
+     * Record the duration of one phase of a scheduled job, e.g. job=alert-check,
+     * phase=fetch_quotes.
+     */
+    public void recordJobPhase(String job, String phase, long nanos) {
+        Timer.builder("sentix.job.phase")
+                .description("Time spent in each phase of a scheduled job")
+                .tag("job.name", job)
+                .tag("phase", phase)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordJobItems(String job, String result, int count) {
+        Counter.builder("sentix.job.items")
+                .description("Items processed by scheduled jobs, by result")
+                .tag("job.name", job)
+                .tag("result", result)
+                .register(registry)
+                .increment(count);
+    }
+
+    public void recordAlertBatch(int alerts) {
+        DistributionSummary.builder("sentix.alert.batch.size")
+                .description("Number of alerts evaluated per batch")
+                .register(registry)
+                .record(alerts);
+    }
+
+    public void recordAlertTriggered(String alertType, boolean rearm) {
+        Counter.builder("sentix.alerts.triggered")
+                .description("Alerts that fired")
+                .tag("type", alertType)
+                .tag("mode", rearm ? "rearm" : "one_shot")
+                .register(registry)
+                .increment();
+    }
+
+    public void recordAlertClaimLost() {
+        Counter.builder("sentix.alerts.claim.lost")
+                .description("Triggered alerts already claimed by another evaluator")
+                .register(registry)
+                .increment();
+    }
+
+    public void recordShardsOwned(String group, int shards) {
+        shardGauges.computeIfAbsent(group, g -> registry.gauge("sentix.cluster.shards.owned",
+                        Tags.of("group", g), new AtomicInteger()))
+                .set(shards);
+    }
+
+    public void recordCacheAccess(String cache, boolean hit) {
+        Counter.builder("sentix.cache.requests")
+                .description("In-process cache lookups, by result")
+                .tag("cache", cache)
+                .tag("result", hit ? "hit" : "miss")
+                .register(registry)
+                .increment();
+    }
+
+    public void recordStaleFallback(String endpoint) {
+        Counter.builder("sentix.mcp.stale.fallback")
+                .description("MCP responses served from the last good value while the upstream failed")
+                .tag("endpoint", endpoint)
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Expose the current adaptive concurrency limit and in-flight requests of an
+     * endpoint group.
+     */
+    public void registerConcurrencyLimit(String group, Supplier<Number> limit, Supplier<Number> inFlight) {
+        Gauge.builder("sentix.concurrency.limit", limit)
+                .description("Current adaptive concurrency limit")
+                .tag("group", group)
+                .register(registry);
+        Gauge.builder("sentix.concurrency.in_flight", inFlight)
+                .description("Requests currently in flight")
+                .tag("group", group)
+                .register(registry);
+    }
+
+    public void recordLoadShed(String group) {
+        Counter.builder("sentix.concurrency.rejected")
+                .description("Requests rejected because the concurrency limit was reached")
+                .tag("group", group)
+                .register(registry)
+                .increment();
+    }
+}
@@ -0,0 +1,28 @@
+package com.sentix.infrastructure.outbox;
+
+import com.sentix.domain.OutboxEventType;
+
+import java.util.UUID;
+
+/**
+ * In-process handler for one type of outbox event. Delivery is at least once:
+ * an event is handed over again if this or another consumer of the same event
+ * fails, or if the relay dies before deleting it, so handlers must be idempotent.
+ */
+public interface OutboxConsumer<T> {
+
+    OutboxEventType type();
+
+    Class<T> payloadType();
+
+    void handle(T payload) throws Exception;
+
+    /**
+     * Handle one delivery of the event with the given outbox id. The id is the same
+     * on every redelivery, so consumers can use it to drop repeats; by default it is
+     * ignored.
+     */
+    default void handle(UUID eventId, T payload) throws Exception {
+        handle(payload);
+    }
+}
@@ -0,0 +1,60 @@
+package com.sentix.infrastructure.outbox;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Remembers which outbox events a consumer has already acted on, for consumers
+ * whose side effect cannot be repeated safely (push notifications). Keys live in
+ * Redis for outbox.dedup.ttl, long enough to outlast every retry of an event. If
+ * Redis cannot be reached, events are let through: a rare duplicate beats a lost
+ * notification.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OutboxDeliveryDedup {
+
+    private final StringRedisTemplate redisTemplate;
+
+    @Value("${outbox.dedup.key-prefix:outbox:done:}")
+    private String keyPrefix;
+
+    @Value("${outbox.dedup.ttl:86400000}")
+    private long ttlMs;
+
+    /**
+     * Claim an event for a consumer. Returns false if the consumer has already
+     * claimed it, on this replica or another one.
+     */
+    public boolean claim(String consumer, UUID eventId) {
+        try {
+            return !Boolean.FALSE.equals(redisTemplate.opsForValue()
+                    .setIfAbsent(key(consumer, eventId), "1", Duration.ofMillis(ttlMs)));
+        } catch (RuntimeException e) {
+            log.warn("Outbox dedup store unavailable, delivering event {} unchecked: {}", eventId, e.getMessage());
+            return true;
+        }
+    }
+
+    /**
+     * Drop a claim after the side effect failed, so the redelivered event is acted on.
+     */
+    public void release(String consumer, UUID eventId) {
+        try {
+            redisTemplate.delete(key(consumer, eventId));
+        } catch (RuntimeException e) {
+            log.warn("Could not release outbox dedup claim for event {}: {}", eventId, e.getMessage());
+        }
+    }
+
+    private String key(String consumer, UUID eventId) {
+        return keyPrefix + consumer + ":" + eventId;
+    }
+}
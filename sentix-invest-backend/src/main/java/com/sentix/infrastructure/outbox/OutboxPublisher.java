@@ -0,0 +1,41 @@
+package com.sentix.infrastructure.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sentix.domain.OutboxEvent;
+import com.sentix.domain.OutboxEventType;
+import com.sentix.infrastructure.persistence.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+/**
+ * Records domain events in the outbox table. Must be called inside the
+ * transaction that makes the change, so the event is stored if and only if
+ * the change commits.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxPublisher {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(OutboxEventType type, UUID aggregateId, Object payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Unserializable " + type + " event payload", e);
+        }
+        outboxEventRepository.save(OutboxEvent.builder()
+                .type(type)
+                .aggregateId(aggregateId)
+                .payload(json)
+                .build());
+    }
+}
@@ -0,0 +1,194 @@
+package com.sentix.infrastructure.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sentix.domain.OutboxEvent;
+import com.sentix.domain.OutboxEventType;
+import com.sentix.infrastructure.metrics.SentixMetrics;
+import com.sentix.infrastructure.persistence.OutboxEventRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Delivers outbox events to their {@link OutboxConsumer}s.
+ * Each batch is claimed in a short transaction that locks the oldest available
+ * rows with SKIP LOCKED and pushes their {@code availableAt} past the claim
+ * timeout, so relays on other replicas take different rows. Consumers then run
+ * outside any transaction, and a second short transaction deletes the delivered
+ * events and reschedules failed ones with exponential backoff. Dispatch stops at
+ * half the claim timeout and returns the remaining events unattempted, so a slow
+ * batch is settled before its claim could expire. A relay that dies mid-batch
+ * leaves its events to be claimed again once the claim times out.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    static final String RELAY_JOB = "outbox-relay";
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final List<OutboxConsumer<?>> consumers;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final SentixMetrics metrics;
+
+    @Value("${outbox.relay.batch-size:200}")
+    private int batchSize;
+
+    @Value("${outbox.relay.max-batches:50}")
+    private int maxBatches;
+
+    @Value("${outbox.relay.claim-timeout:60000}")
+    private long claimTimeoutMs;
+
+    @Value("${outbox.relay.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${outbox.relay.retry-backoff:5000}")
+    private long retryBackoffMs;
+
+    private Map<OutboxEventType, List<OutboxConsumer<?>>> consumersByType;
+
+    @PostConstruct
+    void init() {
+        consumersByType = new EnumMap<>(OutboxEventType.class);
+        for (OutboxConsumer<?> consumer : consumers) {
+            consumersByType.computeIfAbsent(consumer.type(), t -> new ArrayList<>()).add(consumer);
+        }
+    }
+
+    /**
+     * Drains the outbox every outbox.relay.interval ms, batch after batch while
+     * batches come back full, up to max-batches per run.
+     */
+    @Scheduled(fixedDelayString = "${outbox.relay.interval:1000}")
+    public void relay() {
+        for (int i = 0; i < maxBatches; i++) {
+            if (relayBatch() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Claim, deliver and settle one batch. Returns the number of events claimed.
+     */
+    int relayBatch() {
+        long claimStart = System.nanoTime();
+        List<OutboxEvent> events = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboxEvent> claimed = outboxEventRepository.lockAvailable(now, batchSize);
+            for (OutboxEvent event : claimed) {
+                event.setAttempts(event.getAttempts() + 1);
+                event.setAvailableAt(now.plus(claimTimeoutMs, ChronoUnit.MILLIS));
+            }
+            return claimed;
+        });
+        metrics.recordJobPhase(RELAY_JOB, "claim", System.nanoTime() - claimStart);
+        if (events == null || events.isEmpty()) {
+            return 0;
+        }
+
+        long dispatchStart = System.nanoTime();
+        // Stop handing out events at half the claim timeout, so the batch settles
+        // before another relay may claim the same rows again
+        long dispatchDeadline = claimStart + TimeUnit.MILLISECONDS.toNanos(claimTimeoutMs / 2);
+        List<UUID> delivered = new ArrayList<>();
+        Map<UUID, String> failed = new HashMap<>();
+        List<UUID> released = new ArrayList<>();
+        for (OutboxEvent event : events) {
+            if (System.nanoTime() - dispatchDeadline >= 0) {
+                released.add(event.getId());
+                continue;
+            }
+            try {
+                dispatch(event);
+                delivered.add(event.getId());
+            } catch (Exception e) {
+                log.warn("Outbox event {} ({}) failed on attempt {}: {}",
+                        event.getId(), event.getType(), event.getAttempts(), e.getMessage());
+                failed.put(event.getId(), String.valueOf(e.getMessage()));
+            }
+        }
+        metrics.recordJobPhase(RELAY_JOB, "dispatch", System.nanoTime() - dispatchStart);
+
+        long settleStart = System.nanoTime();
+        int parked = transactionTemplate.execute(status -> {
+            outboxEventRepository.deleteAllByIdInBatch(delivered);
+            if (!released.isEmpty()) {
+                release(released);
+            }
+            return failed.isEmpty() ? 0 : reschedule(failed);
+        });
+        metrics.recordJobPhase(RELAY_JOB, "settle", System.nanoTime() - settleStart);
+        metrics.recordJobItems(RELAY_JOB, "delivered", delivered.size());
+        metrics.recordJobItems(RELAY_JOB, "retried", failed.size() - parked);
+        metrics.recordJobItems(RELAY_JOB, "parked", parked);
+        if (!released.isEmpty()) {
+            metrics.recordJobItems(RELAY_JOB, "released", released.size());
+            log.info("Outbox dispatch ran past half the claim timeout, released {} of {} claimed events",
+                    released.size(), events.size());
+        }
+        return events.size();
+    }
+
+    private void dispatch(OutboxEvent event) throws Exception {
+        for (OutboxConsumer<?> consumer : consumersByType.getOrDefault(event.getType(), List.of())) {
+            deliver(consumer, event);
+        }
+    }
+
+    private <T> void deliver(OutboxConsumer<T> consumer, OutboxEvent event) throws Exception {
+        consumer.handle(event.getId(), objectMapper.readValue(event.getPayload(), consumer.payloadType()));
+    }
+
+    // Undo the claim of events that were never handed to a consumer
+    private void release(List<UUID> ids) {
+        LocalDateTime now = LocalDateTime.now();
+        for (OutboxEvent event : outboxEventRepository.findAllById(ids)) {
+            event.setAttempts(event.getAttempts() - 1);
+            event.setAvailableAt(now);
+        }
+    }
+
+    private int reschedule(Map<UUID, String> failed) {
+        int parked = 0;
+        LocalDateTime now = LocalDateTime.now();
+        for (OutboxEvent event : outboxEventRepository.findAllById(failed.keySet())) {
+            String error = failed.get(event.getId());
+            event.setLastError(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+            if (event.getAttempts() >= maxAttempts) {
+                log.error("Parking outbox event {} ({}) after {} attempts: {}",
+                        event.getId(), event.getType(), event.getAttempts(), error);
+                event.setAvailableAt(null);
+                parked++;
+            } else {
+                event.setAvailableAt(now.plus(backoffMs(event.getAttempts()), ChronoUnit.MILLIS));
+            }
+        }
+        return parked;
+    }
+
+    // retry-backoff, doubling per attempt
+    long backoffMs(int attempts) {
+        return retryBackoffMs << Math.min(attempts - 1, 20);
+    }
+}
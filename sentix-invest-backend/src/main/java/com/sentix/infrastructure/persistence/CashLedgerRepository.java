@@ -0,0 +1,24 @@
+package com.sentix.infrastructure.persistence;
+
+import com.sentix.domain.CashLedgerEntry;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface CashLedgerRepository extends JpaRepository<CashLedgerEntry, UUID> {
+
+    Optional<CashLedgerEntry> findTopByUserIdAndIsPaperOrderBySequenceDesc(UUID userId, Boolean isPaper);
+
+    Optional<CashLedgerEntry> findTopByUserIdAndIsPaperAndCreatedAtLessThanEqualOrderByCreatedAtDescSequenceDesc(
+            UUID userId, Boolean isPaper, LocalDateTime asOf);
+
+    Window<CashLedgerEntry> findByUserIdAndIsPaperOrderByCreatedAtDescIdDesc(UUID userId, Boolean isPaper,
+                                                                             ScrollPosition position, Limit limit);
+}
@@ -0,0 +1,17 @@
+package com.sentix.infrastructure.persistence;
+
+import com.sentix.domain.LotDisposal;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface LotDisposalRepository extends JpaRepository<LotDisposal, UUID> {
+
+    Window<LotDisposal> findByUserIdAndIsPaperOrderByDisposedAtDescIdDesc(UUID userId, Boolean isPaper,
+                                                                          ScrollPosition position, Limit limit);
+}
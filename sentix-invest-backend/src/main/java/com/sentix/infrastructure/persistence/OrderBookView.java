@@ -0,0 +1,24 @@
+package com.sentix.infrastructure.persistence;
+
+import com.sentix.domain.OrderStatus;
+import com.sentix.domain.OrderType;
+import com.sentix.domain.TransactionType;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * The fields of an order that the in-memory order books need. Rebuilding the books
+ * at startup selects straight into this record instead of hydrating every open
+ * order with its user.
+ */
+public record OrderBookView(
+        UUID id,
+        String symbol,
+        TransactionType side,
+        OrderType orderType,
+        BigDecimal limitPrice,
+        BigDecimal stopPrice,
+        Boolean triggered,
+        OrderStatus status) {
+}
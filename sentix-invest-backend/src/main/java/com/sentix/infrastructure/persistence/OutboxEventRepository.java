@@ -0,0 +1,22 @@
+package com.sentix.infrastructure.persistence;
+
+import com.sentix.domain.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, UUID> {
+
+    /**
+     * Lock the oldest deliverable events for the current transaction. Rows locked
+     * by a relay on another replica are skipped rather than waited on, so replicas
+     * drain disjoint batches.
+     */
+    @Query(value = "select * from outbox_events where available_at <= :now "
+            + "order by available_at limit :limit for update skip locked", nativeQuery = true)
+    List<OutboxEvent> lockAvailable(@Param("now") LocalDateTime now, @Param("limit") int limit);
+}
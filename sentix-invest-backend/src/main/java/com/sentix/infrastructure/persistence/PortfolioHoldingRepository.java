@@ -3,7 +3,10 @@ package com.sentix.infrastructure.persistence;
 import com.sentix.domain.PortfolioHolding;
 import com.sentix.domain.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -16,6 +19,20 @@ public interface PortfolioHoldingRepository extends JpaRepository<PortfolioHoldi
 
     List<PortfolioHolding> findByUserAndIsPaper(User user, Boolean isPaper);
 
+    @Transactional(readOnly = true)
+    @Query("select new com.sentix.infrastructure.persistence.PortfolioHoldingView("
+            + "h.id, h.symbol, h.stockName, h.quantity, h.averagePurchasePrice, h.realizedProfitLoss, h.currency) "
+            + "from PortfolioHolding h where h.user = :user and h.isPaper = :isPaper")
+    List<PortfolioHoldingView> findViewsByUserAndIsPaper(@Param("user") User user, @Param("isPaper") Boolean isPaper);
+
+    @Transactional(readOnly = true)
+    @Query("select new com.sentix.infrastructure.persistence.PortfolioHoldingView("
+            + "h.id, h.symbol, h.stockName, h.quantity, h.averagePurchasePrice, h.realizedProfitLoss, h.currency) "
+            + "from PortfolioHolding h where h.user = :user and h.symbol = :symbol and h.isPaper = :isPaper")
+    Optional<PortfolioHoldingView> findViewByUserAndSymbolAndIsPaper(@Param("user") User user,
+                                                                    @Param("symbol") String symbol,
+                                                                    @Param("isPaper") Boolean isPaper);
+
     Optional<PortfolioHolding> findByUserAndSymbol(User user, String symbol);
 
     Optional<PortfolioHolding> findByUserAndSymbolAndIsPaper(User user, String symbol, Boolean isPaper);
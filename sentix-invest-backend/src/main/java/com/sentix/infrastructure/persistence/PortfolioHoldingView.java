@@ -0,0 +1,23 @@
+package com.sentix.infrastructure.persistence;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Read-only projection of a portfolio holding. Selected straight into this record,
+ * so nothing is hydrated or tracked by the persistence context and the lazy user
+ * association is never touched.
+ */
+public record PortfolioHoldingView(
+        UUID id,
+        String symbol,
+        String stockName,
+        Integer quantity,
+        BigDecimal averagePurchasePrice,
+        BigDecimal realizedProfitLoss,
+        String currency) {
+
+    public BigDecimal totalCostBasis() {
+        return averagePurchasePrice.multiply(BigDecimal.valueOf(quantity));
+    }
+}
@@ -3,7 +3,10 @@ package com.sentix.infrastructure.persistence;
 import com.sentix.domain.PortfolioSnapshot;
 import com.sentix.domain.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -11,14 +14,18 @@ import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface PortfolioSnapshotRepository extends JpaRepository<PortfolioSnapshot, UUID> {
+public interface PortfolioSnapshotRepository extends JpaRepository<PortfolioSnapshot, UUID>, PortfolioSnapshotUpsert {
 
-    List<PortfolioSnapshot> findByUserAndIsPaperAndSnapshotDateBetweenOrderBySnapshotDateAsc(
-            User user, Boolean isPaper, LocalDate startDate, LocalDate endDate);
+    @Transactional(readOnly = true)
+    @Query("select new com.sentix.infrastructure.persistence.SnapshotValueView(s.snapshotDate, s.totalValue) "
+            + "from PortfolioSnapshot s where s.user = :user and s.isPaper = :isPaper "
+            + "and s.snapshotDate between :startDate and :endDate order by s.snapshotDate asc")
+    List<SnapshotValueView> findValuesByUserAndIsPaperBetween(@Param("user") User user,
+                                                              @Param("isPaper") Boolean isPaper,
+                                                              @Param("startDate") LocalDate startDate,
+                                                              @Param("endDate") LocalDate endDate);
 
     Optional<PortfolioSnapshot> findTopByUserAndIsPaperOrderBySnapshotDateDesc(User user, Boolean isPaper);
 
     boolean existsByUserAndSnapshotDateAndIsPaper(User user, LocalDate snapshotDate, Boolean isPaper);
-
-    Optional<PortfolioSnapshot> findByUserAndSnapshotDateAndIsPaper(User user, LocalDate snapshotDate, Boolean isPaper);
 }
@@ -0,0 +1,19 @@
+package com.sentix.infrastructure.persistence;
+
+import com.sentix.domain.PortfolioSnapshot;
+
+import java.util.List;
+
+/**
+ * Bulk write path for portfolio snapshots, mixed into {@link PortfolioSnapshotRepository}.
+ */
+public interface PortfolioSnapshotUpsert {
+
+    /**
+     * Insert each snapshot, or update the existing row for the same user, date and
+     * paper flag. All rows go to the database as one JDBC batch of a native
+     * {@code INSERT ... ON CONFLICT DO UPDATE}, with no select beforehand. Callers
+     * chunk large runs themselves.
+     */
+    void upsertAll(List<PortfolioSnapshot> snapshots);
+}
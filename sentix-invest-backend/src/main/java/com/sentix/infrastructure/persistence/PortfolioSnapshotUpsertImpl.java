@@ -0,0 +1,48 @@
+package com.sentix.infrastructure.persistence;
+
+import com.sentix.domain.PortfolioSnapshot;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@RequiredArgsConstructor
+class PortfolioSnapshotUpsertImpl implements PortfolioSnapshotUpsert {
+
+    // Conflict target is the (user_id, snapshot_date, is_paper) unique constraint on the entity
+    static final String UPSERT_SQL = """
+            INSERT INTO portfolio_snapshots (id, user_id, snapshot_date, total_value, total_cost_basis,
+                                             cash_balance, holdings_count, is_paper, created_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (user_id, snapshot_date, is_paper) DO UPDATE SET
+                total_value = EXCLUDED.total_value,
+                total_cost_basis = EXCLUDED.total_cost_basis,
+                cash_balance = EXCLUDED.cash_balance,
+                holdings_count = EXCLUDED.holdings_count
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void upsertAll(List<PortfolioSnapshot> snapshots) {
+        if (snapshots.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = snapshots.stream()
+                .map(snapshot -> new Object[]{
+                        UUID.randomUUID(),
+                        snapshot.getUser().getId(),
+                        snapshot.getSnapshotDate(),
+                        snapshot.getTotalValue(),
+                        snapshot.getTotalCostBasis(),
+                        snapshot.getCashBalance(),
+                        snapshot.getHoldingsCount(),
+                        snapshot.getIsPaper(),
+                        now})
+                .toList();
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+    }
+}
@@ -2,11 +2,21 @@ package com.sentix.infrastructure.persistence;
 
 import com.sentix.domain.PriceAlert;
 import com.sentix.domain.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -19,9 +29,75 @@ public interface PriceAlertRepository extends JpaRepository<PriceAlert, UUID> {
 
     List<PriceAlert> findByUserAndSymbol(User user, String symbol);
 
+    @EntityGraph(attributePaths = "user")
     List<PriceAlert> findByIsActiveTrue();
 
+    /**
+     * Active alerts in the given shard buckets, for a node that owns only some
+     * of the alert shards.
+     */
+    @EntityGraph(attributePaths = "user")
+    List<PriceAlert> findByIsActiveTrueAndShardBucketIn(Collection<Integer> shardBuckets);
+
+    /**
+     * Symbols of alerts created before shard buckets existed.
+     */
+    @Query("select distinct a.symbol from PriceAlert a where a.shardBucket is null")
+    List<String> findSymbolsWithoutShardBucket();
+
+    @Modifying
+    @Transactional
+    @Query("update PriceAlert a set a.shardBucket = :shardBucket where a.symbol = :symbol and a.shardBucket is null")
+    int assignShardBucket(@Param("symbol") String symbol, @Param("shardBucket") int shardBucket);
+
     List<PriceAlert> findByUserAndIsActiveTrue(User user);
 
     Page<PriceAlert> findByUserAndIsActiveTrue(User user, Pageable pageable);
+
+    Window<PriceAlert> findByUserOrderByCreatedAtDescIdDesc(User user, ScrollPosition position, Limit limit);
+
+    Window<PriceAlert> findByUserAndIsActiveTrueOrderByCreatedAtDescIdDesc(User user, ScrollPosition position,
+                                                                          Limit limit);
+
+    long countByUser(User user);
+
+    long countByUserAndIsActiveTrue(User user);
+
+    /**
+     * Atomically claim an active alert as triggered. Returns 1 for the single caller
+     * that wins the claim and 0 for everyone else, so an alert fires exactly once
+     * even when several replicas evaluate it concurrently.
+     */
+    @Modifying
+    @Transactional
+    @Query("update PriceAlert a set a.isActive = false, a.triggeredAt = :triggeredAt "
+            + "where a.id = :id and a.isActive = true")
+    int markTriggered(@Param("id") UUID id, @Param("triggeredAt") LocalDateTime triggeredAt);
+
+    /**
+     * Claim trigger number {@code next} of a re-arming alert. Only the evaluator
+     * that still sees the previous count wins, so a trigger fires once even when
+     * several replicas evaluate the alert concurrently.
+     */
+    @Modifying
+    @Transactional
+    @Query("update PriceAlert a set a.armed = false, a.triggeredAt = :triggeredAt, a.triggerCount = :next "
+            + "where a.id = :id and coalesce(a.triggerCount, 0) = :expected")
+    int claimRearmTrigger(@Param("id") UUID id,
+                          @Param("expected") int expected,
+                          @Param("next") int next,
+                          @Param("triggeredAt") LocalDateTime triggeredAt);
+
+    /**
+     * Persist the trigger state of a re-arming alert. Never moves the trigger count
+     * backwards, so a node flushing stale state cannot undo a newer trigger.
+     */
+    @Modifying
+    @Transactional
+    @Query("update PriceAlert a set a.armed = :armed, a.triggeredAt = :triggeredAt, a.triggerCount = :triggerCount "
+            + "where a.id = :id and (a.triggerCount is null or a.triggerCount <= :triggerCount)")
+    int updateTriggerState(@Param("id") UUID id,
+                           @Param("armed") boolean armed,
+                           @Param("triggeredAt") LocalDateTime triggeredAt,
+                           @Param("triggerCount") int triggerCount);
 }
@@ -0,0 +1,12 @@
+package com.sentix.infrastructure.persistence;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * The two snapshot columns the performance chart needs.
+ */
+public record SnapshotValueView(
+        LocalDate snapshotDate,
+        BigDecimal totalValue) {
+}
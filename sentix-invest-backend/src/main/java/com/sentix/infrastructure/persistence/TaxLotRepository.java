@@ -0,0 +1,14 @@
+package com.sentix.infrastructure.persistence;
+
+import com.sentix.domain.TaxLot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface TaxLotRepository extends JpaRepository<TaxLot, UUID> {
+
+    List<TaxLot> findByUserIdAndIsPaperAndSymbolOrderByAcquiredAtAscIdAsc(UUID userId, Boolean isPaper, String symbol);
+}
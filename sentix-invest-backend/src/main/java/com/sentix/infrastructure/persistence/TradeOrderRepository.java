@@ -0,0 +1,56 @@
+package com.sentix.infrastructure.persistence;
+
+import com.sentix.domain.OrderStatus;
+import com.sentix.domain.TradeOrder;
+import com.sentix.domain.User;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface TradeOrderRepository extends JpaRepository<TradeOrder, UUID> {
+
+    Window<TradeOrder> findByUserAndStatusOrderByCreatedAtDescIdDesc(User user, OrderStatus status,
+                                                                    ScrollPosition position, Limit limit);
+
+    @EntityGraph(attributePaths = "user")
+    List<TradeOrder> findByIdIn(Collection<UUID> ids);
+
+    @Transactional(readOnly = true)
+    @Query("select new com.sentix.infrastructure.persistence.OrderBookView("
+            + "o.id, o.symbol, o.side, o.orderType, o.limitPrice, o.stopPrice, o.triggered, o.status) "
+            + "from TradeOrder o where o.status = :status")
+    List<OrderBookView> findViewsByStatus(@Param("status") OrderStatus status);
+
+    /**
+     * Orders changed since {@code since} in any status, so that books on other
+     * replicas pick up placements, fills and cancellations.
+     */
+    @Transactional(readOnly = true)
+    @Query("select new com.sentix.infrastructure.persistence.OrderBookView("
+            + "o.id, o.symbol, o.side, o.orderType, o.limitPrice, o.stopPrice, o.triggered, o.status) "
+            + "from TradeOrder o where o.updatedAt >= :since")
+    List<OrderBookView> findViewsUpdatedSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Record that a stop-limit order's stop price was hit. Bumps the version so a
+     * fill or cancel holding the old version retries against the new state.
+     */
+    @Modifying
+    @Transactional
+    @Query("update TradeOrder o set o.triggered = true, o.updatedAt = :now, o.version = o.version + 1 "
+            + "where o.id = :id and o.status = com.sentix.domain.OrderStatus.OPEN and o.triggered = false")
+    int markTriggered(@Param("id") UUID id, @Param("now") LocalDateTime now);
+}
@@ -3,22 +3,57 @@ package com.sentix.infrastructure.persistence;
 import com.sentix.domain.Transaction;
 import com.sentix.domain.TransactionType;
 import com.sentix.domain.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, UUID> {
 
-    List<Transaction> findByUserOrderByExecutedAtDesc(User user);
-
     Page<Transaction> findByUserOrderByExecutedAtDesc(User user, Pageable pageable);
 
-    List<Transaction> findByUserAndSymbolOrderByExecutedAtDesc(User user, String symbol);
+    /**
+     * Keyset scroll over a user's transactions, newest first, for seek pagination.
+     */
+    Window<Transaction> findByUserOrderByExecutedAtDescIdDesc(User user, ScrollPosition position, Limit limit);
+
+    long countByUser(User user);
+
+    Window<Transaction> findByUserAndSymbolOrderByExecutedAtDescIdDesc(User user, String symbol,
+                                                                       ScrollPosition position, Limit limit);
+
+    /**
+     * Forward-only cursor over a user's full history, newest first, for exports.
+     * Rows are fetched in batches and loaded read-only. Must be consumed inside a
+     * transaction, and the stream must be closed.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select t from Transaction t where t.user = :user order by t.executedAt desc, t.id desc")
+    Stream<Transaction> streamByUser(@Param("user") User user);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select t from Transaction t where t.user = :user and t.symbol = :symbol "
+            + "order by t.executedAt desc, t.id desc")
+    Stream<Transaction> streamByUserAndSymbol(@Param("user") User user, @Param("symbol") String symbol);
 
     List<Transaction> findByUserAndTypeOrderByExecutedAtDesc(User user, TransactionType type);
 
@@ -2,10 +2,16 @@ package com.sentix.infrastructure.persistence;
 
 import com.sentix.domain.User;
 import com.sentix.domain.Watchlist;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -14,9 +20,20 @@ import java.util.UUID;
 @Repository
 public interface WatchlistRepository extends JpaRepository<Watchlist, UUID> {
 
-    List<Watchlist> findByUser(User user);
+    @Transactional(readOnly = true)
+    @Query("select new com.sentix.infrastructure.persistence.WatchlistView(w.id, w.symbol, w.stockName, w.addedAt) "
+            + "from Watchlist w where w.user = :user order by w.addedAt desc, w.id desc")
+    List<WatchlistView> findViewsByUser(@Param("user") User user);
 
-    Page<Watchlist> findByUser(User user, Pageable pageable);
+    @Transactional(readOnly = true)
+    @Query(value = "select new com.sentix.infrastructure.persistence.WatchlistView(w.id, w.symbol, w.stockName, w.addedAt) "
+            + "from Watchlist w where w.user = :user",
+            countQuery = "select count(w) from Watchlist w where w.user = :user")
+    Page<WatchlistView> findViewsByUser(@Param("user") User user, Pageable pageable);
+
+    Window<Watchlist> findByUserOrderByAddedAtDescIdDesc(User user, ScrollPosition position, Limit limit);
+
+    long countByUser(User user);
 
     Optional<Watchlist> findByUserAndSymbol(User user, String symbol);
 
@@ -0,0 +1,14 @@
+package com.sentix.infrastructure.persistence;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Read-only projection of a watchlist entry.
+ */
+public record WatchlistView(
+        UUID id,
+        String symbol,
+        String stockName,
+        LocalDateTime addedAt) {
+}
@@ -0,0 +1,39 @@
+package com.sentix.infrastructure.security;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Applies principal evictions published by {@link UserPrincipalCache} on any
+ * replica, so a profile change (paper mode, currency, token) is seen everywhere
+ * right away instead of after the cache TTL.
+ */
+@Configuration
+@ConditionalOnProperty(name = "application.security.principal-cache.broadcast", matchIfMissing = true)
+@RequiredArgsConstructor
+public class PrincipalEvictionListener implements MessageListener {
+
+    private final UserPrincipalCache userPrincipalCache;
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        userPrincipalCache.invalidateLocal(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    @Bean
+    RedisMessageListenerContainer principalEvictionContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(this, new ChannelTopic(UserPrincipalCache.EVICTION_CHANNEL));
+        return container;
+    }
+}
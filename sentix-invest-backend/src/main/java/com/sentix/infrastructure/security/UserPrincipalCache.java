@@ -0,0 +1,98 @@
+package com.sentix.infrastructure.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sentix.domain.User;
+import com.sentix.infrastructure.persistence.UserRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Bounded cache of authenticated user principals, keyed by email.
+ * Saves the per-request user lookup in {@link JwtAuthenticationFilter}. Callers
+ * always get their own copy, since controllers and services mutate and save the
+ * principal. Anything that changes a user row must call {@link #evict(String)}.
+ * Evictions are published on a Redis channel so every replica drops its copy
+ * (see {@link PrincipalEvictionListener}); the TTL is only a backstop for when
+ * Redis is unreachable.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserPrincipalCache {
+
+    static final String EVICTION_CHANNEL = "principal-evictions";
+
+    private final UserRepository userRepository;
+    private final StringRedisTemplate redisTemplate;
+
+    @Value("${application.security.principal-cache.size:10000}")
+    private long maximumSize;
+
+    @Value("${application.security.principal-cache.ttl:300000}")
+    private long ttlMs;
+
+    private Cache<String, User> principals;
+
+    @PostConstruct
+    void init() {
+        principals = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .build();
+    }
+
+    public User load(String email) {
+        User cached = principals.get(email, key -> userRepository.findByEmail(key).orElse(null));
+        if (cached == null) {
+            throw new UsernameNotFoundException("User not found");
+        }
+        return cached.toBuilder().build();
+    }
+
+    /**
+     * Drop a user's cached principal on every replica. Inside a transaction the
+     * entry is dropped again, and the eviction broadcast, after completion, so a
+     * request that reloads the user before the commit cannot leave the old row
+     * cached.
+     */
+    public void evict(String email) {
+        principals.invalidate(email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    principals.invalidate(email);
+                    broadcast(email);
+                }
+            });
+        } else {
+            broadcast(email);
+        }
+    }
+
+    /**
+     * Drop the principal on this replica only; called for evictions published by any replica.
+     */
+    void invalidateLocal(String email) {
+        principals.invalidate(email);
+    }
+
+    private void broadcast(String email) {
+        try {
+            redisTemplate.convertAndSend(EVICTION_CHANNEL, email);
+        } catch (RuntimeException e) {
+            log.warn("Could not broadcast principal eviction, other replicas keep theirs until the TTL: {}",
+                    e.getMessage());
+        }
+    }
+}
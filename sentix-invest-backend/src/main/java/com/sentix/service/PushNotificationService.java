@@ -5,6 +5,7 @@ import com.google.firebase.messaging.*;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
 import java.util.Map;
 
 @Service
@@ -12,7 +13,12 @@ import java.util.Map;
 public class PushNotificationService {
 
     /**
-     * Send push notification to a specific device
+     * Send push notification to a specific device.
+     *
+     * @return true if sent, false if there is nothing to retry: Firebase is not
+     *         initialized, or the token is unregistered or invalid
+     * @throws IllegalStateException if FCM failed transiently (unavailable, quota,
+     *         network), so outbox consumers fail and the relay retries the event
      */
     public boolean sendNotification(String fcmToken, String title, String body, Map<String, String> data) {
         if (!isFirebaseInitialized()) {
@@ -49,8 +55,13 @@ public class PushNotificationService {
             log.info("✅ Push notification sent: {}", response);
             return true;
         } catch (FirebaseMessagingException e) {
+            if (isPermanent(e.getMessagingErrorCode())) {
+                log.warn("Push notification dropped, device token rejected ({}): {}",
+                        e.getMessagingErrorCode(), e.getMessage());
+                return false;
+            }
             log.error("❌ Failed to send push notification: {}", e.getMessage());
-            return false;
+            throw new IllegalStateException("Push notification not delivered: " + e.getMessage(), e);
         }
     }
 
@@ -128,6 +139,24 @@ public class PushNotificationService {
         return sendNotification(fcmToken, title, body, data);
     }
 
+    /**
+     * Send deposit receipt notification
+     */
+    public boolean sendDepositNotification(String fcmToken, BigDecimal amount, BigDecimal newBalance) {
+
+        String title = "✅ Deposit received";
+        String body = String.format("%.2f TL was added to your balance. New balance: %.2f TL",
+                amount, newBalance);
+
+        Map<String, String> data = Map.of(
+                "type", "deposit",
+                "amount", amount.toPlainString(),
+                "newBalance", newBalance.toPlainString()
+        );
+
+        return sendNotification(fcmToken, title, body, data);
+    }
+
     /**
      * Send notification to a topic
      */
@@ -155,6 +184,13 @@ public class PushNotificationService {
         }
     }
 
+    // Errors about the token itself; sending the same message again cannot succeed
+    private static boolean isPermanent(MessagingErrorCode code) {
+        return code == MessagingErrorCode.UNREGISTERED
+                || code == MessagingErrorCode.INVALID_ARGUMENT
+                || code == MessagingErrorCode.SENDER_ID_MISMATCH;
+    }
+
     private boolean isFirebaseInitialized() {
         return !FirebaseApp.getApps().isEmpty();
     }
@@ -0,0 +1,48 @@
+-- Indexes for the repository methods on hot request and job paths.
+-- Until now only primary keys and unique constraints were indexed, so all of these ran as scans.
+-- CONCURRENTLY avoids blocking writes on large tables. It cannot run inside a transaction,
+-- so run this file with autocommit on (plain psql does that by default).
+-- These indexes are deliberately not declared with @Index on the entities: ddl-auto=update
+-- would build them with a plain CREATE INDEX at startup, locking writes on large tables.
+-- New databases need this script too.
+-- db-benchmark/ contains the seeded EXPLAIN run used to check every index below.
+
+-- TransactionRepository.findByUserOrderByExecutedAtDesc (paged), keyset scroll and streamByUser
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transactions_user_executed
+    ON transactions (user_id, executed_at DESC);
+
+-- TransactionRepository.findByUserAndIsPaperOrderByExecutedAtDesc (list and paged)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transactions_user_paper_executed
+    ON transactions (user_id, is_paper, executed_at DESC);
+
+-- TransactionRepository.findByUserAndSymbolOrderByExecutedAtDescIdDesc and streamByUserAndSymbol
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transactions_user_symbol_executed
+    ON transactions (user_id, symbol, executed_at DESC);
+
+-- PortfolioHoldingRepository.findByUserAndIsPaper and findByUserAndSymbolAndIsPaper
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_holdings_user_paper_symbol
+    ON portfolio_holdings (user_id, is_paper, symbol);
+
+-- PriceAlertRepository.findByIsActiveTrue: triggered alerts are the majority over time,
+-- so index only the active ones
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_price_alerts_active
+    ON price_alerts (symbol) WHERE is_active = true;
+
+-- PriceAlertRepository.findByUser / findByUserAndIsActiveTrue / findByUserAndSymbol
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_price_alerts_user_symbol
+    ON price_alerts (user_id, symbol);
+
+-- PaymentRepository.findByIyzicoToken (payment callback) and findByConversationId
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_payments_iyzico_token
+    ON payments (iyzico_token);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_payments_conversation_id
+    ON payments (conversation_id);
+
+-- PaymentRepository.findByUserIdOrderByCreatedAtDesc
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_payments_user_created
+    ON payments (user_id, created_at DESC);
+
+ANALYZE transactions;
+ANALYZE portfolio_holdings;
+ANALYZE price_alerts;
+ANALYZE payments;
@@ -0,0 +1,7 @@
+-- Version columns for optimistic locking (@Version) on users and portfolio holdings.
+-- Trades are serialized per account within an instance; these catch concurrent writers elsewhere.
+-- Existing rows start at version 0.
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS version bigint NOT NULL DEFAULT 0;
+
+ALTER TABLE portfolio_holdings ADD COLUMN IF NOT EXISTS version bigint NOT NULL DEFAULT 0;
@@ -0,0 +1,34 @@
+-- Resting limit, stop and stop-limit orders (TradeOrder).
+-- Run this against the PostgreSQL database if ddl-auto=update fails to create the table.
+
+CREATE TABLE IF NOT EXISTS orders (
+    id uuid NOT NULL PRIMARY KEY,
+    user_id uuid NOT NULL REFERENCES users(id),
+    symbol varchar(255) NOT NULL,
+    side varchar(255) NOT NULL,
+    order_type varchar(255) NOT NULL,
+    quantity integer NOT NULL,
+    limit_price numeric(19,4),
+    stop_price numeric(19,4),
+    status varchar(255) NOT NULL,
+    triggered boolean NOT NULL DEFAULT false,
+    is_paper boolean NOT NULL DEFAULT false,
+    filled_price numeric(19,4),
+    status_message varchar(255),
+    version bigint NOT NULL DEFAULT 0,
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    filled_at timestamp(6)
+);
+
+-- TradeOrderRepository.findByUserAndStatusOrderByCreatedAtDescIdDesc (order listing)
+CREATE INDEX IF NOT EXISTS idx_orders_user_status_created
+    ON orders (user_id, status, created_at DESC);
+
+-- TradeOrderRepository.findViewsUpdatedSince: incremental order book sync between replicas
+CREATE INDEX IF NOT EXISTS idx_orders_updated
+    ON orders (updated_at);
+
+-- TradeOrderRepository.findViewsByStatus: order book rebuild at startup reads open orders only
+CREATE INDEX IF NOT EXISTS idx_orders_open
+    ON orders (symbol) WHERE status = 'OPEN';
@@ -0,0 +1,26 @@
+-- Append-only cash ledger (CashLedgerEntry). Balances are no longer updated on the users row:
+-- users.balance and users.paper_balance keep the opening balance, and the latest ledger entry
+-- of an account holds its current balance. Existing balances therefore carry over unchanged.
+-- Run this against the PostgreSQL database if ddl-auto=update fails to create the table.
+
+CREATE TABLE IF NOT EXISTS cash_ledger (
+    id uuid NOT NULL PRIMARY KEY,
+    user_id uuid NOT NULL REFERENCES users(id),
+    is_paper boolean NOT NULL,
+    sequence bigint NOT NULL,
+    type varchar(255) NOT NULL,
+    amount numeric(19,4) NOT NULL,
+    balance_after numeric(19,4) NOT NULL,
+    reference_id uuid,
+    created_at timestamp(6) NOT NULL,
+    -- One entry per position: concurrent appends after the same entry conflict here
+    CONSTRAINT uk_cash_ledger_account_sequence UNIQUE (user_id, is_paper, sequence)
+);
+
+-- CashLedgerRepository.findByUserIdAndIsPaperOrderByCreatedAtDescIdDesc (audit listing) and balance as of a time
+CREATE INDEX IF NOT EXISTS idx_cash_ledger_account_created
+    ON cash_ledger (user_id, is_paper, created_at DESC);
+
+-- A payment is credited at most once, even if its callback is processed twice
+CREATE UNIQUE INDEX IF NOT EXISTS uk_cash_ledger_deposit_reference
+    ON cash_ledger (reference_id) WHERE type = 'DEPOSIT';
@@ -0,0 +1,17 @@
+-- Transactional outbox (OutboxEvent), drained by OutboxRelay.
+-- Run this against the PostgreSQL database if ddl-auto=update fails to create the table.
+
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id uuid NOT NULL PRIMARY KEY,
+    type varchar(255) NOT NULL,
+    aggregate_id uuid NOT NULL,
+    payload text NOT NULL,
+    attempts integer NOT NULL DEFAULT 0,
+    available_at timestamp(6),
+    last_error text,
+    created_at timestamp(6) NOT NULL
+);
+
+-- OutboxEventRepository.lockAvailable; parked events (null available_at) stay out of the index
+CREATE INDEX IF NOT EXISTS idx_outbox_events_available
+    ON outbox_events (available_at) WHERE available_at IS NOT NULL;
@@ -0,0 +1,43 @@
+-- Lot-level accounting (TaxLot, LotDisposal) and the realized P&L total on holdings.
+-- Existing holdings need no backfill: shares not covered by a lot are carried over as one
+-- lot at the holding's average price the next time the holding is traded or its lots are read.
+-- Run this against the PostgreSQL database if ddl-auto=update fails to create the tables.
+
+ALTER TABLE portfolio_holdings ADD COLUMN IF NOT EXISTS realized_profit_loss numeric(19,4) NOT NULL DEFAULT 0;
+
+-- Open lots only; a lot is deleted when its last share is sold
+CREATE TABLE IF NOT EXISTS tax_lots (
+    id uuid NOT NULL PRIMARY KEY,
+    user_id uuid NOT NULL,
+    is_paper boolean NOT NULL,
+    symbol varchar(255) NOT NULL,
+    open_transaction_id uuid REFERENCES transactions(id),
+    acquired_at timestamp(6) NOT NULL,
+    quantity integer NOT NULL,
+    remaining_quantity integer NOT NULL,
+    cost_per_share numeric(19,4) NOT NULL,
+    realized_profit_loss numeric(19,4) NOT NULL
+);
+
+-- TaxLotRepository.findByUserIdAndIsPaperAndSymbolOrderByAcquiredAtAscIdAsc (one holding's lots, oldest first)
+CREATE INDEX IF NOT EXISTS idx_tax_lots_holding_acquired
+    ON tax_lots (user_id, is_paper, symbol, acquired_at);
+
+CREATE TABLE IF NOT EXISTS lot_disposals (
+    id uuid NOT NULL PRIMARY KEY,
+    user_id uuid NOT NULL,
+    is_paper boolean NOT NULL,
+    symbol varchar(255) NOT NULL,
+    open_transaction_id uuid REFERENCES transactions(id),
+    sell_transaction_id uuid NOT NULL REFERENCES transactions(id),
+    acquired_at timestamp(6) NOT NULL,
+    disposed_at timestamp(6) NOT NULL,
+    quantity integer NOT NULL,
+    cost_per_share numeric(19,4) NOT NULL,
+    proceeds_per_share numeric(19,4) NOT NULL,
+    realized_profit_loss numeric(19,4) NOT NULL
+);
+
+-- LotDisposalRepository.findByUserIdAndIsPaperOrderByDisposedAtDescIdDesc (realized gains report)
+CREATE INDEX IF NOT EXISTS idx_lot_disposals_account_disposed
+    ON lot_disposals (user_id, is_paper, disposed_at DESC);
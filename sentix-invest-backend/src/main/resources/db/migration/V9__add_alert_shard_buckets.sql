@@ -0,0 +1,13 @@
+-- Persisted shard bucket on price alerts, so each alert-check node loads only the shards it owns
+-- (PriceAlertRepository.findByIsActiveTrueAndShardBucketIn) instead of every active alert.
+-- The bucket is the Java String.hashCode of the symbol modulo 1024, which SQL cannot compute,
+-- so existing rows are filled in by AlertEvaluationScheduler on each node's first cycle.
+-- Like V3, the index is built CONCURRENTLY: run this file with autocommit on.
+
+ALTER TABLE price_alerts ADD COLUMN IF NOT EXISTS shard_bucket integer;
+
+-- PriceAlertRepository.findByIsActiveTrueAndShardBucketIn
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_price_alerts_active_shard_bucket
+    ON price_alerts (shard_bucket) WHERE is_active = true;
+
+ANALYZE price_alerts;
@@ -0,0 +1,132 @@
+package com.sentix.api.alert;
+
+import com.sentix.domain.AlertType;
+import com.sentix.domain.PriceAlert;
+import com.sentix.domain.User;
+import com.sentix.infrastructure.cluster.ShardLeaseManager;
+import com.sentix.infrastructure.metrics.SentixMetrics;
+import com.sentix.infrastructure.persistence.PriceAlertRepository;
+import com.sentix.test.TestDataFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AlertEvaluationSchedulerTest {
+
+    private static final int SHARD_COUNT = 16;
+
+    @Mock
+    private PriceAlertRepository priceAlertRepository;
+
+    @Mock
+    private PriceAlertService priceAlertService;
+
+    @Mock
+    private ShardLeaseManager shardLeaseManager;
+
+    @Mock
+    private SentixMetrics metrics;
+
+    @InjectMocks
+    private AlertEvaluationScheduler scheduler;
+
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(scheduler, "shardCount", SHARD_COUNT);
+        ReflectionTestUtils.setField(scheduler, "leaseTtlMs", 600000L);
+        ReflectionTestUtils.setField(scheduler, "workerThreads", 2);
+        scheduler.startWorkers();
+        testUser = TestDataFactory.createUser();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        scheduler.stopWorkers();
+    }
+
+    @Test
+    @DisplayName("Only the shard buckets of owned shards are loaded and evaluated")
+    @SuppressWarnings("unchecked")
+    void runScheduledCheck_loadsOnlyOwnedShards() {
+        PriceAlert aapl = alert("AAPL");
+        int ownedShard = ShardLeaseManager.shardOf("AAPL", SHARD_COUNT);
+        assertThat(ShardLeaseManager.shardOf("TSLA", SHARD_COUNT)).isNotEqualTo(ownedShard);
+
+        when(shardLeaseManager.acquireShards(eq(AlertEvaluationScheduler.SHARD_GROUP), eq(SHARD_COUNT),
+                any(Duration.class))).thenReturn(Set.of(ownedShard));
+        when(priceAlertRepository.findByIsActiveTrueAndShardBucketIn(anyCollection())).thenReturn(List.of(aapl));
+        when(priceAlertService.evaluateAlerts(anyList())).thenReturn(List.of());
+
+        scheduler.runScheduledCheck();
+
+        ArgumentCaptor<Collection<Integer>> buckets = ArgumentCaptor.forClass(Collection.class);
+        verify(priceAlertRepository).findByIsActiveTrueAndShardBucketIn(buckets.capture());
+        assertThat(buckets.getValue())
+                .hasSize(PriceAlert.SHARD_BUCKETS / SHARD_COUNT)
+                .contains(PriceAlert.shardBucketOf("AAPL"))
+                .doesNotContain(PriceAlert.shardBucketOf("TSLA"))
+                .allMatch(bucket -> bucket % SHARD_COUNT == ownedShard);
+        verify(priceAlertRepository, never()).findByIsActiveTrue();
+
+        ArgumentCaptor<List<PriceAlert>> captor = ArgumentCaptor.forClass(List.class);
+        verify(priceAlertService, times(1)).evaluateAlerts(captor.capture());
+        assertThat(captor.getValue()).containsExactly(aapl);
+    }
+
+    @Test
+    @DisplayName("Alerts without a shard bucket are backfilled once, on the first cycle")
+    void runScheduledCheck_backfillsShardBucketsOnce() {
+        when(shardLeaseManager.acquireShards(anyString(), anyInt(), any(Duration.class))).thenReturn(Set.of(0));
+        when(priceAlertRepository.findSymbolsWithoutShardBucket()).thenReturn(List.of("AAPL"));
+        when(priceAlertRepository.assignShardBucket("AAPL", PriceAlert.shardBucketOf("AAPL"))).thenReturn(3);
+
+        scheduler.runScheduledCheck();
+        scheduler.runScheduledCheck();
+
+        verify(priceAlertRepository, times(1)).findSymbolsWithoutShardBucket();
+        verify(priceAlertRepository, times(1)).assignShardBucket("AAPL", PriceAlert.shardBucketOf("AAPL"));
+    }
+
+    @Test
+    @DisplayName("A shard count that does not divide the bucket count is rejected at startup")
+    void startWorkers_rejectsIncompatibleShardCount() {
+        ReflectionTestUtils.setField(scheduler, "shardCount", 10);
+
+        assertThatThrownBy(() -> scheduler.startWorkers()).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("A node without shard leases skips the cycle entirely")
+    void runScheduledCheck_noOwnedShards_skipsCycle() {
+        when(shardLeaseManager.acquireShards(anyString(), anyInt(), any(Duration.class))).thenReturn(Set.of());
+
+        scheduler.runScheduledCheck();
+
+        verifyNoInteractions(priceAlertRepository, priceAlertService);
+    }
+
+    private PriceAlert alert(String symbol) {
+        return TestDataFactory.createPriceAlert(testUser, symbol, symbol, AlertType.ABOVE, new BigDecimal("100.00"));
+    }
+}
@@ -0,0 +1,135 @@
+package com.sentix.api.alert;
+
+import com.sentix.domain.AlertType;
+import com.sentix.domain.PriceAlert;
+import com.sentix.domain.User;
+import com.sentix.infrastructure.outbox.OutboxDeliveryDedup;
+import com.sentix.infrastructure.persistence.UserRepository;
+import com.sentix.service.PushNotificationService;
+import com.sentix.test.TestDataFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AlertNotificationConsumerTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PushNotificationService pushNotificationService;
+
+    @Mock
+    private OutboxDeliveryDedup deliveryDedup;
+
+    @InjectMocks
+    private AlertNotificationConsumer consumer;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = TestDataFactory.createUser();
+        user.setFcmToken("test-fcm-token");
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+    }
+
+    @Test
+    @DisplayName("Price alert notification carries the price seen by the check cycle")
+    void priceAlert_sendsPriceNotification() {
+        PriceAlert alert = TestDataFactory.createPriceAlert(
+                user, "AAPL", "Apple Inc.", AlertType.ABOVE, new BigDecimal("180.00"));
+
+        consumer.handle(AlertTriggeredEvent.of(alert,
+                TestDataFactory.createStockQuote("AAPL", "Apple Inc.", 185.0), null, null));
+
+        verify(pushNotificationService).sendPriceAlertNotification(
+                eq("test-fcm-token"), eq("AAPL"), eq("Apple Inc."),
+                eq(180.00), eq(185.0), eq("ABOVE"));
+    }
+
+    @Test
+    @DisplayName("Dividend notification uses the dividend looked up during the check")
+    void dividendAlert_sendsDividendNotification() {
+        PriceAlert alert = TestDataFactory.createPriceAlert(
+                user, "KO", "Coca-Cola", AlertType.DIVIDEND_PAYMENT, BigDecimal.ZERO);
+
+        consumer.handle(AlertTriggeredEvent.of(alert, null, null,
+                Map.of("nextDividend", Map.of("amount", 0.485, "paymentDate", "2026-12-01"))));
+
+        verify(pushNotificationService).sendDividendNotification(
+                "test-fcm-token", "KO", "Coca-Cola", 0.485, "2026-12-01");
+    }
+
+    @Test
+    @DisplayName("A transient push failure fails the delivery so the relay retries it")
+    void transientPushFailure_propagates() {
+        PriceAlert alert = TestDataFactory.createPriceAlert(
+                user, "AAPL", "Apple Inc.", AlertType.ABOVE, new BigDecimal("180.00"));
+        when(pushNotificationService.sendPriceAlertNotification(any(), any(), any(), anyDouble(), anyDouble(), any()))
+                .thenThrow(new IllegalStateException("Push notification not delivered: UNAVAILABLE"));
+
+        assertThatThrownBy(() -> consumer.handle(AlertTriggeredEvent.of(alert,
+                TestDataFactory.createStockQuote("AAPL", "Apple Inc.", 185.0), null, null)))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("A redelivered event does not push the notification again")
+    void redeliveredEvent_isDropped() {
+        PriceAlert alert = TestDataFactory.createPriceAlert(
+                user, "AAPL", "Apple Inc.", AlertType.ABOVE, new BigDecimal("180.00"));
+        UUID eventId = UUID.randomUUID();
+        when(deliveryDedup.claim("alert-push", eventId)).thenReturn(true, false);
+        AlertTriggeredEvent event = AlertTriggeredEvent.of(alert,
+                TestDataFactory.createStockQuote("AAPL", "Apple Inc.", 185.0), null, null);
+
+        consumer.handle(eventId, event);
+        consumer.handle(eventId, event);
+
+        verify(pushNotificationService, times(1)).sendPriceAlertNotification(
+                any(), any(), any(), anyDouble(), anyDouble(), any());
+    }
+
+    @Test
+    @DisplayName("A failed push releases the dedup claim so the retry sends it")
+    void failedPush_releasesClaim() {
+        PriceAlert alert = TestDataFactory.createPriceAlert(
+                user, "AAPL", "Apple Inc.", AlertType.ABOVE, new BigDecimal("180.00"));
+        UUID eventId = UUID.randomUUID();
+        when(deliveryDedup.claim("alert-push", eventId)).thenReturn(true);
+        when(pushNotificationService.sendPriceAlertNotification(any(), any(), any(), anyDouble(), anyDouble(), any()))
+                .thenThrow(new IllegalStateException("Push notification not delivered: UNAVAILABLE"));
+
+        assertThatThrownBy(() -> consumer.handle(eventId, AlertTriggeredEvent.of(alert,
+                TestDataFactory.createStockQuote("AAPL", "Apple Inc.", 185.0), null, null)))
+                .isInstanceOf(IllegalStateException.class);
+        verify(deliveryDedup).release("alert-push", eventId);
+    }
+
+    @Test
+    @DisplayName("No notification is sent when the user has no device token")
+    void noToken_skipsNotification() {
+        user.setFcmToken(null);
+        PriceAlert alert = TestDataFactory.createPriceAlert(
+                user, "AAPL", "Apple Inc.", AlertType.BELOW, new BigDecimal("150.00"));
+
+        consumer.handle(AlertTriggeredEvent.of(alert, null, null, null));
+
+        verifyNoInteractions(pushNotificationService);
+    }
+}
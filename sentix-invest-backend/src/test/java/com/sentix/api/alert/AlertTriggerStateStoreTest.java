@@ -0,0 +1,179 @@
+package com.sentix.api.alert;
+
+import com.sentix.domain.AlertType;
+import com.sentix.domain.PriceAlert;
+import com.sentix.domain.User;
+import com.sentix.infrastructure.persistence.PriceAlertRepository;
+import com.sentix.test.TestDataFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AlertTriggerStateStoreTest {
+
+    @Mock
+    private PriceAlertRepository priceAlertRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private AlertTriggerStateStore store;
+
+    private User testUser;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(store, "defaultHysteresisPercent", new BigDecimal("1.0"));
+        ReflectionTestUtils.setField(store, "defaultCooldownMinutes", 60);
+        ReflectionTestUtils.setField(store, "flushBatchSize", 500);
+        testUser = TestDataFactory.createUser();
+        now = LocalDateTime.now();
+    }
+
+    @Test
+    @DisplayName("Price flapping around the target fires once and writes once, through the claim")
+    void evaluate_flappingInsideBand_firesOnce() {
+        PriceAlert alert = rearmingAlert(AlertType.ABOVE, "100.00");
+
+        assertThat(store.evaluate(alert, true, price("100.50"), now)).isTrue();
+        store.claimed(alert.getId());
+        // 99.5 is below target but inside the 1% band, so the alert stays disarmed
+        assertThat(store.evaluate(alert, false, price("99.50"), now.plusMinutes(5))).isFalse();
+        assertThat(store.evaluate(alert, true, price("100.40"), now.plusMinutes(10))).isFalse();
+        assertThat(store.evaluate(alert, false, price("99.20"), now.plusMinutes(15))).isFalse();
+
+        store.flush();
+
+        verifyNoInteractions(priceAlertRepository, transactionTemplate);
+        AlertTriggerStateStore.Stats stats = store.stats();
+        assertThat(stats.triggers()).isEqualTo(1);
+        assertThat(stats.rowsWritten()).isEqualTo(1);
+        assertThat(stats.writeAmplification()).isEqualTo(1.0);
+        assertThat(alert.getTriggerCount()).isEqualTo(1);
+        assertThat(alert.getArmed()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Alert re-arms outside the band and fires again after the cooldown")
+    void evaluate_rearmsAndRespectsCooldown() {
+        PriceAlert alert = rearmingAlert(AlertType.ABOVE, "100.00");
+        alert.setCooldownMinutes(30);
+
+        assertThat(store.evaluate(alert, true, price("101.00"), now)).isTrue();
+        assertThat(store.evaluate(alert, false, price("98.00"), now.plusMinutes(5))).isFalse();
+        assertThat(alert.getArmed()).isTrue();
+
+        // Re-armed, but still inside the cooldown window
+        assertThat(store.evaluate(alert, true, price("101.00"), now.plusMinutes(10))).isFalse();
+        assertThat(store.evaluate(alert, true, price("101.00"), now.plusMinutes(31))).isTrue();
+
+        assertThat(alert.getTriggerCount()).isEqualTo(2);
+        assertThat(store.stats().suppressed()).isEqualTo(1);
+        assertThat(store.stats().rearms()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("BELOW alerts re-arm once the price rises above the band")
+    void evaluate_belowAlert_rearmsAboveBand() {
+        PriceAlert alert = rearmingAlert(AlertType.BELOW, "100.00");
+        alert.setHysteresisPercent(new BigDecimal("5"));
+
+        assertThat(store.evaluate(alert, true, price("99.00"), now)).isTrue();
+        store.evaluate(alert, false, price("104.00"), now.plusMinutes(1));
+        assertThat(alert.getArmed()).isFalse();
+        store.evaluate(alert, false, price("106.00"), now.plusMinutes(2));
+        assertThat(alert.getArmed()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Persisted state wins when another node triggered the alert since")
+    void evaluate_adoptsNewerPersistedState() {
+        PriceAlert alert = rearmingAlert(AlertType.ABOVE, "100.00");
+        store.evaluate(alert, false, price("95.00"), now);
+
+        alert.setArmed(false);
+        alert.setTriggerCount(3);
+        alert.setTriggeredAt(now.minusMinutes(1));
+
+        assertThat(store.evaluate(alert, true, price("101.00"), now.plusMinutes(1))).isFalse();
+        assertThat(alert.getTriggerCount()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("A re-arm pending before a claimed trigger is not flushed again")
+    void claimed_dropsPendingRearm() {
+        PriceAlert alert = rearmingAlert(AlertType.ABOVE, "100.00");
+        alert.setCooldownMinutes(0);
+
+        store.evaluate(alert, true, price("101.00"), now);
+        store.claimed(alert.getId());
+        store.evaluate(alert, false, price("98.00"), now.plusMinutes(1));
+        assertThat(store.stats().pendingWrites()).isEqualTo(1);
+        assertThat(store.evaluate(alert, true, price("101.00"), now.plusMinutes(2))).isTrue();
+        store.claimed(alert.getId());
+
+        store.flush();
+
+        verifyNoInteractions(priceAlertRepository);
+        assertThat(store.stats().rowsWritten()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Flush writes dirty states in chunks, one transaction per chunk")
+    void flush_writesInChunks() {
+        ReflectionTestUtils.setField(store, "flushBatchSize", 2);
+        runTransactionsInline();
+        for (int i = 0; i < 3; i++) {
+            PriceAlert alert = rearmingAlert(AlertType.ABOVE, "100.00");
+            alert.setArmed(false);
+            alert.setTriggerCount(1);
+            alert.setTriggeredAt(now);
+            store.evaluate(alert, false, price("95.00"), now);
+        }
+
+        store.flush();
+        store.flush();
+
+        verify(transactionTemplate, times(2)).executeWithoutResult(any());
+        verify(priceAlertRepository, times(3)).updateTriggerState(any(), eq(true), eq(now), eq(1));
+        assertThat(store.stats().pendingWrites()).isZero();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runTransactionsInline() {
+        doAnswer(invocation -> {
+            ((Consumer<TransactionStatus>) invocation.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    private PriceAlert rearmingAlert(AlertType type, String target) {
+        PriceAlert alert = TestDataFactory.createPriceAlert(testUser, "AAPL", "Apple Inc.", type, new BigDecimal(target));
+        alert.setRearm(true);
+        alert.setArmed(true);
+        alert.setTriggerCount(0);
+        return alert;
+    }
+
+    private static BigDecimal price(String value) {
+        return new BigDecimal(value);
+    }
+}
@@ -1,26 +1,38 @@
 package com.sentix.api.alert;
 
+import com.sentix.api.common.PageResponse;
+import com.sentix.api.dashboard.DashboardService;
 import com.sentix.api.stock.StockQuoteDto;
 import com.sentix.api.stock.StockService;
 import com.sentix.domain.AlertType;
+import com.sentix.domain.OutboxEventType;
 import com.sentix.domain.PriceAlert;
 import com.sentix.domain.User;
+import com.sentix.infrastructure.metrics.SentixMetrics;
+import com.sentix.infrastructure.outbox.OutboxPublisher;
 import com.sentix.infrastructure.persistence.PriceAlertRepository;
-import com.sentix.service.PushNotificationService;
 import com.sentix.test.TestDataFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
@@ -34,7 +46,19 @@ class PriceAlertServiceTest {
     private StockService stockService;
 
     @Mock
-    private PushNotificationService pushNotificationService;
+    private AlertTriggerStateStore triggerStateStore;
+
+    @Mock
+    private OutboxPublisher outboxPublisher;
+
+    @Mock
+    private DashboardService dashboardService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private SentixMetrics metrics;
 
     @InjectMocks
     private PriceAlertService priceAlertService;
@@ -45,6 +69,8 @@ class PriceAlertServiceTest {
     void setUp() {
         testUser = TestDataFactory.createUser();
         testUser.setFcmToken("test-fcm-token");
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(i -> i.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
     }
 
     @Test
@@ -56,15 +82,33 @@ class PriceAlertServiceTest {
         StockQuoteDto quote = TestDataFactory.createStockQuote("AAPL", "Apple Inc.", 185.0);
 
         when(priceAlertRepository.findByIsActiveTrue()).thenReturn(List.of(alert));
-        when(stockService.getStockQuote("AAPL")).thenReturn(quote);
-        when(priceAlertRepository.save(any(PriceAlert.class))).thenAnswer(i -> i.getArgument(0));
+        when(stockService.getStockQuotes(anyCollection())).thenReturn(Map.of("AAPL", quote));
+        when(priceAlertRepository.markTriggered(any(), any())).thenReturn(1);
 
         List<PriceAlertResponse> triggered = priceAlertService.checkAndTriggerAlerts();
 
         assertThat(triggered).hasSize(1);
         assertThat(alert.getIsActive()).isFalse();
         assertThat(alert.getTriggeredAt()).isNotNull();
-        verify(priceAlertRepository).save(alert);
+        verify(priceAlertRepository).markTriggered(eq(alert.getId()), any());
+        verify(dashboardService).evict(testUser.getId());
+    }
+
+    @Test
+    @DisplayName("Alert already claimed by another replica is not notified again")
+    void checkAndTriggerAlerts_claimLost_skipsNotification() {
+        PriceAlert alert = TestDataFactory.createPriceAlert(
+                testUser, "AAPL", "Apple Inc.", AlertType.ABOVE, new BigDecimal("180.00"));
+
+        when(priceAlertRepository.findByIsActiveTrue()).thenReturn(List.of(alert));
+        when(stockService.getStockQuotes(anyCollection())).thenReturn(Map.of(
+                "AAPL", TestDataFactory.createStockQuote("AAPL", "Apple Inc.", 185.0)));
+        when(priceAlertRepository.markTriggered(any(), any())).thenReturn(0);
+
+        List<PriceAlertResponse> triggered = priceAlertService.checkAndTriggerAlerts();
+
+        assertThat(triggered).isEmpty();
+        verifyNoInteractions(outboxPublisher, dashboardService);
     }
 
     @Test
@@ -76,7 +120,7 @@ class PriceAlertServiceTest {
         StockQuoteDto quote = TestDataFactory.createStockQuote("AAPL", "Apple Inc.", 185.0);
 
         when(priceAlertRepository.findByIsActiveTrue()).thenReturn(List.of(alert));
-        when(stockService.getStockQuote("AAPL")).thenReturn(quote);
+        when(stockService.getStockQuotes(anyCollection())).thenReturn(Map.of("AAPL", quote));
 
         List<PriceAlertResponse> triggered = priceAlertService.checkAndTriggerAlerts();
 
@@ -93,8 +137,8 @@ class PriceAlertServiceTest {
         StockQuoteDto quote = TestDataFactory.createStockQuote("TSLA", "Tesla Inc.", 195.0);
 
         when(priceAlertRepository.findByIsActiveTrue()).thenReturn(List.of(alert));
-        when(stockService.getStockQuote("TSLA")).thenReturn(quote);
-        when(priceAlertRepository.save(any(PriceAlert.class))).thenAnswer(i -> i.getArgument(0));
+        when(stockService.getStockQuotes(anyCollection())).thenReturn(Map.of("TSLA", quote));
+        when(priceAlertRepository.markTriggered(any(), any())).thenReturn(1);
 
         List<PriceAlertResponse> triggered = priceAlertService.checkAndTriggerAlerts();
 
@@ -112,8 +156,8 @@ class PriceAlertServiceTest {
         StockQuoteDto quote = TestDataFactory.createStockQuote("GOOGL", "Alphabet Inc.", 106.0);
 
         when(priceAlertRepository.findByIsActiveTrue()).thenReturn(List.of(alert));
-        when(stockService.getStockQuote("GOOGL")).thenReturn(quote);
-        when(priceAlertRepository.save(any(PriceAlert.class))).thenAnswer(i -> i.getArgument(0));
+        when(stockService.getStockQuotes(anyCollection())).thenReturn(Map.of("GOOGL", quote));
+        when(priceAlertRepository.markTriggered(any(), any())).thenReturn(1);
 
         List<PriceAlertResponse> triggered = priceAlertService.checkAndTriggerAlerts();
 
@@ -131,7 +175,7 @@ class PriceAlertServiceTest {
         StockQuoteDto quote = TestDataFactory.createStockQuote("GOOGL", "Alphabet Inc.", 106.0);
 
         when(priceAlertRepository.findByIsActiveTrue()).thenReturn(List.of(alert));
-        when(stockService.getStockQuote("GOOGL")).thenReturn(quote);
+        when(stockService.getStockQuotes(anyCollection())).thenReturn(Map.of("GOOGL", quote));
 
         List<PriceAlertResponse> triggered = priceAlertService.checkAndTriggerAlerts();
 
@@ -151,7 +195,7 @@ class PriceAlertServiceTest {
 
         when(priceAlertRepository.findByIsActiveTrue()).thenReturn(List.of(alert));
         when(stockService.getEarnings("MSFT")).thenReturn(Map.of("nextEarningsDate", earningsDate));
-        when(priceAlertRepository.save(any(PriceAlert.class))).thenAnswer(i -> i.getArgument(0));
+        when(priceAlertRepository.markTriggered(any(), any())).thenReturn(1);
 
         List<PriceAlertResponse> triggered = priceAlertService.checkAndTriggerAlerts();
 
@@ -171,7 +215,7 @@ class PriceAlertServiceTest {
         when(priceAlertRepository.findByIsActiveTrue()).thenReturn(List.of(alert));
         when(stockService.getDividends("JNJ")).thenReturn(
                 Map.of("nextDividend", Map.of("paymentDate", paymentDate, "amount", 1.13)));
-        when(priceAlertRepository.save(any(PriceAlert.class))).thenAnswer(i -> i.getArgument(0));
+        when(priceAlertRepository.markTriggered(any(), any())).thenReturn(1);
 
         List<PriceAlertResponse> triggered = priceAlertService.checkAndTriggerAlerts();
 
@@ -180,22 +224,25 @@ class PriceAlertServiceTest {
     }
 
     @Test
-    @DisplayName("Push notification is sent when alert is triggered")
-    void checkAndTriggerAlerts_sendsPushNotification() {
+    @DisplayName("A triggered alert is recorded in the outbox with the observed price")
+    void checkAndTriggerAlerts_publishesEvent() {
         PriceAlert alert = TestDataFactory.createPriceAlert(
                 testUser, "AAPL", "Apple Inc.", AlertType.ABOVE, new BigDecimal("180.00"));
 
         StockQuoteDto quote = TestDataFactory.createStockQuote("AAPL", "Apple Inc.", 185.0);
 
         when(priceAlertRepository.findByIsActiveTrue()).thenReturn(List.of(alert));
-        when(stockService.getStockQuote("AAPL")).thenReturn(quote);
-        when(priceAlertRepository.save(any(PriceAlert.class))).thenAnswer(i -> i.getArgument(0));
+        when(stockService.getStockQuotes(anyCollection())).thenReturn(Map.of("AAPL", quote));
+        when(priceAlertRepository.markTriggered(any(), any())).thenReturn(1);
 
         priceAlertService.checkAndTriggerAlerts();
 
-        verify(pushNotificationService).sendPriceAlertNotification(
-                eq("test-fcm-token"), eq("AAPL"), eq("Apple Inc."),
-                eq(180.00), eq(185.0), eq("ABOVE"));
+        ArgumentCaptor<AlertTriggeredEvent> event = ArgumentCaptor.forClass(AlertTriggeredEvent.class);
+        verify(outboxPublisher).publish(eq(OutboxEventType.ALERT_TRIGGERED), eq(alert.getId()), event.capture());
+        assertThat(event.getValue().userId()).isEqualTo(testUser.getId());
+        assertThat(event.getValue().alertType()).isEqualTo(AlertType.ABOVE);
+        assertThat(event.getValue().targetPrice()).isEqualByComparingTo("180.00");
+        assertThat(event.getValue().currentPrice()).isEqualTo(185.0);
     }
 
     @Test
@@ -207,15 +254,55 @@ class PriceAlertServiceTest {
                 testUser, "TSLA", "Tesla Inc.", AlertType.BELOW, new BigDecimal("200.00"));
 
         when(priceAlertRepository.findByIsActiveTrue()).thenReturn(List.of(alert1, alert2));
-        when(stockService.getStockQuote("AAPL")).thenReturn(
-                TestDataFactory.createStockQuote("AAPL", "Apple Inc.", 185.0));
-        when(stockService.getStockQuote("TSLA")).thenReturn(
-                TestDataFactory.createStockQuote("TSLA", "Tesla Inc.", 195.0));
-        when(priceAlertRepository.save(any(PriceAlert.class))).thenAnswer(i -> i.getArgument(0));
+        when(stockService.getStockQuotes(anyCollection())).thenReturn(Map.of(
+                "AAPL", TestDataFactory.createStockQuote("AAPL", "Apple Inc.", 185.0),
+                "TSLA", TestDataFactory.createStockQuote("TSLA", "Tesla Inc.", 195.0)));
+        when(priceAlertRepository.markTriggered(any(), any())).thenReturn(1);
 
         List<PriceAlertResponse> triggered = priceAlertService.checkAndTriggerAlerts();
 
         assertThat(triggered).hasSize(2);
+        verify(stockService, times(1)).getStockQuotes(anyCollection());
+        verify(stockService, never()).getStockQuote(anyString());
+    }
+
+    @Test
+    @DisplayName("Paginated listing prices the whole page with one batch quote call")
+    void getUserAlertsPaginated_usesSingleBatchQuote() {
+        List<PriceAlert> alerts = List.of(
+                TestDataFactory.createPriceAlert(testUser, "AAPL", "Apple Inc.", AlertType.ABOVE, new BigDecimal("180.00")),
+                TestDataFactory.createPriceAlert(testUser, "AAPL", "Apple Inc.", AlertType.BELOW, new BigDecimal("150.00")),
+                TestDataFactory.createPriceAlert(testUser, "TSLA", "Tesla Inc.", AlertType.BELOW, new BigDecimal("200.00")));
+        Pageable pageable = PageRequest.of(0, 20);
+
+        when(priceAlertRepository.findByUser(testUser, pageable)).thenReturn(new PageImpl<>(alerts, pageable, 3));
+        when(stockService.getStockQuotes(anyCollection())).thenReturn(Map.of(
+                "AAPL", TestDataFactory.createStockQuote("AAPL", "Apple Inc.", 185.0),
+                "TSLA", TestDataFactory.createStockQuote("TSLA", "Tesla Inc.", 195.0)));
+
+        PageResponse<PriceAlertResponse> page = priceAlertService.getUserAlertsPaginated(testUser, pageable, true);
+
+        assertThat(page.content()).hasSize(3);
+        assertThat(page.content().get(0).getCurrentPrice()).isEqualByComparingTo(new BigDecimal("185.0"));
+        assertThat(page.content().get(2).getCurrentPrice()).isEqualByComparingTo(new BigDecimal("195.0"));
+        verify(stockService, times(1)).getStockQuotes(anyCollection());
+        verify(stockService, never()).getStockQuote(anyString());
+    }
+
+    @Test
+    @DisplayName("Lightweight listing skips price lookups entirely")
+    void getUserAlertsPaginated_withoutPrices_makesNoUpstreamCalls() {
+        List<PriceAlert> alerts = List.of(
+                TestDataFactory.createPriceAlert(testUser, "AAPL", "Apple Inc.", AlertType.ABOVE, new BigDecimal("180.00")));
+        Pageable pageable = PageRequest.of(0, 20);
+
+        when(priceAlertRepository.findByUser(testUser, pageable)).thenReturn(new PageImpl<>(alerts, pageable, 1));
+
+        PageResponse<PriceAlertResponse> page = priceAlertService.getUserAlertsPaginated(testUser, pageable, false);
+
+        assertThat(page.content()).hasSize(1);
+        assertThat(page.content().get(0).getCurrentPrice()).isNull();
+        verifyNoInteractions(stockService);
     }
 
     @Test
@@ -243,4 +330,73 @@ class PriceAlertServiceTest {
         assertThat(response.getAlertType()).isEqualTo("ABOVE");
         assertThat(response.getIsActive()).isTrue();
     }
+
+    @Test
+    @DisplayName("Re-arming alert fires through the trigger state store and stays active")
+    void checkAndTriggerAlerts_rearmingAlert_staysActive() {
+        PriceAlert alert = TestDataFactory.createPriceAlert(
+                testUser, "AAPL", "Apple Inc.", AlertType.ABOVE, new BigDecimal("180.00"));
+        alert.setRearm(true);
+
+        when(priceAlertRepository.findByIsActiveTrue()).thenReturn(List.of(alert));
+        when(stockService.getStockQuotes(anyCollection())).thenReturn(Map.of(
+                "AAPL", TestDataFactory.createStockQuote("AAPL", "Apple Inc.", 185.0)));
+        when(triggerStateStore.evaluate(eq(alert), eq(true), eq(BigDecimal.valueOf(185.0)), any()))
+                .thenAnswer(i -> firstTrigger(alert));
+        when(priceAlertRepository.claimRearmTrigger(eq(alert.getId()), eq(0), eq(1), any())).thenReturn(1);
+
+        List<PriceAlertResponse> triggered = priceAlertService.checkAndTriggerAlerts();
+
+        assertThat(triggered).hasSize(1);
+        assertThat(alert.getIsActive()).isTrue();
+        verify(priceAlertRepository, never()).markTriggered(any(), any());
+        verify(outboxPublisher).publish(eq(OutboxEventType.ALERT_TRIGGERED), eq(alert.getId()),
+                argThat(event -> event instanceof AlertTriggeredEvent e && e.currentPrice() == 185.0));
+        verify(triggerStateStore).claimed(alert.getId());
+    }
+
+    @Test
+    @DisplayName("Re-arming trigger already claimed by another replica is not notified again")
+    void checkAndTriggerAlerts_rearmingClaimLost_skipsNotification() {
+        PriceAlert alert = TestDataFactory.createPriceAlert(
+                testUser, "AAPL", "Apple Inc.", AlertType.ABOVE, new BigDecimal("180.00"));
+        alert.setRearm(true);
+
+        when(priceAlertRepository.findByIsActiveTrue()).thenReturn(List.of(alert));
+        when(stockService.getStockQuotes(anyCollection())).thenReturn(Map.of(
+                "AAPL", TestDataFactory.createStockQuote("AAPL", "Apple Inc.", 185.0)));
+        when(triggerStateStore.evaluate(eq(alert), eq(true), eq(BigDecimal.valueOf(185.0)), any()))
+                .thenAnswer(i -> firstTrigger(alert));
+        when(priceAlertRepository.claimRearmTrigger(eq(alert.getId()), eq(0), eq(1), any())).thenReturn(0);
+
+        List<PriceAlertResponse> triggered = priceAlertService.checkAndTriggerAlerts();
+
+        assertThat(triggered).isEmpty();
+        verifyNoInteractions(outboxPublisher);
+        verify(triggerStateStore).forget(alert.getId());
+        verify(triggerStateStore, never()).claimed(any());
+    }
+
+    /** What the trigger state store does to an alert on its first trigger. */
+    private static boolean firstTrigger(PriceAlert alert) {
+        alert.setArmed(false);
+        alert.setTriggeredAt(LocalDateTime.now());
+        alert.setTriggerCount(1);
+        return true;
+    }
+
+    @Test
+    @DisplayName("Re-arming is rejected for date based alerts")
+    void createAlert_rearmingEarningsReminder_throws() {
+        CreateAlertRequest request = new CreateAlertRequest();
+        request.setSymbol("AAPL");
+        request.setStockName("Apple Inc.");
+        request.setTargetPrice(new BigDecimal("1"));
+        request.setAlertType("EARNINGS_REMINDER");
+        request.setRearm(true);
+
+        assertThatThrownBy(() -> priceAlertService.createAlert(testUser, request))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(priceAlertRepository);
+    }
 }
@@ -0,0 +1,171 @@
+package com.sentix.api.backtest;
+
+import com.sentix.api.stock.StockService;
+import com.sentix.domain.OrderType;
+import com.sentix.domain.TransactionType;
+import com.sentix.domain.User;
+import com.sentix.infrastructure.metrics.SentixMetrics;
+import com.sentix.test.InMemoryCashLedger;
+import com.sentix.test.TestDataFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Simulated trades per second for a batch of strategies over ten years of daily
+ * bars on ten symbols. Each strategy buys every symbol daily and sells it on a
+ * limit, so a simulation fills tens of thousands of trades. The sequential case
+ * replays the strategies one after another on the calling thread; the fork-join
+ * case goes through {@link BacktestService} with bars already cached. The
+ * {@code trades} counter is the figure to compare.
+ * Run with:
+ * {@code mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ * -Dexec.args="-cp %classpath com.sentix.api.backtest.BacktestBenchmark"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class BacktestBenchmark {
+
+    private static final int SYMBOLS = 10;
+    private static final int TRADING_DAYS = 2520;
+    private static final String PERIOD = "10y";
+
+    @Param({"1", "16"})
+    private int strategies;
+
+    private User user;
+    private BacktestService service;
+    private BacktestRequest request;
+    private Map<String, PriceBars> history;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Trades {
+
+        public long trades;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            trades = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        user = TestDataFactory.createUser();
+        Random random = new Random(42);
+        StockService stockService = mock(StockService.class);
+        history = new HashMap<>();
+        List<BacktestRequest.Order> orders = new ArrayList<>();
+        for (int s = 0; s < SYMBOLS; s++) {
+            String symbol = "SYM" + s;
+            Map<String, Object> response = randomWalk(random);
+            when(stockService.getStockHistory(eq(symbol), anyString())).thenReturn(response);
+            history.put(symbol, PriceBars.parse(response));
+            orders.add(new BacktestRequest.Order(TransactionType.BUY, symbol, 1, OrderType.MARKET,
+                    null, null, null, 1));
+            orders.add(new BacktestRequest.Order(TransactionType.SELL, symbol, 1, OrderType.LIMIT,
+                    new BigDecimal("100"), null, null, 1));
+        }
+
+        service = new BacktestService(stockService, new InMemoryCashLedger().service(),
+                new SentixMetrics(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(service, "parallelism", 0);
+        ReflectionTestUtils.setField(service, "maximumSize", 100L);
+        ReflectionTestUtils.setField(service, "ttlMs", TimeUnit.HOURS.toMillis(1));
+        service.init();
+
+        request = new BacktestRequest(PERIOD, new BigDecimal("100000000"), IntStream.range(0, strategies)
+                .mapToObj(i -> new BacktestRequest.Strategy("s" + i, orders))
+                .toList());
+        // Warm the bar cache so that the benchmark measures simulation only
+        service.run(user, request);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        service.shutdown();
+    }
+
+    /**
+     * Daily bars around 100 so that the limit sells keep filling.
+     */
+    private static Map<String, Object> randomWalk(Random random) {
+        List<Map<String, Object>> data = new ArrayList<>(TRADING_DAYS);
+        LocalDate date = LocalDate.of(2015, 1, 1);
+        double close = 100;
+        for (int day = 0; day < TRADING_DAYS; day++) {
+            double open = close * (1 + random.nextGaussian() * 0.005);
+            close = open * (1 + random.nextGaussian() * 0.01);
+            double high = Math.max(open, close) * (1 + random.nextDouble() * 0.01);
+            double low = Math.min(open, close) * (1 - random.nextDouble() * 0.01);
+            data.add(Map.of("date", date.toString(), "open", round(open), "high", round(high),
+                    "low", round(low), "close", round(close)));
+            date = date.plusDays(1);
+        }
+        return Map.of("data", data);
+    }
+
+    private static double round(double price) {
+        return Math.round(price * 100) / 100.0;
+    }
+
+    @Benchmark
+    public int sequential(Trades counter) {
+        int trades = 0;
+        for (BacktestRequest.Strategy strategy : request.strategies()) {
+            trades += new BacktestSimulator(strategy.name(), strategy.orders(), history,
+                    request.initialCash()).run().fills().size();
+        }
+        counter.trades += trades;
+        return trades;
+    }
+
+    @Benchmark
+    public int forkJoin(Trades counter) {
+        int trades = service.run(user, request).simulatedTrades();
+        counter.trades += trades;
+        return trades;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(BacktestBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,97 @@
+package com.sentix.api.backtest;
+
+import com.sentix.api.stock.StockService;
+import com.sentix.domain.OrderType;
+import com.sentix.domain.TransactionType;
+import com.sentix.domain.User;
+import com.sentix.infrastructure.metrics.SentixMetrics;
+import com.sentix.test.InMemoryCashLedger;
+import com.sentix.test.TestDataFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class BacktestServiceTest {
+
+    private StockService stockService;
+    private BacktestService service;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        stockService = mock(StockService.class);
+        service = new BacktestService(stockService, new InMemoryCashLedger().service(),
+                new SentixMetrics(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(service, "parallelism", 2);
+        ReflectionTestUtils.setField(service, "maximumSize", 100L);
+        ReflectionTestUtils.setField(service, "ttlMs", 60000L);
+        service.init();
+        user = TestDataFactory.createUser();
+
+        when(stockService.getStockHistory("AAPL", "1y")).thenReturn(Map.of("symbol", "AAPL", "period", "1y",
+                "data", List.of(
+                        Map.of("date", "2025-03-04", "open", 101.0, "high", 103.0, "low", 100.0, "close", 102.0),
+                        // Out of order, as the mock history endpoint may return it
+                        Map.of("date", "2025-03-03", "open", 100.0, "high", 101.0, "low", 99.0, "close", 100.5))));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        service.shutdown();
+    }
+
+    private static BacktestRequest.Strategy strategy(String name, int quantity) {
+        return new BacktestRequest.Strategy(name, List.of(new BacktestRequest.Order(TransactionType.BUY, "aapl",
+                quantity, OrderType.MARKET, null, null, null, null)));
+    }
+
+    @Test
+    @DisplayName("Strategies run in parallel from the paper balance and come back in request order")
+    void run_defaultsToPaperBalance() {
+        BacktestResponse response = service.run(user, new BacktestRequest(null, null, List.of(
+                strategy("small", 1), strategy(null, 10))));
+
+        assertThat(response.period()).isEqualTo("1y");
+        assertThat(response.results()).extracting(BacktestResult::name).containsExactly("small", "Strategy 2");
+        assertThat(response.results()).extracting(BacktestResult::initialCash)
+                .allSatisfy(cash -> assertThat(cash).isEqualByComparingTo("100000.00"));
+        // Bars are replayed in date order: the first fill is at the 3 March open
+        assertThat(response.results().get(1).fills()).singleElement()
+                .satisfies(fill -> assertThat(fill.price()).isEqualByComparingTo("100"));
+        assertThat(response.simulatedTrades()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Parsed bars are cached, so a repeated backtest makes no upstream call")
+    void bars_areCached() {
+        BacktestRequest request = new BacktestRequest("1y", new BigDecimal("5000"), List.of(strategy("a", 1)));
+
+        service.run(user, request);
+        service.run(user, request);
+
+        verify(stockService, times(1)).getStockHistory("AAPL", "1y");
+    }
+
+    @Test
+    @DisplayName("Stale fallback history is used but not cached")
+    void staleBars_notCached() {
+        when(stockService.getStockHistory("MSFT", "1y")).thenReturn(Map.of("symbol", "MSFT", "stale", true,
+                "data", List.of(Map.of("date", "2025-03-03", "open", 400.0, "high", 401.0, "low", 399.0,
+                        "close", 400.5))));
+
+        assertThat(service.bars("MSFT", "1y")).isNotNull();
+        assertThat(service.bars("MSFT", "1y")).isNotNull();
+
+        verify(stockService, times(2)).getStockHistory("MSFT", "1y");
+    }
+}
@@ -0,0 +1,130 @@
+package com.sentix.api.backtest;
+
+import com.sentix.domain.OrderType;
+import com.sentix.domain.TransactionType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BacktestSimulatorTest {
+
+    private static final LocalDate START = LocalDate.of(2025, 3, 3);
+
+    /**
+     * One bar per day from START; each bar is {open, high, low, close}.
+     */
+    private static PriceBars bars(double[]... ohlc) {
+        int[] days = new int[ohlc.length];
+        long[] open = new long[ohlc.length];
+        long[] high = new long[ohlc.length];
+        long[] low = new long[ohlc.length];
+        long[] close = new long[ohlc.length];
+        for (int i = 0; i < ohlc.length; i++) {
+            days[i] = (int) START.plusDays(i).toEpochDay();
+            open[i] = PriceBars.toTicks(BigDecimal.valueOf(ohlc[i][0]));
+            high[i] = PriceBars.toTicks(BigDecimal.valueOf(ohlc[i][1]));
+            low[i] = PriceBars.toTicks(BigDecimal.valueOf(ohlc[i][2]));
+            close[i] = PriceBars.toTicks(BigDecimal.valueOf(ohlc[i][3]));
+        }
+        return PriceBars.of(days, open, high, low, close);
+    }
+
+    private static BacktestRequest.Order order(TransactionType side, int quantity, OrderType type,
+                                               String limit, String stop, LocalDate placeOn, Integer repeat) {
+        return new BacktestRequest.Order(side, "AAPL", quantity, type,
+                limit != null ? new BigDecimal(limit) : null, stop != null ? new BigDecimal(stop) : null,
+                placeOn, repeat);
+    }
+
+    private static BacktestResult run(PriceBars bars, String cash, BacktestRequest.Order... orders) {
+        return new BacktestSimulator("test", List.of(orders), Map.of("AAPL", bars), new BigDecimal(cash)).run();
+    }
+
+    @Test
+    @DisplayName("Market orders fill at the open, limits at the limit or a better open")
+    void marketAndLimit_fillFromOhlc() {
+        PriceBars bars = bars(
+                new double[]{100, 102, 99, 101},
+                new double[]{101, 104, 100, 103},
+                new double[]{110, 112, 108, 111});
+
+        BacktestResult result = run(bars, "1000",
+                order(TransactionType.BUY, 5, OrderType.MARKET, null, null, START.plusDays(1), null),
+                // Gaps up through the limit on the third bar: fills at the better open
+                order(TransactionType.SELL, 5, OrderType.LIMIT, "105", null, START.plusDays(2), null));
+
+        assertThat(result.fills()).extracting(BacktestResult.Fill::price)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("101"), new BigDecimal("110"));
+        // 1000 - 505 + 550
+        assertThat(result.finalCash()).isEqualByComparingTo("1045.00");
+        assertThat(result.holdingsValue()).isEqualByComparingTo("0");
+        assertThat(result.returnPercent()).isEqualByComparingTo("4.50");
+        assertThat(result.simulatedDays()).isEqualTo(3);
+        assertThat(result.to()).isEqualTo(START.plusDays(2));
+    }
+
+    @Test
+    @DisplayName("A stop-limit whose trigger is beyond its limit rests until a bar reaches the limit")
+    void stopLimit_restsAfterTrigger() {
+        PriceBars bars = bars(
+                new double[]{100, 100, 100, 100},
+                // Opens above the stop and the limit: triggered, not filled
+                new double[]{108, 109, 106, 107},
+                new double[]{106, 106, 104, 105});
+
+        BacktestResult result = run(bars, "1000",
+                order(TransactionType.BUY, 1, OrderType.STOP_LIMIT, "105", "103", null, null));
+
+        assertThat(result.fills()).singleElement().satisfies(fill -> {
+            assertThat(fill.date()).isEqualTo(START.plusDays(2));
+            assertThat(fill.price()).isEqualByComparingTo("105");
+        });
+        assertThat(result.openOrders()).isZero();
+    }
+
+    @Test
+    @DisplayName("Unaffordable buys, uncovered sells and symbols without history are rejected")
+    void infeasibleOrders_rejected() {
+        PriceBars bars = bars(new double[]{100, 100, 100, 100});
+        BacktestRequest.Order unknown = new BacktestRequest.Order(TransactionType.BUY, "MSFT", 1,
+                null, null, null, null, null);
+
+        BacktestResult result = new BacktestSimulator("test", List.of(
+                order(TransactionType.BUY, 20, OrderType.MARKET, null, null, null, null),
+                order(TransactionType.SELL, 1, OrderType.MARKET, null, null, null, null),
+                order(TransactionType.SELL, 1, OrderType.LIMIT, "500", null, null, null),
+                unknown), Map.of("AAPL", bars), new BigDecimal("1000")).run();
+
+        assertThat(result.fills()).isEmpty();
+        assertThat(result.rejectedOrders()).isEqualTo(3);
+        assertThat(result.openOrders()).isEqualTo(1);
+        assertThat(result.warnings()).containsExactly("No price history for MSFT");
+        assertThat(result.finalCash()).isEqualByComparingTo("1000");
+    }
+
+    @Test
+    @DisplayName("A recurring order is placed again after each fill, and drawdown tracks the equity peak")
+    void recurringOrder_andDrawdown() {
+        PriceBars bars = bars(
+                new double[]{100, 100, 100, 100},
+                new double[]{100, 100, 100, 100},
+                new double[]{80, 80, 80, 80},
+                new double[]{90, 90, 90, 90});
+
+        BacktestResult result = run(bars, "1000",
+                order(TransactionType.BUY, 2, OrderType.MARKET, null, null, null, 1));
+
+        assertThat(result.fills()).hasSize(4);
+        // 1000 - 200 - 200 - 160 - 180 = 260 cash, 8 shares at 90
+        assertThat(result.totalValue()).isEqualByComparingTo("980.00");
+        // Peak 1000, trough after day 3: 440 cash + 6 * 80 = 920
+        assertThat(result.maxDrawdownPercent()).isEqualByComparingTo("8.00");
+    }
+}
@@ -5,6 +5,8 @@ import org.junit.jupiter.api.Test;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 
 import java.util.List;
 
@@ -79,4 +81,31 @@ class PageResponseTest {
         assertThat(response.totalPages()).isEqualTo(1);
         assertThat(response.last()).isTrue();
     }
+
+    @Test
+    @DisplayName("from(Window) points nextCursor at the last row and skips totals unless given")
+    void fromWindow_setsCursorWithoutTotals() {
+        Window<String> window = Window.from(List.of("a", "b"), i -> ScrollPosition.keyset(), true);
+
+        PageResponse<String> response = PageResponse.from(window, 2, List.of("A", "B"), item -> "after-" + item, null);
+
+        assertThat(response.content()).containsExactly("A", "B");
+        assertThat(response.nextCursor()).isEqualTo("after-b");
+        assertThat(response.last()).isFalse();
+        assertThat(response.totalElements()).isNull();
+        assertThat(response.totalPages()).isNull();
+    }
+
+    @Test
+    @DisplayName("from(Window) on the final window has no cursor and derives pages from the total")
+    void fromWindow_lastWindow() {
+        Window<String> window = Window.from(List.of("c"), i -> ScrollPosition.keyset(), false);
+
+        PageResponse<String> response = PageResponse.from(window, 2, List.of("C"), item -> "after-" + item, 5L);
+
+        assertThat(response.nextCursor()).isNull();
+        assertThat(response.last()).isTrue();
+        assertThat(response.totalElements()).isEqualTo(5);
+        assertThat(response.totalPages()).isEqualTo(3);
+    }
 }
@@ -0,0 +1,42 @@
+package com.sentix.api.common;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SeekCursorTest {
+
+    @Test
+    @DisplayName("Encoded cursor decodes to a forward keyset position on the same key")
+    void roundTrip() {
+        LocalDateTime executedAt = LocalDateTime.of(2024, 3, 5, 14, 30, 15, 123_456_000);
+        UUID id = UUID.randomUUID();
+
+        KeysetScrollPosition position = SeekCursor.position(SeekCursor.encode(executedAt, id), "executedAt");
+
+        assertThat(position.isInitial()).isFalse();
+        assertThat(position.getKeys()).containsEntry("executedAt", executedAt).containsEntry("id", id);
+    }
+
+    @Test
+    @DisplayName("Blank cursor starts at the first page")
+    void blankCursor_isInitial() {
+        assertThat(SeekCursor.position("", "createdAt").isInitial()).isTrue();
+        assertThat(SeekCursor.position(null, "createdAt").isInitial()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Tampered cursor is rejected with 400")
+    void invalidCursor_rejected() {
+        assertThatThrownBy(() -> SeekCursor.position("not-a-cursor", "addedAt"))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("Invalid cursor");
+    }
+}
@@ -0,0 +1,127 @@
+package com.sentix.api.dashboard;
+
+import com.sentix.api.forex.CurrencyConversionService;
+import com.sentix.api.portfolio.PortfolioService;
+import com.sentix.api.portfolio.PortfolioSnapshotService;
+import com.sentix.api.stock.StockService;
+import com.sentix.domain.AlertType;
+import com.sentix.domain.User;
+import com.sentix.infrastructure.metrics.SentixMetrics;
+import com.sentix.infrastructure.persistence.PortfolioHoldingRepository;
+import com.sentix.infrastructure.persistence.PriceAlertRepository;
+import com.sentix.infrastructure.persistence.UserRepository;
+import com.sentix.infrastructure.persistence.WatchlistRepository;
+import com.sentix.infrastructure.persistence.WatchlistView;
+import com.sentix.test.InMemoryCashLedger;
+import com.sentix.test.TestDataFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class DashboardServiceTest {
+
+    private StockService stockService;
+    private PortfolioHoldingRepository holdingRepository;
+    private DashboardService service;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        stockService = mock(StockService.class);
+        holdingRepository = mock(PortfolioHoldingRepository.class);
+        WatchlistRepository watchlistRepository = mock(WatchlistRepository.class);
+        PriceAlertRepository alertRepository = mock(PriceAlertRepository.class);
+        PortfolioSnapshotService snapshotService = mock(PortfolioSnapshotService.class);
+        PortfolioService portfolioService = new PortfolioService(holdingRepository, stockService, snapshotService,
+                mock(CurrencyConversionService.class), new InMemoryCashLedger().service());
+
+        service = new DashboardService(portfolioService, snapshotService, holdingRepository, watchlistRepository,
+                alertRepository, mock(UserRepository.class), stockService,
+                new SentixMetrics(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(service, "maximumSize", 100L);
+        ReflectionTestUtils.setField(service, "ttlMs", 300000L);
+        ReflectionTestUtils.setField(service, "refreshAfterMs", 60000L);
+        ReflectionTestUtils.setField(service, "refreshThreads", 1);
+        service.init();
+        user = TestDataFactory.createUser();
+
+        when(holdingRepository.findViewsByUserAndIsPaper(user, false)).thenReturn(List.of(
+                TestDataFactory.createHoldingView(TestDataFactory.createHolding(
+                        user, "AAPL", "Apple Inc.", 10, new BigDecimal("150.00")))));
+        when(watchlistRepository.findViewsByUser(user)).thenReturn(List.of(
+                new WatchlistView(UUID.randomUUID(), "MSFT", "Microsoft", LocalDateTime.now())));
+        when(alertRepository.findByUserAndIsActiveTrue(user)).thenReturn(List.of(
+                TestDataFactory.createPriceAlert(user, "TSLA", "Tesla", AlertType.ABOVE, new BigDecimal("300"))));
+        when(stockService.getStockQuotes(any())).thenReturn(Map.of(
+                "AAPL", TestDataFactory.createStockQuote("AAPL", "Apple Inc.", 180.0),
+                "MSFT", TestDataFactory.createStockQuote("MSFT", "Microsoft", 400.0),
+                "TSLA", TestDataFactory.createStockQuote("TSLA", "Tesla", 250.0)));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        service.shutdown();
+    }
+
+    @Test
+    @DisplayName("Every section is priced from one batch quote call")
+    void build_usesOneBatchQuoteCall() {
+        DashboardResponse dashboard = service.getDashboard(user);
+
+        assertThat(dashboard.isPaper()).isFalse();
+        assertThat(dashboard.summary().totalValue()).isEqualByComparingTo("1800.00");
+        assertThat(dashboard.summary().totalProfitLoss()).isEqualByComparingTo("300.00");
+        // 10 shares * 1.5
+        assertThat(dashboard.dayChange()).isEqualByComparingTo("15.00");
+        assertThat(dashboard.holdings()).singleElement()
+                .satisfies(holding -> assertThat(holding.currentPrice()).isEqualByComparingTo("180.00"));
+        assertThat(dashboard.watchlist()).singleElement()
+                .satisfies(item -> assertThat(item.currentPrice()).isEqualTo(400.0));
+        assertThat(dashboard.activeAlerts()).singleElement()
+                .satisfies(alert -> assertThat(alert.getCurrentPrice()).isEqualByComparingTo("250"));
+        verify(stockService).getStockQuotes(Set.of("AAPL", "MSFT", "TSLA"));
+        verify(stockService, never()).getStockQuote(anyString());
+    }
+
+    @Test
+    @DisplayName("The dashboard is served from cache until evicted")
+    void cached_untilEvicted() {
+        DashboardResponse first = service.getDashboard(user);
+
+        assertThat(service.getDashboard(user)).isSameAs(first);
+        verify(stockService, times(1)).getStockQuotes(any());
+
+        service.evict(user.getId());
+
+        assertThat(service.getDashboard(user)).isNotSameAs(first);
+        verify(stockService, times(2)).getStockQuotes(any());
+    }
+
+    @Test
+    @DisplayName("Switching to paper mode rebuilds the dashboard for the paper book")
+    void paperToggle_rebuilds() {
+        service.getDashboard(user);
+        user.setIsPaperTrading(true);
+
+        DashboardResponse paper = service.getDashboard(user);
+
+        assertThat(paper.isPaper()).isTrue();
+        assertThat(paper.holdings()).isEmpty();
+        verify(holdingRepository).findViewsByUserAndIsPaper(user, true);
+    }
+}
@@ -1,5 +1,6 @@
 package com.sentix.api.forex;
 
+import com.sentix.infrastructure.metrics.SentixMetrics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -22,6 +23,9 @@ class CurrencyConversionServiceTest {
     @Mock
     private ForexService forexService;
 
+    @Mock
+    private SentixMetrics metrics;
+
     @InjectMocks
     private CurrencyConversionService conversionService;
 
@@ -72,6 +76,19 @@ class CurrencyConversionServiceTest {
         verify(forexService, times(1)).convertCurrency("USD", "EUR", 1.0);
     }
 
+    @Test
+    @DisplayName("getRate records one cache miss and then a hit")
+    void getRate_recordsCacheHitAndMiss() {
+        when(forexService.convertCurrency("USD", "EUR", 1.0))
+                .thenReturn(Map.of("rate", 0.92));
+
+        conversionService.getRate("USD", "EUR");
+        conversionService.getRate("USD", "EUR");
+
+        verify(metrics).recordCacheAccess("exchange-rate", false);
+        verify(metrics).recordCacheAccess("exchange-rate", true);
+    }
+
     @Test
     @DisplayName("convert returns original amount when rate lookup fails")
     void convert_rateLookupFails_returnsOriginalAmount() {
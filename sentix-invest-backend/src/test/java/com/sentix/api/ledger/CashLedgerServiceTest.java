@@ -0,0 +1,156 @@
+package com.sentix.api.ledger;
+
+import com.sentix.domain.CashLedgerEntry;
+import com.sentix.domain.LedgerEntryType;
+import com.sentix.domain.User;
+import com.sentix.infrastructure.persistence.CashLedgerRepository;
+import com.sentix.test.InMemoryCashLedger;
+import com.sentix.test.TestDataFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class CashLedgerServiceTest {
+
+    private InMemoryCashLedger ledger;
+    private CashLedgerRepository repository;
+    private CashLedgerService service;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        ledger = new InMemoryCashLedger();
+        repository = ledger.repository();
+        service = ledger.service();
+        user = TestDataFactory.createUser();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("An account without entries starts from the opening balance on the users row")
+    void noEntries_usesOpeningBalance() {
+        assertThat(service.balance(user, false)).isEqualByComparingTo("10000.00");
+        assertThat(service.balance(user, true)).isEqualByComparingTo("100000.00");
+    }
+
+    @Test
+    @DisplayName("Posted entries carry a running balance and consecutive sequence numbers")
+    void append_writesRunningBalance() {
+        CashAccount cash = service.account(user, false);
+        cash.post(LedgerEntryType.DEPOSIT, new BigDecimal("500"), UUID.randomUUID());
+        cash.post(LedgerEntryType.BUY, new BigDecimal("-1800.5"), UUID.randomUUID());
+        service.append(cash);
+
+        assertThat(ledger.entries()).extracting(CashLedgerEntry::getSequence).containsExactly(1L, 2L);
+        assertThat(ledger.entries()).extracting(CashLedgerEntry::getBalanceAfter)
+                .containsExactly(new BigDecimal("10500.0000"), new BigDecimal("8699.5000"));
+        assertThat(service.balance(user, false)).isEqualByComparingTo("8699.50");
+    }
+
+    @Test
+    @DisplayName("Balance reads are served from the cache; accounts opened for posting read the ledger")
+    void balance_isCached() {
+        service.balance(user, false);
+        service.balance(user, false);
+        CashAccount cash = service.account(user, false);
+        cash.post(LedgerEntryType.SELL, new BigDecimal("200"), UUID.randomUUID());
+        service.append(cash);
+        service.balance(user, false);
+
+        verify(repository, times(2)).findTopByUserIdAndIsPaperOrderBySequenceDesc(user.getId(), false);
+    }
+
+    @Test
+    @DisplayName("An account opened for posting starts from entries the cache has not seen")
+    void account_readsPastStaleCache() {
+        assertThat(service.balance(user, false)).isEqualByComparingTo("10000.00");
+        // Appended by another replica
+        repository.saveAll(List.of(CashLedgerEntry.builder()
+                .userId(user.getId())
+                .isPaper(false)
+                .sequence(1L)
+                .type(LedgerEntryType.DEPOSIT)
+                .amount(new BigDecimal("500.0000"))
+                .balanceAfter(new BigDecimal("10500.0000"))
+                .createdAt(LocalDateTime.now())
+                .build()));
+
+        assertThat(service.account(user, false).balance()).isEqualByComparingTo("10500.00");
+        assertThat(service.balance(user, false)).isEqualByComparingTo("10500.00");
+    }
+
+    @Test
+    @DisplayName("The cached position moves only after the transaction commits")
+    void append_inTransaction_advancesOnCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        CashAccount cash = service.account(user, false);
+        cash.post(LedgerEntryType.BUY, new BigDecimal("-100"), UUID.randomUUID());
+        service.append(cash);
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        assertThat(service.balance(user, false)).isEqualByComparingTo("10000.00");
+
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        assertThat(service.balance(user, false)).isEqualByComparingTo("9900.00");
+    }
+
+    @Test
+    @DisplayName("Appending from a stale position hits the sequence constraint")
+    void staleAppend_isSequenceConflict() {
+        CashAccount first = service.account(user, false);
+        CashAccount stale = service.account(user, false);
+        first.post(LedgerEntryType.DEPOSIT, new BigDecimal("100"), UUID.randomUUID());
+        service.append(first);
+        stale.post(LedgerEntryType.DEPOSIT, new BigDecimal("100"), UUID.randomUUID());
+
+        assertThatThrownBy(() -> service.append(stale))
+                .isInstanceOfSatisfying(DataIntegrityViolationException.class,
+                        e -> assertThat(CashLedgerService.isSequenceConflict(e)).isTrue());
+        assertThat(CashLedgerService.isSequenceConflict(
+                new DataIntegrityViolationException("violates uk_cash_ledger_deposit_reference"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Only the deposit reference index marks a duplicate deposit")
+    void isDuplicateDeposit_matchesDepositReferenceOnly() {
+        assertThat(CashLedgerService.isDuplicateDeposit(
+                new DataIntegrityViolationException("violates uk_cash_ledger_deposit_reference"))).isTrue();
+        assertThat(CashLedgerService.isDuplicateDeposit(
+                new DataIntegrityViolationException("violates uk_cash_ledger_account_sequence"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Balance as of a point in time is the last entry at or before it")
+    void balanceAt_usesLastEntryBefore() {
+        LocalDateTime asOf = LocalDateTime.now().minusDays(1);
+        when(repository.findTopByUserIdAndIsPaperAndCreatedAtLessThanEqualOrderByCreatedAtDescSequenceDesc(
+                user.getId(), false, asOf))
+                .thenReturn(Optional.of(CashLedgerEntry.builder().balanceAfter(new BigDecimal("4200.0000")).build()))
+                .thenReturn(Optional.empty());
+
+        assertThat(service.balanceAt(user, false, asOf)).isEqualByComparingTo("4200.00");
+        assertThat(service.balanceAt(user, false, asOf)).isEqualByComparingTo("10000.00");
+    }
+}
@@ -0,0 +1,138 @@
+package com.sentix.api.lots;
+
+import com.sentix.domain.LotDisposal;
+import com.sentix.domain.LotMethod;
+import com.sentix.domain.PortfolioHolding;
+import com.sentix.domain.TaxLot;
+import com.sentix.domain.Transaction;
+import com.sentix.domain.TransactionType;
+import com.sentix.domain.User;
+import com.sentix.test.InMemoryTaxLots;
+import com.sentix.test.TestDataFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+class TaxLotServiceTest {
+
+    private User user;
+    private LocalDateTime start;
+
+    @BeforeEach
+    void setUp() {
+        user = TestDataFactory.createUser();
+        start = LocalDateTime.now().minusYears(2);
+    }
+
+    private Transaction trade(TransactionType type, int quantity, String price, LocalDateTime executedAt) {
+        Transaction transaction = TestDataFactory.createTransaction(
+                user, "AAPL", "Apple Inc.", type, quantity, new BigDecimal(price));
+        transaction.setExecutedAt(executedAt);
+        return transaction;
+    }
+
+    /**
+     * Buys 10 at 100 and then 10 at 150 into a fresh holding.
+     */
+    private void buyTwoLots(TaxLotService service) {
+        LotBook first = service.book(user, false, "AAPL", null);
+        first.open(trade(TransactionType.BUY, 10, "100", start));
+        service.save(first);
+        LotBook second = service.book(user, false, "AAPL", null);
+        second.open(trade(TransactionType.BUY, 10, "150", start.plusMonths(18)));
+        service.save(second);
+    }
+
+    @Test
+    @DisplayName("FIFO closes the oldest lot first and records one disposal per lot")
+    void fifo_closesOldestFirst() {
+        InMemoryTaxLots taxLots = new InMemoryTaxLots(LotMethod.FIFO);
+        TaxLotService service = taxLots.service();
+        buyTwoLots(service);
+
+        LotBook book = service.book(user, false, "AAPL", null);
+        BigDecimal realized = book.close(trade(TransactionType.SELL, 15, "200", start.plusMonths(20)));
+        service.save(book);
+
+        // 10 * (200 - 100) + 5 * (200 - 150)
+        assertThat(realized).isEqualByComparingTo("1250");
+        assertThat(book.quantity()).isEqualTo(5);
+        assertThat(book.averageCost()).isEqualByComparingTo("150");
+        assertThat(taxLots.lots()).singleElement().satisfies(lot -> {
+            assertThat(lot.getRemainingQuantity()).isEqualTo(5);
+            assertThat(lot.getRealizedProfitLoss()).isEqualByComparingTo("250");
+        });
+        assertThat(taxLots.disposals()).extracting(LotDisposal::getQuantity).containsExactly(10, 5);
+        // Held 20 months, then 2 months
+        assertThat(taxLots.disposals()).extracting(disposal -> LotDisposalResponse.from(disposal).longTerm())
+                .containsExactly(true, false);
+    }
+
+    @Test
+    @DisplayName("LIFO closes the newest lot first")
+    void lifo_closesNewestFirst() {
+        InMemoryTaxLots taxLots = new InMemoryTaxLots(LotMethod.LIFO);
+        TaxLotService service = taxLots.service();
+        buyTwoLots(service);
+
+        LotBook book = service.book(user, false, "AAPL", null);
+        BigDecimal realized = book.close(trade(TransactionType.SELL, 15, "200", start.plusMonths(20)));
+        service.save(book);
+
+        // 10 * (200 - 150) + 5 * (200 - 100)
+        assertThat(realized).isEqualByComparingTo("1000");
+        assertThat(book.averageCost()).isEqualByComparingTo("100");
+        assertThat(taxLots.lots()).extracting(TaxLot::getCostPerShare)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("100"));
+    }
+
+    @Test
+    @DisplayName("Shares held without lots are carried over as the oldest lot at the average price")
+    void uncoveredShares_carriedOver() {
+        InMemoryTaxLots taxLots = new InMemoryTaxLots(LotMethod.FIFO);
+        TaxLotService service = taxLots.service();
+        PortfolioHolding holding = TestDataFactory.createHolding(user, "AAPL", "Apple Inc.", 8, new BigDecimal("120.00"));
+
+        LotBook book = service.book(user, false, "AAPL", holding);
+        book.open(trade(TransactionType.BUY, 2, "170", LocalDateTime.now()));
+
+        assertThat(book.quantity()).isEqualTo(10);
+        // (8 * 120 + 2 * 170) / 10
+        assertThat(book.averageCost()).isEqualByComparingTo("130");
+        assertThat(book.close(trade(TransactionType.SELL, 8, "100", LocalDateTime.now())))
+                .isEqualByComparingTo("-160");
+        assertThatThrownBy(() -> book.close(trade(TransactionType.SELL, 3, "100", LocalDateTime.now())))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("Lots are listed with per-lot unrealized and realized P&L from one quote")
+    void getLots_pricesEachLot() {
+        InMemoryTaxLots taxLots = new InMemoryTaxLots(LotMethod.FIFO);
+        TaxLotService service = taxLots.service();
+        buyTwoLots(service);
+        PortfolioHolding holding = TestDataFactory.createHolding(user, "AAPL", "Apple Inc.", 20, new BigDecimal("125.00"));
+        when(taxLots.holdingRepository().findByUserAndSymbolAndIsPaper(user, "AAPL", false))
+                .thenReturn(Optional.of(holding));
+        when(taxLots.stockService().getStockQuote("AAPL"))
+                .thenReturn(TestDataFactory.createStockQuote("AAPL", "Apple Inc.", 130.0));
+
+        List<TaxLotResponse> lots = service.getLots(user, "aapl");
+
+        assertThat(lots).extracting(TaxLotResponse::unrealizedProfitLoss)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("300"), new BigDecimal("-200"));
+        assertThat(lots).extracting(TaxLotResponse::realizedProfitLoss)
+                .allSatisfy(realized -> assertThat(realized).isEqualByComparingTo("0"));
+    }
+}
@@ -0,0 +1,96 @@
+package com.sentix.api.payment;
+
+import com.iyzipay.Options;
+import com.iyzipay.model.CheckoutForm;
+import com.iyzipay.request.RetrieveCheckoutFormRequest;
+import com.sentix.api.dashboard.DashboardService;
+import com.sentix.api.ledger.CashLedgerService;
+import com.sentix.api.trading.AccountLocks;
+import com.sentix.domain.Payment;
+import com.sentix.domain.PaymentStatus;
+import com.sentix.domain.User;
+import com.sentix.infrastructure.outbox.OutboxPublisher;
+import com.sentix.infrastructure.persistence.PaymentRepository;
+import com.sentix.infrastructure.persistence.UserRepository;
+import com.sentix.test.TestDataFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentServiceTest {
+
+    private static final String TOKEN = "checkout-token";
+
+    @Mock private Options iyzipayOptions;
+    @Mock private PaymentRepository paymentRepository;
+    @Mock private UserRepository userRepository;
+    @Mock private CashLedgerService cashLedgerService;
+    @Mock private OutboxPublisher outboxPublisher;
+    @Mock private AccountLocks accountLocks;
+    @Mock private TransactionTemplate transactionTemplate;
+    @Mock private DashboardService dashboardService;
+
+    @InjectMocks
+    private PaymentService paymentService;
+
+    private User user;
+    private Payment payment;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(paymentService, "maxAttempts", 3);
+        user = TestDataFactory.createUser();
+        payment = Payment.builder()
+                .id(UUID.randomUUID())
+                .userId(user.getId())
+                .amount(new BigDecimal("100.00"))
+                .status(PaymentStatus.PENDING)
+                .iyzicoToken(TOKEN)
+                .build();
+    }
+
+    @Test
+    @DisplayName("A callback that loses the deposit to a concurrent callback reports the payment as processed")
+    void handleCallback_concurrentDuplicateDeposit_returnsSuccess() {
+        CheckoutForm form = new CheckoutForm();
+        form.setStatus("success");
+        form.setPaymentStatus("SUCCESS");
+        form.setPaymentId("iyzico-payment-1");
+        when(paymentRepository.findByIyzicoToken(TOKEN)).thenReturn(Optional.of(payment));
+        when(accountLocks.withLock(eq(user.getId()), any())).thenThrow(new DataIntegrityViolationException(
+                "duplicate key value violates unique constraint \"uk_cash_ledger_deposit_reference\""));
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(cashLedgerService.balance(user, false)).thenReturn(new BigDecimal("10100.00"));
+
+        PaymentCallbackResult result;
+        try (MockedStatic<CheckoutForm> checkoutForm = mockStatic(CheckoutForm.class)) {
+            checkoutForm.when(() -> CheckoutForm.retrieve(any(RetrieveCheckoutFormRequest.class), eq(iyzipayOptions)))
+                    .thenReturn(form);
+            result = paymentService.handleCallback(TOKEN);
+        }
+
+        assertThat(result.isSuccess()).isTrue();
+        assertThat(result.getNewBalance()).isEqualByComparingTo("10100.00");
+        verify(accountLocks, times(1)).withLock(eq(user.getId()), any());
+        verify(cashLedgerService).evict(user.getId());
+        verifyNoInteractions(outboxPublisher, dashboardService);
+    }
+}
@@ -0,0 +1,42 @@
+package com.sentix.api.portfolio;
+
+import com.sentix.api.dashboard.DashboardService;
+import com.sentix.api.trading.TradeExecutedEvent;
+import com.sentix.domain.User;
+import com.sentix.infrastructure.persistence.UserRepository;
+import com.sentix.test.TestDataFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PortfolioSnapshotConsumerTest {
+
+    @Mock private PortfolioSnapshotService portfolioSnapshotService;
+    @Mock private UserRepository userRepository;
+    @Mock private DashboardService dashboardService;
+
+    @InjectMocks
+    private PortfolioSnapshotConsumer consumer;
+
+    @Test
+    @DisplayName("The dashboard is evicted after the snapshot is written")
+    void handle_evictsDashboardAfterSnapshot() {
+        User user = TestDataFactory.createUser();
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+
+        consumer.handle(new TradeExecutedEvent(user.getId(), true));
+
+        InOrder inOrder = inOrder(portfolioSnapshotService, dashboardService);
+        inOrder.verify(portfolioSnapshotService).takeSnapshotForUser(user, true);
+        inOrder.verify(dashboardService).evict(user.getId());
+    }
+}
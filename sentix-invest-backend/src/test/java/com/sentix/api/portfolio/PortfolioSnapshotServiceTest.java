@@ -1,13 +1,17 @@
 package com.sentix.api.portfolio;
 
+import com.sentix.api.ledger.CashLedgerService;
 import com.sentix.api.stock.StockQuoteDto;
 import com.sentix.api.stock.StockService;
 import com.sentix.domain.PortfolioHolding;
 import com.sentix.domain.PortfolioSnapshot;
 import com.sentix.domain.User;
+import com.sentix.infrastructure.metrics.SentixMetrics;
 import com.sentix.infrastructure.persistence.PortfolioHoldingRepository;
 import com.sentix.infrastructure.persistence.PortfolioSnapshotRepository;
+import com.sentix.infrastructure.persistence.SnapshotValueView;
 import com.sentix.infrastructure.persistence.UserRepository;
+import com.sentix.test.InMemoryCashLedger;
 import com.sentix.test.TestDataFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -16,12 +20,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
-import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.*;
@@ -34,6 +39,8 @@ class PortfolioSnapshotServiceTest {
     @Mock private PortfolioHoldingRepository holdingRepository;
     @Mock private UserRepository userRepository;
     @Mock private StockService stockService;
+    @Mock private SentixMetrics metrics;
+    @Spy private CashLedgerService cashLedgerService = new InMemoryCashLedger().service();
 
     @InjectMocks
     private PortfolioSnapshotService snapshotService;
@@ -43,80 +50,43 @@ class PortfolioSnapshotServiceTest {
     @BeforeEach
     void setUp() {
         testUser = TestDataFactory.createUser();
+        ReflectionTestUtils.setField(snapshotService, "batchSize", 500);
     }
 
     @Test
-    @DisplayName("takeSnapshotForUser creates a new snapshot with correct values")
-    void takeSnapshotForUser_createsNewSnapshot() {
+    @DisplayName("takeSnapshotForUser upserts one snapshot with correct values, no select first")
+    void takeSnapshotForUser_upsertsSnapshot() {
         PortfolioHolding holding = TestDataFactory.createHolding(
                 testUser, "AAPL", "Apple Inc.", 10, new BigDecimal("150.00"), false);
 
         when(holdingRepository.findByUserAndIsPaper(testUser, false)).thenReturn(List.of(holding));
         when(stockService.getStockQuote("AAPL")).thenReturn(
                 TestDataFactory.createStockQuote("AAPL", "Apple Inc.", 180.0));
-        when(snapshotRepository.findByUserAndSnapshotDateAndIsPaper(eq(testUser), any(LocalDate.class), eq(false)))
-                .thenReturn(Optional.empty());
-        when(snapshotRepository.save(any(PortfolioSnapshot.class))).thenAnswer(i -> i.getArgument(0));
 
         snapshotService.takeSnapshotForUser(testUser, false);
 
-        ArgumentCaptor<PortfolioSnapshot> captor = ArgumentCaptor.forClass(PortfolioSnapshot.class);
-        verify(snapshotRepository).save(captor.capture());
-
-        PortfolioSnapshot saved = captor.getValue();
+        PortfolioSnapshot saved = singleUpsert().get(0);
         // 180 * 10 = 1800
         assertThat(saved.getTotalValue()).isEqualByComparingTo(new BigDecimal("1800"));
         // 150 * 10 = 1500
         assertThat(saved.getTotalCostBasis()).isEqualByComparingTo(new BigDecimal("1500"));
         assertThat(saved.getHoldingsCount()).isEqualTo(1);
         assertThat(saved.getIsPaper()).isFalse();
-    }
-
-    @Test
-    @DisplayName("takeSnapshotForUser updates existing snapshot for same day")
-    void takeSnapshotForUser_updatesExistingSnapshot() {
-        PortfolioHolding holding = TestDataFactory.createHolding(
-                testUser, "AAPL", "Apple Inc.", 10, new BigDecimal("150.00"), false);
-
-        PortfolioSnapshot existingSnapshot = PortfolioSnapshot.builder()
-                .user(testUser)
-                .snapshotDate(LocalDate.now())
-                .totalValue(new BigDecimal("1700.0000"))
-                .totalCostBasis(new BigDecimal("1500.0000"))
-                .cashBalance(new BigDecimal("10000.00"))
-                .holdingsCount(1)
-                .isPaper(false)
-                .build();
-
-        when(holdingRepository.findByUserAndIsPaper(testUser, false)).thenReturn(List.of(holding));
-        when(stockService.getStockQuote("AAPL")).thenReturn(
-                TestDataFactory.createStockQuote("AAPL", "Apple Inc.", 185.0));
-        when(snapshotRepository.findByUserAndSnapshotDateAndIsPaper(eq(testUser), any(LocalDate.class), eq(false)))
-                .thenReturn(Optional.of(existingSnapshot));
-        when(snapshotRepository.save(any(PortfolioSnapshot.class))).thenAnswer(i -> i.getArgument(0));
-
-        snapshotService.takeSnapshotForUser(testUser, false);
-
-        verify(snapshotRepository).save(existingSnapshot);
-        // Updated value: 185 * 10 = 1850
-        assertThat(existingSnapshot.getTotalValue()).isEqualByComparingTo(new BigDecimal("1850"));
+        assertThat(saved.getSnapshotDate()).isEqualTo(LocalDate.now());
+        verify(snapshotRepository, never()).save(any());
     }
 
     @Test
     @DisplayName("takeSnapshotForUser records zero snapshot when no holdings")
     void takeSnapshotForUser_noHoldings_recordsZeroSnapshot() {
         when(holdingRepository.findByUserAndIsPaper(testUser, false)).thenReturn(List.of());
-        when(snapshotRepository.findByUserAndSnapshotDateAndIsPaper(eq(testUser), any(LocalDate.class), eq(false)))
-                .thenReturn(Optional.empty());
-        when(snapshotRepository.save(any(PortfolioSnapshot.class))).thenAnswer(i -> i.getArgument(0));
 
         snapshotService.takeSnapshotForUser(testUser, false);
 
-        ArgumentCaptor<PortfolioSnapshot> captor = ArgumentCaptor.forClass(PortfolioSnapshot.class);
-        verify(snapshotRepository).save(captor.capture());
-
-        assertThat(captor.getValue().getTotalValue()).isEqualByComparingTo(BigDecimal.ZERO);
-        assertThat(captor.getValue().getHoldingsCount()).isEqualTo(0);
+        PortfolioSnapshot saved = singleUpsert().get(0);
+        assertThat(saved.getTotalValue()).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(saved.getHoldingsCount()).isEqualTo(0);
+        assertThat(saved.getCashBalance()).isEqualByComparingTo(testUser.getBalance());
     }
 
     @Test
@@ -128,20 +98,49 @@ class PortfolioSnapshotServiceTest {
                 testUser, "TSLA", "Tesla Inc.", 10, new BigDecimal("200.00"), true);
 
         when(userRepository.findAll()).thenReturn(List.of(testUser));
-        when(holdingRepository.findByUserAndIsPaper(testUser, false)).thenReturn(List.of(realHolding));
-        when(holdingRepository.findByUserAndIsPaper(testUser, true)).thenReturn(List.of(paperHolding));
+        when(holdingRepository.findByUser(testUser)).thenReturn(List.of(realHolding, paperHolding));
         when(stockService.getStockQuote("AAPL")).thenReturn(
                 TestDataFactory.createStockQuote("AAPL", "Apple Inc.", 180.0));
         when(stockService.getStockQuote("TSLA")).thenReturn(
                 TestDataFactory.createStockQuote("TSLA", "Tesla Inc.", 250.0));
-        when(snapshotRepository.findByUserAndSnapshotDateAndIsPaper(eq(testUser), any(LocalDate.class), anyBoolean()))
-                .thenReturn(Optional.empty());
-        when(snapshotRepository.save(any(PortfolioSnapshot.class))).thenAnswer(i -> i.getArgument(0));
 
         snapshotService.takeNightlySnapshots();
 
-        // 2 snapshots: 1 real + 1 paper
-        verify(snapshotRepository, times(2)).save(any(PortfolioSnapshot.class));
+        // 2 snapshots in one upsert: 1 real + 1 paper
+        List<PortfolioSnapshot> saved = singleUpsert();
+        assertThat(saved).extracting(PortfolioSnapshot::getIsPaper).containsExactly(false, true);
+        assertThat(saved.get(1).getTotalValue()).isEqualByComparingTo(new BigDecimal("2500"));
+        verify(holdingRepository, never()).findByUserAndIsPaper(any(), anyBoolean());
+    }
+
+    @Test
+    @DisplayName("takeNightlySnapshots writes one upsert batch per chunk, one holdings query per user")
+    void takeNightlySnapshots_batchesByChunk() {
+        ReflectionTestUtils.setField(snapshotService, "batchSize", 2);
+        List<User> users = List.of(
+                TestDataFactory.createUser("a@example.com", "A"),
+                TestDataFactory.createUser("b@example.com", "B"),
+                TestDataFactory.createUser("c@example.com", "C"));
+        when(userRepository.findAll()).thenReturn(users);
+        for (User user : users) {
+            when(holdingRepository.findByUser(user)).thenReturn(List.of(TestDataFactory.createHolding(
+                    user, "AAPL", "Apple Inc.", 1, new BigDecimal("150.00"), false)));
+        }
+        when(stockService.getStockQuote("AAPL")).thenReturn(
+                TestDataFactory.createStockQuote("AAPL", "Apple Inc.", 180.0));
+
+        snapshotService.takeNightlySnapshots();
+
+        ArgumentCaptor<List<PortfolioSnapshot>> captor = ArgumentCaptor.captor();
+        verify(snapshotRepository, times(2)).upsertAll(captor.capture());
+        assertThat(captor.getAllValues()).extracting(List::size).containsExactly(2, 1);
+        verify(holdingRepository, times(3)).findByUser(any());
+    }
+
+    private List<PortfolioSnapshot> singleUpsert() {
+        ArgumentCaptor<List<PortfolioSnapshot>> captor = ArgumentCaptor.captor();
+        verify(snapshotRepository).upsertAll(captor.capture());
+        return captor.getValue();
     }
 
     @Test
@@ -149,17 +148,11 @@ class PortfolioSnapshotServiceTest {
     void getPerformanceHistory_returnsCorrectDataPoints() {
         LocalDate today = LocalDate.now();
 
-        PortfolioSnapshot snap1 = PortfolioSnapshot.builder()
-                .user(testUser).snapshotDate(today.minusDays(2))
-                .totalValue(new BigDecimal("1000.0000")).isPaper(false).build();
-        PortfolioSnapshot snap2 = PortfolioSnapshot.builder()
-                .user(testUser).snapshotDate(today.minusDays(1))
-                .totalValue(new BigDecimal("1100.0000")).isPaper(false).build();
-        PortfolioSnapshot snap3 = PortfolioSnapshot.builder()
-                .user(testUser).snapshotDate(today)
-                .totalValue(new BigDecimal("1050.0000")).isPaper(false).build();
-
-        when(snapshotRepository.findByUserAndIsPaperAndSnapshotDateBetweenOrderBySnapshotDateAsc(
+        SnapshotValueView snap1 = new SnapshotValueView(today.minusDays(2), new BigDecimal("1000.0000"));
+        SnapshotValueView snap2 = new SnapshotValueView(today.minusDays(1), new BigDecimal("1100.0000"));
+        SnapshotValueView snap3 = new SnapshotValueView(today, new BigDecimal("1050.0000"));
+
+        when(snapshotRepository.findValuesByUserAndIsPaperBetween(
                 eq(testUser), eq(false), any(LocalDate.class), any(LocalDate.class)))
                 .thenReturn(List.of(snap1, snap2, snap3));
 
@@ -182,7 +175,7 @@ class PortfolioSnapshotServiceTest {
     @Test
     @DisplayName("getPerformanceHistory returns empty list when no snapshots")
     void getPerformanceHistory_noSnapshots_returnsEmpty() {
-        when(snapshotRepository.findByUserAndIsPaperAndSnapshotDateBetweenOrderBySnapshotDateAsc(
+        when(snapshotRepository.findValuesByUserAndIsPaperBetween(
                 eq(testUser), eq(false), any(LocalDate.class), any(LocalDate.class)))
                 .thenReturn(List.of());
 
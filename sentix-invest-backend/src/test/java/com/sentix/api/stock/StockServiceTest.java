@@ -0,0 +1,95 @@
+package com.sentix.api.stock;
+
+import com.sentix.infrastructure.mcp.McpClient;
+import com.sentix.infrastructure.metrics.SentixMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class StockServiceTest {
+
+    private StockService service;
+    private final Set<String> down = new HashSet<>();
+
+    @BeforeEach
+    void setUp() {
+        service = spy(new StockService(mock(McpClient.class), new SentixMetrics(new SimpleMeterRegistry())));
+        ReflectionTestUtils.setField(service, "recentQuotesSize", 1000L);
+        ReflectionTestUtils.setField(service, "recentQuotesTtlMs", 60000L);
+        ReflectionTestUtils.setField(service, "lastGoodQuotesSize", 1000L);
+        ReflectionTestUtils.setField(service, "maxStalenessMs", 60000L);
+        service.init();
+
+        // Answer every batch with a quote per requested symbol, failing batches that name a symbol marked down
+        doAnswer(invocation -> {
+            String joined = invocation.getArgument(0);
+            if (joined.startsWith("FAIL") || Arrays.stream(joined.split(",")).anyMatch(down::contains)) {
+                throw new IllegalStateException("upstream down");
+            }
+            return Map.of("quotes", Arrays.stream(joined.split(","))
+                    .map(symbol -> Map.<String, Object>of("symbol", symbol, "price", 10.0))
+                    .toList());
+        }).when(service).requestQuotes(anyString());
+    }
+
+    private static List<String> symbols(String prefix, int count) {
+        return IntStream.range(0, count).mapToObj(i -> prefix + String.format("%03d", i)).toList();
+    }
+
+    @Test
+    @DisplayName("Large symbol lists are fetched in batches of at most MAX_BATCH_SYMBOLS and merged")
+    void getStockQuotes_chunksLargeLists() {
+        Map<String, StockQuoteDto> quotes = service.getStockQuotes(symbols("S", 450));
+
+        ArgumentCaptor<String> batches = ArgumentCaptor.forClass(String.class);
+        verify(service, times(3)).requestQuotes(batches.capture());
+        assertThat(batches.getAllValues())
+                .allSatisfy(key -> assertThat(key.split(",")).hasSizeLessThanOrEqualTo(StockService.MAX_BATCH_SYMBOLS));
+        assertThat(quotes).hasSize(450).containsKeys("S000", "S449");
+    }
+
+    @Test
+    @DisplayName("A failed batch drops only its own symbols")
+    void getStockQuotes_failedBatchKeepsOthers() {
+        List<String> symbols = new ArrayList<>(symbols("FAIL", 200));
+        symbols.addAll(symbols("OK", 50));
+
+        Map<String, StockQuoteDto> quotes = service.getStockQuotes(symbols);
+
+        assertThat(quotes).hasSize(50).containsKey("OK000").doesNotContainKey("FAIL000");
+    }
+
+    @Test
+    @DisplayName("A failed batch is rebuilt stale from the last good quote of each symbol")
+    void getStockQuotes_failedBatchServesLastGoodPerSymbol() {
+        service.getStockQuotes(List.of("AAPL", "MSFT"));
+        service.getStockQuotes(List.of("TSLA"));
+        down.add("NVDA");
+
+        // A symbol set never requested together before, with one symbol never quoted
+        Map<String, StockQuoteDto> quotes = service.getStockQuotes(List.of("AAPL", "TSLA", "NVDA"));
+
+        assertThat(quotes).containsOnlyKeys("AAPL", "TSLA");
+        assertThat(quotes.values()).allSatisfy(quote -> {
+            assertThat(quote.isStale()).isTrue();
+            assertThat(quote.getPrice()).isEqualTo(10.0);
+        });
+        assertThat(service.getRecentQuote("AAPL", Duration.ofMinutes(1)).isStale()).isFalse();
+    }
+}
@@ -0,0 +1,174 @@
+package com.sentix.api.trading;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Stress tests for the per-account trade locks: no lost updates on one account,
+ * and throughput that scales with the number of distinct accounts.
+ */
+class AccountLocksTest {
+
+    private static final int THREADS = 8;
+
+    private AccountLocks accountLocks;
+
+    @BeforeEach
+    void setUp() {
+        accountLocks = newLocks(5000);
+    }
+
+    private static AccountLocks newLocks(long timeoutMs) {
+        AccountLocks locks = new AccountLocks();
+        ReflectionTestUtils.setField(locks, "stripes", 256);
+        ReflectionTestUtils.setField(locks, "timeoutMs", timeoutMs);
+        locks.init();
+        return locks;
+    }
+
+    @Test
+    @DisplayName("Read-modify-write on one account from many threads loses no updates")
+    void sameAccount_noLostUpdates() throws Exception {
+        UUID account = UUID.randomUUID();
+        long[] balance = {0};
+        int perThread = 2000;
+
+        runConcurrently(THREADS, t -> {
+            for (int i = 0; i < perThread; i++) {
+                accountLocks.withLock(account, () -> {
+                    long read = balance[0];
+                    Thread.yield();
+                    balance[0] = read + 1;
+                    return null;
+                });
+            }
+        });
+
+        assertThat(balance[0]).isEqualTo((long) THREADS * perThread);
+    }
+
+    @Test
+    @DisplayName("Trades on distinct accounts run in parallel, trades on one account do not")
+    void distinctAccounts_scaleThroughput() throws Exception {
+        UUID single = UUID.randomUUID();
+        List<UUID> distinct = distinctStripeAccounts(THREADS);
+        int tradesPerThread = 10;
+
+        long serialNanos = runConcurrently(THREADS, t -> {
+            for (int i = 0; i < tradesPerThread; i++) {
+                accountLocks.withLock(single, AccountLocksTest::simulatedTrade);
+            }
+        });
+        long parallelNanos = runConcurrently(THREADS, t -> {
+            for (int i = 0; i < tradesPerThread; i++) {
+                accountLocks.withLock(distinct.get(t), AccountLocksTest::simulatedTrade);
+            }
+        });
+
+        // 80 trades of 5ms each: ~400ms serialized on one account, ~50ms across eight
+        assertThat(parallelNanos).isLessThan(serialNanos / 2);
+    }
+
+    @Test
+    @DisplayName("A lock held past the timeout fails the waiting trade")
+    void heldLock_timesOut() throws Exception {
+        AccountLocks locks = newLocks(50);
+        UUID account = UUID.randomUUID();
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService holder = Executors.newSingleThreadExecutor();
+        try {
+            holder.submit(() -> locks.withLock(account, () -> {
+                held.countDown();
+                try {
+                    return release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            }));
+            held.await(5, TimeUnit.SECONDS);
+
+            assertThatThrownBy(() -> locks.withLock(account, () -> "never"))
+                    .isInstanceOf(CannotAcquireLockException.class);
+        } finally {
+            release.countDown();
+            holder.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Stripe index is stable and within bounds")
+    void stripeOf_stableAndBounded() {
+        for (int i = 0; i < 1000; i++) {
+            UUID id = UUID.randomUUID();
+            assertThat(accountLocks.stripeOf(id)).isBetween(0, 255).isEqualTo(accountLocks.stripeOf(id));
+        }
+    }
+
+    private List<UUID> distinctStripeAccounts(int count) {
+        List<UUID> accounts = new ArrayList<>();
+        Set<Integer> stripes = new HashSet<>();
+        while (accounts.size() < count) {
+            UUID id = UUID.randomUUID();
+            if (stripes.add(accountLocks.stripeOf(id))) {
+                accounts.add(id);
+            }
+        }
+        return accounts;
+    }
+
+    private static Object simulatedTrade() {
+        try {
+            Thread.sleep(5);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+
+    private interface Worker {
+        void run(int thread) throws Exception;
+    }
+
+    private static long runConcurrently(int threads, Worker worker) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    worker.run(thread);
+                    return null;
+                }));
+            }
+            long started = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+            return System.nanoTime() - started;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.sentix.api.trading;
+
+import com.sentix.api.dashboard.DashboardService;
+import com.sentix.api.stock.StockQuoteDto;
+import com.sentix.api.stock.StockService;
+import com.sentix.domain.TransactionType;
+import com.sentix.domain.User;
+import com.sentix.infrastructure.outbox.OutboxPublisher;
+import com.sentix.infrastructure.persistence.PortfolioHoldingRepository;
+import com.sentix.infrastructure.persistence.TradeOrderRepository;
+import com.sentix.infrastructure.persistence.TransactionRepository;
+import com.sentix.infrastructure.persistence.UserRepository;
+import com.sentix.test.InMemoryCashLedger;
+import com.sentix.test.InMemoryTaxLots;
+import com.sentix.test.TestDataFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * A rebalance of N buys submitted as N market orders against one batch. The
+ * collaborators are mocks that charge a fixed latency for each round trip a trade
+ * makes: a quote call and a transaction commit. The sequential path pays both per
+ * order; the batch pays each once.
+ * Run with:
+ * {@code mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ * -Dexec.args="-cp %classpath com.sentix.api.trading.BatchTradeBenchmark"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class BatchTradeBenchmark {
+
+    private static final long QUOTE_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+    private static final long COMMIT_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Param({"10", "30"})
+    private int legs;
+
+    private User user;
+    private TradingService tradingService;
+    private List<BuyRequest> orders;
+    private BatchTradeRequest batch;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        user = TestDataFactory.createUser();
+        user.setBalance(new BigDecimal("1000000000.00"));
+        List<String> symbols = IntStream.range(0, legs).mapToObj(i -> "SYM" + i).toList();
+        Map<String, StockQuoteDto> quotes = symbols.stream().collect(Collectors.toMap(Function.identity(),
+                symbol -> TestDataFactory.createStockQuote(symbol, "Company " + symbol, 100.0)));
+
+        StockService stockService = mock(StockService.class);
+        when(stockService.getStockQuote(anyString())).thenAnswer(i -> {
+            LockSupport.parkNanos(QUOTE_NANOS);
+            return quotes.get(i.<String>getArgument(0));
+        });
+        when(stockService.getStockQuotes(anyCollection())).thenAnswer(i -> {
+            LockSupport.parkNanos(QUOTE_NANOS);
+            return i.<Collection<String>>getArgument(0).stream()
+                    .collect(Collectors.toMap(Function.identity(), quotes::get, (a, b) -> a));
+        });
+
+        PortfolioHoldingRepository holdingRepository = mock(PortfolioHoldingRepository.class);
+        when(holdingRepository.findByUserAndSymbolAndIsPaper(any(), anyString(), anyBoolean()))
+                .thenReturn(Optional.empty());
+        when(holdingRepository.findByUserAndIsPaper(any(), anyBoolean())).thenReturn(List.of());
+        TransactionRepository transactionRepository = mock(TransactionRepository.class);
+        when(transactionRepository.save(any())).thenAnswer(i -> i.getArgument(0));
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+
+        AccountLocks accountLocks = mock(AccountLocks.class);
+        when(accountLocks.withLock(any(), any())).thenAnswer(i -> i.<Supplier<?>>getArgument(1).get());
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(i -> {
+            Object result = i.<TransactionCallback<?>>getArgument(0).doInTransaction(null);
+            LockSupport.parkNanos(COMMIT_NANOS);
+            return result;
+        });
+
+        tradingService = new TradingService(stockService, holdingRepository, transactionRepository,
+                mock(TradeOrderRepository.class), userRepository, mock(OutboxPublisher.class), new InMemoryCashLedger().service(),
+                new InMemoryTaxLots().service(), mock(DashboardService.class), accountLocks, transactionTemplate);
+        ReflectionTestUtils.setField(tradingService, "maxAttempts", 3);
+        ReflectionTestUtils.setField(tradingService, "defaultBatchMode",
+                BatchTradeRequest.FailureMode.ALL_OR_NOTHING);
+
+        orders = symbols.stream().map(symbol -> new BuyRequest(symbol, 1)).toList();
+        batch = new BatchTradeRequest(symbols.stream()
+                .map(symbol -> new BatchTradeRequest.Leg(TransactionType.BUY, symbol, 1))
+                .toList(), null);
+    }
+
+    @Benchmark
+    public int sequentialOrders() {
+        int executed = 0;
+        for (BuyRequest order : orders) {
+            if (tradingService.buyStock(user, order).success()) {
+                executed++;
+            }
+        }
+        return executed;
+    }
+
+    @Benchmark
+    public int batch() {
+        return tradingService.executeBatch(user, batch).executedLegs();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(BatchTradeBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
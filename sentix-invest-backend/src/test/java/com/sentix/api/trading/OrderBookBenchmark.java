@@ -0,0 +1,100 @@
+package com.sentix.api.trading;
+
+import com.sentix.domain.OrderType;
+import com.sentix.domain.TransactionType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-threaded order evaluations per second against one symbol's book. The price
+ * random-walks around 100.00 while limit and stop orders rest on both sides within
+ * a few percent of it, so most ticks cross nothing and some cross a level or two.
+ * Filled orders are placed again at a fresh price to keep the book at its size.
+ * Run with:
+ * {@code mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ * -Dexec.args="-cp %classpath com.sentix.api.trading.OrderBookBenchmark"}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Threads(1)
+@Fork(1)
+public class OrderBookBenchmark {
+
+    private static final long MID = OrderBook.toTicks(100.0);
+    // 5% either side of the mid price
+    private static final long SPREAD = MID / 20;
+
+    @Param({"1000", "100000"})
+    private int restingOrders;
+
+    private OrderBook book;
+    private SplittableRandom random;
+    private long price;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        book = new OrderBook();
+        random = new SplittableRandom(42);
+        price = MID;
+        for (int i = 0; i < restingOrders; i++) {
+            book.add(randomOrder());
+        }
+    }
+
+    private OrderBook.RestingOrder randomOrder() {
+        TransactionType side = random.nextBoolean() ? TransactionType.BUY : TransactionType.SELL;
+        OrderType type = switch (random.nextInt(3)) {
+            case 0 -> OrderType.LIMIT;
+            case 1 -> OrderType.STOP;
+            default -> OrderType.STOP_LIMIT;
+        };
+        long offset = 100 + random.nextLong(SPREAD);
+        // Place each order on the side of the current price where it rests rather than crosses
+        boolean restsBelow = (side == TransactionType.BUY) == (type == OrderType.LIMIT);
+        long level = restsBelow ? price - offset : price + offset;
+        long limit = type == OrderType.STOP ? 0 : level;
+        long stop = type == OrderType.LIMIT ? 0 : level;
+        if (type == OrderType.STOP_LIMIT) {
+            limit = side == TransactionType.BUY ? stop + 500 : stop - 500;
+        }
+        return new OrderBook.RestingOrder(UUID.randomUUID(), side, type, limit, stop, false);
+    }
+
+    @Benchmark
+    public int evaluateTick() {
+        // Random walk in steps of up to 5 cents, pulled back towards the mid price
+        price += random.nextLong(-500, 501) + (MID - price) / 1000;
+        OrderBook.Crossing crossing = book.onPrice(price);
+        for (int i = 0; i < crossing.fills().size(); i++) {
+            book.add(randomOrder());
+        }
+        return crossing.fills().size();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(OrderBookBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,138 @@
+package com.sentix.api.trading;
+
+import com.sentix.domain.OrderType;
+import com.sentix.domain.TransactionType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderBookTest {
+
+    private OrderBook book;
+
+    @BeforeEach
+    void setUp() {
+        book = new OrderBook();
+    }
+
+    private static OrderBook.RestingOrder order(TransactionType side, OrderType type, String limit, String stop) {
+        return new OrderBook.RestingOrder(UUID.randomUUID(), side, type,
+                limit != null ? OrderBook.toTicks(new BigDecimal(limit)) : 0,
+                stop != null ? OrderBook.toTicks(new BigDecimal(stop)) : 0,
+                false);
+    }
+
+    private OrderBook.Crossing tick(double price) {
+        return book.onPrice(OrderBook.toTicks(price));
+    }
+
+    @Test
+    @DisplayName("Buy limits fill at or below the limit, sell limits at or above")
+    void limits_fillWhenPriceReachesThem() {
+        OrderBook.RestingOrder buy = order(TransactionType.BUY, OrderType.LIMIT, "100.00", null);
+        OrderBook.RestingOrder sell = order(TransactionType.SELL, OrderType.LIMIT, "110.00", null);
+        book.add(buy);
+        book.add(sell);
+
+        assertThat(tick(105.0).isEmpty()).isTrue();
+        assertThat(tick(100.0).fills()).containsExactly(buy);
+        assertThat(tick(110.5).fills()).containsExactly(sell);
+        assertThat(book.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("A tick fills every crossed level and leaves the rest")
+    void tick_fillsAllCrossedLevels() {
+        OrderBook.RestingOrder at99 = order(TransactionType.BUY, OrderType.LIMIT, "99.00", null);
+        OrderBook.RestingOrder at98 = order(TransactionType.BUY, OrderType.LIMIT, "98.00", null);
+        OrderBook.RestingOrder at90 = order(TransactionType.BUY, OrderType.LIMIT, "90.00", null);
+        book.add(at99);
+        book.add(at98);
+        book.add(at90);
+
+        assertThat(tick(97.5).fills()).containsExactlyInAnyOrder(at99, at98);
+        assertThat(book.contains(at90.id())).isTrue();
+        assertThat(book.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Orders at one level fill in arrival order")
+    void sameLevel_arrivalOrder() {
+        OrderBook.RestingOrder first = order(TransactionType.SELL, OrderType.LIMIT, "50.00", null);
+        OrderBook.RestingOrder second = order(TransactionType.SELL, OrderType.LIMIT, "50.00", null);
+        book.add(first);
+        book.add(second);
+
+        assertThat(tick(50.0).fills()).containsExactly(first, second);
+    }
+
+    @Test
+    @DisplayName("Stops trigger through their price and fill at market")
+    void stops_fillAtMarketOnceTriggered() {
+        OrderBook.RestingOrder buyStop = order(TransactionType.BUY, OrderType.STOP, null, "120.00");
+        OrderBook.RestingOrder sellStop = order(TransactionType.SELL, OrderType.STOP, null, "80.00");
+        book.add(buyStop);
+        book.add(sellStop);
+
+        assertThat(tick(100.0).isEmpty()).isTrue();
+        assertThat(tick(121.0).fills()).containsExactly(buyStop);
+        assertThat(tick(79.0).fills()).containsExactly(sellStop);
+    }
+
+    @Test
+    @DisplayName("A triggered stop-limit rests as a limit until its limit is reached")
+    void stopLimit_restsAsLimitAfterTrigger() {
+        OrderBook.RestingOrder stopLimit = order(TransactionType.SELL, OrderType.STOP_LIMIT, "95.00", "90.00");
+        book.add(stopLimit);
+
+        OrderBook.Crossing triggered = tick(89.0);
+        assertThat(triggered.triggered()).extracting(OrderBook.RestingOrder::id).containsExactly(stopLimit.id());
+        assertThat(triggered.fills()).isEmpty();
+        assertThat(book.contains(stopLimit.id())).isTrue();
+
+        OrderBook.Crossing filled = tick(96.0);
+        assertThat(filled.fills()).extracting(OrderBook.RestingOrder::id).containsExactly(stopLimit.id());
+        assertThat(filled.fills().get(0).triggered()).isTrue();
+    }
+
+    @Test
+    @DisplayName("A stop-limit whose limit is already crossed fills on the trigger tick")
+    void stopLimit_triggerAndFillSameTick() {
+        OrderBook.RestingOrder stopLimit = order(TransactionType.BUY, OrderType.STOP_LIMIT, "106.00", "105.00");
+        book.add(stopLimit);
+
+        OrderBook.Crossing crossing = tick(105.5);
+
+        assertThat(crossing.triggered()).hasSize(1);
+        assertThat(crossing.fills()).extracting(OrderBook.RestingOrder::id).containsExactly(stopLimit.id());
+        assertThat(book.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Removing and re-adding an order restores it to its level")
+    void removeAndRestore() {
+        OrderBook.RestingOrder buy = order(TransactionType.BUY, OrderType.LIMIT, "10.00", null);
+        book.add(buy);
+
+        assertThat(book.remove(buy.id())).isTrue();
+        assertThat(tick(9.0).isEmpty()).isTrue();
+
+        book.add(buy);
+        book.add(buy);
+        assertThat(book.size()).isEqualTo(1);
+        assertThat(tick(9.0).fills()).containsExactly(buy);
+    }
+
+    @Test
+    @DisplayName("Prices convert to ticks at the column scale")
+    void toTicks() {
+        assertThat(OrderBook.toTicks(new BigDecimal("189.5"))).isEqualTo(1_895_000L);
+        assertThat(OrderBook.toTicks(189.5)).isEqualTo(1_895_000L);
+        assertThat(OrderBook.toTicks(0.1 + 0.2)).isEqualTo(OrderBook.toTicks(new BigDecimal("0.3")));
+    }
+}
@@ -0,0 +1,145 @@
+package com.sentix.api.trading;
+
+import com.sentix.api.stock.StockQuoteDto;
+import com.sentix.api.stock.StockService;
+import com.sentix.domain.OrderStatus;
+import com.sentix.domain.OrderType;
+import com.sentix.domain.TradeOrder;
+import com.sentix.domain.TransactionType;
+import com.sentix.domain.User;
+import com.sentix.infrastructure.cluster.ShardLeaseManager;
+import com.sentix.infrastructure.metrics.SentixMetrics;
+import com.sentix.infrastructure.persistence.TradeOrderRepository;
+import com.sentix.test.TestDataFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderMatchingSchedulerTest {
+
+    private static final int SHARD_COUNT = 16;
+
+    @Mock private TradeOrderRepository tradeOrderRepository;
+    @Mock private StockService stockService;
+    @Mock private TradingService tradingService;
+    @Mock private ShardLeaseManager shardLeaseManager;
+    @Mock private SentixMetrics metrics;
+
+    private OrderBooks orderBooks;
+    private OrderMatchingScheduler scheduler;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        orderBooks = new OrderBooks(tradeOrderRepository);
+        ReflectionTestUtils.setField(orderBooks, "syncOverlapMs", 10000L);
+        orderBooks.rebuild();
+
+        scheduler = new OrderMatchingScheduler(orderBooks, tradeOrderRepository, stockService, tradingService,
+                shardLeaseManager, metrics);
+        ReflectionTestUtils.setField(scheduler, "shardCount", SHARD_COUNT);
+        ReflectionTestUtils.setField(scheduler, "leaseTtlMs", 60000L);
+        user = TestDataFactory.createUser();
+    }
+
+    private TradeOrder buyLimit(String symbol, String limit) {
+        TradeOrder order = TradeOrder.builder()
+                .id(UUID.randomUUID())
+                .user(user)
+                .symbol(symbol)
+                .side(TransactionType.BUY)
+                .orderType(OrderType.LIMIT)
+                .quantity(5)
+                .limitPrice(new BigDecimal(limit))
+                .status(OrderStatus.OPEN)
+                .build();
+        orderBooks.add(order);
+        lenient().when(tradeOrderRepository.findByIdIn(anyCollection())).thenReturn(List.of(order));
+        return order;
+    }
+
+    private static TradeResponse filled(TradeOrder order) {
+        order.setStatus(OrderStatus.FILLED);
+        return TradeResponse.builder().success(true).order(OrderResponse.from(order)).build();
+    }
+
+    @Test
+    @DisplayName("A quote through the limit fills the order and empties the book")
+    void crossingQuote_fillsOrder() {
+        TradeOrder order = buyLimit("AAPL", "180.00");
+        StockQuoteDto quote = TestDataFactory.createStockQuote("AAPL", "Apple Inc.", 179.5);
+        when(tradingService.fillOrder(order, quote)).thenReturn(filled(order));
+
+        assertThat(scheduler.match("AAPL", quote)).isEqualTo(1);
+        assertThat(orderBooks.symbols()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("A fill that could not run goes back into the book")
+    void busyAccount_restoresOrder() {
+        TradeOrder order = buyLimit("AAPL", "180.00");
+        StockQuoteDto quote = TestDataFactory.createStockQuote("AAPL", "Apple Inc.", 179.5);
+        when(tradingService.fillOrder(order, quote)).thenReturn(TradeResponse.builder()
+                .success(false)
+                .message("Another trade on your account is in progress. Please try again.")
+                .build());
+
+        assertThat(scheduler.match("AAPL", quote)).isZero();
+        assertThat(orderBooks.symbols()).containsExactly("AAPL");
+    }
+
+    @Test
+    @DisplayName("A rejected fill is not retried")
+    void rejectedFill_leavesBook() {
+        TradeOrder order = buyLimit("AAPL", "180.00");
+        StockQuoteDto quote = TestDataFactory.createStockQuote("AAPL", "Apple Inc.", 179.5);
+        order.setStatus(OrderStatus.REJECTED);
+        when(tradingService.fillOrder(order, quote)).thenReturn(TradeResponse.builder()
+                .success(false)
+                .message("Insufficient balance")
+                .order(OrderResponse.from(order))
+                .build());
+
+        scheduler.match("AAPL", quote);
+
+        assertThat(orderBooks.symbols()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Stale quotes and unowned shards never reach the books")
+    void cycle_skipsStaleQuotesAndUnownedShards() {
+        TradeOrder order = buyLimit("AAPL", "180.00");
+        Set<Integer> allShards = IntStream.range(0, SHARD_COUNT).boxed().collect(Collectors.toSet());
+        when(tradeOrderRepository.findViewsUpdatedSince(any())).thenReturn(List.of());
+        when(shardLeaseManager.acquireShards(eq(OrderMatchingScheduler.SHARD_GROUP), eq(SHARD_COUNT),
+                any(Duration.class))).thenReturn(allShards, Set.of());
+        StockQuoteDto stale = TestDataFactory.createStockQuote("AAPL", "Apple Inc.", 170.0);
+        stale.setStale(true);
+        when(stockService.getStockQuotes(Set.of("AAPL"))).thenReturn(Map.of("AAPL", stale));
+
+        scheduler.runMatchingCycle();
+        scheduler.runMatchingCycle();
+
+        verify(stockService, times(1)).getStockQuotes(anyCollection());
+        verify(tradingService, never()).fillOrder(any(), any());
+        assertThat(orderBooks.symbols()).containsExactly(order.getSymbol());
+    }
+}
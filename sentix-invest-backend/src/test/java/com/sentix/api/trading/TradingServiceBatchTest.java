@@ -0,0 +1,179 @@
+package com.sentix.api.trading;
+
+import com.sentix.api.dashboard.DashboardService;
+import com.sentix.api.ledger.CashLedgerService;
+import com.sentix.api.lots.TaxLotService;
+import com.sentix.api.stock.StockQuoteDto;
+import com.sentix.api.stock.StockService;
+import com.sentix.domain.OutboxEventType;
+import com.sentix.domain.PortfolioHolding;
+import com.sentix.domain.TaxLot;
+import com.sentix.domain.Transaction;
+import com.sentix.domain.TransactionType;
+import com.sentix.domain.User;
+import com.sentix.infrastructure.outbox.OutboxPublisher;
+import com.sentix.infrastructure.persistence.PortfolioHoldingRepository;
+import com.sentix.infrastructure.persistence.TransactionRepository;
+import com.sentix.infrastructure.persistence.UserRepository;
+import com.sentix.test.InMemoryCashLedger;
+import com.sentix.test.InMemoryTaxLots;
+import com.sentix.test.TestDataFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TradingServiceBatchTest {
+
+    @Mock private StockService stockService;
+    @Mock private PortfolioHoldingRepository portfolioHoldingRepository;
+    @Mock private TransactionRepository transactionRepository;
+    @Mock private UserRepository userRepository;
+    @Mock private OutboxPublisher outboxPublisher;
+    private final InMemoryCashLedger ledger = new InMemoryCashLedger();
+    @Spy private CashLedgerService cashLedgerService = ledger.service();
+    private final InMemoryTaxLots taxLots = new InMemoryTaxLots();
+    @Spy private TaxLotService taxLotService = taxLots.service();
+    @Mock private DashboardService dashboardService;
+    @Mock private AccountLocks accountLocks;
+    @Mock private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private TradingService tradingService;
+
+    private User user;
+    private PortfolioHolding appleHolding;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(tradingService, "defaultBatchMode",
+                BatchTradeRequest.FailureMode.ALL_OR_NOTHING);
+        user = TestDataFactory.createUser();
+        user.setBalance(new BigDecimal("1000.00"));
+        appleHolding = TestDataFactory.createHolding(user, "AAPL", "Apple Inc.", 10, new BigDecimal("150.00"));
+
+        lenient().when(accountLocks.withLock(any(), any()))
+                .thenAnswer(i -> i.<Supplier<?>>getArgument(1).get());
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(i -> i.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        lenient().when(portfolioHoldingRepository.findByUserAndIsPaper(user, false))
+                .thenReturn(new ArrayList<>(List.of(appleHolding)));
+        lenient().when(stockService.getStockQuotes(anyCollection())).thenReturn(Map.of(
+                "AAPL", TestDataFactory.createStockQuote("AAPL", "Apple Inc.", 200.0),
+                "MSFT", TestDataFactory.createStockQuote("MSFT", "Microsoft Corp.", 400.0),
+                "NVDA", TestDataFactory.createStockQuote("NVDA", "NVIDIA Corp.", 100.0)));
+    }
+
+    private static BatchTradeRequest.Leg leg(TransactionType side, String symbol, int quantity) {
+        return new BatchTradeRequest.Leg(side, symbol, quantity);
+    }
+
+    @Test
+    @DisplayName("All-or-nothing: one uncovered leg rejects the batch without writes")
+    void allOrNothing_uncoveredLeg_writesNothing() {
+        BatchTradeResponse response = tradingService.executeBatch(user, new BatchTradeRequest(List.of(
+                leg(TransactionType.BUY, "NVDA", 2),
+                leg(TransactionType.BUY, "MSFT", 10)), null));
+
+        assertThat(response.success()).isFalse();
+        assertThat(response.mode()).isEqualTo(BatchTradeRequest.FailureMode.ALL_OR_NOTHING);
+        assertThat(response.executedLegs()).isZero();
+        assertThat(response.legs().get(1).message()).contains("Insufficient balance");
+        assertThat(ledger.balance(user, false)).isEqualByComparingTo("1000.00");
+        assertThat(ledger.entries()).isEmpty();
+        verify(transactionRepository, never()).saveAll(any());
+        verify(outboxPublisher, never()).publish(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Best effort: feasible legs execute and the rest are reported")
+    void bestEffort_executesFeasibleLegs() {
+        BatchTradeResponse response = tradingService.executeBatch(user, new BatchTradeRequest(List.of(
+                leg(TransactionType.BUY, "NVDA", 2),
+                leg(TransactionType.BUY, "MSFT", 10),
+                leg(TransactionType.SELL, "TSLA", 1)), BatchTradeRequest.FailureMode.BEST_EFFORT));
+
+        assertThat(response.success()).isTrue();
+        assertThat(response.executedLegs()).isEqualTo(1);
+        assertThat(response.legs()).extracting(BatchTradeResponse.Leg::executed).containsExactly(true, false, false);
+        assertThat(response.legs().get(2).message()).contains("Could not fetch stock price");
+        // 1000 - 2 * 100
+        assertThat(response.newBalance()).isEqualByComparingTo("800.00");
+        assertThat(ledger.entries()).singleElement()
+                .satisfies(entry -> assertThat(entry.getBalanceAfter()).isEqualByComparingTo("800.00"));
+    }
+
+    @Test
+    @DisplayName("Sells run first, so their proceeds fund buys in the same batch")
+    void sellProceeds_fundBuys() {
+        // Listed buy-first: 1000 cash alone cannot cover 4 MSFT (1600)
+        BatchTradeResponse response = tradingService.executeBatch(user, new BatchTradeRequest(List.of(
+                leg(TransactionType.BUY, "MSFT", 4),
+                leg(TransactionType.SELL, "AAPL", 10)), BatchTradeRequest.FailureMode.ALL_OR_NOTHING));
+
+        assertThat(response.success()).isTrue();
+        assertThat(response.executedLegs()).isEqualTo(2);
+        // Results come back in request order
+        assertThat(response.legs()).extracting(BatchTradeResponse.Leg::symbol).containsExactly("MSFT", "AAPL");
+        // 1000 + 10 * 200 - 4 * 400
+        assertThat(ledger.balance(user, false)).isEqualByComparingTo("1400.00");
+        // The sell is booked before the buy, so the running balance never goes negative
+        assertThat(ledger.entries()).extracting(entry -> entry.getBalanceAfter().intValue())
+                .containsExactly(3000, 1400);
+
+        ArgumentCaptor<List<PortfolioHolding>> deleted = ArgumentCaptor.captor();
+        verify(portfolioHoldingRepository).deleteAll(deleted.capture());
+        assertThat(deleted.getValue()).containsExactly(appleHolding);
+        ArgumentCaptor<List<PortfolioHolding>> saved = ArgumentCaptor.captor();
+        verify(portfolioHoldingRepository).saveAll(saved.capture());
+        assertThat(saved.getValue()).singleElement()
+                .satisfies(holding -> assertThat(holding.getSymbol()).isEqualTo("MSFT"));
+        // 10 * (200 - 150), against the lot carried over from the existing holding
+        assertThat(appleHolding.getRealizedProfitLoss()).isEqualByComparingTo("500.00");
+        assertThat(taxLots.lots()).singleElement()
+                .satisfies(lot -> assertThat(lot.getSymbol()).isEqualTo("MSFT"));
+    }
+
+    @Test
+    @DisplayName("A batch makes one quote call, one transaction write and one trade event")
+    void batch_quotesWritesAndPublishesOnce() {
+        tradingService.executeBatch(user, new BatchTradeRequest(List.of(
+                leg(TransactionType.SELL, "AAPL", 5),
+                leg(TransactionType.BUY, "AAPL", 1),
+                leg(TransactionType.BUY, "NVDA", 3)), null));
+
+        verify(stockService, times(1)).getStockQuotes(anyCollection());
+        verify(stockService, never()).getStockQuote(anyString());
+        ArgumentCaptor<List<Transaction>> transactions = ArgumentCaptor.captor();
+        verify(transactionRepository, times(1)).saveAll(transactions.capture());
+        assertThat(transactions.getValue()).hasSize(3);
+        verify(outboxPublisher, times(1)).publish(OutboxEventType.TRADE_EXECUTED, user.getId(),
+                new TradeExecutedEvent(user.getId(), false));
+        // 10 - 5 + 1
+        assertThat(appleHolding.getQuantity()).isEqualTo(6);
+        assertThat(taxLots.lots()).filteredOn(lot -> lot.getSymbol().equals("AAPL"))
+                .extracting(TaxLot::getRemainingQuantity)
+                .containsExactly(5, 1);
+    }
+}
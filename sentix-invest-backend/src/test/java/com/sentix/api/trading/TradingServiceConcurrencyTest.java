@@ -0,0 +1,239 @@
+package com.sentix.api.trading;
+
+import com.sentix.api.dashboard.DashboardService;
+import com.sentix.api.ledger.CashLedgerService;
+import com.sentix.api.stock.StockService;
+import com.sentix.domain.CashLedgerEntry;
+import com.sentix.domain.LedgerEntryType;
+import com.sentix.domain.PortfolioHolding;
+import com.sentix.domain.Transaction;
+import com.sentix.domain.User;
+import com.sentix.infrastructure.outbox.OutboxPublisher;
+import com.sentix.infrastructure.persistence.PortfolioHoldingRepository;
+import com.sentix.infrastructure.persistence.TradeOrderRepository;
+import com.sentix.infrastructure.persistence.TransactionRepository;
+import com.sentix.infrastructure.persistence.UserRepository;
+import com.sentix.test.InMemoryCashLedger;
+import com.sentix.test.InMemoryTaxLots;
+import com.sentix.test.TestDataFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Concurrent trades against one account. The repositories are backed by in-memory
+ * rows that hand out copies, the way separate persistence contexts would, and the
+ * cash ledger enforces its sequence constraint, so an unserialized
+ * read-check-write would oversell the balance or fail to append.
+ */
+@ExtendWith(MockitoExtension.class)
+class TradingServiceConcurrencyTest {
+
+    private static final int THREADS = 16;
+
+    @Mock private StockService stockService;
+    @Mock private PortfolioHoldingRepository portfolioHoldingRepository;
+    @Mock private TransactionRepository transactionRepository;
+    @Mock private TradeOrderRepository tradeOrderRepository;
+    @Mock private UserRepository userRepository;
+    @Mock private OutboxPublisher outboxPublisher;
+    @Mock private DashboardService dashboardService;
+    @Mock private TransactionTemplate transactionTemplate;
+
+    private TradingService tradingService;
+    private User user;
+    private final InMemoryCashLedger ledger = new InMemoryCashLedger();
+    private final InMemoryTaxLots taxLots = new InMemoryTaxLots();
+    private final AtomicReference<PortfolioHolding> holdingRow = new AtomicReference<>();
+    private final AtomicInteger transactions = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        AccountLocks accountLocks = new AccountLocks();
+        ReflectionTestUtils.setField(accountLocks, "stripes", 256);
+        ReflectionTestUtils.setField(accountLocks, "timeoutMs", 5000L);
+        accountLocks.init();
+
+        tradingService = new TradingService(stockService, portfolioHoldingRepository, transactionRepository,
+                tradeOrderRepository, userRepository, outboxPublisher, ledger.service(),
+                taxLots.service(), dashboardService, accountLocks, transactionTemplate);
+        ReflectionTestUtils.setField(tradingService, "maxAttempts", 3);
+
+        user = TestDataFactory.createUser();
+        // Exactly ten shares at 180
+        user.setBalance(new BigDecimal("1800.00"));
+
+        when(stockService.getStockQuote("AAPL"))
+                .thenReturn(TestDataFactory.createStockQuote("AAPL", "Apple Inc.", 180.0));
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(i -> i.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(userRepository.findById(user.getId()))
+                .thenAnswer(i -> Optional.of(slowCopy(user)));
+        lenient().when(portfolioHoldingRepository.findByUserAndSymbolAndIsPaper(any(), eq("AAPL"), eq(false)))
+                .thenAnswer(i -> Optional.ofNullable(copy(holdingRow.get())));
+        lenient().when(portfolioHoldingRepository.save(any(PortfolioHolding.class))).thenAnswer(i -> {
+            holdingRow.set(copy(i.getArgument(0)));
+            return i.getArgument(0);
+        });
+        lenient().when(transactionRepository.save(any(Transaction.class))).thenAnswer(i -> {
+            transactions.incrementAndGet();
+            return i.getArgument(0);
+        });
+    }
+
+    @Test
+    @DisplayName("Concurrent buys on one account never overdraw the balance")
+    void concurrentBuys_noOverdraw() throws Exception {
+        List<TradeResponse> responses = runConcurrently(
+                () -> tradingService.buyStock(user, new BuyRequest("AAPL", 1)));
+
+        assertThat(responses).filteredOn(TradeResponse::success).hasSize(10);
+        assertThat(ledger.balance(user, false)).isEqualByComparingTo("0");
+        assertThat(ledger.entries()).extracting(CashLedgerEntry::getSequence)
+                .containsExactlyInAnyOrder(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L);
+        assertThat(holdingRow.get().getQuantity()).isEqualTo(10);
+        assertThat(transactions).hasValue(10);
+    }
+
+    @Test
+    @DisplayName("A version conflict is retried from a fresh read")
+    void optimisticConflict_retried() {
+        doThrow(new ObjectOptimisticLockingFailureException(PortfolioHolding.class, UUID.randomUUID()))
+                .doAnswer(i -> {
+                    holdingRow.set(copy(i.getArgument(0)));
+                    return i.getArgument(0);
+                })
+                .when(portfolioHoldingRepository).save(any(PortfolioHolding.class));
+
+        TradeResponse response = tradingService.buyStock(user, new BuyRequest("AAPL", 1));
+
+        assertThat(response.success()).isTrue();
+        assertThat(ledger.balance(user, false)).isEqualByComparingTo("1620.00");
+        verify(userRepository, times(2)).findById(user.getId());
+    }
+
+    @Test
+    @DisplayName("The locked balance check reads the ledger, not a cached balance another replica moved past")
+    void staleCachedBalance_notUsedUnderLock() {
+        CashLedgerService cashLedgerService = ledger.service();
+        assertThat(cashLedgerService.balance(user, false)).isEqualByComparingTo("1800.00");
+        // Another replica books a deposit the cached position has not seen
+        ledger.repository().saveAll(List.of(deposit(1L, "200.0000", "2000.0000")));
+
+        // 11 * 180 = 1980: more than the cached balance, covered by the ledger
+        TradeResponse response = tradingService.buyStock(user, new BuyRequest("AAPL", 11));
+
+        assertThat(response.success()).isTrue();
+        assertThat(response.newBalance()).isEqualByComparingTo("20.00");
+        assertThat(ledger.entries()).extracting(CashLedgerEntry::getSequence).containsExactly(1L, 2L);
+        verify(userRepository, times(1)).findById(user.getId());
+    }
+
+    @Test
+    @DisplayName("An append that races another replica collides and is retried from the ledger")
+    void racingLedgerAppend_retried() {
+        AtomicBoolean raced = new AtomicBoolean();
+        doAnswer(i -> {
+            // Between this trade's ledger read and its append, another replica books a deposit
+            if (raced.compareAndSet(false, true)) {
+                ledger.repository().saveAll(List.of(deposit(1L, "200.0000", "2000.0000")));
+            }
+            transactions.incrementAndGet();
+            return i.getArgument(0);
+        }).when(transactionRepository).save(any(Transaction.class));
+
+        TradeResponse response = tradingService.buyStock(user, new BuyRequest("AAPL", 1));
+
+        assertThat(response.success()).isTrue();
+        assertThat(response.newBalance()).isEqualByComparingTo("1820.00");
+        assertThat(ledger.balance(user, false)).isEqualByComparingTo("1820.00");
+        assertThat(ledger.entries()).extracting(CashLedgerEntry::getSequence).containsExactly(1L, 2L);
+        verify(userRepository, times(2)).findById(user.getId());
+    }
+
+    private CashLedgerEntry deposit(long sequence, String amount, String balanceAfter) {
+        return CashLedgerEntry.builder()
+                .userId(user.getId())
+                .isPaper(false)
+                .sequence(sequence)
+                .type(LedgerEntryType.DEPOSIT)
+                .amount(new BigDecimal(amount))
+                .balanceAfter(new BigDecimal(balanceAfter))
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    private List<TradeResponse> runConcurrently(Callable<TradeResponse> trade) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<TradeResponse>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return trade.call();
+                }));
+            }
+            start.countDown();
+            List<TradeResponse> responses = new ArrayList<>();
+            for (Future<TradeResponse> future : futures) {
+                responses.add(future.get(30, TimeUnit.SECONDS));
+            }
+            return responses;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /** Widens the window between read and write so a missing lock shows up reliably. */
+    private static User slowCopy(User row) {
+        User copy = row.toBuilder().build();
+        Thread.yield();
+        return copy;
+    }
+
+    private static PortfolioHolding copy(PortfolioHolding row) {
+        if (row == null) {
+            return null;
+        }
+        return PortfolioHolding.builder()
+                .id(row.getId())
+                .user(row.getUser())
+                .symbol(row.getSymbol())
+                .stockName(row.getStockName())
+                .quantity(row.getQuantity())
+                .averagePurchasePrice(row.getAveragePurchasePrice())
+                .realizedProfitLoss(row.getRealizedProfitLoss())
+                .currency(row.getCurrency())
+                .isPaper(row.getIsPaper())
+                .version(row.getVersion())
+                .build();
+    }
+}
@@ -1,12 +1,17 @@
 package com.sentix.api.trading;
 
-import com.sentix.api.portfolio.PortfolioSnapshotService;
+import com.sentix.api.dashboard.DashboardService;
+import com.sentix.api.ledger.CashLedgerService;
+import com.sentix.api.lots.TaxLotService;
 import com.sentix.api.stock.StockQuoteDto;
 import com.sentix.api.stock.StockService;
 import com.sentix.domain.*;
+import com.sentix.infrastructure.outbox.OutboxPublisher;
 import com.sentix.infrastructure.persistence.PortfolioHoldingRepository;
 import com.sentix.infrastructure.persistence.TransactionRepository;
 import com.sentix.infrastructure.persistence.UserRepository;
+import com.sentix.test.InMemoryCashLedger;
+import com.sentix.test.InMemoryTaxLots;
 import com.sentix.test.TestDataFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -16,10 +21,14 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.*;
@@ -32,7 +41,14 @@ class TradingServicePaperModeTest {
     @Mock private PortfolioHoldingRepository portfolioHoldingRepository;
     @Mock private TransactionRepository transactionRepository;
     @Mock private UserRepository userRepository;
-    @Mock private PortfolioSnapshotService portfolioSnapshotService;
+    @Mock private OutboxPublisher outboxPublisher;
+    private final InMemoryCashLedger ledger = new InMemoryCashLedger();
+    @Spy private CashLedgerService cashLedgerService = ledger.service();
+    private final InMemoryTaxLots taxLots = new InMemoryTaxLots();
+    @Spy private TaxLotService taxLotService = taxLots.service();
+    @Mock private DashboardService dashboardService;
+    @Mock private AccountLocks accountLocks;
+    @Mock private TransactionTemplate transactionTemplate;
 
     @InjectMocks
     private TradingService tradingService;
@@ -48,6 +64,13 @@ class TradingServicePaperModeTest {
         paperUser.setBalance(new BigDecimal("10000.00")); // real balance should NOT be touched
 
         appleQuote = TestDataFactory.createStockQuote("AAPL", "Apple Inc.", 180.0);
+
+        // Run the locked transaction inline; locking itself is covered by AccountLocksTest
+        lenient().when(accountLocks.withLock(any(), any()))
+                .thenAnswer(i -> i.<Supplier<?>>getArgument(1).get());
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(i -> i.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().when(userRepository.findById(paperUser.getId())).thenReturn(Optional.of(paperUser));
     }
 
     @Nested
@@ -60,7 +83,6 @@ class TradingServicePaperModeTest {
             when(stockService.getStockQuote("AAPL")).thenReturn(appleQuote);
             when(portfolioHoldingRepository.findByUserAndSymbolAndIsPaper(eq(paperUser), eq("AAPL"), eq(true)))
                     .thenReturn(Optional.empty());
-            when(userRepository.save(any(User.class))).thenAnswer(i -> i.getArgument(0));
             when(portfolioHoldingRepository.save(any(PortfolioHolding.class))).thenAnswer(i -> i.getArgument(0));
             when(transactionRepository.save(any(Transaction.class))).thenAnswer(i -> i.getArgument(0));
 
@@ -70,9 +92,17 @@ class TradingServicePaperModeTest {
             assertThat(response.success()).isTrue();
             assertThat(response.message()).contains("Paper Trade");
             // 100000 - (180 * 10) = 98200
-            assertThat(paperUser.getPaperBalance()).isEqualByComparingTo(new BigDecimal("98200.00"));
+            assertThat(ledger.balance(paperUser, true)).isEqualByComparingTo(new BigDecimal("98200.00"));
+            assertThat(response.newBalance()).isEqualByComparingTo(new BigDecimal("98200.00"));
             // Real balance untouched
-            assertThat(paperUser.getBalance()).isEqualByComparingTo(new BigDecimal("10000.00"));
+            assertThat(ledger.balance(paperUser, false)).isEqualByComparingTo(new BigDecimal("10000.00"));
+            assertThat(ledger.entries()).singleElement()
+                    .satisfies(entry -> {
+                        assertThat(entry.getIsPaper()).isTrue();
+                        assertThat(entry.getType()).isEqualTo(LedgerEntryType.BUY);
+                        assertThat(entry.getAmount()).isEqualByComparingTo("-1800.00");
+                    });
+            verify(userRepository, never()).save(any());
         }
 
         @Test
@@ -81,7 +111,6 @@ class TradingServicePaperModeTest {
             when(stockService.getStockQuote("AAPL")).thenReturn(appleQuote);
             when(portfolioHoldingRepository.findByUserAndSymbolAndIsPaper(eq(paperUser), eq("AAPL"), eq(true)))
                     .thenReturn(Optional.empty());
-            when(userRepository.save(any(User.class))).thenAnswer(i -> i.getArgument(0));
             when(portfolioHoldingRepository.save(any(PortfolioHolding.class))).thenAnswer(i -> i.getArgument(0));
             when(transactionRepository.save(any(Transaction.class))).thenAnswer(i -> i.getArgument(0));
 
@@ -102,7 +131,6 @@ class TradingServicePaperModeTest {
             when(stockService.getStockQuote("AAPL")).thenReturn(appleQuote);
             when(portfolioHoldingRepository.findByUserAndSymbolAndIsPaper(eq(paperUser), eq("AAPL"), eq(true)))
                     .thenReturn(Optional.empty());
-            when(userRepository.save(any(User.class))).thenAnswer(i -> i.getArgument(0));
             when(portfolioHoldingRepository.save(any(PortfolioHolding.class))).thenAnswer(i -> i.getArgument(0));
             when(transactionRepository.save(any(Transaction.class))).thenAnswer(i -> i.getArgument(0));
 
@@ -132,18 +160,60 @@ class TradingServicePaperModeTest {
         }
 
         @Test
-        @DisplayName("Paper buy triggers portfolio snapshot")
-        void paperBuy_triggersSnapshot() {
+        @DisplayName("Paper buy from an empty paper account is rejected without any quote lookup")
+        void paperBuy_emptyAccount_rejectedWithoutQuote() {
+            paperUser.setPaperBalance(BigDecimal.ZERO);
+
+            TradeResponse response = tradingService.buyStock(paperUser, new BuyRequest("AAPL", 1));
+
+            assertThat(response.success()).isFalse();
+            assertThat(response.message()).contains("Insufficient paper balance");
+            verifyNoInteractions(stockService, accountLocks);
+        }
+
+        @Test
+        @DisplayName("Paper buy priced out of reach by a recent quote is rejected without fetching")
+        void paperBuy_recentQuote_rejectedLocally() {
+            when(stockService.getRecentQuote(eq("AAPL"), any())).thenReturn(appleQuote);
+
+            // 180 * 1000 = 180000 against 100000
+            TradeResponse response = tradingService.buyStock(paperUser, new BuyRequest("AAPL", 1000));
+
+            assertThat(response.success()).isFalse();
+            assertThat(response.message()).contains("Insufficient paper balance");
+            verify(stockService, never()).getStockQuote(any());
+            verifyNoInteractions(accountLocks);
+        }
+
+        @Test
+        @DisplayName("Paper buy executes at a recent quote without fetching")
+        void paperBuy_recentQuote_executesWithoutFetch() {
+            when(stockService.getRecentQuote(eq("AAPL"), any())).thenReturn(appleQuote);
+            when(portfolioHoldingRepository.findByUserAndSymbolAndIsPaper(eq(paperUser), eq("AAPL"), eq(true)))
+                    .thenReturn(Optional.empty());
+            when(portfolioHoldingRepository.save(any(PortfolioHolding.class))).thenAnswer(i -> i.getArgument(0));
+            when(transactionRepository.save(any(Transaction.class))).thenAnswer(i -> i.getArgument(0));
+
+            TradeResponse response = tradingService.buyStock(paperUser, new BuyRequest("AAPL", 10));
+
+            assertThat(response.success()).isTrue();
+            assertThat(ledger.balance(paperUser, true)).isEqualByComparingTo(new BigDecimal("98200.00"));
+            verify(stockService, never()).getStockQuote(any());
+        }
+
+        @Test
+        @DisplayName("Paper buy records a trade event for the paper book")
+        void paperBuy_publishesTradeEvent() {
             when(stockService.getStockQuote("AAPL")).thenReturn(appleQuote);
             when(portfolioHoldingRepository.findByUserAndSymbolAndIsPaper(eq(paperUser), eq("AAPL"), eq(true)))
                     .thenReturn(Optional.empty());
-            when(userRepository.save(any(User.class))).thenAnswer(i -> i.getArgument(0));
             when(portfolioHoldingRepository.save(any(PortfolioHolding.class))).thenAnswer(i -> i.getArgument(0));
             when(transactionRepository.save(any(Transaction.class))).thenAnswer(i -> i.getArgument(0));
 
             tradingService.buyStock(paperUser, new BuyRequest("AAPL", 1));
 
-            verify(portfolioSnapshotService).takeSnapshotForUser(paperUser, true);
+            verify(outboxPublisher).publish(OutboxEventType.TRADE_EXECUTED, paperUser.getId(),
+                    new TradeExecutedEvent(paperUser.getId(), true));
         }
     }
 
@@ -157,10 +227,11 @@ class TradingServicePaperModeTest {
             PortfolioHolding holding = TestDataFactory.createHolding(
                     paperUser, "AAPL", "Apple Inc.", 20, new BigDecimal("150.00"), true);
 
+            when(portfolioHoldingRepository.findViewByUserAndSymbolAndIsPaper(paperUser, "AAPL", true))
+                    .thenReturn(Optional.of(TestDataFactory.createHoldingView(holding)));
             when(portfolioHoldingRepository.findByUserAndSymbolAndIsPaper(eq(paperUser), eq("AAPL"), eq(true)))
                     .thenReturn(Optional.of(holding));
             when(stockService.getStockQuote("AAPL")).thenReturn(appleQuote);
-            when(userRepository.save(any(User.class))).thenAnswer(i -> i.getArgument(0));
             when(portfolioHoldingRepository.save(any(PortfolioHolding.class))).thenAnswer(i -> i.getArgument(0));
             when(transactionRepository.save(any(Transaction.class))).thenAnswer(i -> i.getArgument(0));
 
@@ -169,20 +240,27 @@ class TradingServicePaperModeTest {
             assertThat(response.success()).isTrue();
             assertThat(response.message()).contains("Paper Trade");
             // 100000 + (180 * 10) = 101800
-            assertThat(paperUser.getPaperBalance()).isEqualByComparingTo(new BigDecimal("101800.00"));
-            assertThat(paperUser.getBalance()).isEqualByComparingTo(new BigDecimal("10000.00"));
+            assertThat(ledger.balance(paperUser, true)).isEqualByComparingTo(new BigDecimal("101800.00"));
+            assertThat(ledger.balance(paperUser, false)).isEqualByComparingTo(new BigDecimal("10000.00"));
+            // 10 * (180 - 150), and the paper lot keeps the other 10 shares
+            assertThat(holding.getRealizedProfitLoss()).isEqualByComparingTo("300.00");
+            assertThat(taxLots.lots()).singleElement().satisfies(lot -> {
+                assertThat(lot.getIsPaper()).isTrue();
+                assertThat(lot.getRemainingQuantity()).isEqualTo(10);
+            });
         }
 
         @Test
-        @DisplayName("Paper sell fails when no paper holding exists")
+        @DisplayName("Paper sell fails when no paper holding exists, without fetching a quote")
         void paperSell_noPaperHolding_fails() {
-            when(portfolioHoldingRepository.findByUserAndSymbolAndIsPaper(eq(paperUser), eq("AAPL"), eq(true)))
+            when(portfolioHoldingRepository.findViewByUserAndSymbolAndIsPaper(paperUser, "AAPL", true))
                     .thenReturn(Optional.empty());
 
             TradeResponse response = tradingService.sellStock(paperUser, new SellRequest("AAPL", 5));
 
             assertThat(response.success()).isFalse();
             assertThat(response.message()).contains("paper");
+            verifyNoInteractions(stockService, accountLocks);
         }
 
         @Test
@@ -191,10 +269,11 @@ class TradingServicePaperModeTest {
             PortfolioHolding holding = TestDataFactory.createHolding(
                     paperUser, "AAPL", "Apple Inc.", 5, new BigDecimal("150.00"), true);
 
+            when(portfolioHoldingRepository.findViewByUserAndSymbolAndIsPaper(paperUser, "AAPL", true))
+                    .thenReturn(Optional.of(TestDataFactory.createHoldingView(holding)));
             when(portfolioHoldingRepository.findByUserAndSymbolAndIsPaper(eq(paperUser), eq("AAPL"), eq(true)))
                     .thenReturn(Optional.of(holding));
             when(stockService.getStockQuote("AAPL")).thenReturn(appleQuote);
-            when(userRepository.save(any(User.class))).thenAnswer(i -> i.getArgument(0));
             when(transactionRepository.save(any(Transaction.class))).thenAnswer(i -> i.getArgument(0));
 
             tradingService.sellStock(paperUser, new SellRequest("AAPL", 5));
@@ -216,19 +295,19 @@ class TradingServicePaperModeTest {
             realUser.setBalance(new BigDecimal("50000.00"));
             realUser.setPaperBalance(new BigDecimal("100000.00"));
 
+            when(userRepository.findById(realUser.getId())).thenReturn(Optional.of(realUser));
             when(stockService.getStockQuote("AAPL")).thenReturn(appleQuote);
             when(portfolioHoldingRepository.findByUserAndSymbolAndIsPaper(eq(realUser), eq("AAPL"), eq(false)))
                     .thenReturn(Optional.empty());
-            when(userRepository.save(any(User.class))).thenAnswer(i -> i.getArgument(0));
             when(portfolioHoldingRepository.save(any(PortfolioHolding.class))).thenAnswer(i -> i.getArgument(0));
             when(transactionRepository.save(any(Transaction.class))).thenAnswer(i -> i.getArgument(0));
 
             tradingService.buyStock(realUser, new BuyRequest("AAPL", 10));
 
             // 50000 - (180 * 10) = 48200
-            assertThat(realUser.getBalance()).isEqualByComparingTo(new BigDecimal("48200.00"));
+            assertThat(ledger.balance(realUser, false)).isEqualByComparingTo(new BigDecimal("48200.00"));
             // Paper balance untouched
-            assertThat(realUser.getPaperBalance()).isEqualByComparingTo(new BigDecimal("100000.00"));
+            assertThat(ledger.balance(realUser, true)).isEqualByComparingTo(new BigDecimal("100000.00"));
 
             ArgumentCaptor<PortfolioHolding> holdingCaptor = ArgumentCaptor.forClass(PortfolioHolding.class);
             verify(portfolioHoldingRepository).save(holdingCaptor.capture());
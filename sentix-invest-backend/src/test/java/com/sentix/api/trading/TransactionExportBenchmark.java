@@ -0,0 +1,115 @@
+package com.sentix.api.trading;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.sentix.domain.Transaction;
+import com.sentix.domain.TransactionType;
+import com.sentix.domain.User;
+import com.sentix.infrastructure.persistence.TransactionRepository;
+import com.sentix.test.TestDataFactory;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Export of a 1M-row transaction history: the previous approach, which materialized
+ * the entity list and a mapped response list before serializing, against the
+ * streamed NDJSON and CSV writers. Rows are generated lazily so the streamed
+ * variants never hold more than one row; output goes to a discarding stream.
+ * Run with:
+ * {@code mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ * -Dexec.args="-cp %classpath com.sentix.api.trading.TransactionExportBenchmark"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = {"-Xmx1g"})
+public class TransactionExportBenchmark {
+
+    @Param({"1000000"})
+    private int rows;
+
+    private User user;
+    private ObjectMapper objectMapper;
+    private TransactionExportService exportService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        user = TestDataFactory.createUser();
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        exportService = new TransactionExportService(mock(TransactionRepository.class),
+                mock(EntityManager.class), objectMapper);
+    }
+
+    private Stream<Transaction> history() {
+        LocalDateTime now = LocalDateTime.now();
+        return LongStream.range(0, rows).mapToObj(i -> Transaction.builder()
+                .id(UUID.randomUUID())
+                .user(user)
+                .symbol("SYM" + (i % 500))
+                .stockName("Company " + (i % 500))
+                .type(i % 3 == 0 ? TransactionType.SELL : TransactionType.BUY)
+                .quantity((int) (i % 100) + 1)
+                .pricePerShare(BigDecimal.valueOf(10000 + i % 5000, 2))
+                .totalAmount(BigDecimal.valueOf(100000 + i % 50000, 2))
+                .currency("USD")
+                .executedAt(now.minusMinutes(i))
+                .build());
+    }
+
+    @Benchmark
+    public int listMaterialized() throws IOException {
+        List<Transaction> entities = history().toList();
+        List<TransactionResponse> responses = entities.stream().map(TransactionResponse::from).toList();
+        objectMapper.writeValue(OutputStream.nullOutputStream(), responses);
+        return responses.size();
+    }
+
+    @Benchmark
+    public long streamedNdjson() throws IOException {
+        return exportService.writeRows(history(), TransactionExportService.Format.NDJSON,
+                OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public long streamedCsv() throws IOException {
+        return exportService.writeRows(history(), TransactionExportService.Format.CSV,
+                OutputStream.nullOutputStream());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TransactionExportBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
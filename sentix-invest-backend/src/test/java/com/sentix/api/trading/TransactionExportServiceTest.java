@@ -0,0 +1,103 @@
+package com.sentix.api.trading;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.sentix.domain.Transaction;
+import com.sentix.domain.TransactionType;
+import com.sentix.domain.User;
+import com.sentix.infrastructure.persistence.TransactionRepository;
+import com.sentix.test.TestDataFactory;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionExportServiceTest {
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private TransactionExportService exportService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        exportService = new TransactionExportService(transactionRepository, entityManager, objectMapper);
+        user = TestDataFactory.createUser();
+    }
+
+    @Test
+    @DisplayName("CSV export writes a header and escapes free-text fields")
+    void csv_escapesFields() throws IOException {
+        Transaction plain = TestDataFactory.createTransaction(user, "AAPL", "Apple Inc.",
+                TransactionType.BUY, 10, new BigDecimal("180.5000"));
+        Transaction quoted = TestDataFactory.createTransaction(user, "BRK.B", "Berkshire \"B\", Class B",
+                TransactionType.SELL, 2, new BigDecimal("410.0000"));
+        when(transactionRepository.streamByUser(user)).thenReturn(Stream.of(plain, quoted));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long written = exportService.export(user, null, TransactionExportService.Format.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(written).isEqualTo(2);
+        assertThat(lines).hasSize(3);
+        assertThat(lines[0]).isEqualTo("id,executedAt,symbol,stockName,type,quantity,pricePerShare,totalAmount,currency");
+        assertThat(lines[1]).endsWith(",AAPL,Apple Inc.,BUY,10,180.5000,1805.0000,USD");
+        assertThat(lines[2]).contains(",\"Berkshire \"\"B\"\", Class B\",SELL,");
+        verify(entityManager).detach(plain);
+        verify(entityManager).detach(quoted);
+    }
+
+    @Test
+    @DisplayName("NDJSON export writes one object per line and closes the cursor")
+    void ndjson_oneObjectPerLine() throws IOException {
+        Transaction buy = TestDataFactory.createTransaction(user, "MSFT", "Microsoft",
+                TransactionType.BUY, 3, new BigDecimal("400.0000"));
+        AtomicBoolean closed = new AtomicBoolean();
+        when(transactionRepository.streamByUserAndSymbol(user, "MSFT"))
+                .thenReturn(Stream.of(buy).onClose(() -> closed.set(true)));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(user, "msft", TransactionExportService.Format.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(1);
+        JsonNode row = new ObjectMapper().readTree(lines[0]);
+        assertThat(row.get("symbol").asText()).isEqualTo("MSFT");
+        assertThat(row.get("type").asText()).isEqualTo("BUY");
+        assertThat(row.get("totalAmount").decimalValue()).isEqualByComparingTo("1200");
+        assertThat(closed).isTrue();
+        verify(transactionRepository, never()).streamByUser(any());
+    }
+
+    @Test
+    @DisplayName("Leading formula characters are neutralised")
+    void csvField_neutralisesFormulas() {
+        assertThat(TransactionExportService.csvField("=HYPERLINK(\"x\")")).isEqualTo("\"'=HYPERLINK(\"\"x\"\")\"");
+        assertThat(TransactionExportService.csvField("@SUM")).isEqualTo("'@SUM");
+        assertThat(TransactionExportService.csvField("Apple Inc.")).isEqualTo("Apple Inc.");
+        assertThat(TransactionExportService.csvField(null)).isEmpty();
+    }
+}
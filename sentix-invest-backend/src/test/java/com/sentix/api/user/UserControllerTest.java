@@ -1,7 +1,10 @@
 package com.sentix.api.user;
 
+import com.sentix.api.ledger.CashLedgerService;
 import com.sentix.domain.User;
 import com.sentix.infrastructure.persistence.UserRepository;
+import com.sentix.infrastructure.security.UserPrincipalCache;
+import com.sentix.test.InMemoryCashLedger;
 import com.sentix.test.TestDataFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -11,13 +14,19 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -26,6 +35,12 @@ class UserControllerTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserPrincipalCache userPrincipalCache;
+
+    @Spy
+    private CashLedgerService cashLedgerService = new InMemoryCashLedger().service();
+
     @InjectMocks
     private UserController userController;
 
@@ -40,6 +55,11 @@ class UserControllerTest {
     @DisplayName("Toggle Paper Trading")
     class TogglePaperTrading {
 
+        @BeforeEach
+        void setUp() {
+            when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        }
+
         @Test
         @DisplayName("should enable paper trading when currently disabled")
         void shouldEnablePaperTrading() {
@@ -52,6 +72,7 @@ class UserControllerTest {
             assertThat(response.getBody()).isNotNull();
             assertThat(response.getBody().getIsPaperTrading()).isTrue();
             verify(userRepository).save(user);
+            verify(userPrincipalCache).evict(user.getEmail());
         }
 
         @Test
@@ -102,7 +123,7 @@ class UserControllerTest {
         }
 
         @Test
-        @DisplayName("should not throw when balance is null")
+        @DisplayName("should report a null opening balance as zero")
         void shouldNotThrowWhenBalanceIsNull() {
             user.setIsPaperTrading(false);
             user.setBalance(null);
@@ -112,7 +133,7 @@ class UserControllerTest {
 
             assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
             assertThat(response.getBody()).isNotNull();
-            assertThat(response.getBody().getBalance()).isNull();
+            assertThat(response.getBody().getBalance()).isEqualByComparingTo(BigDecimal.ZERO);
         }
 
         @Test
@@ -129,6 +150,42 @@ class UserControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("Profile updates")
+    class ProfileUpdates {
+
+        @Test
+        @DisplayName("should apply the change to the stored user, not the cached principal")
+        void shouldUpdateStoredUser() {
+            User stored = TestDataFactory.createUser();
+            stored.setId(user.getId());
+            stored.setVersion(3L);
+            user.setVersion(1L);
+            when(userRepository.findById(user.getId())).thenReturn(Optional.of(stored));
+            when(userRepository.save(stored)).thenReturn(stored);
+
+            ResponseEntity<Map<String, Object>> response =
+                    userController.updatePreferredCurrency(user, Map.of("currency", "eur"));
+
+            assertThat(response.getBody()).containsEntry("preferredCurrency", "EUR");
+            assertThat(stored.getPreferredCurrency()).isEqualTo("EUR");
+            verify(userRepository).save(stored);
+            verify(userPrincipalCache).evict(user.getEmail());
+        }
+
+        @Test
+        @DisplayName("should answer 409 when the user changed concurrently")
+        void shouldMapVersionConflictToConflict() {
+            when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+            when(userRepository.save(user)).thenThrow(new ObjectOptimisticLockingFailureException(User.class, user.getId()));
+
+            assertThatThrownBy(() -> userController.togglePaperTrading(user))
+                    .isInstanceOfSatisfying(ResponseStatusException.class,
+                            e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+            verifyNoInteractions(userPrincipalCache);
+        }
+    }
+
     @Nested
     @DisplayName("Get Current User")
     class GetCurrentUser {
@@ -0,0 +1,106 @@
+package com.sentix.infrastructure.config;
+
+import com.sentix.infrastructure.metrics.SentixMetrics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConcurrencyLimitFilterTest {
+
+    @Mock
+    private SentixMetrics metrics;
+
+    @Mock
+    private FilterChain filterChain;
+
+    @InjectMocks
+    private ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "minLimit", 1);
+        ReflectionTestUtils.setField(filter, "maxLimit", 10);
+        ReflectionTestUtils.setField(filter, "backoffRatio", 0.5);
+        ReflectionTestUtils.setField(filter, "retryAfterSeconds", 1);
+        ReflectionTestUtils.setField(filter, "aiInitial", 1);
+        ReflectionTestUtils.setField(filter, "aiLatencyThresholdMs", 1000L);
+        ReflectionTestUtils.setField(filter, "marketDataInitial", 4);
+        ReflectionTestUtils.setField(filter, "marketDataLatencyThresholdMs", 1000L);
+        ReflectionTestUtils.setField(filter, "portfolioInitial", 4);
+        ReflectionTestUtils.setField(filter, "portfolioLatencyThresholdMs", 1000L);
+        ReflectionTestUtils.setField(filter, "tradingInitial", 4);
+        ReflectionTestUtils.setField(filter, "tradingLatencyThresholdMs", 1000L);
+        filter.init();
+    }
+
+    @Test
+    @DisplayName("Request over the group limit is shed with 503 and Retry-After")
+    void limitReached_returns503() throws ServletException, IOException {
+        MockHttpServletResponse blocked = new MockHttpServletResponse();
+        // The chain of the first request re-enters the filter while it still holds the only AI slot
+        doAnswer(invocation -> {
+            filter.doFilter(new MockHttpServletRequest("POST", "/api/v1/ai/chat"), blocked, mock(FilterChain.class));
+            return null;
+        }).when(filterChain).doFilter(any(), any());
+
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/v1/ai/analyze/AAPL"), first, filterChain);
+
+        assertThat(first.getStatus()).isEqualTo(200);
+        assertThat(blocked.getStatus()).isEqualTo(503);
+        assertThat(blocked.getHeader("Retry-After")).isEqualTo("1");
+        verify(metrics).recordLoadShed("ai");
+        assertThat(filter.limiter("ai").getInFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("Server errors shrink the limit, ungrouped paths pass through")
+    void serverErrors_decreaseLimit() throws ServletException, IOException {
+        doAnswer(invocation -> {
+            ((MockHttpServletResponse) invocation.getArgument(1)).setStatus(502);
+            return null;
+        }).when(filterChain).doFilter(any(), any());
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/stocks/AAPL"),
+                new MockHttpServletResponse(), filterChain);
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/users/me"),
+                new MockHttpServletResponse(), filterChain);
+
+        assertThat(filter.limiter("market-data").getLimit()).isEqualTo(2);
+        verify(filterChain, times(2)).doFilter(any(), any());
+    }
+
+    @Test
+    @DisplayName("AIMD grows under fast, busy traffic and backs off on slow responses")
+    void aimdLimiter_adjustsLimit() {
+        AimdLimiter limiter = new AimdLimiter(2, 1, 3, 0.5, TimeUnit.MILLISECONDS.toNanos(100));
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(10), false);
+        assertThat(limiter.getLimit()).isEqualTo(3);
+
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(500), false);
+        assertThat(limiter.getLimit()).isEqualTo(1);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+}
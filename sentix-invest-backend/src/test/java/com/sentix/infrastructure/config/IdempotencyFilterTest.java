@@ -0,0 +1,154 @@
+package com.sentix.infrastructure.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sentix.domain.User;
+import com.sentix.test.TestDataFactory;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class IdempotencyFilterTest {
+
+    private static final String BUY = "/api/v1/trading/buy";
+
+    private IdempotencyStore store;
+    private IdempotencyFilter filter;
+    private User user;
+    private AtomicInteger executions;
+    private int responseStatus;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws ServletException, IOException {
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        ValueOperations<String, String> valueOperations = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(true);
+
+        store = new IdempotencyStore(redisTemplate, new ObjectMapper());
+        ReflectionTestUtils.setField(store, "keyPrefix", "idempotency:");
+        ReflectionTestUtils.setField(store, "ttlMs", 60000L);
+        ReflectionTestUtils.setField(store, "inFlightTtlMs", 10000L);
+        ReflectionTestUtils.setField(store, "maxLocalKeys", 1000L);
+        ReflectionTestUtils.setField(store, "retryAfterMs", 30000L);
+        store.init();
+
+        filter = new IdempotencyFilter(store);
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "paths", List.of(BUY, "/api/v1/payments/checkout"));
+
+        user = TestDataFactory.createUser();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, List.of()));
+        executions = new AtomicInteger();
+        responseStatus = 200;
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    /**
+     * Stands in for the controller: reads the body and answers with a numbered response.
+     */
+    private final FilterChain controller = (request, response) -> {
+        String body = new String(request.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        HttpServletResponse http = (HttpServletResponse) response;
+        http.setStatus(responseStatus);
+        http.setContentType("application/json");
+        http.getWriter().write("{\"execution\":" + executions.incrementAndGet() + ",\"request\":" + body + "}");
+    };
+
+    private MockHttpServletResponse post(String path, String key, String body) throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        if (key != null) {
+            request.addHeader(IdempotencyFilter.HEADER, key);
+        }
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, controller);
+        return response;
+    }
+
+    @Test
+    @DisplayName("A retry with the same key replays the first response without executing")
+    void retry_replaysResponse() throws ServletException, IOException {
+        MockHttpServletResponse first = post(BUY, "key-1", "{\"symbol\":\"AAPL\",\"quantity\":1}");
+        MockHttpServletResponse retry = post(BUY, "key-1", "{\"symbol\":\"AAPL\",\"quantity\":1}");
+
+        assertThat(executions).hasValue(1);
+        assertThat(first.getContentAsString()).contains("\"execution\":1").contains("AAPL");
+        assertThat(retry.getStatus()).isEqualTo(200);
+        assertThat(retry.getContentAsString()).isEqualTo(first.getContentAsString());
+        assertThat(retry.getContentType()).isEqualTo("application/json");
+        assertThat(retry.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+    }
+
+    @Test
+    @DisplayName("A failed response is not kept, so a retry executes again")
+    void failedResponse_isNotReplayed() throws ServletException, IOException {
+        responseStatus = 400;
+        post(BUY, "key-1", "{}");
+        responseStatus = 200;
+        MockHttpServletResponse retry = post(BUY, "key-1", "{}");
+
+        assertThat(executions).hasValue(2);
+        assertThat(retry.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isNull();
+    }
+
+    @Test
+    @DisplayName("Reusing a key with a different body is rejected")
+    void differentBody_returns422() throws ServletException, IOException {
+        post(BUY, "key-1", "{\"quantity\":1}");
+        MockHttpServletResponse reused = post(BUY, "key-1", "{\"quantity\":2}");
+
+        assertThat(reused.getStatus()).isEqualTo(422);
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("A retry while the original is running gets 409")
+    void inFlight_returns409() throws ServletException, IOException {
+        String body = "{}";
+        store.claim(user.getId() + ":" + BUY + ":key-1", IdempotencyFilter.fingerprint(body.getBytes()));
+
+        MockHttpServletResponse retry = post(BUY, "key-1", body);
+
+        assertThat(retry.getStatus()).isEqualTo(409);
+        assertThat(retry.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(executions).hasValue(0);
+    }
+
+    @Test
+    @DisplayName("Keys are scoped per endpoint, and requests without a key pass through")
+    void scoping_andMissingKey() throws ServletException, IOException {
+        post(BUY, "key-1", "{}");
+        post("/api/v1/payments/checkout", "key-1", "{}");
+        post(BUY, null, "{}");
+        post(BUY, null, "{}");
+
+        assertThat(executions).hasValue(4);
+    }
+}
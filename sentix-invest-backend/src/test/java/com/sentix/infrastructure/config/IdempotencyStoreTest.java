@@ -0,0 +1,94 @@
+package com.sentix.infrastructure.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class IdempotencyStoreTest {
+
+    private StringRedisTemplate redisTemplate;
+    private ValueOperations<String, String> valueOperations;
+    private IdempotencyStore store;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(StringRedisTemplate.class);
+        valueOperations = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+
+        store = new IdempotencyStore(redisTemplate, new ObjectMapper());
+        ReflectionTestUtils.setField(store, "keyPrefix", "idempotency:");
+        ReflectionTestUtils.setField(store, "ttlMs", 60000L);
+        ReflectionTestUtils.setField(store, "inFlightTtlMs", 10000L);
+        ReflectionTestUtils.setField(store, "maxLocalKeys", 1000L);
+        ReflectionTestUtils.setField(store, "retryAfterMs", 30000L);
+        store.init();
+    }
+
+    @Test
+    @DisplayName("A response completed on another replica is replayed from Redis, then from memory")
+    void completedElsewhere_replaysFromRedis() throws Exception {
+        IdempotencyStore.StoredResponse stored = new IdempotencyStore.StoredResponse("abc", 200,
+                "application/json", "{\"success\":true}".getBytes(StandardCharsets.UTF_8));
+        when(valueOperations.setIfAbsent(eq("idempotency:k"), anyString(), any(Duration.class))).thenReturn(false);
+        when(valueOperations.get("idempotency:k")).thenReturn(new ObjectMapper().writeValueAsString(stored));
+
+        IdempotencyStore.Claim first = store.claim("k", "abc");
+        IdempotencyStore.Claim second = store.claim("k", "abc");
+
+        assertThat(first.status()).isEqualTo(IdempotencyStore.Claim.Status.COMPLETED);
+        assertThat(first.response().body()).isEqualTo(stored.body());
+        assertThat(second.status()).isEqualTo(IdempotencyStore.Claim.Status.COMPLETED);
+        verify(valueOperations, times(1)).get("idempotency:k");
+    }
+
+    @Test
+    @DisplayName("A claim held on another replica reports the request as in progress")
+    void pendingElsewhere_isInProgress() {
+        when(valueOperations.setIfAbsent(eq("idempotency:k"), anyString(), any(Duration.class))).thenReturn(false);
+        when(valueOperations.get("idempotency:k")).thenReturn("pending:abc:other-token");
+
+        assertThat(store.claim("k", "abc").status()).isEqualTo(IdempotencyStore.Claim.Status.IN_PROGRESS);
+    }
+
+    @Test
+    @DisplayName("Unreachable Redis falls back to the local store and is not retried right away")
+    void redisUnavailable_usesLocalStore() {
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class)))
+                .thenThrow(new RedisConnectionFailureException("connection refused"));
+
+        IdempotencyStore.Claim claim = store.claim("k", "abc");
+        assertThat(claim.status()).isEqualTo(IdempotencyStore.Claim.Status.ACQUIRED);
+        assertThat(store.claim("k", "abc").status()).isEqualTo(IdempotencyStore.Claim.Status.IN_PROGRESS);
+
+        store.complete("k", claim.token(), new IdempotencyStore.StoredResponse("abc", 200, null, new byte[0]));
+        assertThat(store.claim("k", "abc").status()).isEqualTo(IdempotencyStore.Claim.Status.COMPLETED);
+        assertThat(store.isRedisAvailable()).isFalse();
+        verify(valueOperations, times(1)).setIfAbsent(anyString(), anyString(), any(Duration.class));
+        verify(valueOperations, never()).set(anyString(), anyString(), any(Duration.class));
+    }
+
+    @Test
+    @DisplayName("Releasing a claim lets the next attempt acquire it")
+    void release_allowsRetry() {
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(true);
+
+        IdempotencyStore.Claim claim = store.claim("k", "abc");
+        store.release("k", claim.token());
+
+        assertThat(store.claim("k", "abc").status()).isEqualTo(IdempotencyStore.Claim.Status.ACQUIRED);
+    }
+}
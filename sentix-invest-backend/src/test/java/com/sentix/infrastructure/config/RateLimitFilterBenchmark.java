@@ -0,0 +1,101 @@
+package com.sentix.infrastructure.config;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.Refill;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Throughput and retained memory of the rate limit bucket store under a large
+ * key space (scanning traffic), compared with the previous unbounded map.
+ * Every operation looks up a random key out of {@code keySpace} distinct keys and
+ * consumes a token. Retained heap and tracked keys are printed after each trial.
+ * Run with:
+ * {@code mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ * -Dexec.args="-cp %classpath com.sentix.infrastructure.config.RateLimitFilterBenchmark"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Threads(4)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class RateLimitFilterBenchmark {
+
+    private static final String PATH = "/api/v1/stocks/AAPL";
+
+    @Param({"1000000", "5000000"})
+    private int keySpace;
+
+    private RateLimitFilter filter;
+    private Map<String, Bucket> unbounded;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        filter = new RateLimitFilter(mock(ObjectProvider.class));
+        ReflectionTestUtils.setField(filter, "aiAnalyzeMinutes", 1);
+        ReflectionTestUtils.setField(filter, "aiChatMinutes", 1);
+        ReflectionTestUtils.setField(filter, "generalRequests", 60);
+        ReflectionTestUtils.setField(filter, "generalMinutes", 1);
+        ReflectionTestUtils.setField(filter, "maxTrackedKeys", 100000L);
+        filter.init();
+        unbounded = new ConcurrentHashMap<>();
+    }
+
+    @TearDown(Level.Trial)
+    public void report() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        long usedMb = (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024);
+        System.out.printf("%nkeySpace=%d bounded=%d unbounded=%d retainedHeap=%dMB%n",
+                keySpace, filter.trackedBuckets(), unbounded.size(), usedMb);
+        unbounded.clear();
+    }
+
+    @Benchmark
+    public boolean boundedStore() {
+        String key = "ip:" + ThreadLocalRandom.current().nextInt(keySpace) + ":general";
+        return filter.resolveBucket(key, PATH).tryConsume(1);
+    }
+
+    @Benchmark
+    public boolean unboundedMap() {
+        String key = "ip:" + ThreadLocalRandom.current().nextInt(keySpace) + ":general";
+        return unbounded.computeIfAbsent(key, k -> Bucket.builder()
+                .addLimit(Bandwidth.classic(60, Refill.greedy(60, Duration.ofMinutes(1))))
+                .build()).tryConsume(1);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RateLimitFilterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -2,14 +2,19 @@ package com.sentix.infrastructure.config;
 
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.io.IOException;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
@@ -21,7 +26,7 @@ class RateLimitFilterTest {
 
     @BeforeEach
     void setUp() {
-        filter = new RateLimitFilter();
+        filter = new RateLimitFilter(mock(ObjectProvider.class));
         filterChain = mock(FilterChain.class);
 
         // Set property values via reflection (normally injected by Spring @Value)
@@ -32,6 +37,13 @@ class RateLimitFilterTest {
         ReflectionTestUtils.setField(filter, "generalRequests", 5);
         ReflectionTestUtils.setField(filter, "generalMinutes", 1);
         ReflectionTestUtils.setField(filter, "rateLimitEnabled", true);
+        ReflectionTestUtils.setField(filter, "maxTrackedKeys", 1000L);
+        filter.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
     }
 
     @Test
@@ -204,4 +216,59 @@ class RateLimitFilterTest {
         filter.doFilter(otherReq, otherResp, filterChain);
         assertThat(otherResp.getStatus()).isEqualTo(200);
     }
+
+    @Test
+    @DisplayName("Authenticated requests share one bucket per user across IPs")
+    void authenticatedRequests_limitedPerUser() throws ServletException, IOException {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("alice@example.com", null, List.of()));
+
+        for (int i = 0; i < 5; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/portfolio");
+            request.setRemoteAddr("10.1.0." + i);
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(request, response, filterChain);
+            assertThat(response.getStatus()).isEqualTo(200);
+        }
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/portfolio");
+        request.setRemoteAddr("10.1.0.99");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, filterChain);
+        assertThat(response.getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    @DisplayName("Bucket store stays bounded under many distinct client IPs")
+    void bucketStore_isBounded() throws ServletException, IOException {
+        for (int i = 0; i < 5000; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/stocks/AAPL");
+            request.setRemoteAddr("10.2." + (i / 256) + "." + (i % 256));
+            filter.doFilter(request, new MockHttpServletResponse(), filterChain);
+        }
+
+        assertThat(filter.trackedBuckets()).isLessThanOrEqualTo(1000L);
+    }
+
+    @Test
+    @DisplayName("With the Redis store enabled the shared bucket decides")
+    @SuppressWarnings("unchecked")
+    void distributedStore_decidesLimit() throws ServletException, IOException {
+        RedisBucketStore redisBucketStore = mock(RedisBucketStore.class);
+        ObjectProvider<RedisBucketStore> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(redisBucketStore);
+        when(redisBucketStore.tryConsume(eq("ip:10.3.0.1:ai-chat"), any(), any())).thenReturn(false);
+        RateLimitFilter distributed = new RateLimitFilter(provider);
+        ReflectionTestUtils.setField(distributed, "rateLimitEnabled", true);
+        ReflectionTestUtils.setField(distributed, "maxTrackedKeys", 1000L);
+        distributed.init();
+
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/ai/chat");
+        request.setRemoteAddr("10.3.0.1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        distributed.doFilter(request, response, filterChain);
+
+        assertThat(response.getStatus()).isEqualTo(429);
+        verify(filterChain, never()).doFilter(any(), any());
+    }
 }
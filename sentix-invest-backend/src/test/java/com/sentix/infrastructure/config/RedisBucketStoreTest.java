@@ -0,0 +1,68 @@
+package com.sentix.infrastructure.config;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.Refill;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RedisBucketStoreTest {
+
+    private RedisBucketStore store;
+
+    @BeforeEach
+    void setUp() {
+        // Nothing listens on port 1, so every connection attempt is refused
+        RedisProperties properties = new RedisProperties();
+        properties.setHost("127.0.0.1");
+        properties.setPort(1);
+
+        store = new RedisBucketStore(properties);
+        ReflectionTestUtils.setField(store, "keyPrefix", "rate-limit:");
+        ReflectionTestUtils.setField(store, "maxUnsynchronizedTokens", 5L);
+        ReflectionTestUtils.setField(store, "syncIntervalMs", 1000L);
+        ReflectionTestUtils.setField(store, "commandTimeoutMs", 200L);
+        ReflectionTestUtils.setField(store, "retryAfterMs", 60000L);
+        ReflectionTestUtils.setField(store, "maxTrackedKeys", 1000L);
+        store.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.shutdown();
+    }
+
+    @Test
+    @DisplayName("Unreachable Redis falls back to the local bucket and is not retried right away")
+    void redisUnavailable_fallsBackToLocalBucket() {
+        Bucket local = Bucket.builder()
+                .addLimit(Bandwidth.classic(2, Refill.greedy(2, Duration.ofMinutes(1))))
+                .build();
+        AtomicInteger localLookups = new AtomicInteger();
+        Supplier<Bucket> localBucket = () -> {
+            localLookups.incrementAndGet();
+            return local;
+        };
+        Supplier<BucketConfiguration> configuration = () -> BucketConfiguration.builder()
+                .addLimit(Bandwidth.classic(2, Refill.greedy(2, Duration.ofMinutes(1))))
+                .build();
+
+        assertThat(store.tryConsume("ip:10.0.0.1:general", configuration, localBucket)).isTrue();
+        assertThat(store.isRedisAvailable()).isFalse();
+
+        assertThat(store.tryConsume("ip:10.0.0.1:general", configuration, localBucket)).isTrue();
+        assertThat(store.tryConsume("ip:10.0.0.1:general", configuration, localBucket)).isFalse();
+        assertThat(localLookups).hasValue(3);
+    }
+}
@@ -0,0 +1,174 @@
+package com.sentix.infrastructure.mcp;
+
+import com.sentix.infrastructure.metrics.SentixMetrics;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the client against a local HTTP stub whose faults are switched per test:
+ * healthy JSON, HTTP 500s, HTTP 404s, or requests held open until released.
+ */
+class McpClientTest {
+
+    private HttpServer stub;
+    private final AtomicReference<String> mode = new AtomicReference<>("ok");
+    private final AtomicInteger stubHits = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private CircuitBreakerRegistry circuitBreakers;
+    private McpClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        stub.setExecutor(Executors.newFixedThreadPool(4));
+        stub.createContext("/", this::handle);
+        stub.start();
+
+        circuitBreakers = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .slidingWindowSize(4)
+                .minimumNumberOfCalls(4)
+                .failureRateThreshold(50)
+                .waitDurationInOpenState(Duration.ofMinutes(1))
+                .recordException(new McpFailurePredicate())
+                .build());
+        BulkheadRegistry bulkheads = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(1)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+
+        client = new McpClient(WebClient.builder(), circuitBreakers, bulkheads,
+                new SentixMetrics(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(client, "mcpServerUrl", "http://127.0.0.1:" + stub.getAddress().getPort());
+        ReflectionTestUtils.setField(client, "fallbackCacheSize", 100L);
+        ReflectionTestUtils.setField(client, "maxStalenessMs", 60000L);
+        client.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        stub.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        stubHits.incrementAndGet();
+        String current = mode.get();
+        if (current.equals("hang") || exchange.getRequestURI().getPath().startsWith("/ai/hang")) {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        int status = switch (current) {
+            case "error" -> 500;
+            case "notfound" -> 404;
+            default -> 200;
+        };
+        byte[] body = "{\"symbol\":\"AAPL\",\"price\":189.5}".getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private Map<String, Object> quote() {
+        return client.getCached(McpClient.MARKET_BULKHEAD, "stock-quote", "stock:AAPL", Duration.ofSeconds(2),
+                c -> c.get().uri("/stock/{symbol}", "AAPL"));
+    }
+
+    @Test
+    @DisplayName("Open breaker serves the last good value marked stale without calling upstream")
+    void openBreaker_servesStaleValue() {
+        assertThat(quote()).containsEntry("price", 189.5).doesNotContainKey("stale");
+
+        mode.set("error");
+        for (int i = 0; i < 4; i++) {
+            assertThat(quote()).containsEntry("stale", true).containsKey("staleAsOf");
+        }
+        assertThat(circuitBreakers.circuitBreaker("mcp-stock-quote").getState())
+                .isEqualTo(CircuitBreaker.State.OPEN);
+
+        int hitsWhenOpened = stubHits.get();
+        Map<String, Object> stale = quote();
+
+        assertThat(stale).containsEntry("price", 189.5).containsEntry("stale", true);
+        assertThat(stubHits).hasValue(hitsWhenOpened);
+    }
+
+    @Test
+    @DisplayName("Open breaker without a cached value fails fast")
+    void openBreaker_noCachedValue_failsFast() {
+        mode.set("error");
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(this::quote).isInstanceOf(RuntimeException.class);
+        }
+
+        assertThatThrownBy(this::quote).isInstanceOf(CallNotPermittedException.class);
+    }
+
+    @Test
+    @DisplayName("Client errors do not open the breaker")
+    void clientErrors_doNotOpenBreaker() {
+        mode.set("notfound");
+        for (int i = 0; i < 8; i++) {
+            assertThatThrownBy(this::quote).isInstanceOf(WebClientResponseException.NotFound.class);
+        }
+
+        assertThat(circuitBreakers.circuitBreaker("mcp-stock-quote").getState())
+                .isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(stubHits).hasValue(8);
+    }
+
+    @Test
+    @DisplayName("A saturated AI bulkhead rejects AI calls but leaves quote calls unaffected")
+    void aiBulkhead_isolatedFromMarketCalls() throws Exception {
+        CompletableFuture<Map<String, Object>> slowAi = CompletableFuture.supplyAsync(() ->
+                client.getCached(McpClient.AI_BULKHEAD, "ai-analyze", "analysis:AAPL", Duration.ofSeconds(5),
+                        c -> c.get().uri("/ai/hang")));
+        while (stubHits.get() == 0) {
+            Thread.sleep(10);
+        }
+
+        assertThatThrownBy(() -> client.getCached(McpClient.AI_BULKHEAD, "ai-analyze", "analysis:MSFT",
+                Duration.ofSeconds(5), c -> c.get().uri("/ai/analyze/MSFT")))
+                .isInstanceOf(BulkheadFullException.class);
+        assertThat(quote()).containsEntry("price", 189.5);
+
+        release.countDown();
+        assertThat(slowAi.get(5, TimeUnit.SECONDS)).containsEntry("symbol", "AAPL");
+    }
+}
@@ -0,0 +1,163 @@
+package com.sentix.infrastructure.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sentix.domain.OutboxEvent;
+import com.sentix.domain.OutboxEventType;
+import com.sentix.infrastructure.metrics.SentixMetrics;
+import com.sentix.infrastructure.persistence.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class OutboxRelayTest {
+
+    record Ping(String value) {
+    }
+
+    /**
+     * Records what it receives and fails for payloads listed in {@code failing}.
+     */
+    static class PingConsumer implements OutboxConsumer<Ping> {
+
+        final List<String> received = new ArrayList<>();
+        final List<String> failing = new ArrayList<>();
+
+        @Override
+        public OutboxEventType type() {
+            return OutboxEventType.TRADE_EXECUTED;
+        }
+
+        @Override
+        public Class<Ping> payloadType() {
+            return Ping.class;
+        }
+
+        @Override
+        public void handle(Ping payload) {
+            received.add(payload.value());
+            if (failing.contains(payload.value())) {
+                throw new IllegalStateException("cannot handle " + payload.value());
+            }
+        }
+    }
+
+    private OutboxEventRepository repository;
+    private PingConsumer consumer;
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(OutboxEventRepository.class);
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(i -> i.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        consumer = new PingConsumer();
+
+        relay = new OutboxRelay(repository, List.of(consumer), new ObjectMapper(), transactionTemplate,
+                mock(SentixMetrics.class));
+        ReflectionTestUtils.setField(relay, "batchSize", 2);
+        ReflectionTestUtils.setField(relay, "maxBatches", 10);
+        ReflectionTestUtils.setField(relay, "claimTimeoutMs", 60000L);
+        ReflectionTestUtils.setField(relay, "maxAttempts", 3);
+        ReflectionTestUtils.setField(relay, "retryBackoffMs", 1000L);
+        relay.init();
+    }
+
+    private static OutboxEvent event(OutboxEventType type, String value, int attempts) {
+        return OutboxEvent.builder()
+                .id(UUID.randomUUID())
+                .type(type)
+                .aggregateId(UUID.randomUUID())
+                .payload("{\"value\":\"" + value + "\"}")
+                .attempts(attempts)
+                .availableAt(LocalDateTime.now())
+                .build();
+    }
+
+    @Test
+    @DisplayName("Delivered events are deleted and the claim pushes the rest out of reach of other relays")
+    void deliveredEvents_areDeleted() {
+        OutboxEvent first = event(OutboxEventType.TRADE_EXECUTED, "a", 0);
+        OutboxEvent second = event(OutboxEventType.TRADE_EXECUTED, "b", 0);
+        when(repository.lockAvailable(any(), eq(2))).thenReturn(List.of(first, second));
+
+        assertThat(relay.relayBatch()).isEqualTo(2);
+
+        assertThat(consumer.received).containsExactly("a", "b");
+        assertThat(first.getAttempts()).isEqualTo(1);
+        assertThat(first.getAvailableAt()).isAfter(LocalDateTime.now().plusSeconds(30));
+        verify(repository).deleteAllByIdInBatch(List.of(first.getId(), second.getId()));
+        verify(repository, never()).findAllById(any());
+    }
+
+    @Test
+    @DisplayName("Events left when half the claim timeout has passed are released unattempted")
+    void slowBatch_releasesRemainingEvents() {
+        ReflectionTestUtils.setField(relay, "claimTimeoutMs", 0L);
+        OutboxEvent first = event(OutboxEventType.TRADE_EXECUTED, "a", 0);
+        OutboxEvent second = event(OutboxEventType.TRADE_EXECUTED, "b", 2);
+        when(repository.lockAvailable(any(), eq(2))).thenReturn(List.of(first, second));
+        when(repository.findAllById(any())).thenReturn(List.of(first, second));
+
+        relay.relayBatch();
+
+        assertThat(consumer.received).isEmpty();
+        verify(repository).deleteAllByIdInBatch(List.of());
+        verify(repository).findAllById(List.of(first.getId(), second.getId()));
+        assertThat(first.getAttempts()).isZero();
+        assertThat(second.getAttempts()).isEqualTo(2);
+        assertThat(second.getAvailableAt()).isBeforeOrEqualTo(LocalDateTime.now());
+    }
+
+    @Test
+    @DisplayName("A failed event is retried with backoff, then parked after max attempts")
+    void failedEvents_backOffThenPark() {
+        OutboxEvent retried = event(OutboxEventType.TRADE_EXECUTED, "retry", 0);
+        OutboxEvent exhausted = event(OutboxEventType.TRADE_EXECUTED, "park", 2);
+        consumer.failing.addAll(List.of("retry", "park"));
+        when(repository.lockAvailable(any(), eq(2))).thenReturn(List.of(retried, exhausted));
+        when(repository.findAllById(any())).thenReturn(List.of(retried, exhausted));
+
+        relay.relayBatch();
+
+        verify(repository).deleteAllByIdInBatch(List.of());
+        assertThat(retried.getAvailableAt()).isBetween(LocalDateTime.now(), LocalDateTime.now().plusSeconds(2));
+        assertThat(retried.getLastError()).contains("cannot handle retry");
+        assertThat(exhausted.getAttempts()).isEqualTo(3);
+        assertThat(exhausted.getAvailableAt()).isNull();
+    }
+
+    @Test
+    @DisplayName("Events without a consumer are dropped, and full batches are drained in one run")
+    void relay_drainsFullBatches() {
+        when(repository.lockAvailable(any(), eq(2)))
+                .thenReturn(List.of(event(OutboxEventType.PAYMENT_COMPLETED, "x", 0),
+                        event(OutboxEventType.PAYMENT_COMPLETED, "y", 0)))
+                .thenReturn(List.of(event(OutboxEventType.PAYMENT_COMPLETED, "z", 0)));
+
+        relay.relay();
+
+        verify(repository, times(2)).lockAvailable(any(), eq(2));
+        verify(repository, times(2)).deleteAllByIdInBatch(anyIterable());
+        assertThat(consumer.received).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Backoff doubles with each attempt")
+    void backoff_doubles() {
+        assertThat(relay.backoffMs(1)).isEqualTo(1000L);
+        assertThat(relay.backoffMs(4)).isEqualTo(8000L);
+    }
+}
@@ -0,0 +1,79 @@
+package com.sentix.infrastructure.persistence;
+
+import com.sentix.domain.PortfolioSnapshot;
+import com.sentix.domain.User;
+import com.sentix.test.TestDataFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The upsert is Postgres-specific SQL, so it runs against a real Postgres container.
+ * Skipped when Docker is not available.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class PortfolioSnapshotUpsertTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+    }
+
+    @Autowired private TestEntityManager entityManager;
+    @Autowired private PortfolioSnapshotRepository snapshotRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Upsert inserts new rows and updates the same user/date/mode in place")
+    void upsertAll_insertsThenUpdates() {
+        User user = TestDataFactory.createUser("upsert@example.com", "Upsert User");
+        user.setId(null);
+        entityManager.persistAndFlush(user);
+
+        snapshotRepository.upsertAll(List.of(snapshot(user, "1000", false)));
+        snapshotRepository.upsertAll(List.of(snapshot(user, "1250", false), snapshot(user, "300", true)));
+
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "select total_value, is_paper from portfolio_snapshots where user_id = ? order by is_paper",
+                user.getId());
+        assertThat(rows).hasSize(2);
+        assertThat((BigDecimal) rows.get(0).get("total_value")).isEqualByComparingTo("1250");
+        assertThat((BigDecimal) rows.get(1).get("total_value")).isEqualByComparingTo("300");
+    }
+
+    private static PortfolioSnapshot snapshot(User user, String totalValue, boolean isPaper) {
+        return PortfolioSnapshot.builder()
+                .user(user)
+                .snapshotDate(LocalDate.now())
+                .totalValue(new BigDecimal(totalValue))
+                .totalCostBasis(new BigDecimal("900"))
+                .cashBalance(BigDecimal.ZERO)
+                .holdingsCount(1)
+                .isPaper(isPaper)
+                .build();
+    }
+}
@@ -0,0 +1,118 @@
+package com.sentix.infrastructure.persistence;
+
+import com.sentix.domain.PortfolioHolding;
+import com.sentix.domain.PortfolioSnapshot;
+import com.sentix.domain.User;
+import com.sentix.domain.Watchlist;
+import com.sentix.test.TestDataFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Read paths select straight into records: one statement per query and no entity
+ * hydration, checked through Hibernate statistics. The entity path is kept as the
+ * baseline that shows the N+1 the projections remove.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class ReadProjectionQueryTest {
+
+    private static final int HOLDINGS = 5;
+    private static final int SNAPSHOT_DAYS = 10;
+
+    @Autowired private TestEntityManager entityManager;
+    @Autowired private PortfolioHoldingRepository holdingRepository;
+    @Autowired private WatchlistRepository watchlistRepository;
+    @Autowired private PortfolioSnapshotRepository snapshotRepository;
+
+    private Statistics statistics;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = TestDataFactory.createUser("projection@example.com", "Projection User");
+        user.setId(null);
+        entityManager.persist(user);
+
+        for (int i = 0; i < HOLDINGS; i++) {
+            PortfolioHolding holding = TestDataFactory.createHolding(
+                    user, "SYM" + i, "Company " + i, 10 + i, new BigDecimal("100.00"));
+            holding.setId(null);
+            entityManager.persist(holding);
+            entityManager.persist(Watchlist.builder().user(user).symbol("SYM" + i).stockName("Company " + i).build());
+        }
+        LocalDate today = LocalDate.now();
+        for (int day = 0; day < SNAPSHOT_DAYS; day++) {
+            entityManager.persist(PortfolioSnapshot.builder()
+                    .user(user)
+                    .snapshotDate(today.minusDays(day))
+                    .totalValue(BigDecimal.valueOf(1000 + day))
+                    .totalCostBasis(BigDecimal.valueOf(900))
+                    .cashBalance(BigDecimal.ZERO)
+                    .holdingsCount(HOLDINGS)
+                    .isPaper(false)
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("Holding views load in one statement without hydrating entities")
+    void holdingViews_noEntityLoads() {
+        List<PortfolioHoldingView> views = holdingRepository.findViewsByUserAndIsPaper(user, false);
+
+        assertThat(views).hasSize(HOLDINGS);
+        assertThat(views.get(0).totalCostBasis()).isPositive();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Entity path hydrates every holding and loads the lazy user on first access")
+    void holdingEntities_baseline() {
+        List<PortfolioHolding> holdings = holdingRepository.findByUserAndIsPaper(user, false);
+        holdings.forEach(holding -> holding.getUser().getPreferredCurrency());
+
+        assertThat(statistics.getEntityLoadCount()).isEqualTo(HOLDINGS + 1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Watchlist page and performance history read projections only")
+    void watchlistAndSnapshotViews_noEntityLoads() {
+        Page<WatchlistView> page = watchlistRepository.findViewsByUser(user, PageRequest.of(0, 2));
+        List<SnapshotValueView> values = snapshotRepository.findValuesByUserAndIsPaperBetween(
+                user, false, LocalDate.now().minusDays(30), LocalDate.now());
+
+        assertThat(page.getContent()).hasSize(2);
+        assertThat(page.getTotalElements()).isEqualTo(HOLDINGS);
+        assertThat(values).hasSize(SNAPSHOT_DAYS)
+                .extracting(SnapshotValueView::snapshotDate)
+                .isSorted();
+        // page select, page count, snapshot select
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+}
@@ -0,0 +1,163 @@
+package com.sentix.infrastructure.persistence;
+
+import com.sentix.api.portfolio.PortfolioSnapshotService;
+import com.sentix.api.stock.StockQuoteDto;
+import com.sentix.api.stock.StockService;
+import com.sentix.api.trading.BatchTradeRequest;
+import com.sentix.api.trading.BatchTradeResponse;
+import com.sentix.api.trading.BuyRequest;
+import com.sentix.api.trading.TradeResponse;
+import com.sentix.api.trading.TradingService;
+import com.sentix.domain.PortfolioHolding;
+import com.sentix.domain.TransactionType;
+import com.sentix.domain.User;
+import com.sentix.test.TestDataFactory;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Statements sent by the trade and snapshot write paths themselves, counted with
+ * Hibernate statistics. Runs against Postgres because the snapshot upsert and the
+ * outbox claim are Postgres SQL; skipped when Docker is not available. Background
+ * jobs that would add their own statements are switched off.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "outbox.relay.enabled=false",
+        "orders.match.enabled=false",
+        "portfolio.snapshot.batch-size=2"
+})
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+class ServiceWriteBatchingTest {
+
+    private static final String SYMBOL = "AAPL";
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+    }
+
+    @MockitoBean private StockService stockService;
+    @MockitoSpyBean private JdbcTemplate jdbcTemplate;
+
+    @Autowired private TradingService tradingService;
+    @Autowired private PortfolioSnapshotService snapshotService;
+    @Autowired private UserRepository userRepository;
+    @Autowired private PortfolioHoldingRepository holdingRepository;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        StockQuoteDto quote = StockQuoteDto.builder().symbol(SYMBOL).name("Apple Inc.").price(10.0).build();
+        when(stockService.getStockQuote(anyString())).thenReturn(quote);
+        when(stockService.getStockQuotes(anyCollection())).thenReturn(Map.of(SYMBOL, quote));
+    }
+
+    @Test
+    @DisplayName("A buy sends its reads plus one insert statement per table it writes")
+    void buyStock_writesOneStatementPerTable() {
+        User user = newUser();
+        statistics.clear();
+
+        TradeResponse response = tradingService.buyStock(user, new BuyRequest(SYMBOL, 1));
+
+        assertThat(response.success()).isTrue();
+        // Holding, transaction, tax lot, ledger entry, outbox event
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(5);
+        // Cached balance (a miss here), then under the lock account, ledger position, holding
+        // and lots reads, then the five inserts in one flush
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("A basket's inserts are batched per table, so statements do not grow with its legs")
+    void executeBatch_statementsDoNotGrowWithLegs() {
+        int legs = 20;
+        User user = newUser();
+        statistics.clear();
+
+        BatchTradeResponse response = tradingService.executeBatch(user, new BatchTradeRequest(
+                Collections.nCopies(legs, new BatchTradeRequest.Leg(TransactionType.BUY, SYMBOL, 1)),
+                BatchTradeRequest.FailureMode.ALL_OR_NOTHING));
+
+        assertThat(response.success()).isTrue();
+        // A transaction and a tax lot per leg, at least
+        assertThat(statistics.getEntityInsertCount()).isGreaterThanOrEqualTo(2L * legs);
+        // Unbatched this is at least one statement per inserted row
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(15);
+    }
+
+    @Test
+    @DisplayName("The nightly job reads holdings once per user and upserts snapshots one batch per chunk")
+    void takeNightlySnapshots_upsertsOneBatchPerChunk() {
+        for (int i = 0; i < 5; i++) {
+            User user = newUser();
+            PortfolioHolding holding = TestDataFactory.createHolding(
+                    user, SYMBOL, "Apple Inc.", 1, new BigDecimal("10.00"));
+            holding.setId(null);
+            holdingRepository.save(holding);
+        }
+        long users = userRepository.count();
+        long snapshots = holdingRepository.findAll().stream()
+                .map(holding -> holding.getUser().getId() + ":" + holding.getIsPaper())
+                .distinct()
+                .count();
+        clearInvocations(jdbcTemplate);
+        statistics.clear();
+
+        snapshotService.takeNightlySnapshots();
+
+        // portfolio.snapshot.batch-size=2: one JDBC batch per started chunk of two
+        verify(jdbcTemplate, times((int) ((snapshots + 1) / 2)))
+                .batchUpdate(eq(PortfolioSnapshotUpsertImpl.UPSERT_SQL), anyList());
+        assertThat(statistics.getEntityInsertCount()).isZero();
+        assertThat(statistics.getEntityUpdateCount()).isZero();
+        // Users once, holdings once per user, at most one ledger position read per snapshot
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(1 + users + snapshots);
+    }
+
+    private User newUser() {
+        User user = TestDataFactory.createUser("batch-" + UUID.randomUUID() + "@example.com", "Batch User");
+        user.setId(null);
+        return userRepository.save(user);
+    }
+}
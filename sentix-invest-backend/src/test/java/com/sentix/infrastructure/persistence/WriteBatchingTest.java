@@ -0,0 +1,65 @@
+package com.sentix.infrastructure.persistence;
+
+import com.sentix.domain.PortfolioHolding;
+import com.sentix.domain.Transaction;
+import com.sentix.domain.TransactionType;
+import com.sentix.domain.User;
+import com.sentix.test.TestDataFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Ids are generated in the JVM (GenerationType.UUID), so Hibernate can group the
+ * inserts and updates of a flush into JDBC batches instead of one round trip per row.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class WriteBatchingTest {
+
+    private static final int ROWS = 100;
+
+    @Autowired private TestEntityManager entityManager;
+    @Autowired private TransactionRepository transactionRepository;
+    @Autowired private PortfolioHoldingRepository holdingRepository;
+
+    @Test
+    @DisplayName("A flush of interleaved trade writes is sent as a few batched statements")
+    void tradeWrites_areBatched() {
+        User user = TestDataFactory.createUser("batch@example.com", "Batch User");
+        user.setId(null);
+        entityManager.persistAndFlush(user);
+
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Interleaved like a run of trades; ordered inserts regroup them by table
+        for (int i = 0; i < ROWS; i++) {
+            PortfolioHolding holding = TestDataFactory.createHolding(
+                    user, "SYM" + i, "Company " + i, 1, new BigDecimal("10.00"));
+            holding.setId(null);
+            holdingRepository.save(holding);
+            Transaction transaction = TestDataFactory.createTransaction(
+                    user, "SYM" + i, "Company " + i, TransactionType.BUY, 1, new BigDecimal("10.00"));
+            transaction.setId(null);
+            transactionRepository.save(transaction);
+        }
+        entityManager.flush();
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(2L * ROWS);
+        // Unbatched this is one statement per row (200)
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(10);
+    }
+}
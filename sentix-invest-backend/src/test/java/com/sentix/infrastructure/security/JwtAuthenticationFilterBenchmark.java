@@ -0,0 +1,108 @@
+package com.sentix.infrastructure.security;
+
+import com.sentix.domain.User;
+import com.sentix.test.TestDataFactory;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.crypto.SecretKey;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of JWT authentication.
+ * <ul>
+ *   <li>legacyTripleParse - the previous path: key decoded and parser built on every
+ *       call, token parsed three times</li>
+ *   <li>singleParse - one parse with the prebuilt parser, no claims cache</li>
+ *   <li>cachedClaims - claims served from the verified-token cache</li>
+ *   <li>filterPerRequest - the whole filter with a cached token and an in-memory user lookup</li>
+ * </ul>
+ * Run with:
+ * {@code mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ * -Dexec.args="-cp %classpath com.sentix.infrastructure.security.JwtAuthenticationFilterBenchmark"}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private JwtService jwtService;
+    private JwtAuthenticationFilter filter;
+    private User user;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jwtService = JwtServiceTest.newJwtService(86400000L);
+        user = TestDataFactory.createUser();
+        token = jwtService.generateToken(user);
+        filter = new JwtAuthenticationFilter(jwtService, username -> user);
+        jwtService.verifiedClaims(token);
+    }
+
+    @Benchmark
+    public boolean legacyTripleParse() {
+        String username = legacyClaims(token).getSubject();
+        return username.equals(user.getUsername())
+                && legacyClaims(token).getSubject().equals(username)
+                && !legacyClaims(token).getExpiration().before(new Date());
+    }
+
+    @Benchmark
+    public boolean singleParse() {
+        return jwtService.isTokenValid(jwtService.parseAndVerify(token), user);
+    }
+
+    @Benchmark
+    public boolean cachedClaims() {
+        return jwtService.isTokenValid(jwtService.verifiedClaims(token), user);
+    }
+
+    @Benchmark
+    public int filterPerRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/portfolio");
+        request.addHeader("Authorization", "Bearer " + token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request, response, new MockFilterChain());
+            return response.getStatus();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private Claims legacyClaims(String jwt) {
+        SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(JwtServiceTest.SECRET));
+        return Jwts.parser().verifyWith(key).build().parseSignedClaims(jwt).getPayload();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtAuthenticationFilterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,81 @@
+package com.sentix.infrastructure.security;
+
+import com.sentix.domain.User;
+import com.sentix.test.TestDataFactory;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class JwtServiceTest {
+
+    static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    private JwtService jwtService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = newJwtService(86400000L);
+        user = TestDataFactory.createUser();
+    }
+
+    static JwtService newJwtService(long expirationMs) {
+        JwtService service = new JwtService();
+        ReflectionTestUtils.setField(service, "secretKey", SECRET);
+        ReflectionTestUtils.setField(service, "jwtExpiration", expirationMs);
+        ReflectionTestUtils.setField(service, "refreshExpiration", expirationMs);
+        ReflectionTestUtils.setField(service, "claimsCacheSize", 100L);
+        service.init();
+        return service;
+    }
+
+    @Test
+    @DisplayName("Valid token verifies once and is then served from the claims cache")
+    void verifiedClaims_validToken_parsedOnce() {
+        JwtService spy = spy(jwtService);
+        String token = spy.generateToken(user);
+
+        Claims first = spy.verifiedClaims(token);
+        Claims second = spy.verifiedClaims(token);
+
+        assertThat(first.getSubject()).isEqualTo(user.getEmail());
+        assertThat(second).isSameAs(first);
+        assertThat(spy.isTokenValid(first, user)).isTrue();
+        verify(spy, times(1)).parseAndVerify(token);
+    }
+
+    @Test
+    @DisplayName("Tampered token is rejected without throwing")
+    void verifiedClaims_tamperedToken_returnsNull() {
+        String token = jwtService.generateToken(user);
+        int signatureStart = token.lastIndexOf('.') + 1;
+        char flipped = token.charAt(signatureStart) == 'A' ? 'B' : 'A';
+        String tampered = token.substring(0, signatureStart) + flipped + token.substring(signatureStart + 1);
+
+        assertThat(jwtService.verifiedClaims(tampered)).isNull();
+        assertThat(jwtService.verifiedClaims("not-a-jwt")).isNull();
+        assertThat(jwtService.isTokenValid(tampered, user)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Expired token is rejected")
+    void verifiedClaims_expiredToken_returnsNull() {
+        String token = newJwtService(-1000L).generateToken(user);
+
+        assertThat(jwtService.verifiedClaims(token)).isNull();
+    }
+
+    @Test
+    @DisplayName("Claims for a different user do not validate")
+    void isTokenValid_otherUser_returnsFalse() {
+        Claims claims = jwtService.verifiedClaims(jwtService.generateToken(user));
+
+        assertThat(jwtService.isTokenValid(claims, TestDataFactory.createUser("other@example.com", "Other")))
+                .isFalse();
+    }
+}
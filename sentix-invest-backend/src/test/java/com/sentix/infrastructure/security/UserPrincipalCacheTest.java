@@ -0,0 +1,118 @@
+package com.sentix.infrastructure.security;
+
+import com.sentix.domain.User;
+import com.sentix.infrastructure.persistence.UserRepository;
+import com.sentix.test.TestDataFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserPrincipalCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @InjectMocks
+    private UserPrincipalCache cache;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(cache, "maximumSize", 100L);
+        ReflectionTestUtils.setField(cache, "ttlMs", 60000L);
+        cache.init();
+        user = TestDataFactory.createUser();
+    }
+
+    @Test
+    @DisplayName("Repeated loads hit the database once and return independent copies")
+    void load_cachesAndReturnsCopies() {
+        when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
+
+        User first = cache.load(user.getEmail());
+        first.setBalance(BigDecimal.ZERO);
+        User second = cache.load(user.getEmail());
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getBalance()).isEqualByComparingTo("10000.00");
+        verify(userRepository, times(1)).findByEmail(user.getEmail());
+    }
+
+    @Test
+    @DisplayName("Evicted users are reloaded")
+    void evict_forcesReload() {
+        when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
+
+        cache.load(user.getEmail());
+        cache.evict(user.getEmail());
+        cache.load(user.getEmail());
+
+        verify(userRepository, times(2)).findByEmail(user.getEmail());
+    }
+
+    @Test
+    @DisplayName("Evictions are broadcast so other replicas drop their copy")
+    void evict_publishesToOtherReplicas() {
+        cache.evict(user.getEmail());
+
+        verify(redisTemplate).convertAndSend(UserPrincipalCache.EVICTION_CHANNEL, user.getEmail());
+    }
+
+    @Test
+    @DisplayName("A failed broadcast does not fail the eviction")
+    void evict_redisDown_stillEvictsLocally() {
+        when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
+        doThrow(new RuntimeException("connection refused"))
+                .when(redisTemplate).convertAndSend(UserPrincipalCache.EVICTION_CHANNEL, user.getEmail());
+
+        cache.load(user.getEmail());
+        cache.evict(user.getEmail());
+        cache.load(user.getEmail());
+
+        verify(userRepository, times(2)).findByEmail(user.getEmail());
+    }
+
+    @Test
+    @DisplayName("Evictions received from another replica drop the local entry without republishing")
+    void invalidateLocal_forcesReload() {
+        when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
+
+        cache.load(user.getEmail());
+        cache.invalidateLocal(user.getEmail());
+        cache.load(user.getEmail());
+
+        verify(userRepository, times(2)).findByEmail(user.getEmail());
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    @DisplayName("Unknown users are not cached and raise UsernameNotFoundException")
+    void load_unknownUser_throws() {
+        when(userRepository.findByEmail("missing@example.com")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> cache.load("missing@example.com"))
+                .isInstanceOf(UsernameNotFoundException.class);
+        assertThatThrownBy(() -> cache.load("missing@example.com"))
+                .isInstanceOf(UsernameNotFoundException.class);
+        verify(userRepository, times(2)).findByEmail("missing@example.com");
+    }
+}
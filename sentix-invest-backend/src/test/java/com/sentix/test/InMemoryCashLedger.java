@@ -0,0 +1,86 @@
+package com.sentix.test;
+
+import com.sentix.api.ledger.CashLedgerService;
+import com.sentix.domain.CashLedgerEntry;
+import com.sentix.domain.User;
+import com.sentix.infrastructure.metrics.SentixMetrics;
+import com.sentix.infrastructure.persistence.CashLedgerRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+
+/**
+ * A real {@link CashLedgerService} over a ledger table kept in memory. Inserts
+ * enforce the per-account sequence constraint like the database does.
+ */
+public class InMemoryCashLedger {
+
+    private final List<CashLedgerEntry> entries = new ArrayList<>();
+    private final CashLedgerRepository repository = mock(CashLedgerRepository.class);
+    private final CashLedgerService service;
+
+    public InMemoryCashLedger() {
+        lenient().when(repository.saveAll(anyIterable())).thenAnswer(i -> insert(i.getArgument(0)));
+        lenient().when(repository.findTopByUserIdAndIsPaperOrderBySequenceDesc(any(), anyBoolean()))
+                .thenAnswer(i -> latest(i.getArgument(0), i.getArgument(1)));
+
+        service = new CashLedgerService(repository, new SentixMetrics(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(service, "maximumSize", 1000L);
+        ReflectionTestUtils.setField(service, "ttlMs", 60000L);
+        ReflectionTestUtils.invokeMethod(service, "init");
+    }
+
+    public CashLedgerService service() {
+        return service;
+    }
+
+    public CashLedgerRepository repository() {
+        return repository;
+    }
+
+    /**
+     * Balance as the database sees it, bypassing the service's cache.
+     */
+    public BigDecimal balance(User user, boolean isPaper) {
+        return latest(user.getId(), isPaper)
+                .map(CashLedgerEntry::getBalanceAfter)
+                .orElse(isPaper ? user.getPaperBalance() : user.getBalance());
+    }
+
+    public synchronized List<CashLedgerEntry> entries() {
+        return List.copyOf(entries);
+    }
+
+    private synchronized List<CashLedgerEntry> insert(Iterable<CashLedgerEntry> batch) {
+        List<CashLedgerEntry> inserted = new ArrayList<>();
+        for (CashLedgerEntry entry : batch) {
+            boolean taken = entries.stream().anyMatch(e -> e.getUserId().equals(entry.getUserId())
+                    && e.getIsPaper().equals(entry.getIsPaper())
+                    && e.getSequence().equals(entry.getSequence()));
+            if (taken) {
+                throw new DataIntegrityViolationException(
+                        "duplicate key value violates unique constraint \"uk_cash_ledger_account_sequence\"");
+            }
+            inserted.add(entry);
+        }
+        entries.addAll(inserted);
+        return inserted;
+    }
+
+    private synchronized Optional<CashLedgerEntry> latest(UUID userId, boolean isPaper) {
+        return entries.stream()
+                .filter(e -> e.getUserId().equals(userId) && e.getIsPaper() == isPaper)
+                .max(Comparator.comparing(CashLedgerEntry::getSequence));
+    }
+}
@@ -0,0 +1,128 @@
+package com.sentix.test;
+
+import com.sentix.api.lots.TaxLotService;
+import com.sentix.api.stock.StockService;
+import com.sentix.domain.LotDisposal;
+import com.sentix.domain.LotMethod;
+import com.sentix.domain.TaxLot;
+import com.sentix.infrastructure.persistence.LotDisposalRepository;
+import com.sentix.infrastructure.persistence.PortfolioHoldingRepository;
+import com.sentix.infrastructure.persistence.TaxLotRepository;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+
+/**
+ * A real {@link TaxLotService} over lot and disposal tables kept in memory. Reads
+ * hand out copies, the way a fresh persistence context would, so a trade that
+ * is rolled back and retried does not see the lots it changed.
+ */
+public class InMemoryTaxLots {
+
+    private final Map<UUID, TaxLot> lots = new LinkedHashMap<>();
+    private final List<LotDisposal> disposals = new ArrayList<>();
+    private final TaxLotRepository lotRepository = mock(TaxLotRepository.class);
+    private final LotDisposalRepository disposalRepository = mock(LotDisposalRepository.class);
+    private final PortfolioHoldingRepository holdingRepository = mock(PortfolioHoldingRepository.class);
+    private final StockService stockService = mock(StockService.class);
+    private final TaxLotService service;
+
+    public InMemoryTaxLots() {
+        this(LotMethod.FIFO);
+    }
+
+    public InMemoryTaxLots(LotMethod method) {
+        lenient().when(lotRepository.findByUserIdAndIsPaperAndSymbolOrderByAcquiredAtAscIdAsc(any(), anyBoolean(), any()))
+                .thenAnswer(i -> find(i.getArgument(0), i.getArgument(1), i.getArgument(2)));
+        lenient().when(lotRepository.saveAll(anyIterable())).thenAnswer(i -> save(i.getArgument(0)));
+        lenient().doAnswer(i -> delete(i.getArgument(0))).when(lotRepository).deleteAll(anyIterable());
+        lenient().when(disposalRepository.saveAll(anyIterable())).thenAnswer(i -> record(i.getArgument(0)));
+
+        service = new TaxLotService(lotRepository, disposalRepository, holdingRepository, stockService);
+        ReflectionTestUtils.setField(service, "method", method);
+    }
+
+    public TaxLotService service() {
+        return service;
+    }
+
+    public PortfolioHoldingRepository holdingRepository() {
+        return holdingRepository;
+    }
+
+    public StockService stockService() {
+        return stockService;
+    }
+
+    /**
+     * Open lots, oldest first, as stored.
+     */
+    public synchronized List<TaxLot> lots() {
+        return lots.values().stream()
+                .sorted(Comparator.comparing(TaxLot::getAcquiredAt))
+                .map(InMemoryTaxLots::copy)
+                .toList();
+    }
+
+    public synchronized List<LotDisposal> disposals() {
+        return List.copyOf(disposals);
+    }
+
+    private synchronized List<TaxLot> find(UUID userId, boolean isPaper, String symbol) {
+        return lots().stream()
+                .filter(lot -> lot.getUserId().equals(userId) && lot.getIsPaper() == isPaper
+                        && lot.getSymbol().equals(symbol))
+                .toList();
+    }
+
+    private synchronized List<TaxLot> save(Iterable<TaxLot> batch) {
+        List<TaxLot> saved = new ArrayList<>();
+        for (TaxLot lot : batch) {
+            if (lot.getId() == null) {
+                lot.setId(UUID.randomUUID());
+            }
+            lots.put(lot.getId(), copy(lot));
+            saved.add(lot);
+        }
+        return saved;
+    }
+
+    private synchronized Void delete(Iterable<TaxLot> batch) {
+        batch.forEach(lot -> lots.remove(lot.getId()));
+        return null;
+    }
+
+    private synchronized List<LotDisposal> record(Iterable<LotDisposal> batch) {
+        List<LotDisposal> saved = new ArrayList<>();
+        for (LotDisposal disposal : batch) {
+            disposal.setId(UUID.randomUUID());
+            saved.add(disposal);
+        }
+        disposals.addAll(saved);
+        return saved;
+    }
+
+    private static TaxLot copy(TaxLot lot) {
+        return TaxLot.builder()
+                .id(lot.getId())
+                .userId(lot.getUserId())
+                .isPaper(lot.getIsPaper())
+                .symbol(lot.getSymbol())
+                .openTransaction(lot.getOpenTransaction())
+                .acquiredAt(lot.getAcquiredAt())
+                .quantity(lot.getQuantity())
+                .remainingQuantity(lot.getRemainingQuantity())
+                .costPerShare(lot.getCostPerShare())
+                .realizedProfitLoss(lot.getRealizedProfitLoss())
+                .build();
+    }
+}
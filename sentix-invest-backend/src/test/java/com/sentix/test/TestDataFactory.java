@@ -2,6 +2,7 @@ package com.sentix.test;
 
 import com.sentix.domain.*;
 import com.sentix.api.stock.StockQuoteDto;
+import com.sentix.infrastructure.persistence.PortfolioHoldingView;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -55,6 +56,12 @@ public class TestDataFactory {
         return holding;
     }
 
+    public static PortfolioHoldingView createHoldingView(PortfolioHolding holding) {
+        return new PortfolioHoldingView(holding.getId(), holding.getSymbol(), holding.getStockName(),
+                holding.getQuantity(), holding.getAveragePurchasePrice(), holding.getRealizedProfitLoss(),
+                holding.getCurrency());
+    }
+
     public static Transaction createTransaction(User user, String symbol, String name,
                                                   TransactionType type, int quantity,
                                                   BigDecimal price) {